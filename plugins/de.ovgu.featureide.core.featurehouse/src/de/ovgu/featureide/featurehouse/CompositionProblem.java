@@ -0,0 +1,143 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.File;
+import java.util.List;
+
+import cide.gparser.ParseException;
+import composer.CompositionException;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTTerminal;
+
+/**
+ * An error that occurred during the composition of a product in a {@link CompositionWorker}.<br/> Contains the location of the problem, such that the
+ * corresponding problem marker can be created in the process of the IDE.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompositionProblem {
+
+	public enum Type {
+		/**
+		 * A feature module could not be parsed (see {@link ParseException}).
+		 */
+		PARSE,
+		/**
+		 * Two feature modules could not be composed (see {@link CompositionException}).
+		 */
+		COMPOSITION,
+		/**
+		 * Any other error without a location.
+		 */
+		OTHER
+	}
+
+	private static final String ORIGINAL = "\\original";
+
+	/**
+	 * @param e the parse error
+	 * @param errorFiles the files, in which errors occurred so far
+	 * @return the problem
+	 */
+	public static CompositionProblem create(ParseException e, List<File> errorFiles) {
+		final String file = errorFiles.isEmpty() ? null : errorFiles.get(errorFiles.size() - 1).getAbsolutePath();
+		final int line = ((e.currentToken != null) && (e.currentToken.next != null)) ? e.currentToken.next.endLine : -1;
+		return new CompositionProblem(Type.PARSE, file, line, e.getMessage());
+	}
+
+	/**
+	 * @param e the composition error
+	 * @param baseDirectory the directory that contains the feature modules
+	 * @return the problem
+	 */
+	public static CompositionProblem create(CompositionException e, String baseDirectory) {
+		final FSTTerminal terminal = getTerminal(e);
+		final FSTNode fileNode = getFileNode(terminal);
+		if ((fileNode == null) || (fileNode.getParent() == null)) {
+			return new CompositionProblem(Type.COMPOSITION, null, -1, e.getMessage());
+		}
+		final File file = new File(new File(baseDirectory, fileNode.getParent().getName()), fileNode.getName());
+		return new CompositionProblem(Type.COMPOSITION, file.getAbsolutePath(), terminal.beginLine, e.getMessage());
+	}
+
+	/**
+	 * @return the terminal that causes the given composition error
+	 */
+	public static FSTTerminal getTerminal(CompositionException e) {
+		FSTTerminal terminal = e.getTerminalB();
+		if (e.getMessage().contains(ORIGINAL)) {
+			if (!e.getTerminalB().getBody().contains(ORIGINAL)) {
+				terminal = e.getTerminalA();
+			}
+		}
+		return terminal;
+	}
+
+	/**
+	 * @return the node of the Java file that contains the given terminal, or {@code null}
+	 */
+	public static FSTNode getFileNode(FSTTerminal terminal) {
+		if (terminal == null) {
+			return null;
+		}
+		FSTNode fileNode = terminal.getParent();
+		while ((fileNode != null) && !fileNode.getName().endsWith(".java")) {
+			fileNode = fileNode.getParent();
+		}
+		return fileNode;
+	}
+
+	private final Type type;
+	private final String file;
+	private final int line;
+	private final String message;
+
+	/**
+	 * @param type the type of the problem
+	 * @param file the absolute path of the file that contains the problem or {@code null} if it is unknown
+	 * @param line the line of the problem or {@code -1} if it is unknown
+	 * @param message the message of FeatureHouse
+	 */
+	public CompositionProblem(Type type, String file, int line, String message) {
+		this.type = type;
+		this.file = file;
+		this.line = line;
+		this.message = String.valueOf(message);
+	}
+
+	public Type getType() {
+		return type;
+	}
+
+	public String getFile() {
+		return file;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+}
@@ -0,0 +1,255 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.lang.ProcessBuilder.Redirect;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+
+import cide.gparser.ParseException;
+import composer.CmdLineInterpreter;
+import composer.CompositionException;
+import composer.FSTGenComposer;
+import composer.ICompositionErrorListener;
+import composer.IParseErrorListener;
+
+/**
+ * Composes products with FeatureHouse in a separate process.<br/> FeatureHouse keeps the parsed trees in static fields, so it cannot compose several
+ * products in parallel within one virtual machine. Each worker process composes one product at a time and keeps its own {@link FSTCache}, so that a
+ * feature module is parsed only once per worker.<br/> The worker reads one line for each product from its standard input, which contains the command line
+ * arguments of FeatureHouse separated by tabs, and answers with a line that is either {@value #OK} or starts with {@value #ERROR} followed by the type,
+ * file, line, and message of each {@link CompositionProblem}. If a worker does not answer within the timeout, its process is terminated.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompositionWorker implements Closeable {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static final String SEPARATOR = "\t";
+	private static final String OK = "OK";
+	private static final String ERROR = "ERROR";
+
+	/**
+	 * The default time in milliseconds to wait for the composition of one product.
+	 */
+	public static final long DEFAULT_TIMEOUT = 600000;
+
+	private static final Timer WATCHDOG = new Timer("FeatureHouse Composition Watchdog", true);
+
+	/**
+	 * Entry point of a worker process.
+	 *
+	 * @param args not used
+	 * @throws IOException if the standard input or output is closed unexpectedly
+	 */
+	public static void main(String[] args) throws IOException {
+		// FeatureHouse writes its log to the standard output, which is reserved for the answers
+		final PrintStream out = System.out;
+		System.setOut(System.err);
+		FSTGenComposer.outStream = System.err;
+
+		final FSTCache cache = new FSTCache();
+		final BufferedReader in = new BufferedReader(new InputStreamReader(System.in, CHARSET));
+		for (String line = in.readLine(); line != null; line = in.readLine()) {
+			final List<CompositionProblem> problems = compose(cache, line.split(SEPARATOR));
+			if (problems.isEmpty()) {
+				out.println(OK);
+			} else {
+				final StringBuilder answer = new StringBuilder(ERROR);
+				for (final CompositionProblem problem : problems) {
+					answer.append(SEPARATOR);
+					answer.append(problem.getType().name());
+					answer.append(SEPARATOR);
+					answer.append(problem.getFile() == null ? "" : escape(problem.getFile()));
+					answer.append(SEPARATOR);
+					answer.append(problem.getLine());
+					answer.append(SEPARATOR);
+					answer.append(escape(problem.getMessage()));
+				}
+				out.println(answer);
+			}
+			out.flush();
+		}
+	}
+
+	private static String escape(String text) {
+		return text.replace('\n', ' ').replace('\r', ' ').replace('\t', ' ');
+	}
+
+	private static List<CompositionProblem> compose(FSTCache cache, String[] arguments) {
+		final List<CompositionProblem> problems = new ArrayList<>();
+		final FSTGenComposer composer = new FSTGenComposer(false);
+		final String baseDirectory = getArgument(arguments, CmdLineInterpreter.INPUT_OPTION_BASE_DIRECTORY);
+		composer.addParseErrorListener(new IParseErrorListener() {
+
+			@Override
+			public void parseErrorOccured(ParseException e) {
+				problems.add(CompositionProblem.create(e, composer.getErrorFiles()));
+			}
+		});
+		composer.addCompositionErrorListener(new ICompositionErrorListener() {
+
+			@Override
+			public void parseErrorOccured(CompositionException e) {
+				problems.add(CompositionProblem.create(e, baseDirectory));
+			}
+		});
+		cache.install(composer, getArgument(arguments, CmdLineInterpreter.INPUT_OPTION_CONTRACT_STYLE));
+		try {
+			composer.run(arguments);
+		} catch (final Throwable e) {
+			problems.add(new CompositionProblem(CompositionProblem.Type.OTHER, null, -1, e.getMessage()));
+		}
+		return problems;
+	}
+
+	private static String getArgument(String[] arguments, String option) {
+		for (int i = 0; i < (arguments.length - 1); i++) {
+			if (option.equals(arguments[i])) {
+				return arguments[i + 1];
+			}
+		}
+		return "";
+	}
+
+	private final Process process;
+	private final BufferedWriter requests;
+	private final BufferedReader answers;
+	private final long timeout;
+
+	private long lastUse = System.currentTimeMillis();
+	private volatile boolean timedOut = false;
+
+	/**
+	 * Starts a worker process with the {@link #DEFAULT_TIMEOUT default timeout}.
+	 *
+	 * @param command the command that starts a virtual machine and calls {@link #main(String[])}
+	 * @throws IOException if the process cannot be started
+	 */
+	public CompositionWorker(List<String> command) throws IOException {
+		this(command, DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * Starts a worker process.
+	 *
+	 * @param command the command that starts a virtual machine and calls {@link #main(String[])}
+	 * @param timeout the time in milliseconds to wait for the composition of one product
+	 * @throws IOException if the process cannot be started
+	 */
+	public CompositionWorker(List<String> command, long timeout) throws IOException {
+		this.timeout = timeout;
+		process = new ProcessBuilder(command).redirectError(Redirect.INHERIT).start();
+		requests = new BufferedWriter(new OutputStreamWriter(process.getOutputStream(), CHARSET));
+		answers = new BufferedReader(new InputStreamReader(process.getInputStream(), CHARSET));
+	}
+
+	/**
+	 * Composes a product.
+	 *
+	 * @param arguments the command line arguments of FeatureHouse
+	 * @return the problems that occurred during composition, or an empty list
+	 * @throws InterruptedIOException if the worker did not answer within the timeout (the worker process is terminated)
+	 * @throws IOException if the worker process terminated
+	 */
+	public synchronized List<CompositionProblem> compose(String[] arguments) throws IOException {
+		final StringBuilder request = new StringBuilder();
+		for (final String argument : arguments) {
+			if (request.length() > 0) {
+				request.append(SEPARATOR);
+			}
+			request.append(argument);
+		}
+		requests.write(request.toString());
+		requests.newLine();
+		requests.flush();
+
+		final TimerTask watchdog = new TimerTask() {
+
+			@Override
+			public void run() {
+				timedOut = true;
+				process.destroy();
+			}
+		};
+		WATCHDOG.schedule(watchdog, timeout);
+		final String answer;
+		try {
+			answer = answers.readLine();
+		} catch (final IOException e) {
+			if (timedOut) {
+				throw new InterruptedIOException("Composition worker did not answer within " + timeout + " ms.");
+			}
+			throw e;
+		} finally {
+			watchdog.cancel();
+		}
+		lastUse = System.currentTimeMillis();
+		if (answer == null) {
+			if (timedOut) {
+				throw new InterruptedIOException("Composition worker did not answer within " + timeout + " ms.");
+			}
+			throw new IOException("Composition worker terminated unexpectedly.");
+		}
+		final List<CompositionProblem> problems = new ArrayList<>();
+		if (!OK.equals(answer)) {
+			final String[] parts = answer.split(SEPARATOR, -1);
+			for (int i = 1; (i + 3) < parts.length; i += 4) {
+				final String file = parts[i + 1].isEmpty() ? null : parts[i + 1];
+				problems.add(new CompositionProblem(CompositionProblem.Type.valueOf(parts[i]), file, Integer.parseInt(parts[i + 2]), parts[i + 3]));
+			}
+		}
+		return problems;
+	}
+
+	/**
+	 * @return the time of the last composition in milliseconds
+	 */
+	public long getLastUse() {
+		return lastUse;
+	}
+
+	/**
+	 * Terminates the worker process.
+	 */
+	@Override
+	public void close() {
+		try {
+			requests.close();
+		} catch (final IOException e) {
+			// process already terminated
+		}
+		process.destroy();
+	}
+
+}
@@ -0,0 +1,141 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Timer;
+import java.util.TimerTask;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Pool of {@link CompositionWorker composition workers}, which allows to compose several products in parallel.<br/> Workers are started on demand and
+ * terminated after they have been idle for a while.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompositionWorkerPool {
+
+	private static final long IDLE_TIMEOUT = 60000;
+
+	private final List<String> command;
+	private final long timeout;
+	private final Semaphore availableWorkers;
+	private final LinkedList<CompositionWorker> idleWorkers = new LinkedList<>();
+
+	private Timer idleTimer = null;
+
+	/**
+	 * @param command the command that starts a virtual machine and calls {@link CompositionWorker#main(String[])}
+	 * @param maximumWorkers the maximum number of worker processes
+	 */
+	public CompositionWorkerPool(List<String> command, int maximumWorkers) {
+		this(command, maximumWorkers, CompositionWorker.DEFAULT_TIMEOUT);
+	}
+
+	/**
+	 * @param command the command that starts a virtual machine and calls {@link CompositionWorker#main(String[])}
+	 * @param maximumWorkers the maximum number of worker processes
+	 * @param timeout the time in milliseconds to wait for the composition of one product
+	 */
+	public CompositionWorkerPool(List<String> command, int maximumWorkers, long timeout) {
+		this.command = new ArrayList<>(command);
+		this.timeout = timeout;
+		availableWorkers = new Semaphore(maximumWorkers, true);
+	}
+
+	/**
+	 * Composes a product in one of the worker processes. Blocks while all workers are busy.
+	 *
+	 * @param arguments the command line arguments of FeatureHouse
+	 * @return the problems that occurred during composition, or an empty list
+	 * @throws InterruptedIOException if the worker did not answer within the timeout
+	 * @throws IOException if no worker could be started or the worker terminated
+	 * @throws InterruptedException if the current thread is interrupted while waiting for a worker
+	 */
+	public List<CompositionProblem> compose(String[] arguments) throws IOException, InterruptedException {
+		availableWorkers.acquire();
+		try {
+			CompositionWorker worker;
+			synchronized (idleWorkers) {
+				worker = idleWorkers.pollFirst();
+			}
+			if (worker == null) {
+				worker = new CompositionWorker(command, timeout);
+			}
+			final List<CompositionProblem> problems;
+			try {
+				problems = worker.compose(arguments);
+			} catch (final IOException e) {
+				worker.close();
+				throw e;
+			}
+			synchronized (idleWorkers) {
+				idleWorkers.addFirst(worker);
+				startIdleTimer();
+			}
+			return problems;
+		} finally {
+			availableWorkers.release();
+		}
+	}
+
+	private void startIdleTimer() {
+		if (idleTimer == null) {
+			idleTimer = new Timer("FeatureHouse Composition Workers", true);
+			idleTimer.schedule(new TimerTask() {
+
+				@Override
+				public void run() {
+					closeIdleWorkers(System.currentTimeMillis() - IDLE_TIMEOUT);
+				}
+			}, IDLE_TIMEOUT, IDLE_TIMEOUT);
+		}
+	}
+
+	private void closeIdleWorkers(long lastUse) {
+		synchronized (idleWorkers) {
+			for (final Iterator<CompositionWorker> iterator = idleWorkers.iterator(); iterator.hasNext();) {
+				final CompositionWorker worker = iterator.next();
+				if (worker.getLastUse() <= lastUse) {
+					iterator.remove();
+					worker.close();
+				}
+			}
+			if (idleWorkers.isEmpty() && (idleTimer != null)) {
+				idleTimer.cancel();
+				idleTimer = null;
+			}
+		}
+	}
+
+	/**
+	 * Terminates all idle workers.
+	 */
+	public void shutdown() {
+		closeIdleWorkers(Long.MAX_VALUE);
+	}
+
+}
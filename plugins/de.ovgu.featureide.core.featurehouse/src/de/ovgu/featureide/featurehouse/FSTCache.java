@@ -0,0 +1,200 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.StringTokenizer;
+import java.util.concurrent.ConcurrentHashMap;
+
+import builder.ArtifactBuilder;
+import builder.ArtifactBuilderInterface;
+import cide.gparser.ParseException;
+import composer.FSTGenProcessor;
+import de.ovgu.cide.fstgen.ast.AbstractFSTParser;
+import de.ovgu.cide.fstgen.ast.FSTNode;
+import de.ovgu.cide.fstgen.ast.FSTNonTerminal;
+import de.ovgu.cide.fstgen.ast.FSTTerminal;
+
+/**
+ * Cache for the feature structure trees of parsed source files.<br/> The trees are stored by the content hash of their files, so that a feature module is
+ * only parsed once, even if many products are composed. As the composition modifies the trees, every composer gets its own copies.<br/> This class only
+ * depends on FeatureHouse, because it is also used by the {@link CompositionWorker}.
+ *
+ * @author FeatureIDE Team
+ */
+public class FSTCache {
+
+	/**
+	 * Wraps an artifact builder of FeatureHouse and parses files only if their trees are not cached.
+	 */
+	private final class CachingArtifactBuilder extends ArtifactBuilder {
+
+		private final ArtifactBuilder builder;
+		private final String variant;
+
+		public CachingArtifactBuilder(ArtifactBuilder builder, String variant) {
+			super(new String[0]);
+			this.builder = builder;
+			this.variant = variant;
+		}
+
+		@Override
+		public boolean acceptFile(File file) {
+			return builder.acceptFile(file);
+		}
+
+		@Override
+		public void setBaseDirectoryName(String baseDirectoryName) {
+			super.setBaseDirectoryName(baseDirectoryName);
+			builder.setBaseDirectoryName(baseDirectoryName);
+		}
+
+		@Override
+		public void setPreprocessNode(boolean preprocessNode) {
+			super.setPreprocessNode(preprocessNode);
+			builder.setPreprocessNode(preprocessNode);
+		}
+
+		@Override
+		public void processNode(FSTNonTerminal parent, StringTokenizer pathTokens, File file) throws FileNotFoundException, ParseException {
+			final StringBuilder path = new StringBuilder();
+			while (pathTokens.hasMoreTokens()) {
+				path.append(File.separator);
+				path.append(pathTokens.nextToken());
+			}
+			final String key = getKey(builder.getClass().getName(), variant, path.toString(), file);
+
+			final List<FSTNode> cachedTrees = (key == null) ? null : trees.get(key);
+			if (cachedTrees == null) {
+				final FSTNonTerminal tempParent = new FSTNonTerminal(parent.getType(), parent.getName());
+				builder.processNode(tempParent, new StringTokenizer(path.toString(), File.separator), file);
+				final List<FSTNode> parsedTrees = new ArrayList<>(tempParent.getChildren());
+				if (key != null) {
+					final List<FSTNode> copiedTrees = new ArrayList<>(parsedTrees.size());
+					for (final FSTNode parsedTree : parsedTrees) {
+						copiedTrees.add(copy(parsedTree));
+					}
+					trees.put(key, Collections.unmodifiableList(copiedTrees));
+				}
+				for (final FSTNode parsedTree : parsedTrees) {
+					parent.addChild(parsedTree);
+				}
+			} else {
+				for (final FSTNode cachedTree : cachedTrees) {
+					final FSTNode tree = copy(cachedTree);
+					registerNonTerminals(tree);
+					parent.addChild(tree);
+				}
+			}
+		}
+	}
+
+	private final ConcurrentHashMap<String, List<FSTNode>> trees = new ConcurrentHashMap<>();
+
+	/**
+	 * Replaces the artifact builders of a composer, such that the composer uses the trees of this cache.
+	 *
+	 * @param composer the composer
+	 * @param variant the options of the composer that influence parsing (e.g., the contract composition style), which are part of the key of a tree
+	 */
+	public void install(FSTGenProcessor composer, String variant) {
+		final List<ArtifactBuilderInterface> builders = new ArrayList<>(composer.getArtifactBuilders());
+		for (final ArtifactBuilderInterface builder : builders) {
+			composer.unregisterArtifactBuilder(builder);
+		}
+		for (final ArtifactBuilderInterface builder : builders) {
+			if ((builder instanceof ArtifactBuilder) && !(builder instanceof CachingArtifactBuilder)) {
+				composer.registerArtifactBuilder(new CachingArtifactBuilder((ArtifactBuilder) builder, variant));
+			} else {
+				composer.registerArtifactBuilder(builder);
+			}
+		}
+	}
+
+	/**
+	 * @return the number of cached files
+	 */
+	public int size() {
+		return trees.size();
+	}
+
+	public void clear() {
+		trees.clear();
+	}
+
+	private static String getKey(String builder, String variant, String path, File file) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			final byte[] hash = digest.digest(Files.readAllBytes(file.toPath()));
+			return builder + '|' + variant + '|' + path + '|' + new BigInteger(1, hash).toString(16);
+		} catch (NoSuchAlgorithmException | IOException e) {
+			// file is parsed without caching
+			return null;
+		}
+	}
+
+	/**
+	 * Copies a tree including the line numbers of its terminals, which are not copied by {@link FSTNode#getDeepClone()}.
+	 */
+	private static FSTNode copy(FSTNode node) {
+		if (node.getClass() == FSTNonTerminal.class) {
+			final FSTNonTerminal nonTerminal = (FSTNonTerminal) node;
+			final FSTNonTerminal copy = new FSTNonTerminal(nonTerminal.getType(), nonTerminal.getName());
+			for (final FSTNode child : nonTerminal.getChildren()) {
+				copy.addChild(copy(child));
+			}
+			copy.index = node.index;
+			return copy;
+		} else if (node.getClass() == FSTTerminal.class) {
+			final FSTTerminal terminal = (FSTTerminal) node;
+			final FSTTerminal copy = new FSTTerminal(terminal.getType(), terminal.getName(), terminal.getBody(), terminal.getSpecialTokenPrefix(),
+					terminal.getCompositionMechanism(), terminal.getMergingMechanism(), terminal.beginLine, terminal.endLine);
+			copy.setContractCompKey(terminal.getContractCompKey());
+			copy.setOriginalFeatureName(terminal.getOriginalFeatureName());
+			copy.index = node.index;
+			return copy;
+		} else {
+			return node.getDeepClone();
+		}
+	}
+
+	/**
+	 * Adds all non-terminals of a tree to the global list of FeatureHouse, as its parsers do.
+	 */
+	private static void registerNonTerminals(FSTNode node) {
+		if (node instanceof FSTNonTerminal) {
+			for (final FSTNode child : ((FSTNonTerminal) node).getChildren()) {
+				registerNonTerminals(child);
+			}
+			AbstractFSTParser.fstnodes.add(node);
+		}
+	}
+
+}
@@ -24,10 +24,13 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.io.UnsupportedEncodingException;
+import java.net.URL;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
@@ -41,6 +44,7 @@ import org.eclipse.core.resources.IProject;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.resources.IResourceDelta;
 import org.eclipse.core.runtime.CoreException;
+import org.eclipse.core.runtime.FileLocator;
 import org.eclipse.core.runtime.IPath;
 import org.eclipse.core.runtime.QualifiedName;
 import org.eclipse.jdt.core.IClasspathAttribute;
@@ -51,6 +55,8 @@ import org.eclipse.jdt.core.JavaModelException;
 import org.eclipse.jdt.internal.core.ClasspathEntry;
 import org.eclipse.jdt.internal.core.JavaProject;
 import org.eclipse.jface.dialogs.MessageDialog;
+import org.osgi.framework.Bundle;
+import org.osgi.framework.Constants;
 import org.prop4j.Node;
 import org.prop4j.NodeWriter;
 import org.sat4j.specs.TimeoutException;
@@ -149,6 +155,17 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	private ErrorPropagation errorPropagation = null;
 
+	/**
+	 * Parsed feature modules for the composition of products within this virtual machine.
+	 */
+	private final FSTCache fstCache = new FSTCache();
+
+	/**
+	 * Composes products in separate processes, <code>null</code> if not initialized.
+	 */
+	private static CompositionWorkerPool workerPool = null;
+	private static boolean workerPoolAvailable = true;
+
 	private final IParseErrorListener listener = createParseErrorListener();
 
 	private IParseErrorListener createParseErrorListener() {
@@ -169,29 +186,11 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 			@Override
 			public void parseErrorOccured(CompositionException e) {
-				FSTTerminal terminal = e.getTerminalB();
-
-				if (e.getMessage().contains(ORIGINAL)) {
-					if (!e.getTerminalB().getBody().contains(ORIGINAL)) {
-						terminal = e.getTerminalA();
-					}
-				}
-
-				IFile file = null;
-				int lineFile = -1;
+				final FSTTerminal terminal = CompositionProblem.getTerminal(e);
 				if (terminal != null) {
-					file = getFile(terminal);
-					lineFile = terminal.beginLine;
-
+					final IFile file = getFile(terminal);
 					if (file != null) {
-						try {
-							final IMarker marker = file.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
-							marker.setAttribute(IMarker.LINE_NUMBER, lineFile);
-							marker.setAttribute(IMarker.MESSAGE, e.getMessage());
-							marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
-						} catch (final CoreException e2) {
-							LOGGER.logError(e2);
-						}
+						createCompositionProblemMarker(file, terminal.beginLine, e.getMessage());
 					} else {
 						LOGGER.logError(new Exception("No file provided for: " + terminal.toString()));
 					}
@@ -202,10 +201,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 				if (terminal == null) {
 					return null;
 				}
-				FSTNode fileNode = terminal.getParent();
-				while ((fileNode != null) && !fileNode.getName().endsWith(".java")) {
-					fileNode = fileNode.getParent();
-				}
+				final FSTNode fileNode = CompositionProblem.getFileNode(terminal);
 				if (fileNode != null) {
 					final FSTNode featureNode = fileNode.getParent();
 					return featureProject.getSourceFolder().getFolder(featureNode.getName()).getFile(fileNode.getName());
@@ -233,9 +229,20 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	 * @param message The message.
 	 */
 	protected void createBuilderProblemMarker(int line, String message) {
+		createBuilderProblemMarker(getErrorFile(), line, message);
+	}
+
+	/**
+	 * Creates an error marker at the given file.
+	 *
+	 * @param file The file containing the error.
+	 * @param line The line of the marker.
+	 * @param message The message.
+	 */
+	protected void createBuilderProblemMarker(IFile file, int line, String message) {
 		message = detruncateString(message);
 		try {
-			final IMarker marker = getErrorFile().createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
+			final IMarker marker = file.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
 			marker.setAttribute(IMarker.LINE_NUMBER, line);
 			marker.setAttribute(IMarker.MESSAGE, message);
 			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_ERROR);
@@ -245,6 +252,58 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 
 	}
 
+	/**
+	 * Creates a warning marker for a composition error at the given file.
+	 *
+	 * @param file The file containing the error.
+	 * @param line The line of the marker.
+	 * @param message The message.
+	 */
+	private void createCompositionProblemMarker(IFile file, int line, String message) {
+		try {
+			final IMarker marker = file.createMarker(FeatureHouseCorePlugin.BUILDER_PROBLEM_MARKER);
+			marker.setAttribute(IMarker.LINE_NUMBER, line);
+			marker.setAttribute(IMarker.MESSAGE, message);
+			marker.setAttribute(IMarker.SEVERITY, IMarker.SEVERITY_WARNING);
+		} catch (final CoreException e) {
+			LOGGER.logError(e);
+		}
+	}
+
+	/**
+	 * Creates the same markers for the problems of a {@link CompositionWorker} as the error listeners of an {@link FSTGenComposer} within this virtual
+	 * machine.
+	 *
+	 * @param problems The problems reported by the worker.
+	 * @param congurationName The name of the composed configuration.
+	 */
+	private void createMarkers(List<CompositionProblem> problems, String congurationName) {
+		for (final CompositionProblem problem : problems) {
+			final IFile file = (problem.getFile() == null) ? null : getFileForLocation(problem.getFile());
+			if (file == null) {
+				LOGGER.logWarning(congurationName + ": " + problem.getMessage());
+				continue;
+			}
+			switch (problem.getType()) {
+			case PARSE:
+				createBuilderProblemMarker(file, problem.getLine(), problem.getMessage());
+				break;
+			case COMPOSITION:
+				createCompositionProblemMarker(file, problem.getLine(), problem.getMessage());
+				break;
+			case OTHER:
+			default:
+				LOGGER.logWarning(congurationName + ": " + problem.getMessage());
+				break;
+			}
+		}
+	}
+
+	private IFile getFileForLocation(String location) {
+		final IFile[] files = featureProject.getProject().getWorkspace().getRoot().findFilesForLocationURI(new File(location).toURI());
+		return (files.length > 0) ? files[0] : null;
+	}
+
 	/**
 	 * @param message The message
 	 * @return A substring of message that is smaller than 65535 bytes.
@@ -369,6 +428,7 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	@Override
 	public void performFullBuild(IFile config) {
 		assert (featureProject != null) : "Invalid project given";
+		fstCache.clear();
 
 		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(config);
 		if (temporaryConfigrationFile == null) {
@@ -1046,35 +1106,172 @@ public class FeatureHouseComposer extends ComposerExtensionClass {
 	public void buildConfiguration(IFolder folder, Configuration configuration, String congurationName) {
 		super.buildConfiguration(folder, configuration, congurationName);
 		final IFile configurationFile = folder.getFile(congurationName + '.' + getConfigurationExtension());
-		final FSTGenComposer composer = new FSTGenComposer(false);
-		composer.addParseErrorListener(createParseErrorListener());
-		composer.addCompositionErrorListener(createCompositionErrorListener());
 		final Path temporaryConfigrationFile = createTemporaryConfigrationFile(configurationFile);
 		if (temporaryConfigrationFile == null) {
 			return;
 		}
-		composer.run(
-				getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter()));
-		if ((errorPropagation != null) && (errorPropagation.job != null)) {
-			/*
-			 * Waiting for the propagation job to finish, because the corresponding FSTModel is necessary for propagation at FH This is in general no problem
-			 * because the compiler is much faster then the composer
-			 */
+		final String[] arguments =
+			getArguments(temporaryConfigrationFile.toString(), featureProject.getSourcePath(), folder.getLocation().toOSString(), getContractParameter());
+
+		final CompositionWorkerPool workerPool = canComposeInWorker() ? getWorkerPool() : null;
+		if (workerPool != null) {
 			try {
-				errorPropagation.job.join();
+				createMarkers(workerPool.compose(arguments), congurationName);
+				return;
 			} catch (final InterruptedException e) {
-				LOGGER.logError(e);
+				Thread.currentThread().interrupt();
+				return;
+			} catch (final InterruptedIOException e) {
+				// the worker was terminated, composing the product again would most likely take as long
+				LOGGER.logError(congurationName + ": " + e.getMessage(), e);
+				return;
+			} catch (final IOException e) {
+				// the worker could not be started or terminated unexpectedly, compose this and all following products within this virtual machine
+				if (disableWorkerPool()) {
+					LOGGER.logError(e);
+				}
 			}
 		}
-		fhModelBuilder.buildModel(composer.getFstnodes(), false);
+
+		// FeatureHouse stores the parsed trees in static fields
+		synchronized (FSTGenComposer.class) {
+			final FSTGenComposer composer = new FSTGenComposer(false);
+			composer.addParseErrorListener(createParseErrorListener());
+			composer.addCompositionErrorListener(createCompositionErrorListener());
+			fstCache.install(composer, getContractParameter());
+			composer.run(arguments);
+			if ((errorPropagation != null) && (errorPropagation.job != null)) {
+				/*
+				 * Waiting for the propagation job to finish, because the corresponding FSTModel is necessary for propagation at FH This is in general no
+				 * problem because the compiler is much faster then the composer
+				 */
+				try {
+					errorPropagation.job.join();
+				} catch (final InterruptedException e) {
+					LOGGER.logError(e);
+				}
+			}
+			fhModelBuilder.buildModel(composer.getFstnodes(), false);
+		}
 	}
 
 	/**
-	 * FeatureHouse causes access violation errors if it is executed parallel.
+	 * FeatureHouse causes access violation errors if it is executed parallel, because it stores the parsed trees in static fields. Therefore, products are
+	 * composed in separate processes (see {@link CompositionWorker}), if possible.
 	 */
 	@Override
 	public boolean canGeneratInParallelJobs() {
-		return false;
+		return canComposeInWorker();
+	}
+
+	/**
+	 * Products can only be composed in a worker process, if the FST model of the product is not needed. The model cannot be transferred from the worker,
+	 * but it is needed to propagate the problem markers of a compiled product to the feature modules. Thus, products are composed within this virtual
+	 * machine, as soon as error propagation is active for this project.
+	 *
+	 * @return <code>true</code> if products can be composed by a {@link CompositionWorker}
+	 */
+	private boolean canComposeInWorker() {
+		return (errorPropagation == null) && (getWorkerPool() != null);
+	}
+
+	/**
+	 * @return the pool of composition workers, or <code>null</code> if worker processes cannot be started
+	 */
+	private static synchronized CompositionWorkerPool getWorkerPool() {
+		if ((workerPool == null) && workerPoolAvailable) {
+			final List<String> command = getWorkerCommand();
+			if (command == null) {
+				workerPoolAvailable = false;
+			} else {
+				workerPool = new CompositionWorkerPool(command, Runtime.getRuntime().availableProcessors());
+			}
+		}
+		return workerPool;
+	}
+
+	/**
+	 * Prevents that further products are composed in worker processes, such that {@link #canGeneratInParallelJobs()} returns <code>false</code>.
+	 *
+	 * @return <code>true</code> if the worker processes were not disabled before
+	 */
+	private static synchronized boolean disableWorkerPool() {
+		final boolean wasAvailable = workerPoolAvailable;
+		workerPoolAvailable = false;
+		shutdownWorkerPool();
+		return wasAvailable;
+	}
+
+	/**
+	 * Terminates all idle composition workers.
+	 */
+	static synchronized void shutdownWorkerPool() {
+		if (workerPool != null) {
+			workerPool.shutdown();
+			workerPool = null;
+		}
+	}
+
+	/**
+	 * @return the command that starts a worker process, or <code>null</code> if the class path of FeatureHouse is not accessible
+	 */
+	private static List<String> getWorkerCommand() {
+		final FeatureHouseCorePlugin plugin = FeatureHouseCorePlugin.getDefault();
+		if (plugin == null) {
+			return null;
+		}
+		final Bundle bundle = plugin.getBundle();
+		try {
+			final URL featureHouseJar = FileLocator.find(bundle, new org.eclipse.core.runtime.Path("lib/FeatureHouse.jar"), null);
+			final File bundleFile = FileLocator.getBundleFile(bundle);
+			if ((featureHouseJar == null) || (bundleFile == null)) {
+				return null;
+			}
+			final StringBuilder classPath = new StringBuilder();
+			for (final String entry : getBundleClassPath(bundle)) {
+				if (".".equals(entry)) {
+					appendClassPath(classPath, bundleFile);
+					if (bundleFile.isDirectory()) {
+						// plug-in is not packed, e.g., if it is started from a workspace
+						appendClassPath(classPath, new File(bundleFile, "bin"));
+					}
+				} else {
+					final URL url = FileLocator.find(bundle, new org.eclipse.core.runtime.Path(entry), null);
+					if (url != null) {
+						appendClassPath(classPath, new File(FileLocator.toFileURL(url).getPath()));
+					}
+				}
+			}
+			final String java = System.getProperty("java.home") + File.separator + "bin" + File.separator + "java";
+			return Arrays.asList(java, "-cp", classPath.toString(), CompositionWorker.class.getName());
+		} catch (final IOException e) {
+			LOGGER.logError(e);
+			return null;
+		}
+	}
+
+	/**
+	 * @return the entries of the <code>Bundle-ClassPath</code> header of the given bundle
+	 */
+	private static List<String> getBundleClassPath(Bundle bundle) {
+		final List<String> entries = new ArrayList<>();
+		final String header = bundle.getHeaders().get(Constants.BUNDLE_CLASSPATH);
+		if (header == null) {
+			entries.add(".");
+		} else {
+			for (final String element : header.split(",")) {
+				final int parameterIndex = element.indexOf(';');
+				entries.add(((parameterIndex < 0) ? element : element.substring(0, parameterIndex)).trim());
+			}
+		}
+		return entries;
+	}
+
+	private static void appendClassPath(StringBuilder classPath, File file) {
+		if (classPath.length() > 0) {
+			classPath.append(File.pathSeparatorChar);
+		}
+		classPath.append(file.getAbsolutePath());
 	}
 
 	@Override
@@ -62,6 +62,7 @@ public class FeatureHouseCorePlugin extends AbstractCorePlugin {
 	 */
 	@Override
 	public void stop(BundleContext context) throws Exception {
+		FeatureHouseComposer.shutdownWorkerPool();
 		plugin = null;
 		super.stop(context);
 	}
@@ -29,6 +29,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Scanner;
@@ -42,12 +43,11 @@ import org.eclipse.core.resources.IFolder;
 import org.eclipse.core.resources.IMarker;
 import org.eclipse.core.resources.IResource;
 import org.eclipse.core.runtime.CoreException;
-import org.prop4j.And;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.NodeReader;
 import org.prop4j.Not;
-import org.prop4j.SatSolver;
+import org.prop4j.solver.PresenceConditionSolver;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.core.CorePlugin;
@@ -110,6 +110,16 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected Node featureModel;
 
+	/**
+	 * Solver for checking expressions with and without the feature model. Created in {@link #prepareFullBuild(IFile)}.
+	 */
+	private PresenceConditionSolver presenceConditionSolver;
+
+	/**
+	 * The status of already checked annotations by their expression and the set of enclosing expressions.
+	 */
+	private final HashMap<List<Object>, AnnotationStatus> annotationStatusCache = new HashMap<>();
+
 	/**
 	 * {@code true}, if the feature model is void, {@code false} otherwise
 	 */
@@ -214,8 +224,12 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 
 		// create expression of feature model
 		featureModel = AdvancedNodeCreator.createNodes(fm);
+		presenceConditionSolver = new PresenceConditionSolver(featureModel, 1000);
+		synchronized (annotationStatusCache) {
+			annotationStatusCache.clear();
+		}
 		try {
-			voidFeatureModel = !new SatSolver(featureModel, 1000).isSatisfiable();
+			voidFeatureModel = !presenceConditionSolver.isSatisfiable(Collections.<Node> emptyList(), true);
 		} catch (final TimeoutException e) {
 			voidFeatureModel = false;
 		}
@@ -232,50 +246,61 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 	 */
 	protected AnnotationStatus isContradictionOrTautology() {
 		final Node expression = expressionStack.peek();
-
-		Node nestedExpressions = null;
-		if (expressionStack.size() > 1) {
-			Node[] children = expressionStack.toArray(new Node[expressionStack.size()]);
-			children = Arrays.copyOfRange(children, 0, children.length - 1); // Exclude the topmost expression because it is examined separately.
-			nestedExpressions = new And(children);
-		}
+		// Exclude the topmost expression because it is examined separately.
+		final List<Node> nestedExpressions = new ArrayList<>(expressionStack.subList(0, expressionStack.size() - 1));
 
 		try {
-			return isContradictionOrTautology(expression, featureModel, nestedExpressions);
+			return isContradictionOrTautology(expression, nestedExpressions);
 		} catch (final TimeoutException e) {
 			CorePlugin.getDefault().logError(e);
 			return AnnotationStatus.NORMAL;
 		}
 	}
 
-	private AnnotationStatus isContradictionOrTautology(Node expression, Node featureModel, Node nestedExpressions) throws TimeoutException {
+	private AnnotationStatus isContradictionOrTautology(Node expression, List<Node> nestedExpressions) throws TimeoutException {
 		if (voidFeatureModel) {
 			return AnnotationStatus.VOID;
 		}
 
+		// the order of the nested expressions does not matter
+		final List<Object> key = Arrays.<Object> asList(expression, new HashSet<>(nestedExpressions));
+		synchronized (annotationStatusCache) {
+			final AnnotationStatus status = annotationStatusCache.get(key);
+			if (status != null) {
+				return status;
+			}
+		}
+		final AnnotationStatus status = computeAnnotationStatus(expression, nestedExpressions);
+		synchronized (annotationStatusCache) {
+			annotationStatusCache.put(key, status);
+		}
+		return status;
+	}
+
+	private AnnotationStatus computeAnnotationStatus(Node expression, List<Node> nestedExpressions) throws TimeoutException {
+		final Node negatedExpression = new Not(expression);
+
 		/*
 		 * -SAT(expression)
 		 */
-		if (!new SatSolver(expression, 1000).isSatisfiable()) {
+		if (!presenceConditionSolver.isSatisfiable(Collections.singletonList(expression), false)) {
 			return AnnotationStatus.CONTRADICTION;
 		}
 
 		/*
 		 * -SAT(-expression)
 		 */
-		if (!new SatSolver(new Not(expression), 1000).isSatisfiable()) {
+		if (!presenceConditionSolver.isSatisfiable(Collections.singletonList(negatedExpression), false)) {
 			return AnnotationStatus.TAUTOLOGY;
 		}
 
-		Node context = featureModel;
-		if (nestedExpressions != null) {
-			context = new And(context, nestedExpressions);
-		}
+		final List<Node> formulas = new ArrayList<>(nestedExpressions);
+		formulas.add(expression);
 
 		/*
 		 * -SAT(FM & nestedExpressions & expression)
 		 */
-		if (!new SatSolver(new And(context, expression), 1000).isSatisfiable()) {
+		if (!presenceConditionSolver.isSatisfiable(formulas, true)) {
 			return AnnotationStatus.DEAD;
 		}
 
@@ -283,7 +308,8 @@ public abstract class PPComposerExtensionClass extends ComposerExtensionClass {
 		 * TAUT(FM & nestedExpressions => expression) = -SAT(-(FM & nestedExpressions => expression)) = -SAT(-(-(FM & nestedExpressions) | expression)) =
 		 * -SAT(-(-FM | -nestedExpressions | expression)) = -SAT(FM & nestedExpressions & -expression)
 		 */
-		if (!new SatSolver(new And(context, new Not(expression)), 1000).isSatisfiable()) {
+		formulas.set(formulas.size() - 1, negatedExpression);
+		if (!presenceConditionSolver.isSatisfiable(formulas, true)) {
 			return AnnotationStatus.SUPERFLUOUS;
 		}
 
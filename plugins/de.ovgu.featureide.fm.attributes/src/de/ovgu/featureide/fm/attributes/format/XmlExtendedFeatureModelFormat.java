@@ -8,6 +8,8 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.MANDATORY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.NOT;
 import static de.ovgu.featureide.fm.core.localization.StringTable.WRONG_SYNTAX;
 
+import java.io.Reader;
+import java.io.Writer;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.LinkedList;
@@ -15,6 +17,9 @@ import java.util.List;
 import java.util.Set;
 import java.util.regex.Pattern;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
 import org.prop4j.And;
 import org.prop4j.AtMost;
 import org.prop4j.Equals;
@@ -25,9 +30,7 @@ import org.prop4j.Or;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
 import org.w3c.dom.NamedNodeMap;
-import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
-import org.w3c.dom.Text;
 
 import de.ovgu.featureide.fm.attributes.base.AbstractFeatureAttributeFactory;
 import de.ovgu.featureide.fm.attributes.base.IFeatureAttribute;
@@ -48,13 +51,13 @@ import de.ovgu.featureide.fm.core.io.IFeatureNameValidator;
 import de.ovgu.featureide.fm.core.io.LazyReader;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
-import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
+import de.ovgu.featureide.fm.core.io.xml.AXMLStreamFormat;
 import de.ovgu.featureide.fm.core.io.xml.PositionalXMLHandler;
 import de.ovgu.featureide.fm.core.io.xml.XMLFeatureModelTags;
 import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader;
 import de.ovgu.featureide.fm.core.io.xml.XmlPropertyLoader.PropertiesParser;
 
-public class XmlExtendedFeatureModelFormat extends AXMLFormat<IFeatureModel> implements IFeatureModelFormat {
+public class XmlExtendedFeatureModelFormat extends AXMLStreamFormat<IFeatureModel> implements IFeatureModelFormat {
 
 	public static final String ID = "de.ovgu.featureide.fm.attributes.format.XmlExtendedFeatureModelFormat";
 
@@ -74,6 +77,14 @@ public class XmlExtendedFeatureModelFormat extends AXMLFormat<IFeatureModel> imp
 
 	private AbstractFeatureAttributeFactory attributeFactory;
 
+	/**
+	 * Extended feature models are still read from a DOM document.
+	 */
+	@Override
+	protected void readXML(Reader source, List<Problem> warnings) throws Exception {
+		readDocument(parseDocument(source), warnings);
+	}
+
 	@Override
 	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
 		object.reset();
@@ -103,49 +114,46 @@ public class XmlExtendedFeatureModelFormat extends AXMLFormat<IFeatureModel> imp
 	}
 
 	@Override
-	protected void writeDocument(Document doc) {
-		final Element root = doc.createElement(EXTENDED_FEATURE_MODEL);
-		final Element struct = doc.createElement(STRUCT);
-		final Element properties = doc.createElement(PROPERTIES);
-		final Element constraints = doc.createElement(CONSTRAINTS);
-		final Element calculations = doc.createElement(CALCULATIONS);
-		final Element comments = doc.createElement(COMMENTS);
-		final Element order = doc.createElement(FEATURE_ORDER);
-
-		doc.appendChild(root);
-		root.appendChild(properties);
-		createXmlPropertiesPart(doc, properties, object);
-
-		root.appendChild(struct);
-		createXmlDocRec(doc, struct, FeatureUtils.getRoot(object));
-
-		root.appendChild(constraints);
-		for (int i = 0; i < object.getConstraints().size(); i++) {
-			Element rule;
-			rule = doc.createElement(RULE);
+	protected void writeXML(Writer target) throws XMLStreamException {
+		final XMLStreamWriter writer = createStreamWriter(target);
+		writer.writeStartDocument();
+		writer.writeStartElement(EXTENDED_FEATURE_MODEL);
 
-			constraints.appendChild(rule);
-			addDescription(doc, object.getConstraints().get(i), rule);
-			createPropositionalConstraints(doc, rule, object.getConstraints().get(i).getNode());
-		}
+		writer.writeStartElement(PROPERTIES);
+		writeProperties(writer, object);
+		writer.writeEndElement();
 
-		root.appendChild(calculations);
-		calculations.setAttribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
-		calculations.setAttribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
-		calculations.setAttribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
-		calculations.setAttribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
-		calculations.setAttribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
+		writer.writeStartElement(STRUCT);
+		writeFeature(writer, FeatureUtils.getRoot(object));
+		writer.writeEndElement();
 
-		root.appendChild(comments);
+		writer.writeStartElement(CONSTRAINTS);
+		for (int i = 0; i < object.getConstraints().size(); i++) {
+			writer.writeStartElement(RULE);
+			writeDescription(writer, object.getConstraints().get(i).getDescription());
+			writePropositionalConstraints(writer, object.getConstraints().get(i).getNode());
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+
+		writer.writeStartElement(CALCULATIONS);
+		writer.writeAttribute(CALCULATE_AUTO, "" + object.getAnalyser().runCalculationAutomatically);
+		writer.writeAttribute(CALCULATE_FEATURES, "" + object.getAnalyser().calculateFeatures);
+		writer.writeAttribute(CALCULATE_CONSTRAINTS, "" + object.getAnalyser().calculateConstraints);
+		writer.writeAttribute(CALCULATE_REDUNDANT, "" + object.getAnalyser().calculateRedundantConstraints);
+		writer.writeAttribute(CALCULATE_TAUTOLOGY, "" + object.getAnalyser().calculateTautologyConstraints);
+		writer.writeEndElement();
+
+		writer.writeStartElement(COMMENTS);
 		for (final String comment : object.getProperty().getComments()) {
-			final Element c = doc.createElement(C);
-			comments.appendChild(c);
-			final Text text = doc.createTextNode(comment);
-			c.appendChild(text);
+			writer.writeStartElement(C);
+			writer.writeCharacters(comment);
+			writer.writeEndElement();
 		}
-		order.setAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
-		root.appendChild(order);
+		writer.writeEndElement();
 
+		writer.writeStartElement(FEATURE_ORDER);
+		writer.writeAttribute(USER_DEFINED, Boolean.toString(object.isFeatureOrderUserDefined()));
 		if (object.isFeatureOrderUserDefined()) {
 			Collection<String> featureOrderList = object.getFeatureOrderList();
 
@@ -154,187 +162,158 @@ public class XmlExtendedFeatureModelFormat extends AXMLFormat<IFeatureModel> imp
 			}
 
 			for (final String featureName : featureOrderList) {
-				final Element feature = doc.createElement(FEATURE);
-				feature.setAttribute(NAME, featureName);
-				order.appendChild(feature);
+				writer.writeStartElement(FEATURE);
+				writer.writeAttribute(NAME, featureName);
+				writer.writeEndElement();
 			}
 		}
+		writer.writeEndElement();
+
+		writer.writeEndDocument();
+		writer.close();
 	}
 
-	private Node createFeaturePropertyContainerNode(Document doc, String featureName, Set<Entry<String, Type, Object>> propertyEntries) {
-		final Element result = doc.createElement(FEATURE);
-		result.setAttribute(NAME, featureName);
+	private void writePropertyEntries(XMLStreamWriter writer, Set<Entry<String, Type, Object>> propertyEntries) throws XMLStreamException {
 		for (final Entry<String, Type, Object> entry : propertyEntries) {
-			result.appendChild(createPropertyEntriesNode(doc, entry));
+			writer.writeStartElement(XmlPropertyLoader.PROPERTY);
+			writer.writeAttribute(XmlPropertyLoader.KEY, entry.getKey());
+			writer.writeAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
+			writer.writeAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
+			writer.writeEndElement();
 		}
-		return result;
-	}
-
-	private Node createPropertyEntriesNode(Document doc, Entry<String, Type, Object> entry) {
-		final Element propertyElement = doc.createElement(XmlPropertyLoader.PROPERTY);
-		propertyElement.setAttribute(XmlPropertyLoader.KEY, entry.getKey());
-		propertyElement.setAttribute(XmlPropertyLoader.VALUE, entry.getValue().toString());
-		propertyElement.setAttribute(XmlPropertyLoader.TYPE, entry.getType().toString());
-		return propertyElement;
 	}
 
 	/**
-	 * Inserts the tags concerning propositional constraints into the DOM document representation
+	 * Writes the tags concerning propositional constraints.
 	 *
-	 * @param doc
-	 * @param FeatMod Parent node for the propositional nodes
+	 * @param writer the stream writer
+	 * @param node the propositional node to write
 	 */
-	private void createPropositionalConstraints(Document doc, Element xmlNode, org.prop4j.Node node) {
+	private void writePropositionalConstraints(XMLStreamWriter writer, org.prop4j.Node node) throws XMLStreamException {
 		if (node == null) {
 			return;
 		}
 
-		Element op;
 		if (node instanceof Literal) {
 			Literal literal = (Literal) node;
 			if (literal.positive) {
-				op = doc.createElement(VAR);
-				xmlNode.appendChild(op);
-				op.appendChild(doc.createTextNode(node.toString()));
+				writer.writeStartElement(VAR);
+				writer.writeCharacters(node.toString());
+				writer.writeEndElement();
 			} else {
-				op = doc.createElement(NOT);
-				xmlNode.appendChild(op);
+				writer.writeStartElement(NOT);
 				literal = literal.clone();
 				literal.positive = true;
-				createPropositionalConstraints(doc, op, literal);
+				writePropositionalConstraints(writer, literal);
+				writer.writeEndElement();
 			}
 			return;
 		}
 
 		if (node instanceof And) {
-			op = doc.createElement(CONJ);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(CONJ);
 		} else if (node instanceof Or) {
-			op = doc.createElement(DISJ);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(DISJ);
 		} else if (node instanceof Not) {
-			op = doc.createElement(NOT);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(NOT);
 		} else if (node instanceof Equals) {
-			op = doc.createElement(EQ);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(EQ);
 		} else if (node instanceof Implies) {
-			op = doc.createElement(IMP);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(IMP);
 		} else if (node instanceof AtMost) {
-			op = doc.createElement(ATMOST1);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(ATMOST1);
 		} else {
-			op = doc.createElement(UNKNOWN);
-			xmlNode.appendChild(op);
+			writer.writeStartElement(UNKNOWN);
 		}
 
 		final org.prop4j.Node[] children = node.getChildren();
 
 		for (int i = 0; i < children.length; i++) {
-			createPropositionalConstraints(doc, op, children[i]);
+			writePropositionalConstraints(writer, children[i]);
 		}
+		writer.writeEndElement();
 	}
 
-	private void createFeatureAttributes(Document doc, Element fnode, IFeature feature) {
+	private void writeFeatureAttributes(XMLStreamWriter writer, IFeature feature) throws XMLStreamException {
 		if (!(feature instanceof ExtendedFeature)) {
 			return;
 		}
 		if ((((ExtendedFeature) feature).getAttributes() != null) && !((ExtendedFeature) feature).getAttributes().isEmpty()) {
 			// Write FeatureAttributes into the XML
 			for (final IFeatureAttribute featureAttribute : ((ExtendedFeature) feature).getAttributes()) {
-				final Element attributeNode = doc.createElement(XMLFeatureModelTags.ATTRIBUTE);
-				attributeNode.setAttribute(XMLFeatureModelTags.NAME, featureAttribute.getName());
-				attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_TYPE, featureAttribute.getType());
+				writer.writeStartElement(XMLFeatureModelTags.ATTRIBUTE);
+				writer.writeAttribute(XMLFeatureModelTags.NAME, featureAttribute.getName());
+				writer.writeAttribute(XMLFeatureModelTags.ATTRIBUTE_TYPE, featureAttribute.getType());
 				if (featureAttribute.getValue() != null) {
-					attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_VALUE, featureAttribute.getValue().toString());
+					writer.writeAttribute(XMLFeatureModelTags.ATTRIBUTE_VALUE, featureAttribute.getValue().toString());
 				}
-				attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_UNIT, featureAttribute.getUnit());
+				writer.writeAttribute(XMLFeatureModelTags.ATTRIBUTE_UNIT, featureAttribute.getUnit());
 				if (featureAttribute.isRecursive()) {
-					attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_RECURSIVE, XMLFeatureModelTags.TRUE);
+					writer.writeAttribute(XMLFeatureModelTags.ATTRIBUTE_RECURSIVE, XMLFeatureModelTags.TRUE);
 				}
 				if (featureAttribute.isConfigurable()) {
-					attributeNode.setAttribute(XMLFeatureModelTags.ATTRIBUTE_CONFIGURABLE, XMLFeatureModelTags.TRUE);
+					writer.writeAttribute(XMLFeatureModelTags.ATTRIBUTE_CONFIGURABLE, XMLFeatureModelTags.TRUE);
 				}
-				fnode.appendChild(attributeNode);
+				writer.writeEndElement();
 			}
 		}
 	}
 
 	/**
-	 * Creates document based on feature model step by step
+	 * Writes the feature model structure step by step
 	 *
-	 * @param doc document to write
-	 * @param node parent node
+	 * @param writer the stream writer
 	 * @param feat current feature
 	 */
-	private void createXmlDocRec(Document doc, Element node, IFeature feat) {
+	private void writeFeature(XMLStreamWriter writer, IFeature feat) throws XMLStreamException {
 		if (feat == null) {
 			return;
 		}
 
 		final List<IFeature> children = FeatureUtils.convertToFeatureList(feat.getStructure().getChildren());
 
-		final Element fnod;
 		if (children.isEmpty()) {
-			fnod = doc.createElement(FEATURE);
-			addDescription(doc, feat, fnod);
-			writeAttributes(node, fnod, feat);
-			createFeatureAttributes(doc, fnod, feat);
-
+			writer.writeStartElement(FEATURE);
+		} else if (feat.getStructure().isAnd()) {
+			writer.writeStartElement(AND);
+		} else if (feat.getStructure().isOr()) {
+			writer.writeStartElement(OR);
+		} else if (feat.getStructure().isAlternative()) {
+			writer.writeStartElement(ALT);
 		} else {
-			if (feat.getStructure().isAnd()) {
-				fnod = doc.createElement(AND);
-			} else if (feat.getStructure().isOr()) {
-				fnod = doc.createElement(OR);
-			} else if (feat.getStructure().isAlternative()) {
-				fnod = doc.createElement(ALT);
-			} else {
-				fnod = doc.createElement(UNKNOWN);// Logger.logInfo("creatXMlDockRec: Unexpected error!");
-			}
-
-			addDescription(doc, feat, fnod);
-			writeAttributes(node, fnod, feat);
-			createFeatureAttributes(doc, fnod, feat);
-
-			for (final IFeature feature : children) {
-				createXmlDocRec(doc, fnod, feature);
-			}
-
+			writer.writeStartElement(UNKNOWN);
 		}
+		writeAttributes(writer, feat);
+		writeDescription(writer, feat.getProperty().getDescription());
+		writeFeatureAttributes(writer, feat);
 
-	}
-
-	protected void addDescription(Document doc, IFeature feat, Element fnod) {
-		final String description = feat.getProperty().getDescription();
-		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-			fnod.appendChild(descr);
+		for (final IFeature feature : children) {
+			writeFeature(writer, feature);
 		}
+		writer.writeEndElement();
 	}
 
-	protected void addDescription(Document doc, IConstraint constraint, Element fnod) {
-		final String description = constraint.getDescription();
+	protected void writeDescription(XMLStreamWriter writer, String description) throws XMLStreamException {
 		if ((description != null) && !description.trim().isEmpty()) {
-			final Element descr = doc.createElement(DESCRIPTION);
-			descr.setTextContent("\n" + description.replace("\r", "") + "\n");
-			fnod.appendChild(descr);
+			writer.writeStartElement(DESCRIPTION);
+			writer.writeCharacters("\n" + description.replace("\r", "") + "\n");
+			writer.writeEndElement();
 		}
 	}
 
-	private void createXmlPropertiesPart(Document doc, Element propertiesNode, IFeatureModel featureModel) {
-
-		if ((featureModel == null) || (propertiesNode == null)) {
+	private void writeProperties(XMLStreamWriter writer, IFeatureModel featureModel) throws XMLStreamException {
+		if (featureModel == null) {
 			throw new RuntimeException();
 		}
 
 		// Store per-feature properties
 		for (final IFeature feature : featureModel.getFeatures()) {
-			final String featureName = feature.getName();
 			final Set<Entry<String, Type, Object>> propertyEntries = feature.getCustomProperties().entrySet();
 			if (!propertyEntries.isEmpty()) {
-				propertiesNode.appendChild(createFeaturePropertyContainerNode(doc, featureName, propertyEntries));
+				writer.writeStartElement(FEATURE);
+				writer.writeAttribute(NAME, feature.getName());
+				writePropertyEntries(writer, propertyEntries);
+				writer.writeEndElement();
 			}
 		}
 
@@ -690,22 +669,21 @@ public class XmlExtendedFeatureModelFormat extends AXMLFormat<IFeatureModel> imp
 		throw new UnsupportedModelException(message, Integer.parseInt(node.getUserData(PositionalXMLHandler.LINE_NUMBER_KEY_NAME).toString()));
 	}
 
-	private void writeAttributes(Element node, Element fnod, IFeature feat) {
-		fnod.setAttribute(NAME, feat.getName());
+	private void writeAttributes(XMLStreamWriter writer, IFeature feat) throws XMLStreamException {
+		writer.writeAttribute(NAME, feat.getName());
 		if (feat.getStructure().isHidden()) {
-			fnod.setAttribute(HIDDEN, TRUE);
+			writer.writeAttribute(HIDDEN, TRUE);
 		}
 		if (feat.getStructure().isMandatory()) {
 			if ((feat.getStructure().getParent() != null) && feat.getStructure().getParent().isAnd()) {
-				fnod.setAttribute(MANDATORY, TRUE);
+				writer.writeAttribute(MANDATORY, TRUE);
 			} else if (feat.getStructure().getParent() == null) {
-				fnod.setAttribute(MANDATORY, TRUE);
+				writer.writeAttribute(MANDATORY, TRUE);
 			}
 		}
 		if (feat.getStructure().isAbstract()) {
-			fnod.setAttribute(ABSTRACT, TRUE);
+			writer.writeAttribute(ABSTRACT, TRUE);
 		}
-		node.appendChild(fnod);
 	}
 
 	@Override
@@ -45,6 +45,7 @@ import org.prop4j.Not;
 import org.prop4j.Or;
 import org.prop4j.SatSolver;
 import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.FeatureModelAnalysis.ChangeType;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -60,15 +61,20 @@ import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.NodeCreator;
 import de.ovgu.featureide.fm.core.explanations.Explanation;
+import de.ovgu.featureide.fm.core.explanations.fm.BatchFeatureModelExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FalseOptionalFeatureExplanationCreator;
+import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.FeatureModelExplanationCreatorFactory;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanation;
 import de.ovgu.featureide.fm.core.explanations.fm.RedundantConstraintExplanationCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
 import de.ovgu.featureide.fm.core.functional.Functional.IFunction;
+import de.ovgu.featureide.fm.core.job.IRunner;
+import de.ovgu.featureide.fm.core.job.LongRunningExecutor;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
@@ -121,6 +127,12 @@ public class FeatureModelAnalyzer implements IEventListener {
 	private static final String TRUE = NodeCreator.varTrue.toString();
 	private static final String FALSE = NodeCreator.varFalse.toString();
 
+	/**
+	 * Flags of a feature that are part of the fingerprint of the feature model (see {@link #computeFingerprint()}).
+	 */
+	private static final int FLAG_MANDATORY = 1;
+	private static final int FLAG_HIDDEN = 32;
+
 	private List<IFeature> cachedDeadFeatures = Collections.emptyList();
 	private List<IFeature> cachedCoreFeatures = Collections.emptyList();
 	private List<IFeature> cachedFalseOptionalFeatures = Collections.emptyList();
@@ -157,6 +169,42 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * Defines whether analysis should be performed automatically.
 	 */
 	public boolean runCalculationAutomatically = true;
+	/**
+	 * Defines whether the results of the last analysis should be reused after small changes of the feature model. If enabled, modifications that did not
+	 * fire an event are detected by comparing fingerprints of the feature model, in which case the whole feature model is analyzed again and cached formulas
+	 * and explanations are discarded. Disabled by default, as computing the fingerprint requires a pass over the whole feature model.
+	 */
+	public boolean calculateIncrementally = false;
+	/**
+	 * Defines whether explanations for all defects should be created in the background after each analysis.
+	 */
+	public boolean calculateExplanations = false;
+
+	/**
+	 * The last completed analysis and the changes of the feature model since then. Guarded by {@code analysisLock}.
+	 */
+	private final Object analysisLock = new Object();
+	private FeatureModelAnalysis lastAnalysis = null;
+	private ChangeType pendingChange = ChangeType.UNKNOWN;
+	private long modificationCount = 0;
+	/**
+	 * The fingerprint of the feature model in the last state known to this analyzer (see {@link #detectUnseenChanges()}). It is taken from the feature model
+	 * only when changes are detected and is otherwise updated by the exact effect of each event. Only maintained if {@link #calculateIncrementally} is set.
+	 */
+	private long fingerprint = 0;
+	/**
+	 * The modification count of the feature model when the cached analysis results were created; -1 if they are not complete.
+	 */
+	private long resultModificationCount = -1;
+	/**
+	 * The modification count of the feature model when the cached explanations were created.
+	 */
+	private long explanationModificationCount = 0;
+	/**
+	 * Guards the cached explanations and the explanation creators.
+	 */
+	private final Object explanationLock = new Object();
+	private IRunner<Void> explanationRunner = null;
 
 	/**
 	 * A flag indicating that the calculation should be canceled.
@@ -201,6 +249,8 @@ public class FeatureModelAnalyzer implements IEventListener {
 		calculateRedundantConstraints = oldAnalyzer.calculateRedundantConstraints;
 		calculateTautologyConstraints = oldAnalyzer.calculateTautologyConstraints;
 		runCalculationAutomatically = oldAnalyzer.runCalculationAutomatically;
+		calculateIncrementally = oldAnalyzer.calculateIncrementally;
+		calculateExplanations = oldAnalyzer.calculateExplanations;
 	}
 
 	/**
@@ -602,12 +652,37 @@ public class FeatureModelAnalyzer implements IEventListener {
 		analysis.setCalculateTautologyConstraints(calculateTautologyConstraints);
 		analysis.setCalculateDeadConstraints(calculateDeadConstraints);
 		analysis.setCalculateFOConstraints(calculateFOConstraints);
+		final long startCount;
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			if (calculateIncrementally) {
+				analysis.setPreviousAnalysis(lastAnalysis, pendingChange);
+			}
+			lastAnalysis = null;
+			pendingChange = ChangeType.NONE;
+			startCount = modificationCount;
+		}
 		final HashMap<Object, Object> newAttributes = LongRunningWrapper.runMethod(analysis, this.monitor);
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			// results are only reusable if the feature model did not change during the analysis
+			if ((newAttributes != null) && (startCount == modificationCount)) {
+				lastAnalysis = analysis;
+			} else {
+				lastAnalysis = null;
+			}
+		}
 		cachedValidity = analysis.isValid();
 		cachedCoreFeatures = analysis.getCoreFeatures();
 		cachedDeadFeatures = analysis.getDeadFeatures();
 		cachedFalseOptionalFeatures = analysis.getFalseOptionalFeatures();
-		clearExplanations();
+		synchronized (analysisLock) {
+			resultModificationCount = ((newAttributes != null) && calculateFeatures && (startCount == modificationCount)) ? startCount : -1;
+		}
+		validateExplanations();
+		if (calculateExplanations && (newAttributes != null)) {
+			startExplanationJob();
+		}
 		return newAttributes;
 	}
 
@@ -812,36 +887,250 @@ public class FeatureModelAnalyzer implements IEventListener {
 	}
 
 	/**
-	 * Listens to feature model changes. Resets its formula if necessary.
+	 * Returns whether the cached analysis results (validity, core, dead, and false-optional features) were calculated completely for the current state of
+	 * the feature model. Modifications that did not fire an event are only taken into account if {@link #calculateIncrementally} is set.
+	 *
+	 * @return {@code true} if the cached results are up to date
+	 */
+	public boolean hasCurrentResults() {
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			return (resultModificationCount >= 0) && (resultModificationCount == modificationCount);
+		}
+	}
+
+	/**
+	 * Restores previously calculated analysis results for the current state of the feature model, e.g., from a stored snapshot.
+	 *
+	 * @param valid whether the feature model is valid
+	 * @param coreFeatures the core features
+	 * @param deadFeatures the dead features
+	 * @param falseOptionalFeatures the false-optional features
+	 */
+	public void restoreResults(boolean valid, List<IFeature> coreFeatures, List<IFeature> deadFeatures, List<IFeature> falseOptionalFeatures) {
+		cachedValidity = valid;
+		cachedCoreFeatures = coreFeatures;
+		cachedDeadFeatures = deadFeatures;
+		cachedFalseOptionalFeatures = falseOptionalFeatures;
+		synchronized (analysisLock) {
+			// the current state becomes the known state, such that it is not mistaken for an unseen change later
+			detectUnseenChanges();
+			resultModificationCount = modificationCount;
+		}
+	}
+
+	/**
+	 * Listens to feature model changes. Resets its formula if necessary and records how the formula changed since the last analysis.
 	 */
 	@Override
 	public void propertyChange(FeatureIDEEvent event) {
+		final ChangeType change;
 		switch (event.getEventType()) {
 		case ALL_FEATURES_CHANGED_NAME_TYPE: // Required because feature names are used as variable names.
-		case CHILDREN_CHANGED:
+		case FEATURE_NAME_CHANGED: // Required because feature names are used as variable names.
+			cnf = null;
+			change = ChangeType.NONE;
+			break;
+		case FEATURE_MODIFY:
+		case HIDDEN_CHANGED:
+			change = ChangeType.NONE;
+			break;
 		case CONSTRAINT_ADD:
+			change = ChangeType.STRENGTHENED;
+			if (event.getNewValue() instanceof IConstraint) {
+				cnf = addConstraintToCnf(cnf, (IConstraint) event.getNewValue());
+			} else {
+				cnf = null;
+			}
+			break;
 		case CONSTRAINT_DELETE:
+			cnf = null;
+			change = ChangeType.WEAKENED;
+			break;
+		case MANDATORY_CHANGED:
+			cnf = null;
+			change = getMandatoryChange(event.getSource());
+			break;
+		case CHILDREN_CHANGED:
 		case CONSTRAINT_MODIFY:
 		case FEATURE_ADD:
 		case FEATURE_ADD_ABOVE:
 		case FEATURE_DELETE:
-		case FEATURE_MODIFY: // TODO If a formula reset is required for this event type, remove this comment. Otherwise, remove this case.
-		case FEATURE_NAME_CHANGED: // Required because feature names are used as variable names.
 		case GROUP_TYPE_CHANGED:
-		case HIDDEN_CHANGED: // TODO If a formula reset is required for this event type, remove this comment. Otherwise, remove this case.
-		case MANDATORY_CHANGED:
 		case MODEL_DATA_CHANGED:
 		case MODEL_DATA_LOADED:
 		case MODEL_DATA_OVERRIDDEN:
 		case PARENT_CHANGED:
 		case STRUCTURE_CHANGED:
 			cnf = null;
+			change = ChangeType.UNKNOWN;
 			break;
 		default:
-			break;
+			return;
+		}
+		synchronized (analysisLock) {
+			pendingChange = pendingChange.combine(change);
+			modificationCount++;
+			if (calculateIncrementally) {
+				// the fingerprint is never taken from the feature model here, as this would hide modifications that did not fire an event
+				fingerprint += getFingerprintChange(event);
+			}
+		}
+	}
+
+	/**
+	 * Computes how the fingerprint of the feature model changes due to an event, using only the event itself and the changed element. For events whose
+	 * effect is not known exactly, the fingerprint is not changed, such that the next call of {@link #detectUnseenChanges()} treats them as unknown change.
+	 *
+	 * @param event the event
+	 * @return the difference between the new and the old fingerprint
+	 */
+	private static long getFingerprintChange(FeatureIDEEvent event) {
+		switch (event.getEventType()) {
+		case CONSTRAINT_ADD:
+			return (event.getNewValue() instanceof IConstraint) ? computeFingerprint(((IConstraint) event.getNewValue()).getNode()) : 0;
+		case CONSTRAINT_DELETE:
+			return (event.getOldValue() instanceof IConstraint) ? -computeFingerprint(((IConstraint) event.getOldValue()).getNode()) : 0;
+		case MANDATORY_CHANGED:
+			return getFlagChange(event.getSource(), FLAG_MANDATORY);
+		case HIDDEN_CHANGED:
+			return getFlagChange(event.getSource(), FLAG_HIDDEN);
+		default:
+			return 0;
+		}
+	}
+
+	private static long getFlagChange(Object source, int flag) {
+		final IFeatureStructure structure;
+		if (source instanceof IFeature) {
+			structure = ((IFeature) source).getStructure();
+		} else if (source instanceof IFeatureStructure) {
+			structure = (IFeatureStructure) source;
+		} else {
+			return 0;
+		}
+		final int flags = getFlags(structure);
+		return computeFingerprint(structure, flags) - computeFingerprint(structure, flags ^ flag);
+	}
+
+	/**
+	 * Detects modifications of the feature model that did not fire an event by comparing the fingerprint of the feature model to the one of the last known
+	 * state. Such a modification counts as an unknown change, so no previous results are reused. Does nothing unless {@link #calculateIncrementally} is set.
+	 * Must be called while holding {@code analysisLock}.
+	 */
+	private void detectUnseenChanges() {
+		if (!calculateIncrementally) {
+			return;
+		}
+		final long currentFingerprint = computeFingerprint();
+		if (currentFingerprint != fingerprint) {
+			fingerprint = currentFingerprint;
+			pendingChange = ChangeType.UNKNOWN;
+			modificationCount++;
+			cnf = null;
 		}
 	}
 
+	/**
+	 * Computes a hash value of all properties of features and constraints that influence the results of an analysis. The value is the sum of the hash values
+	 * of all features and constraints, so that the effect of a single change can be computed without the rest of the feature model (see
+	 * {@link #getFingerprintChange(FeatureIDEEvent)}).
+	 *
+	 * @return the fingerprint of the feature model
+	 */
+	private long computeFingerprint() {
+		long hash = 0;
+		for (final IFeature feature : fm.getFeatures()) {
+			final IFeatureStructure structure = feature.getStructure();
+			hash += computeFingerprint(structure, getFlags(structure));
+		}
+		for (final IConstraint constraint : fm.getConstraints()) {
+			hash += computeFingerprint(constraint.getNode());
+		}
+		return hash;
+	}
+
+	private static int getFlags(IFeatureStructure structure) {
+		return (structure.isMandatorySet() ? FLAG_MANDATORY : 0) | (structure.isAnd() ? 2 : 0) | (structure.isOr() ? 4 : 0) | (structure.isAlternative() ? 8 : 0)
+			| (structure.isConcrete() ? 16 : 0) | (structure.isHidden() ? FLAG_HIDDEN : 0);
+	}
+
+	private static long computeFingerprint(IFeatureStructure structure, int flags) {
+		final IFeatureStructure parent = structure.getParent();
+		long hash = structure.getFeature().getName().hashCode();
+		hash = (31 * hash) + ((parent == null) ? 0 : parent.getFeature().getName().hashCode());
+		hash = (31 * hash) + flags;
+		return mix(hash);
+	}
+
+	private static long computeFingerprint(Node node) {
+		return mix(computeNodeHash(node));
+	}
+
+	private static long computeNodeHash(Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			return (31L * String.valueOf(literal.var).hashCode()) + (literal.positive ? 1 : 0);
+		}
+		long hash = node.getClass().getName().hashCode();
+		for (final Node child : node.getChildren()) {
+			hash = (31 * hash) + computeNodeHash(child);
+		}
+		return hash;
+	}
+
+	/**
+	 * Spreads the bits of a hash value, so that a sum of hash values does not cancel out similar elements.
+	 */
+	private static long mix(long hash) {
+		final long mixed = hash * 0x9E3779B97F4A7C15L;
+		return mixed ^ (mixed >>> 32);
+	}
+
+	/**
+	 * Appends the clauses of a new constraint to the cached formula. The cached formula itself is not modified, as it may be referenced elsewhere.
+	 *
+	 * @param cnf the cached formula; may be null
+	 * @param constraint the new constraint
+	 * @return the formula including the new constraint or null if there is no cached formula
+	 */
+	private Node addConstraintToCnf(Node cnf, IConstraint constraint) {
+		if (!(cnf instanceof And)) {
+			return null;
+		}
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm);
+		nodeCreator.setCnfType(AdvancedNodeCreator.CNFType.Regular);
+		nodeCreator.setIncludeBooleanValues(false);
+		final Node[] clauses = cnf.getChildren();
+		final Node[] newClauses = nodeCreator.createConstraintNode(constraint).getChildren();
+		final Node[] children = Arrays.copyOf(clauses, clauses.length + newClauses.length);
+		System.arraycopy(newClauses, 0, children, clauses.length, newClauses.length);
+		return new And(children);
+	}
+
+	/**
+	 * A feature in an and-group adds or removes the clause {@code parent => feature} when it becomes mandatory or optional. In other groups, the flag has no
+	 * influence on the formula.
+	 */
+	private static ChangeType getMandatoryChange(Object source) {
+		final IFeatureStructure structure;
+		if (source instanceof IFeature) {
+			structure = ((IFeature) source).getStructure();
+		} else if (source instanceof IFeatureStructure) {
+			structure = (IFeatureStructure) source;
+		} else {
+			return ChangeType.UNKNOWN;
+		}
+		final IFeatureStructure parent = structure.getParent();
+		if (parent == null) {
+			return ChangeType.NONE;
+		}
+		if (!parent.isAnd()) {
+			return ChangeType.NONE;
+		}
+		return structure.isMandatorySet() ? ChangeType.STRENGTHENED : ChangeType.WEAKENED;
+	}
+
 	/**
 	 * <p> Returns the feature model as a formula in conjunctive normal form. Creates it first if necessary. </p>
 	 *
@@ -858,6 +1147,32 @@ public class FeatureModelAnalyzer implements IEventListener {
 		return cnf;
 	}
 
+	/**
+	 * Sets the cached formula of the feature model, e.g., from a stored snapshot. The formula must be equal to the one created by
+	 * {@link AdvancedNodeCreator#createRegularCNF(IFeatureModel)} for the current state of the feature model.
+	 *
+	 * @param cnf the feature model as a formula in conjunctive normal form
+	 */
+	public void setCnf(Node cnf) {
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			this.cnf = cnf;
+		}
+	}
+
+	/**
+	 * Returns the cached formula of the feature model without creating it.
+	 *
+	 * @return the feature model as a formula in conjunctive normal form or {@code null} if it was not created yet or is outdated
+	 * @see #getCnf()
+	 */
+	public Node getCachedCnf() {
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			return cnf;
+		}
+	}
+
 	/**
 	 * Creates the feature model as a formula in conjunctive normal form.
 	 *
@@ -949,10 +1264,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * @return an explanation; null if it cannot be explained
 	 */
 	public DeadFeatureExplanation getDeadFeatureExplanation(IFeatureModel fm, IFeature feature) {
-		if (!deadFeatureExplanations.containsKey(feature)) {
-			addDeadFeatureExplanation(fm, feature);
+		synchronized (explanationLock) {
+			validateExplanations();
+			if (!deadFeatureExplanations.containsKey(feature)) {
+				addDeadFeatureExplanation(fm, feature);
+			}
+			return deadFeatureExplanations.get(feature);
 		}
-		return deadFeatureExplanations.get(feature);
 	}
 
 	/**
@@ -991,10 +1309,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * @return an explanation; null if it cannot be explained
 	 */
 	public FalseOptionalFeatureExplanation getFalseOptionalFeatureExplanation(IFeatureModel fm, IFeature feature) {
-		if (!falseOptionalFeatureExplanations.containsKey(feature)) {
-			addFalseOptionalFeatureExplanation(fm, feature);
+		synchronized (explanationLock) {
+			validateExplanations();
+			if (!falseOptionalFeatureExplanations.containsKey(feature)) {
+				addFalseOptionalFeatureExplanation(fm, feature);
+			}
+			return falseOptionalFeatureExplanations.get(feature);
 		}
-		return falseOptionalFeatureExplanations.get(feature);
 	}
 
 	/**
@@ -1032,10 +1353,13 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * @return an explanation; null if it cannot be explained
 	 */
 	public RedundantConstraintExplanation getRedundantConstraintExplanation(IFeatureModel fm, IConstraint constraint) {
-		if (!redundantConstraintExplanations.containsKey(constraint)) {
-			addRedundantConstraintExplanation(fm, constraint);
+		synchronized (explanationLock) {
+			validateExplanations();
+			if (!redundantConstraintExplanations.containsKey(constraint)) {
+				addRedundantConstraintExplanation(fm, constraint);
+			}
+			return redundantConstraintExplanations.get(constraint);
 		}
-		return redundantConstraintExplanations.get(constraint);
 	}
 
 	/**
@@ -1063,13 +1387,123 @@ public class FeatureModelAnalyzer implements IEventListener {
 	 * Clears all explanations.
 	 */
 	public void clearExplanations() {
-		deadFeatureExplanations.clear();
-		falseOptionalFeatureExplanations.clear();
-		redundantConstraintExplanations.clear();
-		deadFeatureExplanationCreator.setFeatureModel(fm);
-		falseOptionalFeatureExplanationCreator.setFeatureModel(fm);
-		redundantConstraintExplanationCreator.setFeatureModel(fm);
+		synchronized (explanationLock) {
+			deadFeatureExplanations.clear();
+			falseOptionalFeatureExplanations.clear();
+			redundantConstraintExplanations.clear();
+			deadFeatureExplanationCreator.setFeatureModel(fm);
+			falseOptionalFeatureExplanationCreator.setFeatureModel(fm);
+			redundantConstraintExplanationCreator.setFeatureModel(fm);
+		}
+	}
+
+	/**
+	 * Clears all explanations if the feature model changed since they were created, including changes that did not fire an event. Otherwise, the explanations and the oracles of the explanation creators
+	 * are reused, such that repeated requests do not compute the minimal unsatisfiable subsets again.
+	 */
+	private void validateExplanations() {
+		final long currentModificationCount;
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			currentModificationCount = modificationCount;
+		}
+		synchronized (explanationLock) {
+			if (currentModificationCount != explanationModificationCount) {
+				clearExplanations();
+				explanationModificationCount = currentModificationCount;
+			}
+		}
+	}
+
+	/**
+	 * <p> Creates the explanations for all dead features, false-optional features, and redundant constraints found by the last analysis at once. Explanations
+	 * that are already cached are not computed again. </p>
+	 *
+	 * <p> The explanations are computed by a {@link BatchFeatureModelExplanationCreator}, which uses several workers that each reuse one oracle for all of their
+	 * subjects. The results are only cached if the feature model did not change in the meantime. </p>
+	 *
+	 * @param monitor the monitor; may be null
+	 * @return {@code true} if the explanations were cached
+	 */
+	public boolean createExplanations(IMonitor monitor) {
+		final long startCount;
+		synchronized (analysisLock) {
+			detectUnseenChanges();
+			startCount = modificationCount;
+		}
+		final BatchFeatureModelExplanationCreator batch = new BatchFeatureModelExplanationCreator(fm, explanationCreatorFactory);
+		synchronized (explanationLock) {
+			validateExplanations();
+			batch.addDeadFeatures(getUnexplained(cachedDeadFeatures, deadFeatureExplanations));
+			batch.addFalseOptionalFeatures(getUnexplained(cachedFalseOptionalFeatures, falseOptionalFeatureExplanations));
+			final List<IConstraint> redundantConstraints = new ArrayList<>();
+			for (final IConstraint constraint : fm.getConstraints()) {
+				if ((constraint.getConstraintAttribute() == ConstraintAttribute.REDUNDANT) && !redundantConstraintExplanations.containsKey(constraint)) {
+					redundantConstraints.add(constraint);
+				}
+			}
+			batch.addRedundantConstraints(redundantConstraints);
+		}
+
+		final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations =
+			LongRunningWrapper.runMethod(batch, monitor == null ? new NullMonitor() : monitor);
+		if (explanations == null) {
+			return false;
+		}
+		synchronized (explanationLock) {
+			validateExplanations();
+			if (explanationModificationCount != startCount) {
+				return false;
+			}
+			for (final IFeature feature : batch.getDeadFeatures()) {
+				if (!deadFeatureExplanations.containsKey(feature)) {
+					deadFeatureExplanations.put(feature, (DeadFeatureExplanation) explanations.get(feature));
+				}
+			}
+			for (final IFeature feature : batch.getFalseOptionalFeatures()) {
+				if (!falseOptionalFeatureExplanations.containsKey(feature)) {
+					falseOptionalFeatureExplanations.put(feature, (FalseOptionalFeatureExplanation) explanations.get(feature));
+				}
+			}
+			for (final IConstraint constraint : batch.getRedundantConstraints()) {
+				if (!redundantConstraintExplanations.containsKey(constraint)) {
+					redundantConstraintExplanations.put(constraint, (RedundantConstraintExplanation) explanations.get(constraint));
+				}
+			}
+		}
+		return true;
+	}
 
+	private static <T> List<T> getUnexplained(Collection<T> subjects, Map<T, ?> explanations) {
+		final List<T> unexplained = new ArrayList<>();
+		for (final T subject : subjects) {
+			if (!explanations.containsKey(subject)) {
+				unexplained.add(subject);
+			}
+		}
+		return unexplained;
+	}
+
+	/**
+	 * Starts a background job that {@link #createExplanations(IMonitor) creates all explanations}. A previously started job is canceled.
+	 */
+	private void startExplanationJob() {
+		final IRunner<Void> runner = LongRunningWrapper.getThread(new LongRunningMethod<Void>() {
+
+			@Override
+			public Void execute(IMonitor monitor) throws Exception {
+				createExplanations(monitor);
+				return null;
+			}
+		}, "Explanations");
+		runner.setPriority(LongRunningExecutor.DECORATE);
+		synchronized (explanationLock) {
+			if (explanationRunner != null) {
+				explanationRunner.cancel();
+			}
+			explanationRunner = runner;
+		}
+		runner.schedule();
 	}
 
 	public FeatureModelAnalyzer clone(IFeatureModel newFeatureModel) {
@@ -723,7 +723,11 @@ public final class FeatureUtils {
 	public static final String getRelevantConstraintsString(IFeature feature) {
 		requireNonNull(feature);
 
-		return FeatureUtils.getRelevantConstraintsString(feature, feature.getFeatureModel().getConstraints());
+		final StringBuilder relevant = new StringBuilder();
+		for (final IConstraint constraint : feature.getStructure().getRelevantConstraints()) {
+			relevant.append((relevant.length() == 0 ? "" : "\n") + "\u2022 " + constraint.getNode().toString(NodeWriter.logicalSymbols) + " ");
+		}
+		return relevant.toString();
 	}
 
 	public static String getRelevantConstraintsString(IFeature feature, Collection<IConstraint> constraints) {
@@ -1356,19 +1360,14 @@ public final class FeatureUtils {
 		feature.getStructure().setParent(newParent.getStructure());
 	}
 
+	/**
+	 * @deprecated The relevant constraints are maintained by the feature model (see {@link IFeatureModel#getRelevantConstraints(IFeature)}).
+	 */
+	@Deprecated
 	public static void setRelevantConstraints(IFeature bone) {
 		requireNonNull(bone);
 
-		final List<IConstraint> constraintList = new LinkedList<>();
-		for (final IConstraint constraint : bone.getFeatureModel().getConstraints()) {
-			for (final IFeature f : constraint.getContainedFeatures()) {
-				if (f.getName().equals(bone.getName())) {
-					constraintList.add(constraint.clone(bone.getFeatureModel()));
-					break;
-				}
-			}
-		}
-		bone.getStructure().setRelevantConstraints(constraintList);
+		bone.getStructure().setRelevantConstraints();
 	}
 
 	public static final void setRoot(IFeatureModel featureModel, IFeature root) {
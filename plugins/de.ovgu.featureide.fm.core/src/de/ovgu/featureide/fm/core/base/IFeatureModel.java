@@ -336,6 +336,19 @@ public interface IFeatureModel extends Cloneable, IEventManager {
 	 */
 	List<IConstraint> getConstraints();
 
+	/**
+	 * Returns all constraints of this feature model that contain the given feature. The result is looked up in an index that is maintained by the feature
+	 * model, so calling this method is cheap. <br/> <br/> <b>Note</b>: The returned list is <b>unmodifiable</b>.
+	 *
+	 * @param feature the feature
+	 * @return All constraints containing the <code>feature</code>, in the order of their insertion.
+	 *
+	 * @see #getConstraints()
+	 *
+	 * @since 3.6
+	 */
+	List<IConstraint> getRelevantConstraints(IFeature feature);
+
 	/**
 	 * Returns the feature with the given <code>name</code> stored in this feature model, or <code>null</code> if no features can be found. The given
 	 * <code>name</code> is compared to the names of the contained features in a <i>case-sensitive</i> manner. Therefore <code>"FeatureA"</code> is unequal to
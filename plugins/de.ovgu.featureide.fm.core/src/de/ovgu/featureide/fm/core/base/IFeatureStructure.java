@@ -119,6 +119,10 @@ public interface IFeatureStructure {
 
 	void setParent(IFeatureStructure newParent);
 
+	/**
+	 * Discards relevant constraints set by {@link #setRelevantConstraints(List)}, such that {@link #getRelevantConstraints()} returns the constraints of the
+	 * feature model containing this feature (see {@link IFeatureModel#getRelevantConstraints(IFeature)}).
+	 */
 	void setRelevantConstraints();
 
 	void setRelevantConstraints(List<IConstraint> constraints); // Marcus, if calculated outside the class, see FeatureUtils.setRelevantConstraints(...)
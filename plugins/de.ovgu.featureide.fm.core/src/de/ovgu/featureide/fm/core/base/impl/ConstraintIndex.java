@@ -0,0 +1,171 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.base.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.IEventListener;
+
+/**
+ * Inverted index from feature names to the constraints containing them.<br/> The index is built on the first request. Afterwards, it is updated
+ * incrementally by the {@link FeatureModel} when constraints are added or removed and by {@link FeatureIDEEvent events} when a constraint is modified or a
+ * feature is renamed. The returned lists are never modified and can be used without further copying.
+ *
+ * @author FeatureIDE Team
+ */
+class ConstraintIndex implements IEventListener {
+
+	private final List<IConstraint> constraints;
+
+	private final Map<IConstraint, Set<String>> featuresOfConstraint = new HashMap<>();
+	private Map<String, List<IConstraint>> constraintsOfFeature = null;
+
+	/**
+	 * @param constraints the list of constraints of a feature model
+	 */
+	public ConstraintIndex(List<IConstraint> constraints) {
+		this.constraints = constraints;
+	}
+
+	public synchronized List<IConstraint> getConstraints(String featureName) {
+		if (constraintsOfFeature == null) {
+			build();
+		}
+		final List<IConstraint> list = constraintsOfFeature.get(featureName);
+		return (list != null) ? list : Collections.<IConstraint> emptyList();
+	}
+
+	private void build() {
+		final Map<String, List<IConstraint>> map = new HashMap<>();
+		for (final IConstraint constraint : constraints) {
+			final Set<String> featureNames = constraint.getNode().getUniqueContainedFeatures();
+			featuresOfConstraint.put(constraint, featureNames);
+			for (final String featureName : featureNames) {
+				List<IConstraint> list = map.get(featureName);
+				if (list == null) {
+					list = new ArrayList<>();
+					map.put(featureName, list);
+				}
+				list.add(constraint);
+			}
+		}
+		for (final Entry<String, List<IConstraint>> entry : map.entrySet()) {
+			entry.setValue(Collections.unmodifiableList(entry.getValue()));
+		}
+		constraintsOfFeature = map;
+	}
+
+	public synchronized void add(IConstraint constraint) {
+		if (constraintsOfFeature != null) {
+			final Set<String> featureNames = constraint.getNode().getUniqueContainedFeatures();
+			featuresOfConstraint.put(constraint, featureNames);
+			for (final String featureName : featureNames) {
+				final List<IConstraint> oldList = constraintsOfFeature.get(featureName);
+				final List<IConstraint> newList = (oldList != null) ? new ArrayList<>(oldList) : new ArrayList<IConstraint>(1);
+				newList.add(constraint);
+				constraintsOfFeature.put(featureName, Collections.unmodifiableList(newList));
+			}
+		}
+	}
+
+	public synchronized void remove(IConstraint constraint) {
+		if (constraintsOfFeature != null) {
+			final Set<String> featureNames = featuresOfConstraint.remove(constraint);
+			if (featureNames != null) {
+				for (final String featureName : featureNames) {
+					final List<IConstraint> oldList = constraintsOfFeature.get(featureName);
+					if (oldList != null) {
+						final List<IConstraint> newList = new ArrayList<>(oldList);
+						newList.remove(constraint);
+						if (newList.isEmpty()) {
+							constraintsOfFeature.remove(featureName);
+						} else {
+							constraintsOfFeature.put(featureName, Collections.unmodifiableList(newList));
+						}
+					}
+				}
+			}
+		}
+	}
+
+	public synchronized void rename(String oldName, String newName) {
+		if ((constraintsOfFeature != null) && !oldName.equals(newName)) {
+			final List<IConstraint> list = constraintsOfFeature.remove(oldName);
+			if (list != null) {
+				for (final IConstraint constraint : list) {
+					final Set<String> featureNames = featuresOfConstraint.get(constraint);
+					featureNames.remove(oldName);
+					featureNames.add(newName);
+				}
+				final List<IConstraint> otherList = constraintsOfFeature.get(newName);
+				if (otherList == null) {
+					constraintsOfFeature.put(newName, list);
+				} else {
+					final Set<IConstraint> mergedList = new LinkedHashSet<>(otherList);
+					mergedList.addAll(list);
+					constraintsOfFeature.put(newName, Collections.unmodifiableList(new ArrayList<>(mergedList)));
+				}
+			}
+		}
+	}
+
+	public synchronized void clear() {
+		featuresOfConstraint.clear();
+		constraintsOfFeature = null;
+	}
+
+	@Override
+	public void propertyChange(FeatureIDEEvent event) {
+		if (event.getEventType() == null) {
+			return;
+		}
+		switch (event.getEventType()) {
+		case CONSTRAINT_MODIFY:
+			if (event.getSource() instanceof IConstraint) {
+				final IConstraint constraint = (IConstraint) event.getSource();
+				synchronized (this) {
+					if (featuresOfConstraint.containsKey(constraint)) {
+						remove(constraint);
+						add(constraint);
+					}
+				}
+			}
+			break;
+		case FEATURE_NAME_CHANGED:
+			if ((event.getOldValue() instanceof String) && (event.getNewValue() instanceof String)) {
+				rename((String) event.getOldValue(), (String) event.getNewValue());
+			}
+			break;
+		default:
+			break;
+		}
+	}
+
+}
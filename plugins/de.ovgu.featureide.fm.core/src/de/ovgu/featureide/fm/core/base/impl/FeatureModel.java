@@ -79,6 +79,7 @@ public class FeatureModel implements IFeatureModel {
 
 	protected final FeatureModelAnalyzer analyser;
 	protected final List<IConstraint> constraints = new ArrayList<>();
+	private final ConstraintIndex constraintIndex = new ConstraintIndex(constraints);
 
 	/**
 	 * A list containing the feature names in their specified order will be initialized in XmlFeatureModelReader.
@@ -112,6 +113,7 @@ public class FeatureModel implements IFeatureModel {
 		structure = createStructure();
 
 		analyser = createAnalyser();
+		renamingsManager.addListener(constraintIndex);
 	}
 
 	protected FeatureModel(FeatureModel oldFeatureModel, IFeature newRoot) {
@@ -142,6 +144,7 @@ public class FeatureModel implements IFeatureModel {
 			}
 		}
 		analyser = oldFeatureModel.getAnalyser() == null ? createAnalyser() : oldFeatureModel.getAnalyser().clone(this);
+		renamingsManager.addListener(constraintIndex);
 	}
 
 	protected IFeatureModelProperty createProperty() {
@@ -155,11 +158,13 @@ public class FeatureModel implements IFeatureModel {
 	@Override
 	public void addConstraint(IConstraint constraint) {
 		constraints.add(constraint);
+		constraintIndex.add(constraint);
 	}
 
 	@Override
 	public void addConstraint(IConstraint constraint, int index) {
 		constraints.add(index, constraint);
+		constraintIndex.add(constraint);
 	}
 
 	@Override
@@ -255,6 +260,7 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public final void fireEvent(FeatureIDEEvent event) {
+		constraintIndex.propertyChange(event);
 		eventManager.fireEvent(event);
 	}
 
@@ -284,6 +290,11 @@ public class FeatureModel implements IFeatureModel {
 		return Collections.unmodifiableList(constraintList);
 	}
 
+	@Override
+	public List<IConstraint> getRelevantConstraints(IFeature feature) {
+		return constraintIndex.getConstraints(feature.getName());
+	}
+
 	@Override
 	public IFeature getFeature(CharSequence name) {
 		return featureTable.get(name);
@@ -382,13 +393,14 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void removeConstraint(IConstraint constraint) {
-		constraints.remove(constraint);
+		if (constraints.remove(constraint)) {
+			constraintIndex.remove(constraint);
+		}
 	}
 
 	@Override
 	public void removeConstraint(int index) {
-		constraints.remove(index);
-
+		constraintIndex.remove(constraints.remove(index));
 	}
 
 	@Override
@@ -396,7 +408,7 @@ public class FeatureModel implements IFeatureModel {
 		if (constraint == null) {
 			throw new NullPointerException();
 		}
-		constraints.set(index, constraint);
+		setConstraint(index, constraint);
 	}
 
 	@Override
@@ -406,6 +418,7 @@ public class FeatureModel implements IFeatureModel {
 		featureTable.clear();
 		renamingsManager.clear();
 		constraints.clear();
+		constraintIndex.clear();
 		featureOrderList.clear();
 
 		property.reset();
@@ -416,6 +429,7 @@ public class FeatureModel implements IFeatureModel {
 	public void setConstraints(Iterable<IConstraint> constraints) {
 		this.constraints.clear();
 		this.constraints.addAll(Functional.toList(constraints));
+		constraintIndex.clear();
 	}
 
 	@Override
@@ -529,7 +543,8 @@ public class FeatureModel implements IFeatureModel {
 
 	@Override
 	public void setConstraint(int index, IConstraint constraint) {
-		constraints.set(index, constraint);
+		constraintIndex.remove(constraints.set(index, constraint));
+		constraintIndex.add(constraint);
 	}
 
 	@Override
@@ -53,7 +53,10 @@ public class FeatureStructure implements IFeatureStructure {
 	protected boolean multiple;
 
 	protected IFeatureStructure parent = null;
-	protected List<IConstraint> partOfConstraints = new LinkedList<>();
+	/**
+	 * Relevant constraints set from outside, or <code>null</code> if they are looked up in the feature model.
+	 */
+	protected List<IConstraint> partOfConstraints = null;
 
 	protected FeatureStructure(FeatureStructure oldStructure, IFeatureModel newFeatureModel) {
 		if (newFeatureModel != null) {
@@ -211,7 +214,10 @@ public class FeatureStructure implements IFeatureStructure {
 
 	@Override
 	public Collection<IConstraint> getRelevantConstraints() {
-		return partOfConstraints;
+		if (partOfConstraints != null) {
+			return partOfConstraints;
+		}
+		return correspondingFeature.getFeatureModel().getRelevantConstraints(correspondingFeature);
 	}
 
 	@Override
@@ -422,16 +428,7 @@ public class FeatureStructure implements IFeatureStructure {
 
 	@Override
 	public void setRelevantConstraints() {
-		final List<IConstraint> constraintList = new LinkedList<>();
-		for (final IConstraint constraint : correspondingFeature.getFeatureModel().getConstraints()) {
-			for (final IFeature f : constraint.getContainedFeatures()) {
-				if (f.getName().equals(correspondingFeature.getName())) {
-					constraintList.add(constraint);
-					break;
-				}
-			}
-		}
-		partOfConstraints = constraintList;
+		partOfConstraints = null;
 	}
 
 	@Override
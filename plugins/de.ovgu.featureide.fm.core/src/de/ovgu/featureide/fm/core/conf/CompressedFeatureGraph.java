@@ -0,0 +1,442 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.prop4j.solver.SatInstance;
+
+/**
+ * Sparse feature graph that only stores existing edges.<br> Each feature has its own row of edges, which are sorted by the index of the target feature. All
+ * rows are stored in one array (compressed sparse rows). If a row is full, it is moved to the end of the array with a doubled capacity. The unused space can
+ * be removed by calling {@link #trim()}.<br> In addition, this graph can compute implications between two literals via the transitive closure of its strong
+ * edges (see {@link #isImplied(int, boolean, int, boolean)}).
+ *
+ * @author FeatureIDE Team
+ */
+public class CompressedFeatureGraph extends AFeatureGraph {
+
+	private static final long serialVersionUID = -2541785361735082264L;
+
+	private static final int INITIAL_ROW_CAPACITY = 4;
+
+	/**
+	 * Each entry contains the index of the target feature in the upper 24 bits and the edge value in the lower 8 bits.
+	 */
+	private int[] entries;
+	private int[] starts;
+	private int[] lengths;
+	private int[] capacities;
+	private int used;
+
+	/**
+	 * Strongly connected component for each literal (see {@link #getLiteralNode(int, boolean)}).
+	 */
+	private transient int[] components;
+	/**
+	 * Successor components for each component of the condensation.
+	 */
+	private transient int[][] componentEdges;
+	/**
+	 * Memoized set of reachable components for each component.
+	 */
+	private transient BitSet[] reachableComponents;
+
+	public CompressedFeatureGraph(SatInstance satInstance, int[] index) {
+		super(satInstance, index);
+		init();
+	}
+
+	public CompressedFeatureGraph() {
+		super();
+	}
+
+	private void init() {
+		starts = new int[size];
+		lengths = new int[size];
+		capacities = new int[size];
+		entries = new int[0];
+		used = 0;
+		invalidateClosure();
+	}
+
+	@Override
+	public void copyValues(IFeatureGraph otherGraph) {
+		super.copyValues(otherGraph);
+		if (otherGraph instanceof CompressedFeatureGraph) {
+			final CompressedFeatureGraph compressedGraph = (CompressedFeatureGraph) otherGraph;
+			entries = Arrays.copyOf(compressedGraph.entries, compressedGraph.entries.length);
+			starts = Arrays.copyOf(compressedGraph.starts, compressedGraph.starts.length);
+			lengths = Arrays.copyOf(compressedGraph.lengths, compressedGraph.lengths.length);
+			capacities = Arrays.copyOf(compressedGraph.capacities, compressedGraph.capacities.length);
+			used = compressedGraph.used;
+			invalidateClosure();
+		} else {
+			init();
+			int count = 0;
+			for (int from = 0; from < size; from++) {
+				for (int to = otherGraph.getNextNeighbor(from, 0); to >= 0; to = otherGraph.getNextNeighbor(from, to + 1)) {
+					count++;
+				}
+			}
+			entries = new int[count];
+			for (int from = 0; from < size; from++) {
+				starts[from] = used;
+				for (int to = otherGraph.getNextNeighbor(from, 0); to >= 0; to = otherGraph.getNextNeighbor(from, to + 1)) {
+					entries[used++] = createEntry(to, otherGraph.getEdge(from, to));
+				}
+				lengths[from] = used - starts[from];
+				capacities[from] = lengths[from];
+			}
+		}
+	}
+
+	@Override
+	public boolean setEdge(int from, int to, byte edgeType) {
+		if (from == to) {
+			return false;
+		}
+		final int position = find(from, to);
+		final byte oldValue = (position >= 0) ? getEdgeValue(entries[starts[from] + position]) : EDGE_NONE;
+		final byte newValue = getNewEdgeValue(oldValue, edgeType);
+		if (oldValue == newValue) {
+			return false;
+		}
+
+		if (position >= 0) {
+			if (newValue == EDGE_NONE) {
+				remove(from, position);
+			} else {
+				entries[starts[from] + position] = createEntry(to, newValue);
+			}
+		} else {
+			insert(from, -(position + 1), createEntry(to, newValue));
+		}
+
+		if (isStrongEdge((byte) (oldValue ^ newValue))) {
+			invalidateClosure();
+		}
+		return true;
+	}
+
+	@Override
+	public int getNextNeighbor(int fromIndex, int toIndex) {
+		int position = find(fromIndex, toIndex);
+		if (position < 0) {
+			position = -(position + 1);
+		}
+		return (position < lengths[fromIndex]) ? getTarget(entries[starts[fromIndex] + position]) : -1;
+	}
+
+	@Override
+	public byte getEdge(int fromIndex, int toIndex) {
+		final int position = find(fromIndex, toIndex);
+		return (position >= 0) ? getEdgeValue(entries[starts[fromIndex] + position]) : EDGE_NONE;
+	}
+
+	@Override
+	public byte getValue(int fromIndex, int toIndex, boolean fromSelected) {
+		final byte edge = getEdge(fromIndex, toIndex);
+		return (byte) (((fromSelected ? (edge >>> 4) : edge)) & 0x0000000f);
+	}
+
+	@Override
+	public byte getValueInternal(int fromIndex, int toIndex, boolean fromSelected) {
+		final int internalFrom = index[fromIndex];
+		final int internalTo = index[toIndex];
+		if ((internalFrom < 0) || (internalTo < 0)) {
+			return -1;
+		}
+		return getValue(internalFrom, internalTo, fromSelected);
+	}
+
+	/**
+	 * @return the number of stored edges
+	 */
+	public int getEdgeCount() {
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			count += lengths[i];
+		}
+		return count;
+	}
+
+	/**
+	 * Removes all unused space from the internal array.
+	 */
+	public void trim() {
+		final int[] newEntries = new int[getEdgeCount()];
+		int newUsed = 0;
+		for (int i = 0; i < size; i++) {
+			System.arraycopy(entries, starts[i], newEntries, newUsed, lengths[i]);
+			starts[i] = newUsed;
+			capacities[i] = lengths[i];
+			newUsed += lengths[i];
+		}
+		entries = newEntries;
+		used = newUsed;
+	}
+
+	/**
+	 * Checks whether the given literal is implied by another literal, regarding all strong edges in this graph (i.e., whether there is a path between both
+	 * literals).<br> The transitive closure is computed lazily on a condensation of the graph and is reset when a strong edge changes.
+	 *
+	 * @param fromIndex the internal index of the implying feature
+	 * @param fromSelected the selection of the implying feature
+	 * @param toIndex the internal index of the implied feature
+	 * @param toSelected the selection of the implied feature
+	 * @return {@code true} if the selection of the first feature implies the selection of the second feature, {@code false} otherwise
+	 */
+	public boolean isImplied(int fromIndex, boolean fromSelected, int toIndex, boolean toSelected) {
+		if (components == null) {
+			computeComponents();
+		}
+		final int fromComponent = components[getLiteralNode(fromIndex, fromSelected)];
+		final int toComponent = components[getLiteralNode(toIndex, toSelected)];
+		if (fromComponent == toComponent) {
+			return true;
+		}
+		BitSet reachable = reachableComponents[fromComponent];
+		if (reachable == null) {
+			reachable = computeReachableComponents(fromComponent);
+			reachableComponents[fromComponent] = reachable;
+		}
+		return reachable.get(toComponent);
+	}
+
+	private static int createEntry(int to, byte edge) {
+		return (to << 8) | (edge & 0x000000ff);
+	}
+
+	private static int getTarget(int entry) {
+		return entry >>> 8;
+	}
+
+	private static byte getEdgeValue(int entry) {
+		return (byte) entry;
+	}
+
+	private static int getLiteralNode(int index, boolean selected) {
+		return (index << 1) + (selected ? 1 : 0);
+	}
+
+	/**
+	 * Searches the row of a feature for an edge.
+	 *
+	 * @return the position of the edge within the row, if it exists, or {@code -(insertion point) - 1} otherwise
+	 */
+	private int find(int from, int to) {
+		final int start = starts[from];
+		int low = start;
+		int high = (start + lengths[from]) - 1;
+		while (low <= high) {
+			final int mid = (low + high) >>> 1;
+			final int midTarget = getTarget(entries[mid]);
+			if (midTarget < to) {
+				low = mid + 1;
+			} else if (midTarget > to) {
+				high = mid - 1;
+			} else {
+				return mid - start;
+			}
+		}
+		return -((low - start) + 1);
+	}
+
+	private void insert(int from, int position, int entry) {
+		final int length = lengths[from];
+		if (length == capacities[from]) {
+			final int newCapacity = Math.max(INITIAL_ROW_CAPACITY, length << 1);
+			if ((used + newCapacity) > entries.length) {
+				entries = Arrays.copyOf(entries, Math.max(used + newCapacity, entries.length + (entries.length >> 1)));
+			}
+			System.arraycopy(entries, starts[from], entries, used, length);
+			starts[from] = used;
+			capacities[from] = newCapacity;
+			used += newCapacity;
+		}
+		final int absolutePosition = starts[from] + position;
+		System.arraycopy(entries, absolutePosition, entries, absolutePosition + 1, length - position);
+		entries[absolutePosition] = entry;
+		lengths[from]++;
+	}
+
+	private void remove(int from, int position) {
+		final int absolutePosition = starts[from] + position;
+		System.arraycopy(entries, absolutePosition + 1, entries, absolutePosition, lengths[from] - position - 1);
+		lengths[from]--;
+	}
+
+	private void invalidateClosure() {
+		components = null;
+		componentEdges = null;
+		reachableComponents = null;
+	}
+
+	/**
+	 * Returns the literal nodes that are directly implied by a literal node.
+	 */
+	private int[] getSuccessors(int node) {
+		final int from = node >>> 1;
+		final boolean selected = (node & 1) != 0;
+		final int start = starts[from];
+		final int end = start + lengths[from];
+		final int[] successors = new int[(end - start) << 1];
+		int count = 0;
+		for (int i = start; i < end; i++) {
+			final int to = getTarget(entries[i]);
+			final byte edge = getEdgeValue(entries[i]);
+			if (isEdge(edge, selected ? EDGE_10 : EDGE_00)) {
+				successors[count++] = getLiteralNode(to, false);
+			}
+			if (isEdge(edge, selected ? EDGE_11 : EDGE_01)) {
+				successors[count++] = getLiteralNode(to, true);
+			}
+		}
+		return Arrays.copyOf(successors, count);
+	}
+
+	/**
+	 * Computes the strongly connected components of the literal graph using an iterative version of Tarjan's algorithm.
+	 */
+	private void computeComponents() {
+		final int nodeCount = size << 1;
+		final int[][] successors = new int[nodeCount][];
+		for (int i = 0; i < nodeCount; i++) {
+			successors[i] = getSuccessors(i);
+		}
+
+		final int[] nodeIndex = new int[nodeCount];
+		final int[] lowLink = new int[nodeCount];
+		final boolean[] onStack = new boolean[nodeCount];
+		final int[] nextSuccessor = new int[nodeCount];
+		final int[] stack = new int[nodeCount];
+		final int[] callStack = new int[nodeCount];
+		Arrays.fill(nodeIndex, -1);
+
+		final int[] newComponents = new int[nodeCount];
+		int componentCount = 0;
+		int indexCounter = 0;
+		int stackSize = 0;
+
+		for (int root = 0; root < nodeCount; root++) {
+			if (nodeIndex[root] >= 0) {
+				continue;
+			}
+			int callStackSize = 0;
+			callStack[callStackSize++] = root;
+			nodeIndex[root] = lowLink[root] = indexCounter++;
+			stack[stackSize++] = root;
+			onStack[root] = true;
+
+			while (callStackSize > 0) {
+				final int node = callStack[callStackSize - 1];
+				if (nextSuccessor[node] < successors[node].length) {
+					final int successor = successors[node][nextSuccessor[node]++];
+					if (nodeIndex[successor] < 0) {
+						nodeIndex[successor] = lowLink[successor] = indexCounter++;
+						stack[stackSize++] = successor;
+						onStack[successor] = true;
+						callStack[callStackSize++] = successor;
+					} else if (onStack[successor]) {
+						lowLink[node] = Math.min(lowLink[node], nodeIndex[successor]);
+					}
+				} else {
+					callStackSize--;
+					if (callStackSize > 0) {
+						final int parent = callStack[callStackSize - 1];
+						lowLink[parent] = Math.min(lowLink[parent], lowLink[node]);
+					}
+					if (lowLink[node] == nodeIndex[node]) {
+						int member;
+						do {
+							member = stack[--stackSize];
+							onStack[member] = false;
+							newComponents[member] = componentCount;
+						} while (member != node);
+						componentCount++;
+					}
+				}
+			}
+		}
+
+		final BitSet[] componentSuccessors = new BitSet[componentCount];
+		for (int i = 0; i < componentCount; i++) {
+			componentSuccessors[i] = new BitSet();
+		}
+		for (int node = 0; node < nodeCount; node++) {
+			final int component = newComponents[node];
+			for (final int successor : successors[node]) {
+				final int successorComponent = newComponents[successor];
+				if (successorComponent != component) {
+					componentSuccessors[component].set(successorComponent);
+				}
+			}
+		}
+		final int[][] newComponentEdges = new int[componentCount][];
+		for (int i = 0; i < componentCount; i++) {
+			final BitSet successorSet = componentSuccessors[i];
+			final int[] edges = new int[successorSet.cardinality()];
+			int j = 0;
+			for (int k = successorSet.nextSetBit(0); k >= 0; k = successorSet.nextSetBit(k + 1)) {
+				edges[j++] = k;
+			}
+			newComponentEdges[i] = edges;
+		}
+
+		components = newComponents;
+		componentEdges = newComponentEdges;
+		reachableComponents = new BitSet[componentCount];
+	}
+
+	/**
+	 * Computes all components that are reachable from a component within the condensation. Uses already memoized results of other components.
+	 */
+	private BitSet computeReachableComponents(int component) {
+		final BitSet reachable = new BitSet(componentEdges.length);
+		final int[] queue = new int[componentEdges.length];
+		int queueEnd = 0;
+		queue[queueEnd++] = component;
+		for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+			for (final int successor : componentEdges[queue[queueStart]]) {
+				if (!reachable.get(successor)) {
+					final BitSet memoized = reachableComponents[successor];
+					reachable.set(successor);
+					if (memoized != null) {
+						reachable.or(memoized);
+					} else {
+						queue[queueEnd++] = successor;
+					}
+				}
+			}
+		}
+		return reachable;
+	}
+
+	private void writeObject(ObjectOutputStream out) throws IOException {
+		trim();
+		out.defaultWriteObject();
+	}
+
+}
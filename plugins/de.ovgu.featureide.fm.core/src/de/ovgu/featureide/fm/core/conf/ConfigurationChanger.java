@@ -238,7 +238,7 @@ public class ConfigurationChanger implements IConfigurationChanger, IConfigurati
 						knownLiterals.add(new Literal(features[index], newValue == Variable.TRUE));
 					}
 
-					for (int i = 0; i < featureGraph.getSize(); i++) {
+					for (int i = featureGraph.getNextNeighbor(index, 0); i >= 0; i = featureGraph.getNextNeighbor(index, i + 1)) {
 						if (i != index) {
 							if (newValue != Variable.UNDEFINED) {
 								final byte edgeValue = featureGraph.getValue(index, i, newValue == Variable.TRUE);
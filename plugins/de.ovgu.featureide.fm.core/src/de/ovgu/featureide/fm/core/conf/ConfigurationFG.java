@@ -20,6 +20,7 @@
  */
 package de.ovgu.featureide.fm.core.conf;
 
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,6 +29,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.Set;
 
+import org.prop4j.solver.SatInstance;
 import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
@@ -40,7 +42,10 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.FeatureNotFoundException;
 import de.ovgu.featureide.fm.core.configuration.SelectableFeature;
 import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.FeatureGraphFormat;
+import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -76,6 +81,23 @@ public class ConfigurationFG extends Configuration {
 	private final VariableConfiguration variableConfiguration;
 	private final ConfigurationChanger propagator;
 
+	/**
+	 * Loads a precomputed feature graph for the given feature model (see {@link FeatureGraphFormat}).
+	 *
+	 * @param featureModel the feature model
+	 * @param path the path of the feature graph file
+	 * @return the feature graph or {@code null}, if the file does not exist or does not match the current feature model
+	 */
+	public static IFeatureGraph loadFeatureGraph(IFeatureModel featureModel, Path path) {
+		if (!FileSystem.exists(path)) {
+			return null;
+		}
+		final SatInstance satInstance = new SatInstance(AdvancedNodeCreator.createRegularCNF(featureModel),
+			Functional.mapToList(featureModel.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		final CompressedFeatureGraph featureGraph = new CompressedFeatureGraph();
+		return (FeatureGraphFormat.read(path, featureGraph, satInstance).containsError()) ? null : featureGraph;
+	}
+
 	/**
 	 * Creates a new configuration object.
 	 *
@@ -30,6 +30,16 @@ public interface IFeatureGraph extends Serializable {
 
 	byte getEdge(int fromIndex, int toIndex);
 
+	/**
+	 * Returns the first feature with an edge from the given feature, starting at the given index. Allows to visit all neighbors of a feature without checking
+	 * every other feature.
+	 *
+	 * @param fromIndex the internal index of the feature
+	 * @param toIndex the internal index to start the search at
+	 * @return the smallest internal index greater than or equal to {@code toIndex} that has an edge from {@code fromIndex}, or -1 if there is none
+	 */
+	int getNextNeighbor(int fromIndex, int toIndex);
+
 	byte getValue(int fromIndex, int toIndex, boolean fromSelected);
 
 	int getSize();
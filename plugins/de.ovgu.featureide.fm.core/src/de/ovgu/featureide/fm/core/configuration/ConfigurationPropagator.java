@@ -34,6 +34,7 @@ import org.prop4j.Node;
 import org.prop4j.analyses.AbstractAnalysis;
 import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
 import org.prop4j.analyses.CountSolutionAnalysis;
+import org.prop4j.analyses.CountSolutionAnalysis.CountingMethod;
 import org.prop4j.analyses.CoverAnalysis;
 import org.prop4j.analyses.GetSolutionAnalysis;
 import org.prop4j.analyses.RedundantAnalysis;
@@ -41,11 +42,9 @@ import org.prop4j.analyses.ResolveAnalysis;
 import org.prop4j.solver.BasicSolver;
 import org.prop4j.solver.ISatSolver.SatResult;
 import org.prop4j.solver.SatInstance;
-import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
-import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -126,31 +125,35 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 				return false;
 			}
 
-			final BasicSolver solver;
-			try {
-				solver = new BasicSolver(rootNode);
-			} catch (final ContradictionException e) {
-				Logger.logError(e);
-				return false;
-			}
+			final PropagationSession session = getSession();
+			synchronized (session) {
+				final BasicSolver solver = session.getSolver();
+				if (solver == null) {
+					return false;
+				}
 
-			Iterable<SelectableFeature> features = getFeatures();
-			features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
-			features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
-			for (final SelectableFeature feature : features) {
-				final int variable = rootNode.getVariable(feature.getFeature().getName());
-				solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
-			}
+				Iterable<SelectableFeature> features = getFeatures();
+				features = includeHiddenFeatures ? features : Functional.filter(features, visibleFilter);
+				features = includeUndefinedFeatures ? features : Functional.filter(features, selectedFilter);
+				try {
+					for (final SelectableFeature feature : features) {
+						final int variable = rootNode.getVariable(feature.getFeature().getName());
+						solver.assignmentPush((feature.getSelection() == Selection.SELECTED) ? variable : -variable);
+					}
 
-			final SatResult satResult = solver.isSatisfiable();
-			switch (satResult) {
-			case FALSE:
-			case TIMEOUT:
-				return false;
-			case TRUE:
-				return true;
-			default:
-				throw new AssertionError(satResult);
+					final SatResult satResult = solver.isSatisfiable();
+					switch (satResult) {
+					case FALSE:
+					case TIMEOUT:
+						return false;
+					case TRUE:
+						return true;
+					default:
+						throw new AssertionError(satResult);
+					}
+				} finally {
+					solver.assignmentClear(0);
+				}
 			}
 		}
 	}
@@ -216,7 +219,7 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			}
 
 			final SatInstance node = includeHiddenFeatures ? rootNode : rootNodeWithoutHidden;
-			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout);
+			final CountSolutionAnalysis analysis = new CountSolutionAnalysis(node, timeout, CountingMethod.COMPILATION);
 			analysis.setAssumptions(node.convertToInt(definedFeatures));
 			final Long result = LongRunningWrapper.runMethod(analysis);
 			return result == null ? 0 : result;
@@ -568,10 +571,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 			workMonitor.setRemainingWork(manualLiterals.size() + 1);
 			Collections.reverse(manualLiterals);
 
-			final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(rootNode);
 			final int[] intLiterals = rootNode.convertToInt(manualLiterals);
-			analysis.setAssumptions(intLiterals);
-			final int[] impliedFeatures = LongRunningWrapper.runMethod(analysis, workMonitor.subTask(1));
+			final int[] impliedFeatures = getSession().propagate(intLiterals, workMonitor.subTask(1));
 
 			// if there is a contradiction within the configuration
 			if (impliedFeatures == null) {
@@ -598,41 +599,45 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		}
 
 		private void computeRedundantManual(IMonitor workMonitor, final int[] intLiterals) {
-			final BasicSolver solver;
-			try {
-				solver = new BasicSolver(rootNode);
-			} catch (final ContradictionException e) {
-				Logger.logError(e);
-				return;
-			}
+			final PropagationSession session = getSession();
+			synchronized (session) {
+				final BasicSolver solver = session.getSolver();
+				if (solver == null) {
+					return;
+				}
 
-			for (final int feature : intLiterals) {
-				solver.assignmentPush(feature);
-			}
+				for (final int feature : intLiterals) {
+					solver.assignmentPush(feature);
+				}
 
-			int literalCount = intLiterals.length;
-			final IVecInt assignment = solver.getAssignment();
-			for (int i = 0; i < assignment.size(); i++) {
-				final int oLiteral = intLiterals[i];
-				final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
-				assignment.set(i, -oLiteral);
-				final SatResult satResult = solver.isSatisfiable();
-				switch (satResult) {
-				case FALSE:
-					configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
-					workMonitor.invoke(feature);
-					intLiterals[i] = intLiterals[--literalCount];
-					assignment.delete(i--);
-					break;
-				case TIMEOUT:
-				case TRUE:
-					assignment.set(i, oLiteral);
-					workMonitor.invoke(feature);
-					break;
-				default:
-					throw new AssertionError(satResult);
+				try {
+					int literalCount = intLiterals.length;
+					final IVecInt assignment = solver.getAssignment();
+					for (int i = 0; i < assignment.size(); i++) {
+						final int oLiteral = intLiterals[i];
+						final SelectableFeature feature = configuration.getSelectablefeature((String) rootNode.getVariableObject(oLiteral));
+						assignment.set(i, -oLiteral);
+						final SatResult satResult = solver.isSatisfiable();
+						switch (satResult) {
+						case FALSE:
+							configuration.setAutomatic(feature, oLiteral > 0 ? Selection.SELECTED : Selection.UNSELECTED);
+							workMonitor.invoke(feature);
+							intLiterals[i] = intLiterals[--literalCount];
+							assignment.delete(i--);
+							break;
+						case TIMEOUT:
+						case TRUE:
+							assignment.set(i, oLiteral);
+							workMonitor.invoke(feature);
+							break;
+						default:
+							throw new AssertionError(satResult);
+						}
+						workMonitor.worked();
+					}
+				} finally {
+					solver.assignmentClear(0);
 				}
-				workMonitor.worked();
 			}
 		}
 
@@ -642,6 +647,8 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 
 	private SatInstance rootNode = null, rootNodeWithoutHidden = null;
 
+	private PropagationSession session = null;
+
 	/**
 	 * This method creates a clone of the given {@link ConfigurationPropagator}
 	 *
@@ -756,6 +763,18 @@ public class ConfigurationPropagator implements IConfigurationPropagator {
 		return new ConfigurationPropagator(this, configuration);
 	}
 
+	/**
+	 * Returns the propagation session of this propagator. The session is created on first access and keeps its solver alive for all subsequent updates.
+	 *
+	 * @return the session for the current formula
+	 */
+	public synchronized PropagationSession getSession() {
+		if ((session == null) || (session.getSatInstance() != rootNode)) {
+			session = new PropagationSession(rootNode);
+		}
+		return session;
+	}
+
 	@SafeVarargs
 	private final Iterable<SelectableFeature> getFeatures(IFilter<SelectableFeature>... filter) {
 		final Iterable<SelectableFeature> source = configuration.ignoreAbstractFeatures ? Functional.filter(configuration.features, invalidFeatureFilter)
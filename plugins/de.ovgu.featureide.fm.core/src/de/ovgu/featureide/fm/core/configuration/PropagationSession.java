@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import java.util.Arrays;
+
+import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Keeps one solver alive for the propagation of a {@link Configuration}.</br> The solver (including its learned clauses) is reused between updates and
+ * the manual selections are only passed as assumptions. If the manual selections of an update extend those of the previous update, the previously implied
+ * literals are reused and only the remaining variables are checked.</br> All methods that use the solver must synchronize on the session.
+ *
+ * @author FeatureIDE Team
+ */
+public class PropagationSession {
+
+	private final SatInstance satInstance;
+
+	private BasicSolver solver = null;
+	private boolean contradiction = false;
+
+	private int[] lastAssumptions = new int[0];
+	private int[] lastImpliedLiterals = null;
+
+	public PropagationSession(SatInstance satInstance) {
+		this.satInstance = satInstance;
+	}
+
+	/**
+	 * Returns the shared solver of this session. Callers must synchronize on this session while using the solver and must clear the solver's assignment
+	 * afterwards.
+	 *
+	 * @return the solver or {@code null} if the formula is contradictory
+	 */
+	public synchronized BasicSolver getSolver() {
+		if ((solver == null) && !contradiction) {
+			try {
+				solver = new BasicSolver(satInstance);
+			} catch (final ContradictionException e) {
+				contradiction = true;
+			}
+		}
+		return solver;
+	}
+
+	/**
+	 * Computes all literals that are implied by the given assumptions.
+	 *
+	 * @param assumptions the manually selected literals
+	 * @param monitor the monitor
+	 * @return the implied literals (without the assumptions) or {@code null} if the formula is contradictory or the computation was canceled
+	 */
+	public synchronized int[] propagate(int[] assumptions, IMonitor monitor) {
+		final BasicSolver solver = getSolver();
+		if (solver == null) {
+			return null;
+		}
+
+		final int[] sortedAssumptions = Arrays.copyOf(assumptions, assumptions.length);
+		Arrays.sort(sortedAssumptions);
+
+		final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(solver);
+		analysis.setAssumptions(assumptions);
+		if ((lastImpliedLiterals != null) && containsAll(sortedAssumptions, lastAssumptions)) {
+			analysis.setKnownLiterals(lastImpliedLiterals);
+		}
+		final int[] impliedLiterals = LongRunningWrapper.runMethod(analysis, monitor);
+
+		lastAssumptions = sortedAssumptions;
+		lastImpliedLiterals = impliedLiterals;
+		return impliedLiterals;
+	}
+
+	/**
+	 * Forgets the results of the previous propagation. The solver is kept.
+	 */
+	public synchronized void reset() {
+		lastAssumptions = new int[0];
+		lastImpliedLiterals = null;
+	}
+
+	private static boolean containsAll(int[] sortedArray, int[] sortedSubArray) {
+		int i = 0;
+		for (final int literal : sortedSubArray) {
+			while ((i < sortedArray.length) && (sortedArray[i] < literal)) {
+				i++;
+			}
+			if ((i == sortedArray.length) || (sortedArray[i] != literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public SatInstance getSatInstance() {
+		return satInstance;
+	}
+
+}
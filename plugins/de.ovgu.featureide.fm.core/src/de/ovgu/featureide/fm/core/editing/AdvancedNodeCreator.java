@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.ListIterator;
 
 import org.prop4j.And;
+import org.prop4j.AuxiliaryVariable;
+import org.prop4j.CardinalityEncoder;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Not;
@@ -55,9 +57,20 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
 public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	public static enum CNFType {
-		None, Compact, Regular
+		None, Compact, Regular,
+		/**
+		 * Regular CNF, in which constraints that would create too many clauses are transformed using {@link AuxiliaryVariable auxiliary variables} (see
+		 * {@link Node#toTseitinCNF(int)}). Large alternative groups are encoded by a sequential counter (see {@link CardinalityEncoder}).
+		 */
+		Tseitin
 	}
 
+	/**
+	 * The maximum number of clauses that is created for a subformula of a constraint by distribution or for a cardinality constraint by pairwise encoding, if
+	 * the {@link CNFType#Tseitin Tseitin} CNF type is used.
+	 */
+	public static final int DEFAULT_TSEITIN_THRESHOLD = 16;
+
 	public static enum ModelType {
 		All, OnlyConstraints, OnlyStructure
 	}
@@ -103,6 +116,8 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private boolean optionalRoot = false;
 
+	private int tseitinThreshold = DEFAULT_TSEITIN_THRESHOLD;
+
 	private IFeatureModel featureModel = null;
 
 	private Collection<String> excludedFeatureNames = null;
@@ -174,7 +189,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 	 */
 	public Node createConstraintNode(IConstraint constraint, boolean positive) {
 		final List<Node> clauses = createConstraintNodes(constraint, new LinkedList<Node>(), positive);
-		if ((cnfType != CNFType.Regular) && (clauses.size() == 1)) {
+		if ((cnfType != CNFType.Regular) && (cnfType != CNFType.Tseitin) && (clauses.size() == 1)) {
 			return clauses.get(0);
 		}
 		return new And(clauses.toArray(new Node[clauses.size()]));
@@ -202,6 +217,17 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				traceModel.addTraceConstraint(constraint);
 			}
 			break;
+		case Tseitin:
+			if (!positive) {
+				clause = new Not(clause);
+			}
+			for (final Node andChild : clause.toTseitinCNF(tseitinThreshold).getChildren()) {
+				clauses.add(andChild);
+				if (isRecordingTraceModel()) {
+					traceModel.addTraceConstraint(constraint);
+				}
+			}
+			break;
 		case Regular:
 			compact = false;
 		case Compact:
@@ -239,6 +265,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 			final Or emptyNode = includeBooleanValues ? new Or(new Literal(NodeCreator.varTrue), new Literal(NodeCreator.varFalse, false)) : new Or();
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				return new And(emptyNode);
 			case None:
 			case Compact:
@@ -287,6 +314,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 			switch (cnfType) {
 			case Regular:
+			case Tseitin:
 				nodeArray[length] = new Or(new Literal[] { new Literal(NodeCreator.varTrue) });
 				nodeArray[length + 1] = new Or(new Literal[] { new Literal(NodeCreator.varFalse, false) });
 				break;
@@ -309,7 +337,8 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 
 	private Node removeFeatures(final Node[] nodeArray, IMonitor monitor) {
 		if ((excludedFeatureNames != null) && !excludedFeatureNames.isEmpty()) {
-			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues, cnfType == CNFType.Regular);
+			final FeatureRemover remover = new FeatureRemover(new And(nodeArray), excludedFeatureNames, includeBooleanValues,
+					(cnfType == CNFType.Regular) || (cnfType == CNFType.Tseitin));
 			return remover.createNewClauseList(LongRunningWrapper.runMethod(remover, monitor));
 		} else {
 			return new And(nodeArray);
@@ -326,6 +355,7 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 				clause = getLiteral(root, true);
 				switch (cnfType) {
 				case Regular:
+				case Tseitin:
 					clause = new Or(clause);
 					break;
 				case None:
@@ -393,16 +423,29 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 							traceModel.addTraceChildDown(feature, children);
 						}
 
-						for (final ListIterator<IFeatureStructure> it1 = feature.getStructure().getChildren().listIterator(); it1.hasNext();) {
-							final IFeatureStructure fs = it1.next();
-							final IFeature sibling1 = fs.getFeature();
-							for (final ListIterator<IFeatureStructure> it2 = feature.getStructure().getChildren().listIterator(it1.nextIndex()); it2
-									.hasNext();) {
-								final IFeature sibling2 = it2.next().getFeature();
-								clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
-								clauses.add(clause);
-								if (isRecordingTraceModel()) {
-									traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
+						final int childrenCount = feature.getStructure().getChildrenCount();
+						if ((cnfType == CNFType.Tseitin) && CardinalityEncoder.useCounter(childrenCount, 0, 1, tseitinThreshold)) {
+							final Literal[] childLiterals = Arrays.copyOf(alternativeLiterals, childrenCount);
+							final List<Node> counterClauses = new ArrayList<>();
+							counterClauses.add(new Or(CardinalityEncoder.encode(childLiterals, 0, 1, counterClauses)));
+							clauses.addAll(counterClauses);
+							if (isRecordingTraceModel()) {
+								for (int j = 0; j < counterClauses.size(); j++) {
+									traceModel.addTraceChildHorizontal(children);
+								}
+							}
+						} else {
+							for (final ListIterator<IFeatureStructure> it1 = feature.getStructure().getChildren().listIterator(); it1.hasNext();) {
+								final IFeatureStructure fs = it1.next();
+								final IFeature sibling1 = fs.getFeature();
+								for (final ListIterator<IFeatureStructure> it2 = feature.getStructure().getChildren().listIterator(it1.nextIndex()); it2
+										.hasNext();) {
+									final IFeature sibling2 = it2.next().getFeature();
+									clause = new Or(getLiteral(sibling1, false), getLiteral(sibling2, false));
+									clauses.add(clause);
+									if (isRecordingTraceModel()) {
+										traceModel.addTraceChildHorizontal(Arrays.asList(sibling1, sibling2));
+									}
 								}
 							}
 						}
@@ -457,6 +500,20 @@ public class AdvancedNodeCreator implements LongRunningMethod<Node> {
 		this.cnfType = cnfType;
 	}
 
+	public int getTseitinThreshold() {
+		return tseitinThreshold;
+	}
+
+	/**
+	 * Sets the maximum number of clauses that is created for a subformula of a constraint by distribution, if the {@link CNFType#Tseitin Tseitin} CNF type
+	 * is used. Larger subformulas are replaced by auxiliary variables.
+	 *
+	 * @param tseitinThreshold the maximum number of clauses
+	 */
+	public void setTseitinThreshold(int tseitinThreshold) {
+		this.tseitinThreshold = tseitinThreshold;
+	}
+
 	public void setUseOldNames(boolean useOldNames) {
 		this.useOldNames = useOldNames;
 	}
@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.prop4j.And;
+import org.prop4j.AuxiliaryVariable;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
@@ -73,14 +74,14 @@ public abstract class AFeatureRemover implements LongRunningMethod<List<? extend
 	protected final List<DeprecatedClause> newNewClauseList = new ArrayList<>();
 	protected final Set<DeprecatedClause> relevantClauseSet = new HashSet<>();
 	protected final Set<DeprecatedClause> newClauseSet = new HashSet<>();
-	protected final Set<String> retainedFeatures = new HashSet<>();
+	protected final Set<Object> retainedFeatures = new HashSet<>();
 
 	protected List<DeprecatedClause> relevantClauseList;
 	protected List<DeprecatedClause> newClauseList;
 
 	protected final Collection<String> features;
 	protected Map<Object, Integer> idMap;
-	protected String[] featureNameArray;
+	protected Object[] featureNameArray;
 
 	protected int[] helper;
 	protected DeprecatedFeature[] map;
@@ -116,7 +117,7 @@ public abstract class AFeatureRemover implements LongRunningMethod<List<? extend
 			// create clause that contains all retained features
 			final Node[] allLiterals = new Node[retainedFeatures.size() + 1];
 			int i = 0;
-			for (final String featureName : retainedFeatures) {
+			for (final Object featureName : retainedFeatures) {
 				allLiterals[i++] = new Literal(featureName);
 			}
 			allLiterals[i] = new Literal(NodeCreator.varTrue);
@@ -161,10 +162,10 @@ public abstract class AFeatureRemover implements LongRunningMethod<List<? extend
 		}
 	}
 
-	private void addLiteral(Set<String> retainedFeatures, Node orChild) {
+	private void addLiteral(Set<Object> retainedFeatures, Node orChild) {
 		final Literal literal = (Literal) orChild;
-		if (literal.var instanceof String) {
-			retainedFeatures.add((String) literal.var);
+		if ((literal.var instanceof String) || (literal.var instanceof AuxiliaryVariable)) {
+			retainedFeatures.add(literal.var);
 		}
 	}
 
@@ -422,7 +423,7 @@ public abstract class AFeatureRemover implements LongRunningMethod<List<? extend
 
 		collectFeatures();
 
-		featureNameArray = new String[retainedFeatures.size() + 1];
+		featureNameArray = new Object[retainedFeatures.size() + 1];
 		idMap = new HashMap<>(retainedFeatures.size() << 1);
 
 		int id = 1;
@@ -434,7 +435,7 @@ public abstract class AFeatureRemover implements LongRunningMethod<List<? extend
 
 		retainedFeatures.removeAll(features);
 
-		for (final String name : retainedFeatures) {
+		for (final Object name : retainedFeatures) {
 			idMap.put(name, id);
 			featureNameArray[id] = name;
 			id++;
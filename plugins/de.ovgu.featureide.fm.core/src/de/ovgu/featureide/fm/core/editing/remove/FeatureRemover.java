@@ -32,6 +32,7 @@ import java.util.Map;
 import java.util.Set;
 
 import org.prop4j.And;
+import org.prop4j.AuxiliaryVariable;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.prop4j.Or;
@@ -77,11 +78,11 @@ public class FeatureRemover implements LongRunningMethod<List<? extends Clause>>
 	protected final Set<DeprecatedClause> dirtyClauseSet = new HashSet<>();
 	protected final Set<DeprecatedClause> cleanClauseSet = new HashSet<>();
 
-	protected final Collection<String> cleanFeatures = new HashSet<>();
+	protected final Collection<Object> cleanFeatures = new HashSet<>();
 	protected final Collection<String> dirtyfeatures;
 
 	protected Map<Object, Integer> idMap;
-	protected String[] featureNameArray;
+	protected Object[] featureNameArray;
 
 	protected int[] helper;
 	protected DeprecatedFeature[] map;
@@ -120,7 +121,7 @@ public class FeatureRemover implements LongRunningMethod<List<? extends Clause>>
 			// Create clause that contains all clean features
 			final Node[] allLiterals = new Node[cleanFeatures.size() + 1];
 			int i = 0;
-			for (final String featureName : cleanFeatures) {
+			for (final Object featureName : cleanFeatures) {
 				allLiterals[i++] = new Literal(featureName);
 			}
 			allLiterals[i] = new Literal(NodeCreator.varTrue);
@@ -165,10 +166,10 @@ public class FeatureRemover implements LongRunningMethod<List<? extends Clause>>
 		}
 	}
 
-	private void addLiteral(Collection<String> cleanFeatures, Node orChild) {
+	private void addLiteral(Collection<Object> cleanFeatures, Node orChild) {
 		final Literal literal = (Literal) orChild;
-		if (literal.var instanceof String) {
-			cleanFeatures.add((String) literal.var);
+		if ((literal.var instanceof String) || (literal.var instanceof AuxiliaryVariable)) {
+			cleanFeatures.add(literal.var);
 		}
 	}
 
@@ -401,7 +402,7 @@ public class FeatureRemover implements LongRunningMethod<List<? extends Clause>>
 
 		collectFeatures();
 
-		featureNameArray = new String[cleanFeatures.size() + 1];
+		featureNameArray = new Object[cleanFeatures.size() + 1];
 		idMap = new HashMap<>(cleanFeatures.size() << 1);
 
 		int id = 1;
@@ -413,7 +414,7 @@ public class FeatureRemover implements LongRunningMethod<List<? extends Clause>>
 
 		cleanFeatures.removeAll(dirtyfeatures);
 
-		for (final String name : cleanFeatures) {
+		for (final Object name : cleanFeatures) {
 			idMap.put(name, id);
 			featureNameArray[id] = name;
 			id++;
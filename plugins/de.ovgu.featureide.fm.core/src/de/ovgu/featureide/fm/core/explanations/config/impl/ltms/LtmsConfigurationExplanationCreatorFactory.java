@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.explanations.config.impl.ltms;
 
 import org.prop4j.explain.solvers.impl.ltms.Ltms;
 import org.prop4j.explain.solvers.impl.ltms.LtmsSatSolverFactory;
+import org.prop4j.explain.solvers.impl.ltms.WatchedLiteralLtms;
 
 import de.ovgu.featureide.fm.core.explanations.config.ConfigurationExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.config.impl.mus.MusConfigurationExplanationCreatorFactory;
@@ -37,6 +38,15 @@ public class LtmsConfigurationExplanationCreatorFactory extends MusConfiguration
 	 * Constructs a new instance of this class.
 	 */
 	public LtmsConfigurationExplanationCreatorFactory() {
-		super(new LtmsSatSolverFactory());
+		this(true);
+	}
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param watchedLiterals whether to use the {@link WatchedLiteralLtms watched-literal implementation} of the LTMS
+	 */
+	public LtmsConfigurationExplanationCreatorFactory(boolean watchedLiterals) {
+		super(new LtmsSatSolverFactory(watchedLiterals));
 	}
 }
@@ -0,0 +1,271 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * <p> Creates explanations for many dead features, false-optional features, and redundant constraints of the same feature model in one pass. </p>
+ *
+ * <p> The subjects are distributed among several workers. Each worker owns one explanation creator per defect type, which is initialized only once with the
+ * feature model. Thus, all subjects handled by a worker share the same oracle, including the clauses it learned while explaining previous subjects, instead of
+ * building a new oracle for each subject. Workers fetch the next subject from a shared queue, as explaining different subjects can take very different
+ * amounts of time. </p>
+ *
+ * <p> The result maps each subject to its explanation. Subjects that cannot be explained are mapped to {@code null}. Each explained subject is passed to
+ * {@link IMonitor#invoke(Object)} after all workers finished. </p>
+ *
+ * @author FeatureIDE Team
+ */
+public class BatchFeatureModelExplanationCreator implements LongRunningMethod<Map<IFeatureModelElement, FeatureModelExplanation<?>>> {
+
+	/**
+	 * The minimal number of subjects per worker. If there are fewer subjects, fewer workers are used.
+	 */
+	public static final int MIN_SUBJECTS_PER_THREAD = 4;
+
+	private final class Worker extends Thread {
+
+		private DeadFeatureExplanationCreator deadFeatureExplanationCreator = null;
+		private FalseOptionalFeatureExplanationCreator falseOptionalFeatureExplanationCreator = null;
+		private RedundantConstraintExplanationCreator redundantConstraintExplanationCreator = null;
+
+		private Throwable error = null;
+
+		public Worker(int index) {
+			super("ExplanationWorker-" + index);
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (int i = nextSubject.getAndIncrement(); (i < subjects.size()) && !stop; i = nextSubject.getAndIncrement()) {
+					final IFeatureModelElement subject = subjects.get(i);
+					final FeatureModelExplanation<?> explanation;
+					if (i < deadFeatures.size()) {
+						explanation = getDeadFeatureExplanation((IFeature) subject);
+					} else if (i < (deadFeatures.size() + falseOptionalFeatures.size())) {
+						explanation = getFalseOptionalFeatureExplanation((IFeature) subject);
+					} else {
+						explanation = getRedundantConstraintExplanation((IConstraint) subject);
+					}
+					synchronized (explanations) {
+						explanations.put(subject, explanation);
+					}
+				}
+			} catch (final Throwable e) {
+				error = e;
+				stop = true;
+			}
+		}
+
+		private DeadFeatureExplanation getDeadFeatureExplanation(IFeature feature) {
+			if (deadFeatureExplanationCreator == null) {
+				deadFeatureExplanationCreator = factory.getDeadFeatureExplanationCreator();
+				deadFeatureExplanationCreator.setFeatureModel(fm);
+			}
+			deadFeatureExplanationCreator.setSubject(feature);
+			return deadFeatureExplanationCreator.getExplanation();
+		}
+
+		private FalseOptionalFeatureExplanation getFalseOptionalFeatureExplanation(IFeature feature) {
+			if (falseOptionalFeatureExplanationCreator == null) {
+				falseOptionalFeatureExplanationCreator = factory.getFalseOptionalFeatureExplanationCreator();
+				falseOptionalFeatureExplanationCreator.setFeatureModel(fm);
+			}
+			falseOptionalFeatureExplanationCreator.setSubject(feature);
+			return falseOptionalFeatureExplanationCreator.getExplanation();
+		}
+
+		private RedundantConstraintExplanation getRedundantConstraintExplanation(IConstraint constraint) {
+			if (redundantConstraintExplanationCreator == null) {
+				redundantConstraintExplanationCreator = factory.getRedundantConstraintExplanationCreator();
+				redundantConstraintExplanationCreator.setFeatureModel(fm);
+			}
+			redundantConstraintExplanationCreator.setSubject(constraint);
+			return redundantConstraintExplanationCreator.getExplanation();
+		}
+
+	}
+
+	private final IFeatureModel fm;
+	private final FeatureModelExplanationCreatorFactory factory;
+
+	private final List<IFeature> deadFeatures = new ArrayList<>();
+	private final List<IFeature> falseOptionalFeatures = new ArrayList<>();
+	private final List<IConstraint> redundantConstraints = new ArrayList<>();
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * All subjects in the order dead features, false-optional features, redundant constraints.
+	 */
+	private List<IFeatureModelElement> subjects;
+	private Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations;
+	private final AtomicInteger nextSubject = new AtomicInteger();
+	private volatile boolean stop;
+
+	/**
+	 * Constructs a new instance of this class using the {@link FeatureModelExplanationCreatorFactory#getDefault() default factory}.
+	 *
+	 * @param fm the feature model containing all subjects; not null
+	 */
+	public BatchFeatureModelExplanationCreator(IFeatureModel fm) {
+		this(fm, FeatureModelExplanationCreatorFactory.getDefault());
+	}
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param fm the feature model containing all subjects; not null
+	 * @param factory the factory used to create the explanation creators of each worker; not null
+	 */
+	public BatchFeatureModelExplanationCreator(IFeatureModel fm, FeatureModelExplanationCreatorFactory factory) {
+		this.fm = fm;
+		this.factory = factory;
+	}
+
+	@Override
+	public Map<IFeatureModelElement, FeatureModelExplanation<?>> execute(IMonitor monitor) throws Exception {
+		subjects = new ArrayList<>(deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size());
+		subjects.addAll(deadFeatures);
+		subjects.addAll(falseOptionalFeatures);
+		subjects.addAll(redundantConstraints);
+		explanations = new HashMap<>();
+		if (subjects.isEmpty()) {
+			return explanations;
+		}
+		nextSubject.set(0);
+		stop = false;
+		monitor.setRemainingWork(subjects.size());
+		monitor.checkCancel();
+
+		final int threads = Math.max(1, Math.min(numberOfThreads, subjects.size() / MIN_SUBJECTS_PER_THREAD));
+		final Worker[] workers = new Worker[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(i);
+		}
+		try {
+			for (final Worker worker : workers) {
+				worker.start();
+			}
+			int done = 0;
+			for (final Worker worker : workers) {
+				while (worker.isAlive()) {
+					worker.join(100);
+					final int finished;
+					synchronized (explanations) {
+						finished = explanations.size();
+					}
+					for (; done < finished; done++) {
+						monitor.worked();
+					}
+					monitor.checkCancel();
+				}
+			}
+		} catch (final MethodCancelException | InterruptedException e) {
+			stop = true;
+			for (final Worker worker : workers) {
+				worker.join();
+			}
+			throw e;
+		}
+		for (final Worker worker : workers) {
+			if (worker.error != null) {
+				throw new RuntimeException(worker.error);
+			}
+		}
+
+		for (final IFeatureModelElement subject : subjects) {
+			if (explanations.get(subject) != null) {
+				monitor.invoke(subject);
+			}
+		}
+		return explanations;
+	}
+
+	/**
+	 * Adds features that should be explained as dead.
+	 *
+	 * @param features dead features of the feature model; not null
+	 */
+	public void addDeadFeatures(Collection<IFeature> features) {
+		deadFeatures.addAll(features);
+	}
+
+	/**
+	 * Adds features that should be explained as false-optional.
+	 *
+	 * @param features false-optional features of the feature model; not null
+	 */
+	public void addFalseOptionalFeatures(Collection<IFeature> features) {
+		falseOptionalFeatures.addAll(features);
+	}
+
+	/**
+	 * Adds constraints that should be explained as redundant.
+	 *
+	 * @param constraints redundant constraints of the feature model; not null
+	 */
+	public void addRedundantConstraints(Collection<IConstraint> constraints) {
+		redundantConstraints.addAll(constraints);
+	}
+
+	public List<IFeature> getDeadFeatures() {
+		return Collections.unmodifiableList(deadFeatures);
+	}
+
+	public List<IFeature> getFalseOptionalFeatures() {
+		return Collections.unmodifiableList(falseOptionalFeatures);
+	}
+
+	public List<IConstraint> getRedundantConstraints() {
+		return Collections.unmodifiableList(redundantConstraints);
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the maximal number of worker threads. By default, one thread per available processor is used.
+	 *
+	 * @param numberOfThreads the number of threads (at least 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+}
@@ -22,6 +22,7 @@ package de.ovgu.featureide.fm.core.explanations.preprocessors.impl.ltms;
 
 import org.prop4j.explain.solvers.impl.ltms.Ltms;
 import org.prop4j.explain.solvers.impl.ltms.LtmsSatSolverFactory;
+import org.prop4j.explain.solvers.impl.ltms.WatchedLiteralLtms;
 
 import de.ovgu.featureide.fm.core.explanations.preprocessors.PreprocessorExplanationCreator;
 import de.ovgu.featureide.fm.core.explanations.preprocessors.impl.mus.MusPreprocessorExplanationCreatorFactory;
@@ -37,6 +38,15 @@ public class LtmsPreprocessorExplanationCreatorFactory extends MusPreprocessorEx
 	 * Constructs a new instance of this class.
 	 */
 	public LtmsPreprocessorExplanationCreatorFactory() {
-		super(new LtmsSatSolverFactory());
+		this(true);
+	}
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param watchedLiterals whether to use the {@link WatchedLiteralLtms watched-literal implementation} of the LTMS
+	 */
+	public LtmsPreprocessorExplanationCreatorFactory(boolean watchedLiterals) {
+		super(new LtmsSatSolverFactory(watchedLiterals));
 	}
 }
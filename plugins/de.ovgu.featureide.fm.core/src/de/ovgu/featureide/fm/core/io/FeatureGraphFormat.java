@@ -20,19 +20,26 @@
  */
 package de.ovgu.featureide.fm.core.io;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.IOException;
-import java.io.ObjectInputStream;
-import java.io.ObjectOutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.prop4j.solver.SatInstance;
 
-import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.CompressedFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
 
 /**
- * Reads / Writes a feature graph.
+ * Reads / Writes a feature graph.<br> The graph is stored in a versioned binary format. The header contains the hash of the model (see
+ * {@link #getModelHash(SatInstance)}) and the variable ordering, which are both checked when reading the graph for a {@link SatInstance}. Use
+ * {@link #write(Path, IFeatureGraph)} and {@link #read(Path, IFeatureGraph, SatInstance)} to access files directly. The {@link CharSequence} representation
+ * of {@link #write(IFeatureGraph)} and {@link #read(IFeatureGraph, CharSequence)} maps each byte to one character (ISO-8859-1).
  *
  * @author Sebastian Krieter
  */
@@ -40,29 +47,239 @@ public class FeatureGraphFormat extends APersistentFormat<IFeatureGraph> impleme
 
 	public static final String ID = PluginID.PLUGIN_ID + ".format.fg." + FeatureGraphFormat.class.getSimpleName();
 
-	@Override
-	public ProblemList read(IFeatureGraph object, CharSequence source) {
+	/**
+	 * "FGPH"
+	 */
+	public static final int MAGIC_NUMBER = 0x46475048;
+	public static final int VERSION = 1;
+
+	private static final Charset BYTE_CHARSET = Charset.forName("ISO-8859-1");
+	private static final Charset NAME_CHARSET = Charset.forName("UTF-8");
+
+	/**
+	 * Computes a hash for the CNF and the variable ordering of a {@link SatInstance}. A stored graph is only valid for an instance with the same hash. The
+	 * hash does not depend on the order of clauses and literals, as solvers may reorder them.
+	 *
+	 * @param satInstance the sat instance
+	 * @return the hash value
+	 */
+	public static long getModelHash(SatInstance satInstance) {
+		long hash = 1125899906842597L;
+		for (int i = 1; i <= satInstance.getNumberOfVariables(); i++) {
+			hash = (31 * hash) + String.valueOf(satInstance.getVariableObject(i)).hashCode();
+		}
+		final int[] clauseLiterals = satInstance.getClauseLiterals();
+		final int[] clauseOffsets = satInstance.getClauseOffsets();
+		long clauseHashSum = 0;
+		for (int i = 0; i < (clauseOffsets.length - 1); i++) {
+			final int[] clause = Arrays.copyOfRange(clauseLiterals, clauseOffsets[i], clauseOffsets[i + 1]);
+			Arrays.sort(clause);
+			long clauseHash = 17;
+			for (final int literal : clause) {
+				clauseHash = (31 * clauseHash) + literal;
+			}
+			// mix bits, so that the sum does not cancel out similar clauses
+			clauseHash *= 0x9E3779B97F4A7C15L;
+			clauseHashSum += clauseHash ^ (clauseHash >>> 32);
+		}
+		return (31 * hash) + clauseHashSum;
+	}
+
+	/**
+	 * Writes a feature graph to a file using {@link FileSystem}.
+	 *
+	 * @param path the file
+	 * @param featureGraph the graph
+	 * @return a list of problems that occurred
+	 */
+	public static ProblemList write(Path path, IFeatureGraph featureGraph) {
 		final ProblemList problems = new ProblemList();
-		try (final ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(source.toString().getBytes(Charset.forName("UTF-8"))))) {
-			final IFeatureGraph featureGraph = (IFeatureGraph) in.readObject();
-			object.copyValues(featureGraph);
-		} catch (IOException | ClassNotFoundException e) {
+		try {
+			FileSystem.write(path, toBytes(featureGraph));
+		} catch (final IOException e) {
 			problems.add(new Problem(e));
 		}
 		return problems;
 	}
 
-	@Override
-	public String write(IFeatureGraph object) {
-		final ByteArrayOutputStream byteArrayOutputStream = new ByteArrayOutputStream();
-		String ret = null;
-		try (final ObjectOutputStream out = new ObjectOutputStream(byteArrayOutputStream)) {
-			out.writeObject(object);
-			ret = byteArrayOutputStream.toString("UTF-8");
+	/**
+	 * Reads a feature graph from a file using {@link FileSystem}. The file is read into memory completely and is not kept open.
+	 *
+	 * @param path the file
+	 * @param featureGraph the graph that receives the stored values
+	 * @param satInstance the sat instance of the current model (can be {@code null} to skip the validation of hash and variable ordering)
+	 * @return a list of problems that occurred (contains an error if the file does not match the given sat instance)
+	 */
+	public static ProblemList read(Path path, IFeatureGraph featureGraph, SatInstance satInstance) {
+		final ProblemList problems = new ProblemList();
+		try {
+			fromBytes(ByteBuffer.wrap(FileSystem.read(path)), featureGraph, satInstance, problems);
 		} catch (final IOException e) {
-			Logger.logError(e);
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	private static byte[] toBytes(IFeatureGraph featureGraph) {
+		final SatInstance satInstance = featureGraph.getSatInstance();
+		final int[] index = featureGraph.getIndex();
+		final int size = featureGraph.getSize();
+
+		final byte[][] names = new byte[index.length][];
+		int length = 28 + (index.length * 8) + (size * 4);
+		for (int i = 0; i < index.length; i++) {
+			names[i] = (satInstance != null) ? String.valueOf(satInstance.getVariableObject(i + 1)).getBytes(NAME_CHARSET) : new byte[0];
+			length += names[i].length;
+		}
+		final int[] rowLengths = new int[size];
+		for (int from = 0; from < size; from++) {
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				rowLengths[from]++;
+			}
+			length += rowLengths[from] * 5;
+		}
+
+		final ByteBuffer buffer = ByteBuffer.allocate(length);
+		buffer.putInt(MAGIC_NUMBER);
+		buffer.putInt(VERSION);
+		buffer.putLong((satInstance != null) ? getModelHash(satInstance) : 0);
+		buffer.putInt(index.length);
+		for (int i = 0; i < index.length; i++) {
+			buffer.putInt(names[i].length);
+			buffer.put(names[i]);
+		}
+		for (int i = 0; i < index.length; i++) {
+			buffer.putInt(index[i]);
+		}
+		buffer.putInt(size);
+		for (int from = 0; from < size; from++) {
+			buffer.putInt(rowLengths[from]);
+		}
+		for (int from = 0; from < size; from++) {
+			for (int to = featureGraph.getNextNeighbor(from, 0); to >= 0; to = featureGraph.getNextNeighbor(from, to + 1)) {
+				buffer.putInt(to);
+				buffer.put(featureGraph.getEdge(from, to));
+			}
+		}
+		buffer.putInt(MAGIC_NUMBER);
+		return buffer.array();
+	}
+
+	private static void fromBytes(ByteBuffer buffer, IFeatureGraph featureGraph, SatInstance satInstance, ProblemList problems) {
+		try {
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Not a feature graph file", 0, Severity.ERROR));
+				return;
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				problems.add(new Problem("Unsupported feature graph version " + version, 0, Severity.ERROR));
+				return;
+			}
+			final long modelHash = buffer.getLong();
+			// each variable needs at least the length of its name and its index
+			final int numberOfVariables = getCount(buffer, 8);
+			if ((satInstance != null) && (numberOfVariables != satInstance.getNumberOfVariables())) {
+				problems.add(new Problem("Feature graph does not match the feature model", 0, Severity.ERROR));
+				return;
+			}
+			for (int i = 0; i < numberOfVariables; i++) {
+				final byte[] name = new byte[getCount(buffer, 1)];
+				buffer.get(name);
+				if ((satInstance != null) && !String.valueOf(satInstance.getVariableObject(i + 1)).equals(new String(name, NAME_CHARSET))) {
+					problems.add(new Problem("Feature graph does not match the feature model", 0, Severity.ERROR));
+					return;
+				}
+			}
+			if ((satInstance != null) && (modelHash != getModelHash(satInstance))) {
+				problems.add(new Problem("Feature graph does not match the feature model", 0, Severity.ERROR));
+				return;
+			}
+
+			final int[] index = new int[numberOfVariables];
+			final boolean[] usedIndices = new boolean[numberOfVariables];
+			for (int i = 0; i < numberOfVariables; i++) {
+				index[i] = buffer.getInt();
+				// negative values mark variables without a node, all other values have to be distinct
+				if (index[i] >= 0) {
+					if ((index[i] >= numberOfVariables) || usedIndices[index[i]]) {
+						problems.add(new Problem("Corrupt feature graph file", 0, Severity.ERROR));
+						return;
+					}
+					usedIndices[index[i]] = true;
+				}
+			}
+			final CompressedFeatureGraph storedGraph = new CompressedFeatureGraph(satInstance, index);
+			final int size = buffer.getInt();
+			if (size != storedGraph.getSize()) {
+				problems.add(new Problem("Corrupt feature graph file", 0, Severity.ERROR));
+				return;
+			}
+			for (int i = 0; i < numberOfVariables; i++) {
+				if (index[i] >= size) {
+					problems.add(new Problem("Corrupt feature graph file", 0, Severity.ERROR));
+					return;
+				}
+			}
+			final int[] rowLengths = new int[size];
+			for (int from = 0; from < size; from++) {
+				// each edge consists of the target and the edge value
+				rowLengths[from] = getCount(buffer, 5);
+			}
+			for (int from = 0; from < size; from++) {
+				for (int i = 0; i < rowLengths[from]; i++) {
+					final int to = buffer.getInt();
+					if ((to < 0) || (to >= size)) {
+						problems.add(new Problem("Corrupt feature graph file", 0, Severity.ERROR));
+						return;
+					}
+					final byte edge = buffer.get();
+					// set each edge type separately, as setEdge only accepts single edge types
+					for (int bit = 0; bit < 8; bit++) {
+						final byte edgeType = (byte) (edge & (1 << bit));
+						if (edgeType != AFeatureGraph.EDGE_NONE) {
+							storedGraph.setEdge(from, to, edgeType);
+						}
+					}
+				}
+			}
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Corrupt feature graph file", 0, Severity.ERROR));
+				return;
+			}
+			storedGraph.trim();
+			featureGraph.copyValues(storedGraph);
+		} catch (final BufferUnderflowException e) {
+			problems.add(new Problem("Corrupt feature graph file", 0, e));
+		}
+	}
+
+	/**
+	 * Reads the number of following elements.
+	 *
+	 * @param buffer the buffer
+	 * @param elementSize the minimal number of bytes of each element
+	 * @return the number of elements
+	 * @throws BufferUnderflowException if the number is negative or the buffer does not contain enough bytes for the elements
+	 */
+	private static int getCount(ByteBuffer buffer, int elementSize) {
+		final int count = buffer.getInt();
+		if ((count < 0) || (count > (buffer.remaining() / elementSize))) {
+			throw new BufferUnderflowException();
 		}
-		return ret;
+		return count;
+	}
+
+	@Override
+	public ProblemList read(IFeatureGraph object, CharSequence source) {
+		final ProblemList problems = new ProblemList();
+		fromBytes(ByteBuffer.wrap(source.toString().getBytes(BYTE_CHARSET)), object, null, problems);
+		return problems;
+	}
+
+	@Override
+	public String write(IFeatureGraph object) {
+		return new String(toBytes(object), BYTE_CHARSET);
 	}
 
 	@Override
@@ -0,0 +1,778 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.prop4j.And;
+import org.prop4j.AtLeast;
+import org.prop4j.AtMost;
+import org.prop4j.Choose;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.PluginID;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Entry;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.Problem.Severity;
+
+/**
+ * Reads / Writes a binary snapshot of a feature model.<br> A snapshot contains the same information as the {@link de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat
+ * XML format}, and, if available, the formula of the model in conjunctive normal form (see {@link FeatureModelAnalyzer#getCachedCnf()}) and the results of
+ * the last analysis. The header contains a hash of the file the model was read from (see {@link #getContentHash(byte[])}), which is checked when reading a snapshot.
+ * Use {@link #write(Path, IFeatureModel, byte[])} and {@link #read(Path, IFeatureModel, byte[])} to access files directly. The {@link CharSequence}
+ * representation of {@link #write(IFeatureModel)} and {@link #read(IFeatureModel, CharSequence)} maps each byte to one character (ISO-8859-1).
+ *
+ * @author FeatureIDE Team
+ */
+public class FeatureModelSnapshotFormat extends APersistentFormat<IFeatureModel> {
+
+	public static final String ID = PluginID.PLUGIN_ID + ".format.fm." + FeatureModelSnapshotFormat.class.getSimpleName();
+
+	/**
+	 * "FMSS"
+	 */
+	public static final int MAGIC_NUMBER = 0x464D5353;
+	public static final int VERSION = 1;
+
+	private static final Charset BYTE_CHARSET = Charset.forName("ISO-8859-1");
+	private static final Charset STRING_CHARSET = Charset.forName("UTF-8");
+
+	private static final byte FLAG_CNF = 1;
+	private static final byte FLAG_ANALYSIS = 2;
+
+	private static final byte GROUP_NONE = 0;
+	private static final byte GROUP_AND = 1;
+	private static final byte GROUP_OR = 2;
+	private static final byte GROUP_ALTERNATIVE = 3;
+
+	private static final byte FEATURE_MANDATORY = 1;
+	private static final byte FEATURE_ABSTRACT = 2;
+	private static final byte FEATURE_HIDDEN = 4;
+
+	private static final byte NODE_LITERAL = 0;
+	private static final byte NODE_NOT = 1;
+	private static final byte NODE_AND = 2;
+	private static final byte NODE_OR = 3;
+	private static final byte NODE_IMPLIES = 4;
+	private static final byte NODE_EQUALS = 5;
+	private static final byte NODE_AT_MOST = 6;
+	private static final byte NODE_AT_LEAST = 7;
+	private static final byte NODE_CHOOSE = 8;
+
+	/**
+	 * Computes the hash of a file's content. A stored snapshot is only valid for a file with the same hash.
+	 *
+	 * @param content the content of the file
+	 * @return the SHA-256 hash of the content
+	 */
+	public static byte[] getContentHash(byte[] content) {
+		try {
+			return MessageDigest.getInstance("SHA-256").digest(content);
+		} catch (final NoSuchAlgorithmException e) {
+			// every Java platform is required to support SHA-256
+			throw new IllegalStateException(e);
+		}
+	}
+
+	/**
+	 * Writes a snapshot of a feature model to a file. Includes the formula of the model and the results of the last analysis, if they are already
+	 * available and up to date.
+	 *
+	 * @param path the file
+	 * @param featureModel the feature model
+	 * @param contentHash the hash of the file the model was read from
+	 * @return a list of problems that occurred
+	 */
+	public static ProblemList write(Path path, IFeatureModel featureModel, byte[] contentHash) {
+		final ProblemList problems = new ProblemList();
+		try {
+			FileSystem.write(path, toBytes(featureModel, contentHash));
+		} catch (final IOException e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	/**
+	 * Reads a snapshot of a feature model from a file. The feature model is only changed if the whole snapshot could be read.
+	 *
+	 * @param path the file
+	 * @param featureModel the feature model that receives the stored values
+	 * @param contentHash the hash of the file the model should be read from (can be {@code null} to skip the validation of the hash)
+	 * @return a list of problems that occurred (contains an error if the snapshot does not match the given hash)
+	 */
+	public static ProblemList read(Path path, IFeatureModel featureModel, byte[] contentHash) {
+		final ProblemList problems = new ProblemList();
+		try {
+			fromBytes(ByteBuffer.wrap(FileSystem.read(path)), featureModel, contentHash, problems);
+		} catch (final IOException e) {
+			problems.add(new Problem(e));
+		}
+		return problems;
+	}
+
+	private static byte[] toBytes(IFeatureModel featureModel, byte[] contentHash) throws IOException {
+		final IFeature root = FeatureUtils.getRoot(featureModel);
+		if (root == null) {
+			throw new IOException("Feature model has no root feature");
+		}
+		final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+		// the formula is only stored if it was already created, as creating it can take longer than reading the model
+		final Node cnf = analyser.getCachedCnf();
+		final Map<String, Integer> variables = (cnf != null) ? getVariables(cnf) : null;
+		final int[] clauses = (variables != null) ? getClauses(cnf, variables) : null;
+		final boolean hasResults = analyser.hasCurrentResults();
+
+		final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+		final DataOutputStream out = new DataOutputStream(bytes);
+		out.writeInt(MAGIC_NUMBER);
+		out.writeInt(VERSION);
+		final byte[] hash = (contentHash != null) ? contentHash : new byte[0];
+		out.writeInt(hash.length);
+		out.write(hash);
+		out.writeByte(((clauses != null) ? FLAG_CNF : 0) | (hasResults ? FLAG_ANALYSIS : 0));
+
+		out.writeBoolean(analyser.runCalculationAutomatically);
+		out.writeBoolean(analyser.calculateFeatures);
+		out.writeBoolean(analyser.calculateConstraints);
+		out.writeBoolean(analyser.calculateRedundantConstraints);
+		out.writeBoolean(analyser.calculateTautologyConstraints);
+
+		final List<String> comments = new ArrayList<>();
+		for (final String comment : featureModel.getProperty().getComments()) {
+			comments.add(comment);
+		}
+		writeStrings(out, comments);
+
+		out.writeInt(featureModel.getNumberOfFeatures());
+		writeFeature(out, root);
+
+		out.writeInt(featureModel.getConstraintCount());
+		for (final IConstraint constraint : featureModel.getConstraints()) {
+			writeString(out, constraint.getDescription());
+			writeNode(out, constraint.getNode());
+		}
+
+		// the feature order is stored as in the XML format, which replaces an empty user defined order by the concrete features
+		out.writeBoolean(featureModel.isFeatureOrderUserDefined());
+		if (featureModel.isFeatureOrderUserDefined()) {
+			final Collection<String> featureOrderList = featureModel.getFeatureOrderList();
+			writeStrings(out, featureOrderList.isEmpty() ? FeatureUtils.extractConcreteFeaturesAsStringList(featureModel) : featureOrderList);
+		} else {
+			out.writeInt(0);
+		}
+
+		if (clauses != null) {
+			writeStrings(out, variables.keySet());
+			out.writeInt(cnf.getChildren().length);
+			out.writeInt(clauses.length);
+			for (final int literal : clauses) {
+				out.writeInt(literal);
+			}
+		}
+
+		if (hasResults) {
+			out.writeBoolean(analyser.valid());
+			writeFeatureNames(out, analyser.getCachedCoreFeatures());
+			writeFeatureNames(out, analyser.getCachedDeadFeatures());
+			writeFeatureNames(out, analyser.getCachedFalseOptionalFeatures());
+		}
+
+		out.writeInt(MAGIC_NUMBER);
+		out.flush();
+		return bytes.toByteArray();
+	}
+
+	/**
+	 * Converts a formula in conjunctive normal form into a sequence of clauses. Each clause is terminated by a 0 and contains the indices of its variables,
+	 * which are negated for negative literals.
+	 */
+	private static int[] getClauses(Node cnf, Map<String, Integer> variables) {
+		int length = 0;
+		for (final Node clause : cnf.getChildren()) {
+			length += clause.getChildren().length + 1;
+		}
+		final int[] clauses = new int[length];
+		int index = 0;
+		for (final Node clause : cnf.getChildren()) {
+			for (final Node child : clause.getChildren()) {
+				final Literal literal = (Literal) child;
+				final int variable = variables.get(literal.var);
+				clauses[index++] = literal.positive ? variable : -variable;
+			}
+			clauses[index++] = 0;
+		}
+		return clauses;
+	}
+
+	/**
+	 * Assigns an index to each variable of a formula in conjunctive normal form in the order of their first occurrence.
+	 *
+	 * @return the indices of the variables (starting with 1) or {@code null} if the formula is not a conjunction of clauses over variable names
+	 */
+	private static Map<String, Integer> getVariables(Node cnf) {
+		if (!(cnf instanceof And)) {
+			return null;
+		}
+		final Map<String, Integer> variables = new LinkedHashMap<>();
+		for (final Node clause : cnf.getChildren()) {
+			if (!(clause instanceof Or)) {
+				return null;
+			}
+			for (final Node child : clause.getChildren()) {
+				if (!(child instanceof Literal) || !(((Literal) child).var instanceof String)) {
+					return null;
+				}
+				final String variable = (String) ((Literal) child).var;
+				if (!variables.containsKey(variable)) {
+					variables.put(variable, variables.size() + 1);
+				}
+			}
+		}
+		return variables;
+	}
+
+	private static void writeFeature(DataOutputStream out, IFeature feature) throws IOException {
+		final IFeatureStructure structure = feature.getStructure();
+		writeString(out, feature.getName());
+
+		// group type and mandatory flag are stored as in the XML format, which omits them where they do not have any meaning
+		if (!structure.hasChildren()) {
+			out.writeByte(GROUP_NONE);
+		} else if (structure.isAnd()) {
+			out.writeByte(GROUP_AND);
+		} else if (structure.isOr()) {
+			out.writeByte(GROUP_OR);
+		} else {
+			out.writeByte(GROUP_ALTERNATIVE);
+		}
+		final IFeatureStructure parent = structure.getParent();
+		final boolean mandatory = structure.isMandatory() && ((parent == null) || parent.isAnd());
+		out.writeByte((mandatory ? FEATURE_MANDATORY : 0) | (structure.isAbstract() ? FEATURE_ABSTRACT : 0) | (structure.isHidden() ? FEATURE_HIDDEN : 0));
+		writeString(out, feature.getProperty().getDescription());
+
+		final Set<Entry<String, Type, Object>> properties = feature.getCustomProperties().entrySet();
+		out.writeInt(properties.size());
+		for (final Entry<String, Type, Object> entry : properties) {
+			writeString(out, entry.getKey());
+			out.writeByte(entry.getType().ordinal());
+			writeValue(out, entry.getType(), entry.getValue());
+		}
+
+		out.writeInt(structure.getChildrenCount());
+		for (final IFeatureStructure child : structure.getChildren()) {
+			writeFeature(out, child.getFeature());
+		}
+	}
+
+	private static void writeValue(DataOutputStream out, Type type, Object value) throws IOException {
+		switch (type) {
+		case BOOLEAN:
+			out.writeBoolean((Boolean) value);
+			break;
+		case BYTE:
+			out.writeByte((Byte) value);
+			break;
+		case CHAR:
+			out.writeChar((Character) value);
+			break;
+		case DOUBLE:
+			out.writeDouble((Double) value);
+			break;
+		case FLOAT:
+			out.writeFloat((Float) value);
+			break;
+		case INT:
+			out.writeInt((Integer) value);
+			break;
+		case LONG:
+			out.writeLong((Long) value);
+			break;
+		case SHORT:
+			out.writeShort((Short) value);
+			break;
+		case STRING:
+			writeString(out, (String) value);
+			break;
+		default:
+			throw new IOException("Unsupported value type for property: " + type);
+		}
+	}
+
+	private static void writeNode(DataOutputStream out, Node node) throws IOException {
+		if (node instanceof Literal) {
+			out.writeByte(NODE_LITERAL);
+			writeString(out, String.valueOf(((Literal) node).var));
+			out.writeBoolean(((Literal) node).positive);
+			return;
+		} else if (node instanceof Not) {
+			out.writeByte(NODE_NOT);
+		} else if (node instanceof And) {
+			out.writeByte(NODE_AND);
+		} else if (node instanceof Or) {
+			out.writeByte(NODE_OR);
+		} else if (node instanceof Implies) {
+			out.writeByte(NODE_IMPLIES);
+		} else if (node instanceof Equals) {
+			out.writeByte(NODE_EQUALS);
+		} else if (node instanceof AtMost) {
+			out.writeByte(NODE_AT_MOST);
+			out.writeInt(((AtMost) node).max);
+		} else if (node instanceof AtLeast) {
+			out.writeByte(NODE_AT_LEAST);
+			out.writeInt(((AtLeast) node).min);
+		} else if (node instanceof Choose) {
+			out.writeByte(NODE_CHOOSE);
+			out.writeInt(((Choose) node).n);
+		} else {
+			throw new IOException("Unsupported node type: " + ((node == null) ? null : node.getClass().getSimpleName()));
+		}
+		final Node[] children = node.getChildren();
+		out.writeInt(children.length);
+		for (final Node child : children) {
+			writeNode(out, child);
+		}
+	}
+
+	private static void writeFeatureNames(DataOutputStream out, Collection<IFeature> features) throws IOException {
+		out.writeInt(features.size());
+		for (final IFeature feature : features) {
+			writeString(out, feature.getName());
+		}
+	}
+
+	private static void writeStrings(DataOutputStream out, Collection<String> strings) throws IOException {
+		out.writeInt(strings.size());
+		for (final String string : strings) {
+			writeString(out, string);
+		}
+	}
+
+	/**
+	 * Writes a length-prefixed string. {@code null} is stored with a length of -1.
+	 */
+	private static void writeString(DataOutputStream out, String string) throws IOException {
+		if (string == null) {
+			out.writeInt(-1);
+		} else {
+			final byte[] bytes = string.getBytes(STRING_CHARSET);
+			out.writeInt(bytes.length);
+			out.write(bytes);
+		}
+	}
+
+	/**
+	 * A feature as stored in a snapshot. Features are read into this temporary representation first, so that the feature model is only changed if the
+	 * whole snapshot could be read.
+	 */
+	private static class StoredFeature {
+
+		private String name;
+		private byte group;
+		private byte flags;
+		private String description;
+		private Set<Entry<String, Type, Object>> properties;
+		private final List<StoredFeature> children = new ArrayList<>();
+
+		private int count() {
+			int count = 1;
+			for (final StoredFeature child : children) {
+				count += child.count();
+			}
+			return count;
+		}
+
+		private void collectNames(Set<String> names) {
+			names.add(name);
+			for (final StoredFeature child : children) {
+				child.collectNames(names);
+			}
+		}
+	}
+
+	private static void fromBytes(ByteBuffer buffer, IFeatureModel featureModel, byte[] contentHash, ProblemList problems) {
+		try {
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Not a feature model snapshot file", 0, Severity.ERROR));
+				return;
+			}
+			final int version = buffer.getInt();
+			if (version != VERSION) {
+				problems.add(new Problem("Unsupported feature model snapshot version " + version, 0, Severity.ERROR));
+				return;
+			}
+			final byte[] hash = new byte[buffer.getInt()];
+			buffer.get(hash);
+			if ((contentHash != null) && !Arrays.equals(hash, contentHash)) {
+				problems.add(new Problem("Snapshot does not match the feature model file", 0, Severity.ERROR));
+				return;
+			}
+			final byte flags = buffer.get();
+
+			final boolean runCalculationAutomatically = readBoolean(buffer);
+			final boolean calculateFeatures = readBoolean(buffer);
+			final boolean calculateConstraints = readBoolean(buffer);
+			final boolean calculateRedundantConstraints = readBoolean(buffer);
+			final boolean calculateTautologyConstraints = readBoolean(buffer);
+
+			final List<String> comments = readStrings(buffer);
+
+			final int numberOfFeatures = buffer.getInt();
+			final StoredFeature root = readFeature(buffer);
+			if (root.count() != numberOfFeatures) {
+				problems.add(new Problem("Corrupt feature model snapshot file", 0, Severity.ERROR));
+				return;
+			}
+
+			final int numberOfConstraints = buffer.getInt();
+			final List<String> constraintDescriptions = new ArrayList<>(numberOfConstraints);
+			final List<Node> constraintNodes = new ArrayList<>(numberOfConstraints);
+			for (int i = 0; i < numberOfConstraints; i++) {
+				constraintDescriptions.add(readString(buffer));
+				constraintNodes.add(readNode(buffer));
+			}
+
+			final boolean featureOrderUserDefined = readBoolean(buffer);
+			final List<String> featureOrderList = readStrings(buffer);
+
+			Node cnf = null;
+			if ((flags & FLAG_CNF) != 0) {
+				final List<String> variables = readStrings(buffer);
+				final Node[] clauses = new Node[buffer.getInt()];
+				final int[] literals = new int[buffer.getInt()];
+				for (int i = 0; i < literals.length; i++) {
+					literals[i] = buffer.getInt();
+				}
+				int start = 0;
+				for (int i = 0; i < clauses.length; i++) {
+					int end = start;
+					while (literals[end] != 0) {
+						end++;
+					}
+					final Literal[] clause = new Literal[end - start];
+					for (int j = 0; j < clause.length; j++) {
+						final int literal = literals[start + j];
+						clause[j] = new Literal(variables.get(Math.abs(literal) - 1), literal > 0);
+					}
+					clauses[i] = new Or(clause);
+					start = end + 1;
+				}
+				cnf = new And(clauses);
+			}
+
+			boolean valid = false;
+			List<String> coreFeatures = null, deadFeatures = null, falseOptionalFeatures = null;
+			if ((flags & FLAG_ANALYSIS) != 0) {
+				valid = readBoolean(buffer);
+				coreFeatures = readStrings(buffer);
+				deadFeatures = readStrings(buffer);
+				falseOptionalFeatures = readStrings(buffer);
+				final Set<String> featureNames = new HashSet<>();
+				root.collectNames(featureNames);
+				if (!featureNames.containsAll(coreFeatures) || !featureNames.containsAll(deadFeatures) || !featureNames.containsAll(falseOptionalFeatures)) {
+					problems.add(new Problem("Corrupt feature model snapshot file", 0, Severity.ERROR));
+					return;
+				}
+			}
+
+			if (buffer.getInt() != MAGIC_NUMBER) {
+				problems.add(new Problem("Corrupt feature model snapshot file", 0, Severity.ERROR));
+				return;
+			}
+
+			// the snapshot was read completely, so the feature model can be changed now
+			featureModel.reset();
+			final IFeatureModelFactory factory = FMFactoryManager.getFactory(featureModel);
+			final FeatureModelAnalyzer analyser = featureModel.getAnalyser();
+
+			analyser.runCalculationAutomatically = runCalculationAutomatically;
+			analyser.calculateFeatures = calculateFeatures;
+			analyser.calculateConstraints = calculateConstraints;
+			analyser.calculateRedundantConstraints = calculateRedundantConstraints;
+			analyser.calculateTautologyConstraints = calculateTautologyConstraints;
+
+			for (final String comment : comments) {
+				featureModel.getProperty().addComment(comment);
+			}
+
+			createFeature(root, featureModel, factory, null);
+
+			for (int i = 0; i < numberOfConstraints; i++) {
+				final IConstraint constraint = factory.createConstraint(featureModel, constraintNodes.get(i));
+				final String description = constraintDescriptions.get(i);
+				if (description != null) {
+					constraint.setDescription(description);
+				}
+				featureModel.addConstraint(constraint);
+			}
+
+			featureModel.setFeatureOrderUserDefined(featureOrderUserDefined);
+			if (!featureOrderList.isEmpty()) {
+				featureModel.setFeatureOrderList(featureOrderList);
+			}
+
+			if ((coreFeatures != null) && (deadFeatures != null) && (falseOptionalFeatures != null)) {
+				analyser.restoreResults(valid, getFeatures(featureModel, coreFeatures), getFeatures(featureModel, deadFeatures),
+						getFeatures(featureModel, falseOptionalFeatures));
+			}
+			if (cnf != null) {
+				analyser.setCnf(cnf);
+			}
+		} catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+			problems.add(new Problem("Corrupt feature model snapshot file", 0, e));
+		}
+	}
+
+	private static StoredFeature readFeature(ByteBuffer buffer) {
+		final StoredFeature feature = new StoredFeature();
+		feature.name = readString(buffer);
+		feature.group = buffer.get();
+		feature.flags = buffer.get();
+		feature.description = readString(buffer);
+
+		final int numberOfProperties = buffer.getInt();
+		if (numberOfProperties > 0) {
+			feature.properties = new HashSet<>();
+			for (int i = 0; i < numberOfProperties; i++) {
+				final String key = readString(buffer);
+				final Type type = Type.values()[buffer.get()];
+				feature.properties.add(new Entry<String, Type, Object>(key, type, readValue(buffer, type)));
+			}
+		}
+
+		final int numberOfChildren = buffer.getInt();
+		for (int i = 0; i < numberOfChildren; i++) {
+			feature.children.add(readFeature(buffer));
+		}
+		return feature;
+	}
+
+	private static void createFeature(StoredFeature storedFeature, IFeatureModel featureModel, IFeatureModelFactory factory, IFeature parent) {
+		final IFeature feature = factory.createFeature(featureModel, storedFeature.name);
+		final IFeatureStructure structure = feature.getStructure();
+		structure.setMandatory(true);
+		switch (storedFeature.group) {
+		case GROUP_AND:
+			structure.setAnd();
+			break;
+		case GROUP_OR:
+			structure.setOr();
+			break;
+		case GROUP_ALTERNATIVE:
+			structure.setAlternative();
+			break;
+		default:
+			break;
+		}
+		structure.setAbstract((storedFeature.flags & FEATURE_ABSTRACT) != 0);
+		structure.setMandatory((storedFeature.flags & FEATURE_MANDATORY) != 0);
+		structure.setHidden((storedFeature.flags & FEATURE_HIDDEN) != 0);
+		if (storedFeature.description != null) {
+			feature.getProperty().setDescription(storedFeature.description);
+		}
+		if (storedFeature.properties != null) {
+			feature.getCustomProperties().setEntrySet(storedFeature.properties);
+		}
+
+		featureModel.addFeature(feature);
+		if (parent == null) {
+			featureModel.getStructure().setRoot(structure);
+		} else {
+			parent.getStructure().addChild(structure);
+		}
+
+		for (final StoredFeature child : storedFeature.children) {
+			createFeature(child, featureModel, factory, feature);
+		}
+	}
+
+	private static Object readValue(ByteBuffer buffer, Type type) {
+		switch (type) {
+		case BOOLEAN:
+			return readBoolean(buffer);
+		case BYTE:
+			return buffer.get();
+		case CHAR:
+			return buffer.getChar();
+		case DOUBLE:
+			return buffer.getDouble();
+		case FLOAT:
+			return buffer.getFloat();
+		case INT:
+			return buffer.getInt();
+		case LONG:
+			return buffer.getLong();
+		case SHORT:
+			return buffer.getShort();
+		case STRING:
+			return readString(buffer);
+		default:
+			throw new IllegalArgumentException("Unsupported value type for property: " + type);
+		}
+	}
+
+	private static Node readNode(ByteBuffer buffer) {
+		final byte type = buffer.get();
+		switch (type) {
+		case NODE_LITERAL:
+			final String var = readString(buffer);
+			return new Literal(var, readBoolean(buffer));
+		case NODE_AT_MOST:
+			final int max = buffer.getInt();
+			return new AtMost(max, readChildren(buffer));
+		case NODE_AT_LEAST:
+			final int min = buffer.getInt();
+			return new AtLeast(min, readChildren(buffer));
+		case NODE_CHOOSE:
+			final int n = buffer.getInt();
+			return new Choose(n, readChildren(buffer));
+		case NODE_NOT:
+			return new Not(readChildren(buffer)[0]);
+		case NODE_AND:
+			return new And(readChildren(buffer));
+		case NODE_OR:
+			return new Or(readChildren(buffer));
+		case NODE_IMPLIES:
+			final Node[] implication = readChildren(buffer);
+			return new Implies(implication[0], implication[1]);
+		case NODE_EQUALS:
+			final Node[] equivalence = readChildren(buffer);
+			return new Equals(equivalence[0], equivalence[1]);
+		default:
+			throw new IllegalArgumentException("Unknown node type: " + type);
+		}
+	}
+
+	private static Node[] readChildren(ByteBuffer buffer) {
+		final Node[] children = new Node[buffer.getInt()];
+		for (int i = 0; i < children.length; i++) {
+			children[i] = readNode(buffer);
+		}
+		return children;
+	}
+
+	private static List<IFeature> getFeatures(IFeatureModel featureModel, List<String> names) {
+		final List<IFeature> features = new ArrayList<>(names.size());
+		for (final String name : names) {
+			features.add(featureModel.getFeature(name));
+		}
+		return features;
+	}
+
+	private static List<String> readStrings(ByteBuffer buffer) {
+		final int size = buffer.getInt();
+		final List<String> strings = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			strings.add(readString(buffer));
+		}
+		return strings;
+	}
+
+	private static String readString(ByteBuffer buffer) {
+		final int length = buffer.getInt();
+		if (length < 0) {
+			return null;
+		}
+		final byte[] bytes = new byte[length];
+		buffer.get(bytes);
+		return new String(bytes, STRING_CHARSET);
+	}
+
+	private static boolean readBoolean(ByteBuffer buffer) {
+		return buffer.get() != 0;
+	}
+
+	@Override
+	public ProblemList read(IFeatureModel object, CharSequence source) {
+		final ProblemList problems = new ProblemList();
+		fromBytes(ByteBuffer.wrap(source.toString().getBytes(BYTE_CHARSET)), object, null, problems);
+		return problems;
+	}
+
+	@Override
+	public String write(IFeatureModel object) {
+		try {
+			return new String(toBytes(object, null), BYTE_CHARSET);
+		} catch (final IOException e) {
+			throw new IllegalArgumentException(e);
+		}
+	}
+
+	@Override
+	public String getSuffix() {
+		return "fms";
+	}
+
+	@Override
+	public FeatureModelSnapshotFormat getInstance() {
+		return this;
+	}
+
+	@Override
+	public boolean supportsRead() {
+		return true;
+	}
+
+	@Override
+	public boolean supportsWrite() {
+		return true;
+	}
+
+	@Override
+	public String getId() {
+		return ID;
+	}
+
+	@Override
+	public String getName() {
+		return "FeatureIDE Snapshot";
+	}
+
+}
@@ -20,7 +20,12 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.Writer;
 import java.lang.reflect.Constructor;
 import java.nio.charset.Charset;
 import java.nio.file.Path;
@@ -45,6 +50,7 @@ import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
 
 /**
  * Responsible to load and save all information from / to a file.<br/> To get an instance use the {@link FileManagerMap}.
@@ -112,6 +118,50 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 		protected abstract T createObject(Path path, final IPersistentFormat<T> format) throws NoSuchExtensionException;
 	}
 
+	/**
+	 * Compares the written characters with a given content. Fails as soon as the first difference is found, so that a changed object does not need to be
+	 * written completely.
+	 */
+	private static final class ComparingWriter extends Writer {
+
+		private final String content;
+		private int position = 0;
+
+		public ComparingWriter(String content) {
+			this.content = content;
+		}
+
+		@Override
+		public void write(char[] cbuf, int off, int len) throws IOException {
+			if ((position + len) > content.length()) {
+				throw new IOException("Content differs");
+			}
+			for (int i = 0; i < len; i++) {
+				if (cbuf[off + i] != content.charAt(position++)) {
+					throw new IOException("Content differs");
+				}
+			}
+		}
+
+		@Override
+		public void write(String str, int off, int len) throws IOException {
+			if (((position + len) > content.length()) || !content.regionMatches(position, str, off, len)) {
+				throw new IOException("Content differs");
+			}
+			position += len;
+		}
+
+		@Override
+		public void flush() {}
+
+		@Override
+		public void close() {}
+
+		public boolean isComplete() {
+			return position == content.length();
+		}
+	}
+
 	public static final Charset DEFAULT_CHARSET = Charset.forName("UTF-8");
 
 	private static final Map<FileIdentifier<?>, IFileManager<?>> idMap = new HashMap<>();
@@ -197,6 +247,19 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	}
 
 	protected static final <T> FileHandler<T> getFileHandler(Path path, ObjectCreator<T> objectCreator) {
+		return getFileHandler(path, objectCreator, true);
+	}
+
+	/**
+	 * Creates a file handler with a new object for a certain file.
+	 *
+	 * @param path The path pointing to the file.
+	 * @param objectCreator Provides a corresponding content object for the file.
+	 * @param parse Whether the content of the file should be parsed into the new object.
+	 *
+	 * @return The file handler.
+	 */
+	private static <T> FileHandler<T> getFileHandler(Path path, ObjectCreator<T> objectCreator, boolean parse) {
 		final FileHandler<T> fileHandler = new FileHandler<>(path, null, null);
 		final String content = fileHandler.getContent();
 
@@ -210,7 +273,9 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 					final T object = objectCreator.createObject(path, format);
 					fileHandler.setObject(object);
 					fileHandler.setFormat(format);
-					fileHandler.parse(content);
+					if (parse) {
+						fileHandler.parse(content);
+					}
 				} catch (final NoSuchExtensionException e) {
 					fileHandler.getLastProblems().add(new Problem(e));
 				}
@@ -233,7 +298,8 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	@SuppressWarnings("unchecked")
 	@CheckForNull
 	protected static final <T, R extends IFileManager<T>> R newInstance(Path path, ObjectCreator<T> objectCreator) {
-		final SimpleFileHandler<T> fileHandler = getFileHandler(path, objectCreator);
+		// the new manager reads the file itself
+		final SimpleFileHandler<T> fileHandler = getFileHandler(path, objectCreator, false);
 		if (fileHandler.getObject() != null) {
 			try {
 				final FileIdentifier<T> fileIdentifier = new FileIdentifier<T>(path, fileHandler.getFormat());
@@ -309,8 +375,7 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 
 		if (FileSystem.exists(identifier.getPath())) {
 			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final ProblemList problems = identifier.getFormat().getInstance().read(variableObject, content);
+				final ProblemList problems = readFromFile(variableObject);
 				if (problems != null) {
 					lastProblems.addAll(problems);
 				}
@@ -321,6 +386,64 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 		setPersistentObject(copyObject(variableObject));
 	}
 
+	/**
+	 * Reads the file of this manager into the given object (see {@link #parse(Object, byte[])}).
+	 *
+	 * @param object the object to read into
+	 * @return a list of problems that occurred
+	 * @throws IOException if the file could not be read
+	 */
+	private ProblemList readFromFile(T object) throws IOException {
+		return parse(object, FileSystem.read(identifier.getPath()));
+	}
+
+	/**
+	 * Parses the content of the file of this manager into the given object. XML formats read the content as a stream instead of converting it into a string
+	 * first.<br/> Subclasses could override this method.
+	 *
+	 * @param object the object to read into
+	 * @param content the content of the file
+	 * @return a list of problems that occurred
+	 * @throws IOException if the content could not be read
+	 */
+	protected ProblemList parse(T object, byte[] content) throws IOException {
+		final IPersistentFormat<T> format = identifier.getFormat().getInstance();
+		if (format instanceof AXMLFormat) {
+			try (Reader reader = new InputStreamReader(new ByteArrayInputStream(content), DEFAULT_CHARSET)) {
+				return ((AXMLFormat<T>) format).read(object, reader);
+			}
+		} else {
+			return format.read(object, new String(content, DEFAULT_CHARSET));
+		}
+	}
+
+	/**
+	 * Writes the given object to the file of this manager. XML formats stream their content instead of creating a string first.
+	 *
+	 * @param object the object to write
+	 * @throws IOException if the file could not be written
+	 */
+	private void writeToFile(T object) throws IOException {
+		final IPersistentFormat<T> format = identifier.getFormat().getInstance();
+		final byte[] content;
+		if (format instanceof AXMLFormat) {
+			final ByteArrayOutputStream out = new ByteArrayOutputStream();
+			((AXMLFormat<T>) format).write(object, out);
+			content = out.toByteArray();
+		} else {
+			content = format.write(object).getBytes(DEFAULT_CHARSET);
+		}
+		FileSystem.write(identifier.getPath(), content);
+		written(content);
+	}
+
+	/**
+	 * Called after the file of this manager was written.<br/> Subclasses could override this method.
+	 *
+	 * @param content the new content of the file
+	 */
+	protected void written(byte[] content) {}
+
 	@Override
 	public void addListener(IEventListener listener) {
 		eventManager.addListener(listener);
@@ -390,8 +513,7 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 			lastProblems.clear();
 			final T tempObject = copyObject(persistentObject);
 			try {
-				final String content = new String(FileSystem.read(identifier.getPath()), DEFAULT_CHARSET);
-				final List<Problem> problemList = identifier.getFormat().getInstance().read(tempObject, content);
+				final List<Problem> problemList = readFromFile(tempObject);
 				if (problemList != null) {
 					lastProblems.addAll(problemList);
 				}
@@ -438,7 +560,17 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 	 * @return {@code true} if objects differ, {@code false} otherwise.
 	 */
 	protected boolean hasChanged(T newObject) {
-		return !Objects.equals(identifier.getFormat().getInstance().write(newObject), persistentObjectSource);
+		final IPersistentFormat<T> format = identifier.getFormat().getInstance();
+		if ((format instanceof AXMLFormat) && (persistentObjectSource != null)) {
+			final ComparingWriter writer = new ComparingWriter(persistentObjectSource);
+			try {
+				((AXMLFormat<T>) format).write(newObject, writer);
+			} catch (final IOException e) {
+				return true;
+			}
+			return !writer.isComplete();
+		}
+		return !Objects.equals(format.write(newObject), persistentObjectSource);
 	}
 
 	/**
@@ -462,7 +594,7 @@ public abstract class AFileManager<T> implements IFileManager<T>, IEventManager
 				}
 				modifying = true;
 				final T tempObject = copyObject(variableObject);
-				FileSystem.write(identifier.getPath(), identifier.getFormat().getInstance().write(tempObject).getBytes(DEFAULT_CHARSET));
+				writeToFile(tempObject);
 				setPersistentObject(copyObject(tempObject));
 			} catch (final Exception e) {
 				handleException(e);
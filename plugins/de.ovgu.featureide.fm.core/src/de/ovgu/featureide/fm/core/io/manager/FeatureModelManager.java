@@ -20,7 +20,9 @@
  */
 package de.ovgu.featureide.fm.core.io.manager;
 
+import java.io.IOException;
 import java.nio.file.Path;
+import java.util.Arrays;
 
 import javax.annotation.CheckForNull;
 
@@ -29,11 +31,17 @@ import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 import de.ovgu.featureide.fm.core.base.impl.FMFormatManager;
+import de.ovgu.featureide.fm.core.io.FeatureModelSnapshotFormat;
+import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IFeatureModelFormat;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
 
 /**
- * Responsible to load and save all information for a feature model instance.
+ * Responsible to load and save all information for a feature model instance.<br/> Models in the {@link XmlFeatureModelFormat XML format} are cached as binary
+ * snapshots (see {@link FeatureModelSnapshotFormat}), which are used instead of parsing the file again as long as its content does not change.
  *
  * @author Sebastian Krieter
  */
@@ -50,6 +58,21 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 			}
 		};
 
+	private static boolean snapshotsEnabled = true;
+
+	/**
+	 * Sets whether feature models in the XML format should be cached as binary snapshots.
+	 *
+	 * @param snapshotsEnabled {@code true} to read and write snapshots (default), {@code false} to always parse the files
+	 */
+	public static void setSnapshotsEnabled(boolean snapshotsEnabled) {
+		FeatureModelManager.snapshotsEnabled = snapshotsEnabled;
+	}
+
+	public static boolean isSnapshotsEnabled() {
+		return snapshotsEnabled;
+	}
+
 	/**
 	 * Returns an instance of a {@link IFileManager} for a certain file. Creates a new instance if none is available (Equivalent to calling
 	 * {@link #getInstance(Path, boolean) getInstance(path, true)}).
@@ -93,6 +116,16 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 		return save(featureModel, outPath, format);
 	}
 
+	/**
+	 * The hash of the file content that corresponds to the persistent object; {@code null} if unknown. Not initialized explicitly, as it is already set while
+	 * the super constructor reads the file.
+	 */
+	private byte[] contentHash;
+	/**
+	 * Whether the stored snapshot for {@link #contentHash} contains analysis results.
+	 */
+	private boolean snapshotHasResults;
+
 	protected FeatureModelManager(IFeatureModel model, FileIdentifier<IFeatureModel> identifier) {
 		super(setSourcePath(model, identifier.getPath()), identifier);
 	}
@@ -108,6 +141,88 @@ public class FeatureModelManager extends AFileManager<IFeatureModel> {
 		super.override();
 	}
 
+	private boolean useSnapshots() {
+		return snapshotsEnabled && XmlFeatureModelFormat.ID.equals(identifier.getFormat().getId());
+	}
+
+	private Path getSnapshotPath() {
+		return constructExtraPath(identifier.getPath(), new FeatureModelSnapshotFormat());
+	}
+
+	/**
+	 * Restores the feature model from its snapshot, if the snapshot belongs to the given content. Otherwise, parses the content and stores a new snapshot.
+	 */
+	@Override
+	protected ProblemList parse(IFeatureModel featureModel, byte[] content) throws IOException {
+		if (!useSnapshots()) {
+			return super.parse(featureModel, content);
+		}
+		final byte[] hash = FeatureModelSnapshotFormat.getContentHash(content);
+		final Path snapshotPath = getSnapshotPath();
+		if (FileSystem.exists(snapshotPath)) {
+			try {
+				if (!FeatureModelSnapshotFormat.read(snapshotPath, featureModel, hash).containsError()) {
+					contentHash = hash;
+					snapshotHasResults = featureModel.getAnalyser().hasCurrentResults();
+					return new ProblemList();
+				}
+			} catch (final RuntimeException e) {
+				Logger.logError(e);
+			}
+		}
+
+		final ProblemList problems = super.parse(featureModel, content);
+		// models with problems are always parsed again to report the problems
+		if (problems.isEmpty()) {
+			storeSnapshot(featureModel, hash);
+		}
+		contentHash = hash;
+		return problems;
+	}
+
+	private void storeSnapshot(IFeatureModel featureModel, byte[] hash) {
+		try {
+			final ProblemList problems = FeatureModelSnapshotFormat.write(getSnapshotPath(), featureModel, hash);
+			for (final Problem problem : problems) {
+				Logger.logWarning(problem.getMessage());
+			}
+			snapshotHasResults = problems.isEmpty() && featureModel.getAnalyser().hasCurrentResults();
+		} catch (final RuntimeException e) {
+			Logger.logError(e);
+		}
+	}
+
+	@Override
+	protected void written(byte[] content) {
+		if (useSnapshots()) {
+			// the snapshot is created from the edited model when this manager is disposed
+			contentHash = FeatureModelSnapshotFormat.getContentHash(content);
+			snapshotHasResults = false;
+		}
+	}
+
+	/**
+	 * Updates the snapshot with the latest analysis results, if the edited model still corresponds to the file.
+	 */
+	@Override
+	public void dispose() {
+		if (useSnapshots() && (contentHash != null) && (variableObject != null)) {
+			synchronized (syncObject) {
+				final boolean hasNewResults = !snapshotHasResults && variableObject.getAnalyser().hasCurrentResults();
+				if (hasNewResults && FileSystem.exists(identifier.getPath()) && !hasChanged()) {
+					try {
+						if (Arrays.equals(contentHash, FeatureModelSnapshotFormat.getContentHash(FileSystem.read(identifier.getPath())))) {
+							storeSnapshot(variableObject, contentHash);
+						}
+					} catch (final IOException e) {
+						Logger.logError(e);
+					}
+				}
+			}
+		}
+		super.dispose();
+	}
+
 	@Override
 	public IFeatureModelFormat getFormat() {
 		return (IFeatureModelFormat) super.getFormat();
@@ -21,9 +21,11 @@
 package de.ovgu.featureide.fm.core.io.manager;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
 import java.nio.charset.Charset;
 import java.nio.file.Files;
 import java.nio.file.Path;
@@ -36,6 +38,7 @@ import de.ovgu.featureide.fm.core.io.FileSystem;
 import de.ovgu.featureide.fm.core.io.IPersistentFormat;
 import de.ovgu.featureide.fm.core.io.Problem;
 import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.xml.AXMLFormat;
 
 /**
  * Capable of reading and writing a file in a certain format.
@@ -201,6 +204,15 @@ public class SimpleFileHandler<T> {
 
 	public boolean read(InputStream inputStream) {
 		problemList.clear();
+		final IPersistentFormat<T> formatInstance = format.getInstance();
+		if (formatInstance instanceof AXMLFormat) {
+			try (Reader reader = new InputStreamReader(inputStream, DEFAULT_CHARSET)) {
+				problemList.addAll(((AXMLFormat<T>) formatInstance).read(object, reader));
+			} catch (final Exception e) {
+				problemList.add(new Problem(e));
+			}
+			return !problemList.containsError();
+		}
 		return parse(getContent(inputStream));
 	}
 
@@ -252,7 +264,15 @@ public class SimpleFileHandler<T> {
 	public boolean write() {
 		problemList.clear();
 		try {
-			final byte[] content = format.getInstance().write(object).getBytes(DEFAULT_CHARSET);
+			final IPersistentFormat<T> formatInstance = format.getInstance();
+			final byte[] content;
+			if (formatInstance instanceof AXMLFormat) {
+				final ByteArrayOutputStream out = new ByteArrayOutputStream();
+				((AXMLFormat<T>) formatInstance).write(object, out);
+				content = out.toByteArray();
+			} else {
+				content = formatInstance.write(object).getBytes(DEFAULT_CHARSET);
+			}
 			FileSystem.write(path, content);
 		} catch (final Exception e) {
 			problemList.add(new Problem(e));
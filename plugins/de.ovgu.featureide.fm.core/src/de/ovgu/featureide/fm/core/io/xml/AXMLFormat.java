@@ -22,21 +22,30 @@ package de.ovgu.featureide.fm.core.io.xml;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.YES;
 
+import java.io.BufferedWriter;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
-import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
-import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
+import javax.xml.stream.Location;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
 import javax.xml.transform.OutputKeys;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
@@ -64,6 +73,8 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 
 	public static final String FILE_EXTENSION = "xml";
 
+	private static final Pattern PARSE_ERROR_PREFIX = Pattern.compile("ParseError at \\[row,col\\]:\\[-?\\d+,-?\\d+\\]\\s*(Message:\\s*)?");
+
 	protected T object;
 
 	/**
@@ -87,18 +98,123 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return FILE_EXTENSION;
 	}
 
+	/**
+	 * Creates a streaming reader for XML documents. Adjacent text events are coalesced.
+	 *
+	 * @param source the XML source
+	 * @return a new stream reader
+	 * @throws XMLStreamException if the reader could not be created
+	 */
+	protected static final XMLStreamReader createStreamReader(Reader source) throws XMLStreamException {
+		final XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.TRUE);
+		return factory.createXMLStreamReader(source);
+	}
+
+	/**
+	 * @param reader the stream reader
+	 * @return The line number of the current event of the given reader.
+	 */
+	protected static final int getLineNumber(XMLStreamReader reader) {
+		final Location location = reader.getLocation();
+		return ((location != null) && (location.getLineNumber() > 0)) ? location.getLineNumber() : 1;
+	}
+
+	/**
+	 * Reads the text content of the current element including the text of all nested elements (analog to {@link org.w3c.dom.Node#getTextContent()}). The
+	 * reader must be positioned at the start of an element and is positioned at its end afterwards.
+	 *
+	 * @param reader the stream reader
+	 * @return The text content of the current element.
+	 * @throws XMLStreamException if the document is malformed
+	 */
+	protected static final String readTextContent(XMLStreamReader reader) throws XMLStreamException {
+		final StringBuilder sb = new StringBuilder();
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				sb.append(reader.getText());
+				break;
+			default:
+				break;
+			}
+		}
+		return sb.toString();
+	}
+
+	/**
+	 * Skips the current element and all nested elements. The reader must be positioned at the start of an element and is positioned at its end afterwards.
+	 *
+	 * @param reader the stream reader
+	 * @throws XMLStreamException if the document is malformed
+	 */
+	protected static final void skipElement(XMLStreamReader reader) throws XMLStreamException {
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
+			}
+		}
+	}
+
+	/**
+	 * Moves the reader to the start of the next child element of the current element.
+	 *
+	 * @param reader the stream reader
+	 * @return {@code true} if the reader is positioned at the start of a child element, {@code false} if it is positioned at the end of the current element
+	 * @throws XMLStreamException if the document is malformed
+	 */
+	protected static final boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (true) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+	}
+
 	@Override
 	public ProblemList read(T object, CharSequence source) {
+		return read(object, new StringReader(source.toString()));
+	}
+
+	/**
+	 * Reads an object from a character stream.
+	 *
+	 * @param object the object to read into
+	 * @param source the XML source
+	 * @return a list of warnings / errors that occurred
+	 */
+	public ProblemList read(T object, Reader source) {
 		this.object = object;
 
 		final ProblemList lastWarnings = new ProblemList();
 		try {
-			final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
-			SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(new StringReader(source.toString())), new PositionalXMLHandler(doc));
-			doc.getDocumentElement().normalize();
-			readDocument(doc, lastWarnings);
+			readXML(source, lastWarnings);
 		} catch (final SAXParseException e) {
 			lastWarnings.add(new Problem(e, e.getLineNumber()));
+		} catch (final XMLStreamException e) {
+			lastWarnings.add(createProblem(e));
 		} catch (final UnsupportedModelException e) {
 			lastWarnings.add(new Problem(e, e.lineNumber));
 		} catch (final Exception e) {
@@ -108,41 +224,125 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 		return lastWarnings;
 	}
 
+	/**
+	 * Creates a problem for a malformed XML stream. The position prefix that the StAX parser puts in front of its messages (e.g. <i>ParseError at
+	 * [row,col]:[3,3]</i>) is removed, since the line is already stored in the problem.
+	 *
+	 * @param e the exception thrown by the stream reader
+	 * @return a problem with the plain parser message and the line of the error
+	 */
+	private static Problem createProblem(XMLStreamException e) {
+		final Location location = e.getLocation();
+		String message = e.getMessage();
+		if ((location != null) && (message != null)) {
+			final Matcher matcher = PARSE_ERROR_PREFIX.matcher(message);
+			if (matcher.lookingAt()) {
+				message = message.substring(matcher.end());
+			}
+		}
+		return new Problem(message, ((location != null) && (location.getLineNumber() > 0)) ? location.getLineNumber() : 1, e);
+	}
+
+	/**
+	 * Reads an XML source. By default, a DOM document is created and passed to {@link #readDocument(Document, List)}. Formats that build their object
+	 * directly from a {@link #createStreamReader(Reader) stream reader} extend {@link AXMLStreamFormat} instead.
+	 *
+	 * @param source the XML source
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	protected void readXML(Reader source, List<Problem> warnings) throws Exception {
+		readDocument(parseDocument(source), warnings);
+	}
+
+	/**
+	 * Parses an XML source into a DOM document. The line number of each element is stored as user data (see {@link PositionalXMLHandler}).
+	 *
+	 * @param source the XML source
+	 * @return the parsed document
+	 */
+	protected static final Document parseDocument(Reader source) throws Exception {
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		SAXParserFactory.newInstance().newSAXParser().parse(new InputSource(source), new PositionalXMLHandler(doc));
+		doc.getDocumentElement().normalize();
+		return doc;
+	}
+
+	/**
+	 * Creates a streaming writer for XML documents. Its output is identical to the one of the DOM based default implementation of
+	 * {@link #writeXML(Writer)}.
+	 *
+	 * @param target the writer to write to
+	 * @return a new stream writer
+	 */
+	protected static final XMLStreamWriter createStreamWriter(Writer target) {
+		return new IndentingXMLStreamWriter(target);
+	}
+
 	@Override
 	public String write(T object) {
+		final StringWriter stringWriter = new StringWriter();
+		try {
+			write(object, stringWriter);
+		} catch (final IOException e) {
+			Logger.logError(e);
+			return "";
+		}
+		return stringWriter.toString();
+	}
+
+	/**
+	 * Writes an object to a character stream. The stream is flushed, but not closed.
+	 *
+	 * @param object the object to write
+	 * @param target the writer to write to
+	 * @throws IOException if the object could not be written
+	 */
+	public void write(T object, Writer target) throws IOException {
 		this.object = object;
+		try {
+			writeXML(target);
+		} catch (final IOException e) {
+			throw e;
+		} catch (final Exception e) {
+			throw new IOException(e);
+		}
+		target.flush();
+	}
 
-		// Create Empty DOM Document
+	/**
+	 * Writes an object to a byte stream using UTF-8. The stream is flushed, but not closed.
+	 *
+	 * @param object the object to write
+	 * @param target the stream to write to
+	 * @throws IOException if the object could not be written
+	 */
+	public void write(T object, OutputStream target) throws IOException {
+		write(object, new BufferedWriter(new OutputStreamWriter(target, StandardCharsets.UTF_8)));
+	}
+
+	/**
+	 * Writes the XML representation of {@link #object}. By default, a DOM document is created by {@link #writeDocument(Document)} and transformed into
+	 * text. Formats that write their object directly to a {@link #createStreamWriter(Writer) stream writer} extend {@link AXMLStreamFormat} instead.
+	 *
+	 * @param target the writer to write to
+	 */
+	protected void writeXML(Writer target) throws Exception {
 		final DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
 		dbf.setNamespaceAware(true);
 		dbf.setIgnoringComments(true);
 		dbf.setIgnoringElementContentWhitespace(false);
 		dbf.setCoalescing(true);
 		dbf.setExpandEntityReferences(true);
-		DocumentBuilder db = null;
-		try {
-			db = dbf.newDocumentBuilder();
-		} catch (final ParserConfigurationException pce) {
-			Logger.logError(pce);
-			return "";
-		}
-		final Document doc = db.newDocument();
+		final Document doc = dbf.newDocumentBuilder().newDocument();
 		// Create the XML Representation
 		writeDocument(doc);
 
-		try (StringWriter stringWriter = new StringWriter()) {
-			final StreamResult streamResult = new StreamResult(stringWriter);
-			final TransformerFactory factory = TransformerFactory.newInstance();
-			factory.setAttribute("indent-number", new Integer(4));
-			final Transformer transformer = factory.newTransformer();
-			transformer.setOutputProperty(OutputKeys.METHOD, FILE_EXTENSION);
-			transformer.setOutputProperty(OutputKeys.INDENT, YES);
-			transformer.transform(new DOMSource(doc), streamResult);
-			return streamResult.getWriter().toString();
-		} catch (final IOException | TransformerException e) {
-			Logger.logError(e);
-			return "";
-		}
+		final TransformerFactory factory = TransformerFactory.newInstance();
+		factory.setAttribute("indent-number", new Integer(4));
+		final Transformer transformer = factory.newTransformer();
+		transformer.setOutputProperty(OutputKeys.METHOD, FILE_EXTENSION);
+		transformer.setOutputProperty(OutputKeys.INDENT, YES);
+		transformer.transform(new DOMSource(doc), new StreamResult(target));
 	}
 
 	@Override
@@ -169,7 +369,7 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	}
 
 	/**
-	 * Reads an XML-Document.
+	 * Reads an XML-Document. Called by the default implementation of {@link #readXML(Reader, List)}.
 	 *
 	 * @param doc document to read
 	 * @param warnings list of warnings / errors that occur during read
@@ -177,7 +377,7 @@ public abstract class AXMLFormat<T> extends APersistentFormat<T> implements IPer
 	protected abstract void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException;
 
 	/**
-	 * Writes an XML-Document.
+	 * Writes an XML-Document. Called by the default implementation of {@link #writeXML(Writer)}.
 	 *
 	 * @param doc document to write
 	 */
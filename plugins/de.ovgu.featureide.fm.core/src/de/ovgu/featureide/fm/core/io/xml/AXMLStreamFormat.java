@@ -0,0 +1,102 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.util.List;
+
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
+import org.w3c.dom.Document;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.UnsupportedModelException;
+
+/**
+ * Reads and writes objects in XML format with an {@link XMLStreamReader} and an {@link XMLStreamWriter} instead of a DOM document.<br/> The DOM based
+ * methods of {@link AXMLFormat} are implemented by converting the document from and to text.
+ *
+ * @author FeatureIDE Team
+ */
+public abstract class AXMLStreamFormat<T> extends AXMLFormat<T> {
+
+	/**
+	 * Reads an XML source, typically with a {@link #createStreamReader(Reader) stream reader}.
+	 *
+	 * @param source the XML source
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	@Override
+	protected abstract void readXML(Reader source, List<Problem> warnings) throws Exception;
+
+	/**
+	 * Writes the XML representation of {@link #object}, typically with a {@link #createStreamWriter(Writer) stream writer}.
+	 *
+	 * @param target the writer to write to
+	 */
+	@Override
+	protected abstract void writeXML(Writer target) throws Exception;
+
+	/**
+	 * Reads an XML-Document by passing its text to {@link #readXML(Reader, List)}.
+	 *
+	 * @param doc document to read
+	 * @param warnings list of warnings / errors that occur during read
+	 */
+	@Override
+	protected void readDocument(Document doc, List<Problem> warnings) throws UnsupportedModelException {
+		try {
+			final StringWriter text = new StringWriter();
+			TransformerFactory.newInstance().newTransformer().transform(new DOMSource(doc), new StreamResult(text));
+			readXML(new StringReader(text.toString()), warnings);
+		} catch (final UnsupportedModelException e) {
+			throw e;
+		} catch (final Exception e) {
+			throw new UnsupportedModelException(String.valueOf(e.getMessage()), 1);
+		}
+	}
+
+	/**
+	 * Writes an XML-Document by parsing the text written by {@link #writeXML(Writer)}.
+	 *
+	 * @param doc document to write
+	 */
+	@Override
+	protected void writeDocument(Document doc) {
+		try {
+			final StringWriter text = new StringWriter();
+			writeXML(text);
+			final Document writtenDoc = parseDocument(new StringReader(text.toString()));
+			doc.appendChild(doc.importNode(writtenDoc.getDocumentElement(), true));
+		} catch (final Exception e) {
+			Logger.logError(e);
+		}
+	}
+
+}
@@ -0,0 +1,458 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.xml.XMLConstants;
+import javax.xml.namespace.NamespaceContext;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+/**
+ * Streaming XML writer that produces the same output as the DOM based writer of {@link AXMLFormat}.<br/> Elements are indented by four spaces, attributes
+ * are sorted by their name, elements without content are collapsed, and characters are escaped like the default {@link javax.xml.transform.Transformer}
+ * does (e.g., line breaks in text content are written as system line separators).<br/> The writer is not repairing: namespace declarations are only
+ * written by {@link #writeNamespace(String, String)} and {@link #writeDefaultNamespace(String)}, and namespace URIs passed to other methods must be bound
+ * to a prefix by {@link #setPrefix(String, String)}, {@link #setDefaultNamespace(String)}, or {@link #setNamespaceContext(NamespaceContext)}.
+ *
+ * @author FeatureIDE Team
+ */
+public class IndentingXMLStreamWriter implements XMLStreamWriter {
+
+	private static final int INDENT = 4;
+
+	private final String lineSeparator = System.lineSeparator();
+
+	private final Writer out;
+
+	private final List<String> elementStack = new ArrayList<>();
+	private final BitSet childElements = new BitSet();
+	private final BitSet textContent = new BitSet();
+
+	private final Map<String, String> attributes = new TreeMap<>();
+
+	/**
+	 * The prefixes of bound namespace URIs for each scope. The scope at index <i>i</i> belongs to the element at depth <i>i</i>, index 0 is the root
+	 * scope.
+	 */
+	private final List<Map<String, String>> prefixScopes = new ArrayList<>();
+	private NamespaceContext namespaceContext = null;
+	private boolean startTagOpen = false;
+	private boolean emptyElement = false;
+	private boolean written = false;
+
+	public IndentingXMLStreamWriter(Writer out) {
+		this.out = out;
+	}
+
+	@Override
+	public void writeStartDocument() throws XMLStreamException {
+		writeStartDocument("UTF-8", "1.0");
+	}
+
+	@Override
+	public void writeStartDocument(String version) throws XMLStreamException {
+		writeStartDocument("UTF-8", version);
+	}
+
+	@Override
+	public void writeStartDocument(String encoding, String version) throws XMLStreamException {
+		write("<?xml version=\"" + version + "\" encoding=\"" + encoding + "\" standalone=\"no\"?>");
+	}
+
+	@Override
+	public void writeEndDocument() throws XMLStreamException {
+		while (!elementStack.isEmpty()) {
+			writeEndElement();
+		}
+		write(lineSeparator);
+		flush();
+	}
+
+	@Override
+	public void writeStartElement(String localName) throws XMLStreamException {
+		closeStartTag();
+		final int depth = elementStack.size();
+		if (depth > 0) {
+			childElements.set(depth - 1);
+		}
+		indent(depth);
+		write("<");
+		write(localName);
+
+		elementStack.add(localName);
+		childElements.clear(depth);
+		textContent.clear(depth);
+		startTagOpen = true;
+	}
+
+	@Override
+	public void writeStartElement(String namespaceURI, String localName) throws XMLStreamException {
+		writeStartElement(getBoundPrefix(namespaceURI), localName, namespaceURI);
+	}
+
+	@Override
+	public void writeStartElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		writeStartElement(((prefix == null) || prefix.isEmpty()) ? localName : (prefix + ":" + localName));
+	}
+
+	@Override
+	public void writeEmptyElement(String localName) throws XMLStreamException {
+		writeStartElement(localName);
+		emptyElement = true;
+	}
+
+	@Override
+	public void writeEmptyElement(String namespaceURI, String localName) throws XMLStreamException {
+		writeEmptyElement(getBoundPrefix(namespaceURI), localName, namespaceURI);
+	}
+
+	@Override
+	public void writeEmptyElement(String prefix, String localName, String namespaceURI) throws XMLStreamException {
+		writeStartElement(prefix, localName, namespaceURI);
+		emptyElement = true;
+	}
+
+	@Override
+	public void writeEndElement() throws XMLStreamException {
+		if (emptyElement) {
+			// an empty element is closed implicitly, so this call refers to its parent
+			closeStartTag();
+		}
+		if (elementStack.isEmpty()) {
+			throw new XMLStreamException("No element to close");
+		}
+		final int depth = elementStack.size() - 1;
+		final String localName = elementStack.remove(depth);
+		while (prefixScopes.size() > (depth + 1)) {
+			prefixScopes.remove(prefixScopes.size() - 1);
+		}
+		if (startTagOpen) {
+			writeAttributes();
+			write("/>");
+			startTagOpen = false;
+			emptyElement = false;
+		} else {
+			if (childElements.get(depth) && !textContent.get(depth)) {
+				indent(depth);
+			}
+			write("</");
+			write(localName);
+			write(">");
+		}
+	}
+
+	@Override
+	public void writeAttribute(String localName, String value) throws XMLStreamException {
+		if (!startTagOpen) {
+			throw new XMLStreamException("Attribute written outside of a start tag: " + localName);
+		}
+		attributes.put(localName, value);
+	}
+
+	@Override
+	public void writeAttribute(String namespaceURI, String localName, String value) throws XMLStreamException {
+		writeAttribute(getBoundPrefix(namespaceURI), namespaceURI, localName, value);
+	}
+
+	@Override
+	public void writeAttribute(String prefix, String namespaceURI, String localName, String value) throws XMLStreamException {
+		writeAttribute(((prefix == null) || prefix.isEmpty()) ? localName : (prefix + ":" + localName), value);
+	}
+
+	@Override
+	public void writeCharacters(String text) throws XMLStreamException {
+		if (text.isEmpty()) {
+			return;
+		}
+		closeStartTag();
+		if (!elementStack.isEmpty()) {
+			textContent.set(elementStack.size() - 1);
+		}
+		escape(text, false);
+	}
+
+	@Override
+	public void writeCharacters(char[] text, int start, int len) throws XMLStreamException {
+		writeCharacters(new String(text, start, len));
+	}
+
+	@Override
+	public void writeCData(String data) throws XMLStreamException {
+		closeStartTag();
+		if (!elementStack.isEmpty()) {
+			textContent.set(elementStack.size() - 1);
+		}
+		write("<![CDATA[" + data + "]]>");
+	}
+
+	@Override
+	public void writeComment(String data) throws XMLStreamException {
+		closeStartTag();
+		indent(elementStack.size());
+		write("<!--" + data + "-->");
+	}
+
+	@Override
+	public void writeProcessingInstruction(String target) throws XMLStreamException {
+		closeStartTag();
+		indent(elementStack.size());
+		write("<?" + target + "?>");
+	}
+
+	@Override
+	public void writeProcessingInstruction(String target, String data) throws XMLStreamException {
+		closeStartTag();
+		indent(elementStack.size());
+		write("<?" + target + " " + data + "?>");
+	}
+
+	@Override
+	public void writeDTD(String dtd) throws XMLStreamException {
+		write(lineSeparator);
+		write(dtd);
+	}
+
+	@Override
+	public void writeEntityRef(String name) throws XMLStreamException {
+		closeStartTag();
+		write("&" + name + ";");
+	}
+
+	@Override
+	public void writeNamespace(String prefix, String namespaceURI) throws XMLStreamException {
+		if ((prefix == null) || prefix.isEmpty() || XMLConstants.XMLNS_ATTRIBUTE.equals(prefix)) {
+			writeDefaultNamespace(namespaceURI);
+		} else {
+			writeAttribute(XMLConstants.XMLNS_ATTRIBUTE + ":" + prefix, namespaceURI);
+		}
+	}
+
+	@Override
+	public void writeDefaultNamespace(String namespaceURI) throws XMLStreamException {
+		writeAttribute(XMLConstants.XMLNS_ATTRIBUTE, namespaceURI);
+	}
+
+	@Override
+	public String getPrefix(String uri) throws XMLStreamException {
+		return findPrefix(uri);
+	}
+
+	@Override
+	public void setPrefix(String prefix, String uri) throws XMLStreamException {
+		final int depth = elementStack.size();
+		while (prefixScopes.size() <= depth) {
+			prefixScopes.add(new HashMap<String, String>());
+		}
+		prefixScopes.get(depth).put(uri, prefix);
+	}
+
+	@Override
+	public void setDefaultNamespace(String uri) throws XMLStreamException {
+		setPrefix(XMLConstants.DEFAULT_NS_PREFIX, uri);
+	}
+
+	@Override
+	public void setNamespaceContext(NamespaceContext context) throws XMLStreamException {
+		namespaceContext = context;
+	}
+
+	@Override
+	public NamespaceContext getNamespaceContext() {
+		return new NamespaceContext() {
+
+			@Override
+			public String getNamespaceURI(String prefix) {
+				for (int i = prefixScopes.size() - 1; i >= 0; i--) {
+					for (final Map.Entry<String, String> binding : prefixScopes.get(i).entrySet()) {
+						if (binding.getValue().equals(prefix)) {
+							return binding.getKey();
+						}
+					}
+				}
+				return (namespaceContext != null) ? namespaceContext.getNamespaceURI(prefix) : XMLConstants.NULL_NS_URI;
+			}
+
+			@Override
+			public String getPrefix(String namespaceURI) {
+				return findPrefix(namespaceURI);
+			}
+
+			@Override
+			public Iterator<String> getPrefixes(String namespaceURI) {
+				final String prefix = findPrefix(namespaceURI);
+				return (prefix == null) ? Collections.<String> emptyList().iterator() : Collections.singletonList(prefix).iterator();
+			}
+		};
+	}
+
+	/**
+	 * @return the prefix that is bound to the given namespace URI in the current scope, or {@code null}
+	 */
+	private String findPrefix(String uri) {
+		for (int i = prefixScopes.size() - 1; i >= 0; i--) {
+			final String prefix = prefixScopes.get(i).get(uri);
+			if (prefix != null) {
+				return prefix;
+			}
+		}
+		return (namespaceContext != null) ? namespaceContext.getPrefix(uri) : null;
+	}
+
+	private String getBoundPrefix(String uri) throws XMLStreamException {
+		final String prefix = findPrefix(uri);
+		if (prefix == null) {
+			throw new XMLStreamException("Namespace URI is not bound to a prefix: " + uri);
+		}
+		return prefix;
+	}
+
+	@Override
+	public Object getProperty(String name) throws IllegalArgumentException {
+		throw new IllegalArgumentException(name);
+	}
+
+	@Override
+	public void flush() throws XMLStreamException {
+		try {
+			out.flush();
+		} catch (final IOException e) {
+			throw new XMLStreamException(e);
+		}
+	}
+
+	@Override
+	public void close() throws XMLStreamException {
+		flush();
+	}
+
+	private void closeStartTag() throws XMLStreamException {
+		if (startTagOpen) {
+			if (emptyElement) {
+				emptyElement = false;
+				writeEndElement();
+			} else {
+				writeAttributes();
+				write(">");
+				startTagOpen = false;
+			}
+		}
+	}
+
+	private void writeAttributes() throws XMLStreamException {
+		for (final Map.Entry<String, String> attribute : attributes.entrySet()) {
+			write(" ");
+			write(attribute.getKey());
+			write("=\"");
+			escape(attribute.getValue(), true);
+			write("\"");
+		}
+		attributes.clear();
+	}
+
+	private void indent(int depth) throws XMLStreamException {
+		if (written && ((depth == 0) || !textContent.get(depth - 1))) {
+			write(lineSeparator);
+			for (int i = depth * INDENT; i > 0; i--) {
+				write(" ");
+			}
+		}
+	}
+
+	private void escape(String text, boolean attribute) throws XMLStreamException {
+		int last = 0;
+		final int length = text.length();
+		for (int i = 0; i < length; i++) {
+			final char c = text.charAt(i);
+			final String replacement;
+			switch (c) {
+			case '<':
+				replacement = "&lt;";
+				break;
+			case '>':
+				replacement = "&gt;";
+				break;
+			case '&':
+				replacement = "&amp;";
+				break;
+			case '"':
+				replacement = attribute ? "&quot;" : null;
+				break;
+			case '\t':
+				replacement = attribute ? "&#9;" : null;
+				break;
+			case '\n':
+				replacement = attribute ? "&#10;" : (lineSeparator.equals("\n") ? null : lineSeparator);
+				break;
+			default:
+				if (c < 0x20) {
+					replacement = "&#" + (int) c + ";";
+				} else if ((c >= 0x7F) && (c <= 0x9F)) {
+					replacement = attribute ? null : ("&#" + (int) c + ";");
+				} else if (Character.isSurrogate(c)) {
+					if (Character.isHighSurrogate(c) && ((i + 1) < length) && Character.isLowSurrogate(text.charAt(i + 1))) {
+						replacement = "&#" + Character.toCodePoint(c, text.charAt(i + 1)) + ";";
+						write(text, last, i);
+						write(replacement);
+						last = (++i) + 1;
+						continue;
+					}
+					throw new XMLStreamException("Invalid UTF-16 surrogate detected: " + Integer.toHexString(c));
+				} else {
+					replacement = null;
+				}
+				break;
+			}
+			if (replacement != null) {
+				write(text, last, i);
+				write(replacement);
+				last = i + 1;
+			}
+		}
+		write(text, last, length);
+	}
+
+	private void write(String text, int start, int end) throws XMLStreamException {
+		if (start < end) {
+			try {
+				out.write(text, start, end - start);
+				written = true;
+			} catch (final IOException e) {
+				throw new XMLStreamException(e);
+			}
+		}
+	}
+
+	private void write(String text) throws XMLStreamException {
+		write(text, 0, text.length());
+	}
+
+}
@@ -28,6 +28,10 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
 import org.w3c.dom.Element;
 import org.w3c.dom.NodeList;
 
@@ -62,7 +66,7 @@ public class XmlPropertyLoader {
 		ParserType getType();
 	}
 
-	class FeaturePropertiesParser implements PropertiesParser {
+	static class FeaturePropertiesParser implements PropertiesParser {
 
 		private final Map<String, Set<IPropertyContainer.Entry<String, IPropertyContainer.Type, Object>>> featureProperties = new HashMap<>();
 
@@ -70,6 +74,10 @@ public class XmlPropertyLoader {
 			parsePropertiesOfFeature(e);
 		}
 
+		public FeaturePropertiesParser(String featureName, Set<IPropertyContainer.Entry<String, IPropertyContainer.Type, Object>> propertyEntries) {
+			featureProperties.put(featureName, propertyEntries);
+		}
+
 		private void parsePropertiesOfFeature(Element featureNode) {
 			if (!featureNode.hasAttribute(NAME)) {
 				throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
@@ -114,7 +122,7 @@ public class XmlPropertyLoader {
 		return result;
 	}
 
-	private ArrayList<Element> getElements(NodeList nodeList) {
+	private static ArrayList<Element> getElements(NodeList nodeList) {
 		final ArrayList<Element> elements = new ArrayList<Element>(nodeList.getLength());
 		for (int temp = 0; temp < nodeList.getLength(); temp++) {
 			final org.w3c.dom.Node nNode = nodeList.item(temp);
@@ -141,7 +149,7 @@ public class XmlPropertyLoader {
 		return parsers;
 	}
 
-	private Set<Entry<String, Type, Object>> parsePropertyEntries(Element propertyContainerNode) {
+	private static Set<Entry<String, Type, Object>> parsePropertyEntries(Element propertyContainerNode) {
 		final Set<Entry<String, Type, Object>> result = new HashSet<>();
 		final NodeList properties = propertyContainerNode.getElementsByTagName(PROPERTY);
 		for (final Element property : getElements(properties)) {
@@ -149,25 +157,94 @@ public class XmlPropertyLoader {
 				throw new UnsupportedOperationException("One property of container " + propertyContainerNode.getAttribute(NAME)
 					+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
 			} else {
-				final String key = property.getAttribute(KEY);
-				final Type type = Type.valueOf(property.getAttribute(TYPE));
-				final Object value = castValue(type, property.getAttribute(VALUE));
-				final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
-				if (result.contains(entry)) {
-					for (final Entry<String, Type, Object> e : result) {
-						if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
-							throw new IllegalStateException("Ambigous property definition for key: " + key);
-						}
+				addEntry(result, property.getAttribute(KEY), property.getAttribute(TYPE), property.getAttribute(VALUE));
+			}
+		}
+		return result;
+	}
+
+	private static void addEntry(Set<Entry<String, Type, Object>> result, String key, String typeName, String valueString) {
+		final Type type = Type.valueOf(typeName);
+		final Object value = castValue(type, valueString);
+		final Entry<String, Type, Object> entry = new Entry<String, IPropertyContainer.Type, Object>(key, type, value);
+		if (result.contains(entry)) {
+			for (final Entry<String, Type, Object> e : result) {
+				if (e.equals(entry) && (!(e.getValue().equals(entry.getValue()) && (e.getType().equals(entry.getType()))))) {
+					throw new IllegalStateException("Ambigous property definition for key: " + key);
+				}
+			}
+		} else {
+			result.add(entry);
+		}
+	}
+
+	/**
+	 * Parses a properties element from a stream. The reader must be positioned at the start of the properties element and is positioned at its end
+	 * afterwards.
+	 *
+	 * @param reader the stream reader
+	 * @return the parsers for all property containers
+	 * @throws XMLStreamException if the document is malformed
+	 */
+	public static Collection<PropertiesParser> parseProperties(XMLStreamReader reader) throws XMLStreamException {
+		final List<PropertiesParser> parsers = new ArrayList<>();
+		while (nextChildElement(reader)) {
+			final String tagName = reader.getLocalName();
+			if (tagName.equals(FEATURE)) {
+				final String featureName = reader.getAttributeValue(null, NAME);
+				if (featureName == null) {
+					throw new UnsupportedOperationException("Property container of type feature is missing required name attribute");
+				}
+				parsers.add(new FeaturePropertiesParser(featureName, parsePropertyEntries(reader, featureName)));
+			} else {
+				throw new UnsupportedOperationException("Unkown domain which contains properties. Don't know where to attach them:" + tagName);
+			}
+		}
+		return parsers;
+	}
+
+	private static Set<Entry<String, Type, Object>> parsePropertyEntries(XMLStreamReader reader, String containerName) throws XMLStreamException {
+		final Set<Entry<String, Type, Object>> result = new HashSet<>();
+		int depth = 1;
+		while (depth > 0) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				depth++;
+				if (reader.getLocalName().equals(PROPERTY)) {
+					final String key = reader.getAttributeValue(null, KEY);
+					final String value = reader.getAttributeValue(null, VALUE);
+					final String type = reader.getAttributeValue(null, TYPE);
+					if ((key == null) || (value == null) || (type == null)) {
+						throw new UnsupportedOperationException("One property of container " + containerName
+							+ " is missing one of the required attributes: " + KEY + ", " + VALUE + "," + TYPE);
 					}
-				} else {
-					result.add(entry);
+					addEntry(result, key, type, value);
 				}
+				break;
+			case XMLStreamConstants.END_ELEMENT:
+				depth--;
+				break;
+			default:
+				break;
 			}
 		}
 		return result;
 	}
 
-	private Object castValue(Type type, String value) {
+	private static boolean nextChildElement(XMLStreamReader reader) throws XMLStreamException {
+		while (true) {
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				return true;
+			case XMLStreamConstants.END_ELEMENT:
+				return false;
+			default:
+				break;
+			}
+		}
+	}
+
+	private static Object castValue(Type type, String value) {
 		if ((value == null) || value.trim().isEmpty()) {
 			throw new RuntimeException("Property value is not allowed to be empty");
 		}
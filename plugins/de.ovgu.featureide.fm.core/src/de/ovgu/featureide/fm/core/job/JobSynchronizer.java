@@ -20,11 +20,10 @@
  */
 package de.ovgu.featureide.fm.core.job;
 
-import java.util.Iterator;
-import java.util.Queue;
+import java.util.ArrayDeque;
 import java.util.WeakHashMap;
-import java.util.concurrent.ConcurrentLinkedDeque;
-import java.util.concurrent.Semaphore;
+
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
 
 /**
  * Maps related jobs.
@@ -33,26 +32,31 @@ import java.util.concurrent.Semaphore;
  */
 public final class JobSynchronizer {
 
-	private static class JobEntry {
+	/**
+	 * Runs the jobs of one token one after another. The next job is scheduled when the current job has finished, so waiting jobs do not occupy any thread.
+	 */
+	private static class JobEntry implements JobFinishListener<Object> {
 
-		private final ConcurrentLinkedDeque<IRunner<?>> jobs = new ConcurrentLinkedDeque<>();
-		private final Semaphore semaphore = new Semaphore(1);
+		private final ArrayDeque<IRunner<?>> waitingJobs = new ArrayDeque<>();
 
 		private final JobStartingStrategy strategy;
 
+		private IRunner<?> currentJob = null;
+
 		public JobEntry(JobStartingStrategy strategy) {
 			this.strategy = strategy;
 		}
 
 		private synchronized void run(IRunner<?> job) {
+			final int jobCount = waitingJobs.size() + ((currentJob != null) ? 1 : 0);
 			switch (strategy) {
 			case RETURN:
-				if (jobs.isEmpty()) {
+				if (jobCount == 0) {
 					start(job);
 				}
 				break;
 			case WAIT_ONE:
-				if (jobs.size() > 1) {
+				if (jobCount > 1) {
 					return;
 				}
 			case WAIT: {
@@ -60,13 +64,11 @@ public final class JobSynchronizer {
 				break;
 			}
 			case CANCEL_WAIT_ONE:
-				if (jobs.size() > 1) {
+				if (jobCount > 1) {
 					return;
 				}
 			case CANCEL_WAIT:
-				for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-					iterator.next().cancel();
-				}
+				cancelAll();
 				start(job);
 				break;
 			default:
@@ -74,47 +76,42 @@ public final class JobSynchronizer {
 			}
 		}
 
+		@SuppressWarnings("unchecked")
 		private void start(IRunner<?> job) {
-			jobs.offer(job);
-			new Starter(semaphore, jobs).start();
+			((IRunner<Object>) job).addJobFinishedListener(this);
+			if (currentJob == null) {
+				currentJob = job;
+				job.schedule();
+			} else {
+				waitingJobs.offer(job);
+			}
 		}
 
-		public synchronized void cancelAll() {
-			for (final Iterator<IRunner<?>> iterator = jobs.descendingIterator(); iterator.hasNext();) {
-				iterator.next().cancel();
-				iterator.remove();
+		@Override
+		public void jobFinished(IJob<Object> finishedJob) {
+			synchronized (this) {
+				if (finishedJob != currentJob) {
+					return;
+				}
+				currentJob = waitingJobs.poll();
+				if (currentJob != null) {
+					currentJob.schedule();
+				}
 			}
 		}
 
-	}
-
-	private static class Starter extends Thread {
-
-		private final Semaphore semaphore;
-		private final Queue<IRunner<?>> jobs;
-
-		public Starter(Semaphore semaphore, Queue<IRunner<?>> jobs) {
-			this.semaphore = semaphore;
-			this.jobs = jobs;
+		public synchronized void cancelAll() {
+			for (final IRunner<?> job : waitingJobs) {
+				job.cancel();
+			}
+			waitingJobs.clear();
+			if (currentJob != null) {
+				currentJob.cancel();
+			}
 		}
 
-		@Override
-		public void run() {
-			try {
-				semaphore.acquire();
-				try {
-					final IRunner<?> job = jobs.peek();
-					if (job != null) {
-						job.schedule();
-						job.join();
-					}
-				} finally {
-					jobs.poll();
-					semaphore.release();
-				}
-			} catch (final InterruptedException e) {
-				return;
-			}
+		public synchronized int getWaitingCount() {
+			return waitingJobs.size();
 		}
 
 	}
@@ -140,4 +137,8 @@ public final class JobSynchronizer {
 		jobMap.get(token).cancelAll();
 	}
 
+	static int getWaitingJobCount(JobToken token) {
+		return jobMap.get(token).getWaitingCount();
+	}
+
 }
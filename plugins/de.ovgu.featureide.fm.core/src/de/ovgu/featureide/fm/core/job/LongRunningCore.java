@@ -27,8 +27,25 @@ package de.ovgu.featureide.fm.core.job;
  */
 public class LongRunningCore {
 
+	private final LongRunningExecutor executor;
+
+	public LongRunningCore() {
+		this(new LongRunningExecutor());
+	}
+
+	public LongRunningCore(LongRunningExecutor executor) {
+		this.executor = executor;
+	}
+
 	public <T> IRunner<T> getRunner(LongRunningMethod<T> method, String name) {
-		return LongRunningWrapper.getThread(method, name);
+		return new LongRunningTask<>(executor, name, method, null);
+	}
+
+	/**
+	 * @return the shared pool that executes the jobs created by {@link LongRunningWrapper#getThread(LongRunningMethod, String)}.
+	 */
+	public LongRunningExecutor getExecutor() {
+		return executor;
 	}
 
 }
@@ -0,0 +1,232 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Bounded pool of worker threads that executes tasks by priority.<br/> Tasks with a lower priority value are started first (see {@link #INTERACTIVE},
+ * {@link #SHORT}, {@link #LONG}, {@link #BUILD}, and {@link #DECORATE}, which have the same values as the priorities of Eclipse jobs). Tasks with the same
+ * priority are started in the order of their submission. {@link #INTERACTIVE} tasks are executed by separate workers, so that they never wait for long
+ * running tasks. Idle workers terminate after a while, so that the pool does not hold any threads when it is not used.
+ *
+ * @author FeatureIDE Team
+ */
+public class LongRunningExecutor {
+
+	/**
+	 * Priority for short tasks that the user is waiting for, e.g., updates of an editor.
+	 */
+	public static final int INTERACTIVE = 10;
+	/**
+	 * Priority for short tasks.
+	 */
+	public static final int SHORT = 20;
+	/**
+	 * Priority for long running tasks (default).
+	 */
+	public static final int LONG = 30;
+	/**
+	 * Priority for build tasks.
+	 */
+	public static final int BUILD = 40;
+	/**
+	 * Priority for background tasks, whose results are not needed immediately, e.g., explanations.
+	 */
+	public static final int DECORATE = 50;
+
+	private static final long KEEP_ALIVE_SECONDS = 30;
+
+	/**
+	 * A submitted task. Ordered by priority and submission.
+	 */
+	private static final class Task implements Runnable, Comparable<Task> {
+
+		private final Runnable runnable;
+		private final int priority;
+		private final long sequenceNumber;
+		private final long submissionTime = System.nanoTime();
+
+		public Task(Runnable runnable, int priority, long sequenceNumber) {
+			this.runnable = runnable;
+			this.priority = priority;
+			this.sequenceNumber = sequenceNumber;
+		}
+
+		@Override
+		public void run() {
+			runnable.run();
+		}
+
+		@Override
+		public int compareTo(Task other) {
+			if (priority != other.priority) {
+				return (priority < other.priority) ? -1 : 1;
+			}
+			return (sequenceNumber < other.sequenceNumber) ? -1 : ((sequenceNumber == other.sequenceNumber) ? 0 : 1);
+		}
+	}
+
+	private static final class DaemonThreadFactory implements ThreadFactory {
+
+		private final AtomicInteger threadNumber = new AtomicInteger();
+
+		@Override
+		public Thread newThread(Runnable runnable) {
+			final Thread thread = new Thread(runnable, "FeatureIDE Worker " + threadNumber.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+
+	private final AtomicLong sequence = new AtomicLong();
+	private final AtomicLong startedTasks = new AtomicLong();
+	private final AtomicLong totalQueueLatency = new AtomicLong();
+	private final AtomicLong maximumQueueLatency = new AtomicLong();
+
+	private final ThreadPoolExecutor executor;
+	/**
+	 * Executes all tasks with a priority of {@link #INTERACTIVE} or lower.
+	 */
+	private final ThreadPoolExecutor interactiveExecutor;
+
+	/**
+	 * Creates a pool with one worker per available processor.
+	 */
+	public LongRunningExecutor() {
+		this(Runtime.getRuntime().availableProcessors(), new DaemonThreadFactory());
+	}
+
+	/**
+	 * Creates a pool with a given number of workers.
+	 *
+	 * @param maximumThreads the maximum number of workers for non-interactive tasks and, separately, for interactive tasks
+	 * @param threadFactory creates the workers, e.g., a factory for virtual threads on newer Java versions
+	 */
+	public LongRunningExecutor(int maximumThreads, ThreadFactory threadFactory) {
+		executor = createExecutor(maximumThreads, threadFactory);
+		interactiveExecutor = createExecutor(maximumThreads, threadFactory);
+	}
+
+	private ThreadPoolExecutor createExecutor(int maximumThreads, ThreadFactory threadFactory) {
+		final ThreadPoolExecutor pool = new ThreadPoolExecutor(maximumThreads, maximumThreads, KEEP_ALIVE_SECONDS, TimeUnit.SECONDS,
+				new PriorityBlockingQueue<Runnable>(), threadFactory) {
+
+			@Override
+			protected void beforeExecute(Thread thread, Runnable runnable) {
+				final long latency = System.nanoTime() - ((Task) runnable).submissionTime;
+				startedTasks.incrementAndGet();
+				totalQueueLatency.addAndGet(latency);
+				for (long maximum = maximumQueueLatency.get(); latency > maximum; maximum = maximumQueueLatency.get()) {
+					if (maximumQueueLatency.compareAndSet(maximum, latency)) {
+						break;
+					}
+				}
+			}
+		};
+		pool.allowCoreThreadTimeOut(true);
+		return pool;
+	}
+
+	/**
+	 * Submits a task.
+	 *
+	 * @param runnable the task
+	 * @param priority the priority of the task
+	 * @return a handle for the submitted task that can be passed to {@link #remove(Runnable)}
+	 */
+	public Runnable execute(Runnable runnable, int priority) {
+		final Task task = new Task(runnable, priority, sequence.getAndIncrement());
+		getExecutor(priority).execute(task);
+		return task;
+	}
+
+	private ThreadPoolExecutor getExecutor(int priority) {
+		return (priority <= INTERACTIVE) ? interactiveExecutor : executor;
+	}
+
+	/**
+	 * Removes a task that was not started yet.
+	 *
+	 * @param handle the handle returned by {@link #execute(Runnable, int)}
+	 * @return {@code true} if the task was removed and will not be executed by this pool, {@code false} if it was already started
+	 */
+	public boolean remove(Runnable handle) {
+		return (handle instanceof Task) && getExecutor(((Task) handle).priority).remove(handle);
+	}
+
+	/**
+	 * @return the number of tasks waiting for a free worker
+	 */
+	public int getQueueSize() {
+		return executor.getQueue().size() + interactiveExecutor.getQueue().size();
+	}
+
+	/**
+	 * @return the approximate number of currently running tasks
+	 */
+	public int getActiveCount() {
+		return executor.getActiveCount() + interactiveExecutor.getActiveCount();
+	}
+
+	/**
+	 * @return the approximate number of finished tasks
+	 */
+	public long getCompletedCount() {
+		return executor.getCompletedTaskCount() + interactiveExecutor.getCompletedTaskCount();
+	}
+
+	/**
+	 * @return the maximum number of workers for non-interactive tasks
+	 */
+	public int getMaximumThreads() {
+		return executor.getMaximumPoolSize();
+	}
+
+	/**
+	 * @return the average time in milliseconds that started tasks waited for a free worker
+	 */
+	public double getAverageQueueLatency() {
+		final long started = startedTasks.get();
+		return (started == 0) ? 0 : (totalQueueLatency.get() / (started * 1e6));
+	}
+
+	/**
+	 * @return the maximum time in milliseconds that a started task waited for a free worker
+	 */
+	public double getMaximumQueueLatency() {
+		return maximumQueueLatency.get() / 1e6;
+	}
+
+	/**
+	 * Stops all workers after the submitted tasks are finished.
+	 */
+	public void shutdown() {
+		executor.shutdown();
+		interactiveExecutor.shutdown();
+	}
+
+}
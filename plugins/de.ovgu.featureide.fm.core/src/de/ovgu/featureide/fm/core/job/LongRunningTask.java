@@ -0,0 +1,233 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+
+import de.ovgu.featureide.fm.core.Logger;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
+
+/**
+ * Job that wraps the functionality of a {@link LongRunningMethod} and is executed by a {@link LongRunningExecutor}.<br/> If the job is joined while it is
+ * still waiting for a free worker, it is executed by the joining thread instead. Thus, jobs that start and join other jobs cannot block the bounded pool.
+ *
+ * @author FeatureIDE Team
+ */
+public class LongRunningTask<T> implements IRunner<T>, Runnable {
+
+	protected final List<JobFinishListener<T>> listenerList = new CopyOnWriteArrayList<>();
+
+	private final CountDownLatch finished = new CountDownLatch(1);
+
+	private final LongRunningExecutor executor;
+	private final LongRunningMethod<T> method;
+	private final IMonitor monitor;
+	private final String name;
+
+	private Executer<T> executer;
+	private Runnable handle = null;
+	private boolean canceled = false;
+
+	private int priority = LongRunningExecutor.LONG;
+	private int cancelingTimeout = -1;
+	private volatile T methodResult = null;
+	private volatile JobStatus status = JobStatus.NOT_STARTED;
+
+	private boolean stoppable;
+
+	public LongRunningTask(LongRunningExecutor executor, String name, LongRunningMethod<T> method, IMonitor monitor) {
+		this.executor = executor;
+		this.name = (name != null) ? name : "";
+		this.method = method;
+		this.monitor = monitor != null ? monitor : new NullMonitor();
+	}
+
+	@Override
+	public void addJobFinishedListener(JobFinishListener<T> listener) {
+		if (!listenerList.contains(listener)) {
+			listenerList.add(listener);
+		}
+	}
+
+	@Override
+	public boolean cancel() {
+		final Executer<T> runningExecuter;
+		synchronized (this) {
+			canceled = true;
+			runningExecuter = executer;
+		}
+		if (runningExecuter != null) {
+			runningExecuter.cancel();
+		} else if (isQueued()) {
+			// finishes the job without executing its method
+			run();
+		}
+		return status != JobStatus.RUNNING;
+	}
+
+	@Override
+	public int getCancelingTimeout() {
+		return cancelingTimeout;
+	}
+
+	@Override
+	public T getResults() {
+		return methodResult;
+	}
+
+	@Override
+	public LongRunningMethod<T> getMethod() {
+		return method;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public int getPriority() {
+		return priority;
+	}
+
+	@Override
+	public final JobStatus getStatus() {
+		return status;
+	}
+
+	@Override
+	public boolean isStoppable() {
+		return stoppable;
+	}
+
+	@Override
+	public void join() throws InterruptedException {
+		final boolean scheduled;
+		synchronized (this) {
+			scheduled = handle != null;
+		}
+		if (scheduled) {
+			if (isQueued()) {
+				run();
+			} else {
+				finished.await();
+			}
+		}
+	}
+
+	/**
+	 * Removes this job from the queue of the executor, if it was scheduled, but not yet started.
+	 *
+	 * @return {@code true} if the caller is responsible for running this job, {@code false} otherwise
+	 */
+	private boolean isQueued() {
+		final Runnable queuedHandle;
+		synchronized (this) {
+			queuedHandle = handle;
+		}
+		return (queuedHandle != null) && executor.remove(queuedHandle);
+	}
+
+	@Override
+	public void removeJobFinishedListener(JobFinishListener<T> listener) {
+		listenerList.remove(listener);
+	}
+
+	@Override
+	public void run() {
+		synchronized (this) {
+			if (status != JobStatus.NOT_STARTED) {
+				return;
+			}
+			status = JobStatus.RUNNING;
+			if (!canceled) {
+				executer = stoppable ? new StoppableExecuter<>(method, cancelingTimeout) : new Executer<>(method);
+			}
+		}
+		final Thread currentThread = Thread.currentThread();
+		final String threadName = currentThread.getName();
+		try {
+			if (executer != null) {
+				if (!name.isEmpty()) {
+					currentThread.setName(name);
+				}
+				methodResult = executer.execute(monitor);
+				status = JobStatus.OK;
+			} else {
+				status = JobStatus.FAILED;
+			}
+		} catch (final Exception e) {
+			Logger.logError(e);
+			status = JobStatus.FAILED;
+		} finally {
+			currentThread.setName(threadName);
+			monitor.done();
+			for (final JobFinishListener<T> listener : listenerList) {
+				try {
+					listener.jobFinished(this);
+				} catch (final Throwable e) {
+					Logger.logError(e);
+				}
+			}
+			finished.countDown();
+		}
+	}
+
+	@Override
+	public synchronized void schedule() {
+		if (handle != null) {
+			throw new IllegalStateException("Job was already scheduled");
+		}
+		handle = executor.execute(this, priority);
+	}
+
+	@Override
+	public void setCancelingTimeout(int cancelingTimeout) {
+		this.cancelingTimeout = cancelingTimeout;
+	}
+
+	@Override
+	public void setIntermediateFunction(IConsumer<Object> intermediateFunction) {
+		monitor.setIntermediateFunction(intermediateFunction);
+	}
+
+	/**
+	 * Sets the priority that is used when this job is scheduled (default: {@link LongRunningExecutor#LONG}).
+	 */
+	@Override
+	public void setPriority(int priority) {
+		this.priority = priority;
+	}
+
+	@Override
+	public void setStoppable(boolean stoppable) {
+		this.stoppable = stoppable;
+	}
+
+	@Override
+	public String toString() {
+		return name.isEmpty() ? super.toString() : name;
+	}
+
+}
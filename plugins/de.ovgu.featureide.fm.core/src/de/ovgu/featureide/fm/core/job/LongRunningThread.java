@@ -33,9 +33,9 @@ import de.ovgu.featureide.fm.core.job.util.JobFinishListener;
  * Job that wraps the functionality of a {@link LongRunningMethod}.
  *
  * @author Sebastian Krieter
+ * @deprecated Creates a new thread for every job. Use {@link LongRunningTask} instead.
  */
-// TODO Change to Runnable so it can be started more than once
-// TODO Implement prioritization
+@Deprecated
 public class LongRunningThread<T> extends Thread implements IRunner<T> {
 
 	protected final List<JobFinishListener<T>> listenerList = new LinkedList<>();
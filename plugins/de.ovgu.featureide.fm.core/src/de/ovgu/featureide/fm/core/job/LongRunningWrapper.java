@@ -75,7 +75,7 @@ public final class LongRunningWrapper {
 	}
 
 	public static <T> IRunner<T> getThread(LongRunningMethod<T> method, String name, IMonitor monitor) {
-		return new LongRunningThread<>(name, method, monitor);
+		return new LongRunningTask<>(INSTANCE.getExecutor(), name, method, monitor);
 	}
 
 	public static JobToken createToken(JobStartingStrategy strategy) {
@@ -90,4 +90,11 @@ public final class LongRunningWrapper {
 		JobSynchronizer.cancelAllJobs(token);
 	}
 
+	/**
+	 * @return the number of jobs of the given token that wait for the current job to finish
+	 */
+	public static int getWaitingJobCount(JobToken token) {
+		return JobSynchronizer.getWaitingJobCount(token);
+	}
+
 }
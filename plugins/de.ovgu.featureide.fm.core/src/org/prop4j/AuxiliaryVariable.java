@@ -0,0 +1,46 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A variable that is introduced by a CNF transformation (e.g., {@link Node#toTseitinCNF(int)}) and does not correspond to a feature.</br> Two auxiliary
+ * variables are only equal, if they are the same object.
+ *
+ * @author FeatureIDE Team
+ */
+public final class AuxiliaryVariable {
+
+	private static final AtomicLong ID_COUNTER = new AtomicLong();
+
+	private final long id = ID_COUNTER.incrementAndGet();
+
+	public long getId() {
+		return id;
+	}
+
+	@Override
+	public String toString() {
+		return "__aux_" + id;
+	}
+
+}
@@ -0,0 +1,191 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import java.util.List;
+
+/**
+ * Creates compact encodings of cardinality constraints ({@link AtMost}, {@link AtLeast}, {@link Choose}) using a sequential counter.<br/>
+ * The counter consists of {@link AuxiliaryVariable auxiliary variables} <i>s(i,j)</i>, which are true iff at least <i>j</i> of the first <i>i</i> literals
+ * are true. Each counter variable is defined by full equivalence clauses, so its value is determined by the counted literals and the number of solutions of
+ * a formula is preserved. For <i>n</i> literals and a bound <i>k</i> the encoding requires <i>O(n*k)</i> clauses, whereas the pairwise encoding created by
+ * {@link Node#chooseKofN(Node[], int, boolean)} requires <i>binom(n, k)</i> clauses.
+ *
+ * @author FeatureIDE Team
+ */
+public final class CardinalityEncoder {
+
+	private CardinalityEncoder() {}
+
+	/**
+	 * Computes the binomial coefficient. The result saturates at {@link Long#MAX_VALUE} instead of overflowing.
+	 */
+	public static long binomial(int n, int k) {
+		if ((k < 0) || (k > n)) {
+			return 0;
+		}
+		if (k > (n - k)) {
+			k = n - k;
+		}
+		long result = 1;
+		for (int i = 1; i <= k; i++) {
+			// result * factor is divisible by i, so divide before multiplying to avoid overflows of the intermediate product
+			final long divisor = gcd(result, i);
+			result /= divisor;
+			final long factor = ((n - k) + i) / (i / divisor);
+			if (result > (Long.MAX_VALUE / factor)) {
+				return Long.MAX_VALUE;
+			}
+			result *= factor;
+		}
+		return result;
+	}
+
+	private static long gcd(long a, long b) {
+		while (b != 0) {
+			final long r = a % b;
+			a = b;
+			b = r;
+		}
+		return a;
+	}
+
+	/**
+	 * Returns the number of clauses of the pairwise encoding of a cardinality constraint.
+	 *
+	 * @param n the number of literals
+	 * @param min the minimal number of true literals
+	 * @param max the maximal number of true literals
+	 */
+	public static long getPairwiseSize(int n, int min, int max) {
+		long size = 0;
+		if (min > 0) {
+			size = binomial(n, (n - min) + 1);
+		}
+		if (max < n) {
+			final long atMostSize = binomial(n, max + 1);
+			size = (size > (Long.MAX_VALUE - atMostSize)) ? Long.MAX_VALUE : size + atMostSize;
+		}
+		return size;
+	}
+
+	/**
+	 * Returns an upper bound for the number of clauses of the sequential counter encoding of a cardinality constraint.
+	 *
+	 * @param n the number of literals
+	 * @param min the minimal number of true literals
+	 * @param max the maximal number of true literals
+	 */
+	public static long getCounterSize(int n, int min, int max) {
+		final int bound = Math.min(n, Math.max(min, max + 1));
+		return (4L * n * bound) + 2;
+	}
+
+	/**
+	 * Decides whether a cardinality constraint should be encoded by a sequential counter.
+	 * This is the case if the pairwise encoding exceeds the given threshold and is larger than the counter encoding.
+	 *
+	 * @param n the number of literals
+	 * @param min the minimal number of true literals
+	 * @param max the maximal number of true literals
+	 * @param maxClauses the maximum number of clauses that may be created by the pairwise encoding
+	 */
+	public static boolean useCounter(int n, int min, int max, int maxClauses) {
+		if ((min > n) || (max < 0) || (min > max) || ((min <= 0) && (max >= n))) {
+			// tautologies and contradictions are handled by the pairwise encoding
+			return false;
+		}
+		final long pairwiseSize = getPairwiseSize(n, min, max);
+		return (pairwiseSize > maxClauses) && (pairwiseSize > getCounterSize(n, min, max));
+	}
+
+	/**
+	 * Creates the clauses for the constraint that at least {@code min} and at most {@code max} of the given literals are true.
+	 *
+	 * @param literals the literals to count
+	 * @param min the minimal number of true literals
+	 * @param max the maximal number of true literals
+	 * @param clauses the list, to which the created clauses are added
+	 * @return a conjunction of counter literals that is true iff the constraint is satisfied, or {@code null} if the constraint is a tautology or a
+	 *         contradiction (see {@link #useCounter(int, int, int, int)})
+	 */
+	public static Node encode(Literal[] literals, int min, int max, List<Node> clauses) {
+		final int n = literals.length;
+		if ((min <= n) && (max >= 0) && (min <= max)) {
+			final Literal[] counter = createCounter(literals, Math.min(n, Math.max(min, max + 1)), clauses);
+			if (min > 0) {
+				if (max < n) {
+					return new And(counter[min - 1].clone(), new Literal(counter[max].var, !counter[max].positive));
+				} else {
+					return counter[min - 1].clone();
+				}
+			} else if (max < n) {
+				return new Literal(counter[max].var, !counter[max].positive);
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Creates the clauses of a sequential counter for the given literals.
+	 *
+	 * @param literals the literals to count
+	 * @param bound the largest number that can be counted (at most the number of literals)
+	 * @param clauses the list, to which the defining clauses are added
+	 * @return an array of literals, where the literal at index <i>j</i> is true iff at least <i>j+1</i> of the given literals are true
+	 */
+	public static Literal[] createCounter(Literal[] literals, int bound, List<Node> clauses) {
+		Literal[] previous = new Literal[] { literals[0] };
+		for (int i = 1; i < literals.length; i++) {
+			final Literal x = literals[i];
+			final Literal[] current = new Literal[Math.min(i + 1, bound)];
+			for (int j = 0; j < current.length; j++) {
+				final Literal s = new Literal(new AuxiliaryVariable());
+				final Literal a = (j < previous.length) ? previous[j] : null;
+				final Literal b = (j > 0) ? previous[j - 1] : null;
+				// s <=> a | (x & b), where a and b may be false or true
+				if (a != null) {
+					clauses.add(new Or(negate(a), s.clone()));
+					clauses.add(new Or(negate(s), a.clone(), x.clone()));
+					if (b != null) {
+						clauses.add(new Or(negate(s), a.clone(), b.clone()));
+					}
+				} else {
+					clauses.add(new Or(negate(s), x.clone()));
+					clauses.add(new Or(negate(s), b.clone()));
+				}
+				if (b != null) {
+					clauses.add(new Or(negate(x), negate(b), s.clone()));
+				} else {
+					clauses.add(new Or(negate(x), s.clone()));
+				}
+				current[j] = s;
+			}
+			previous = current;
+		}
+		return previous;
+	}
+
+	private static Literal negate(Literal literal) {
+		return new Literal(literal.var, !literal.positive);
+	}
+
+}
@@ -131,6 +131,148 @@ public abstract class Node {
 		return regularCNFNode;
 	}
 
+	/**
+	 * Transforms this node into an equisatisfiable, regular CNF. Subformulas whose conjunctive normal form would consist of more than the given number of
+	 * clauses are replaced by {@link AuxiliaryVariable auxiliary variables}, which are defined by additional clauses (Tseitin transformation). Since each
+	 * auxiliary variable is equivalent to the subformula it replaces, the number of solutions is preserved.
+	 *
+	 * @param maxClauses the maximum number of clauses that may be created for a subformula by distribution
+	 * @return a regular CNF, which may contain auxiliary variables
+	 */
+	public Node toTseitinCNF(int maxClauses) {
+		final List<Node> clauses = new ArrayList<>();
+		Node nnf = encodeCardinalities(this, maxClauses, clauses);
+		nnf = nnf.eliminateNonCNFOperators();
+		nnf = deMorgan(nnf);
+		addTseitinClauses(nnf, maxClauses, clauses);
+		return new And(clauses.toArray(new Node[clauses.size()]));
+	}
+
+	/**
+	 * Replaces all cardinality constraints, whose pairwise encoding would consist of more than the given number of clauses, by a sequential counter (see
+	 * {@link CardinalityEncoder}).
+	 */
+	private static Node encodeCardinalities(Node node, int maxClauses, List<Node> clauses) {
+		final Node[] children = node.getChildren();
+		if (children == null) {
+			return node;
+		}
+		final Node[] newChildren = new Node[children.length];
+		boolean changed = false;
+		for (int i = 0; i < children.length; i++) {
+			newChildren[i] = encodeCardinalities(children[i], maxClauses, clauses);
+			changed |= newChildren[i] != children[i];
+		}
+
+		int min = -1, max = -1;
+		if (node instanceof AtMost) {
+			min = 0;
+			max = ((AtMost) node).max;
+		} else if (node instanceof AtLeast) {
+			min = ((AtLeast) node).min;
+			max = children.length;
+		} else if (node instanceof Choose) {
+			min = ((Choose) node).n;
+			max = min;
+		}
+
+		if ((min >= 0) && CardinalityEncoder.useCounter(children.length, min, max, maxClauses)) {
+			final Literal[] literals = new Literal[newChildren.length];
+			for (int i = 0; i < newChildren.length; i++) {
+				literals[i] = defineTseitinVariable(deMorgan(newChildren[i].eliminateNonCNFOperators()), clauses);
+			}
+			return CardinalityEncoder.encode(literals, min, max, clauses);
+		} else if (changed) {
+			final Node newNode = node.clone();
+			newNode.setChildren(newChildren);
+			return newNode;
+		} else {
+			return node;
+		}
+	}
+
+	private static void addTseitinClauses(Node nnf, int maxClauses, List<Node> clauses) {
+		if (nnf instanceof And) {
+			for (final Node child : nnf.getChildren()) {
+				addTseitinClauses(child, maxClauses, clauses);
+			}
+		} else if (estimateCNFSize(nnf) <= maxClauses) {
+			final Node cnf = nnf.clausifyCNF();
+			if (cnf instanceof And) {
+				for (final Node clause : cnf.getChildren()) {
+					clauses.add(clause instanceof Or ? clause : new Or(clause));
+				}
+			} else {
+				clauses.add(cnf instanceof Or ? cnf : new Or(cnf));
+			}
+		} else {
+			final List<Node> literals = new ArrayList<>();
+			addTseitinLiterals(nnf, clauses, literals);
+			clauses.add(new Or(literals.toArray(new Node[literals.size()])));
+		}
+	}
+
+	private static void addTseitinLiterals(Node nnf, List<Node> clauses, List<Node> literals) {
+		if (nnf instanceof Or) {
+			for (final Node child : nnf.getChildren()) {
+				addTseitinLiterals(child, clauses, literals);
+			}
+		} else {
+			literals.add(defineTseitinVariable(nnf, clauses));
+		}
+	}
+
+	private static Literal defineTseitinVariable(Node nnf, List<Node> clauses) {
+		if (nnf instanceof Literal) {
+			return (Literal) nnf.clone();
+		}
+		final Node[] children = nnf.getChildren();
+		final Literal[] childLiterals = new Literal[children.length];
+		for (int i = 0; i < children.length; i++) {
+			childLiterals[i] = defineTseitinVariable(children[i], clauses);
+		}
+
+		final Object auxiliaryVariable = new AuxiliaryVariable();
+		final boolean and = nnf instanceof And;
+		final Node[] longClause = new Node[childLiterals.length + 1];
+		longClause[0] = new Literal(auxiliaryVariable, and);
+		for (int i = 0; i < childLiterals.length; i++) {
+			final Literal childLiteral = childLiterals[i];
+			longClause[i + 1] = new Literal(childLiteral.var, childLiteral.positive != and);
+			clauses.add(new Or(new Literal(auxiliaryVariable, !and), new Literal(childLiteral.var, childLiteral.positive == and)));
+		}
+		clauses.add(new Or(longClause));
+		return new Literal(auxiliaryVariable, true);
+	}
+
+	/**
+	 * Estimates the number of clauses of the conjunctive normal form of a formula in negation normal form, as it would be created by distribution.
+	 */
+	private static long estimateCNFSize(Node nnf) {
+		if (nnf instanceof Literal) {
+			return 1;
+		} else if (nnf instanceof Or) {
+			long product = 1;
+			for (final Node child : nnf.getChildren()) {
+				final long childSize = estimateCNFSize(child);
+				if ((childSize > 0) && (product > (Long.MAX_VALUE / childSize))) {
+					return Long.MAX_VALUE;
+				}
+				product *= childSize;
+			}
+			return product;
+		} else {
+			long sum = 0;
+			for (final Node child : nnf.getChildren()) {
+				sum += estimateCNFSize(child);
+				if (sum < 0) {
+					return Long.MAX_VALUE;
+				}
+			}
+			return sum;
+		}
+	}
+
 	public static Node buildCNF(Node node) {
 		Node cnf = node.eliminateNonCNFOperators();
 		cnf = deMorgan(cnf);
@@ -479,7 +621,11 @@ public abstract class Node {
 			return new Node[] { new And(new Not(elements[0].clone()), elements[0].clone()) };
 		}
 
-		final Node[] newNodes = new Node[binom(n, k)];
+		final long numberOfClauses = binom(n, k);
+		if (numberOfClauses > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Too many clauses for choosing " + k + " of " + n + " elements: " + numberOfClauses);
+		}
+		final Node[] newNodes = new Node[(int) numberOfClauses];
 		int j = 0;
 
 		// negate all elements
@@ -519,17 +665,15 @@ public abstract class Node {
 		return newNodes;
 	}
 
-	public static int binom(int n, int k) {
-		if (k > (n / 2)) {
-			k = n - k;
-		}
-		if ((k < 0) || (n < 0)) {
-			return 0;
-		}
-		if ((k == 0) || (n == 0)) {
-			return 1;
-		}
-		return (binom(n - 1, k - 1) * n) / k;
+	/**
+	 * Computes the binomial coefficient (see {@link CardinalityEncoder#binomial(int, int)}).
+	 *
+	 * @param n the number of elements
+	 * @param k the number of chosen elements
+	 * @return the number of subsets of size <i>k</i>; {@link Long#MAX_VALUE} if the number exceeds the range of {@code long}
+	 */
+	public static long binom(int n, int k) {
+		return CardinalityEncoder.binomial(n, k);
 	}
 
 	protected static void negateNodes(Node[] nodes) {
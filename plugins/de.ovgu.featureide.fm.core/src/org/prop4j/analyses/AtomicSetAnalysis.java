@@ -50,6 +50,7 @@ public class AtomicSetAnalysis extends AbstractAnalysis<List<int[]>> {
 	public List<int[]> analyze(IMonitor monitor) throws Exception {
 		final List<int[]> result = new ArrayList<>();
 
+		solver.initSolutionList(Math.min(solver.getSatInstance().getNumberOfVariables(), ISatSolver.MAX_SOLUTION_BUFFER));
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 		final int[] model1 = solver.findModel();
 
@@ -59,8 +60,13 @@ public class AtomicSetAnalysis extends AbstractAnalysis<List<int[]>> {
 			solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 
 			final byte[] done = new byte[model1.length];
+			final SatInstance satInstance = solver.getSatInstance();
+			for (int i = satInstance.getNumberOfFeatureVariables(); i < done.length; i++) {
+				done[i] = 2;
+			}
 
 			final int[] model1Copy = Arrays.copyOf(model1, model1.length);
+			satInstance.clearAuxiliaryVariables(model1Copy);
 
 			SatInstance.updateModel(model1Copy, model2);
 			for (int i = 0; i < model1Copy.length; i++) {
@@ -133,7 +139,7 @@ public class AtomicSetAnalysis extends AbstractAnalysis<List<int[]>> {
 					case FALSE:
 						break;
 					case TIMEOUT:
-						for (int j = i + 1; j < xModel0.length; j++) {
+						for (int j = i + 1; j < satInstance.getNumberOfFeatureVariables(); j++) {
 							done[j] = 0;
 						}
 						break;
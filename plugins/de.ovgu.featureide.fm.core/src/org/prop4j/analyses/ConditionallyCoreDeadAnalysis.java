@@ -36,6 +36,8 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 
+	private int[] knownLiterals = new int[0];
+
 	public ConditionallyCoreDeadAnalysis(ISatSolver solver) {
 		super(solver);
 	}
@@ -44,19 +46,39 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 		super(satInstance);
 	}
 
+	/**
+	 * Sets literals that are already known to be implied by the assumptions (e.g., the result of a previous run with a subset of the current assumptions).
+	 * These literals are not checked again, but are part of the result.
+	 *
+	 * @param knownLiterals the known implied literals
+	 */
+	public void setKnownLiterals(int[] knownLiterals) {
+		this.knownLiterals = knownLiterals != null ? knownLiterals : new int[0];
+	}
+
 	@Override
 	public int[] analyze(IMonitor monitor) throws Exception {
+		final int assumptionCount = assumptions != null ? assumptions.length : 0;
 		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
 		final int[] model1 = solver.findModel();
 
 		if (model1 != null) {
+			solver.getSatInstance().clearAuxiliaryVariables(model1);
+			for (int i = 0; i < assumptionCount; i++) {
+				model1[Math.abs(assumptions[i]) - 1] = 0;
+			}
+			for (final int knownLiteral : knownLiterals) {
+				final int index = Math.abs(knownLiteral) - 1;
+				if (model1[index] != 0) {
+					model1[index] = 0;
+					solver.assignmentPush(knownLiteral);
+				}
+			}
+
 			solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
 			final int[] model2 = solver.findModel();
 
 			SatInstance.updateModel(model1, model2);
-			for (int i = 0; i < assumptions.length; i++) {
-				model1[Math.abs(assumptions[i]) - 1] = 0;
-			}
 
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
 
@@ -80,7 +102,7 @@ public class ConditionallyCoreDeadAnalysis extends AbstractAnalysis<int[]> {
 				}
 			}
 		}
-		return solver.getAssignmentArray(assumptions.length, solver.getAssignment().size());
+		return solver.getAssignmentArray(assumptionCount, solver.getAssignment().size());
 	}
 
 }
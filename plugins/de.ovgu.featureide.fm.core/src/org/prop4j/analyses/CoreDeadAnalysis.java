@@ -76,6 +76,7 @@ public class CoreDeadAnalysis extends AbstractAnalysis<int[]> {
 				}
 				model1 = model3;
 			}
+			solver.getSatInstance().clearAuxiliaryVariables(model1);
 
 			SatInstance.updateModel(model1, model2);
 			((Solver<?>) solver.getInternalSolver()).setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model1, true), solver.getOrder()));
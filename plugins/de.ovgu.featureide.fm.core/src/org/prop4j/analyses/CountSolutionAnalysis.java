@@ -20,13 +20,17 @@
  */
 package org.prop4j.analyses;
 
+import java.math.BigInteger;
+
 import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.DDNNF;
 import org.prop4j.solver.ISatSolver;
 import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 import org.sat4j.core.VecInt;
 import org.sat4j.minisat.core.Solver;
 import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
 
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
@@ -37,12 +41,37 @@ import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
  */
 public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 
+	public static enum CountingMethod {
+		/**
+		 * Enumerates all solutions with a SAT solver. If a timeout occurs, a negative lower bound is returned.
+		 */
+		ENUMERATION,
+		/**
+		 * Compiles the instance into a {@link DDNNF d-DNNF} and counts the solutions on the compiled form. Falls back to {@link #ENUMERATION}, if the
+		 * compilation does not finish in time.
+		 */
+		COMPILATION
+	}
+
+	private final SatInstance satInstance;
+	private final long globalTimeout;
+	private final CountingMethod countingMethod;
+
+	private BigInteger exactResult = null;
+
 	public CountSolutionAnalysis(SatInstance satInstance) {
 		this(satInstance, ISatSolver.DEFAULT_TIMEOUT);
 	}
 
 	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout) {
+		this(satInstance, globalTimeout, CountingMethod.ENUMERATION);
+	}
+
+	public CountSolutionAnalysis(SatInstance satInstance, long globalTimeout, CountingMethod countingMethod) {
 		super(createSolver(satInstance, globalTimeout));
+		this.satInstance = satInstance;
+		this.globalTimeout = globalTimeout;
+		this.countingMethod = countingMethod;
 	}
 
 	private static BasicSolver createSolver(SatInstance satInstance, final long timeout) {
@@ -63,6 +92,27 @@ public class CountSolutionAnalysis extends AbstractAnalysis<Long> {
 
 	@Override
 	public Long analyze(IMonitor monitor) throws Exception {
+		exactResult = null;
+		if (countingMethod == CountingMethod.COMPILATION) {
+			try {
+				exactResult = satInstance.getDDNNF(monitor, globalTimeout).countModels(assumptions);
+				return exactResult.bitLength() < Long.SIZE ? exactResult.longValue() : Long.MAX_VALUE;
+			} catch (final TimeoutException e) {}
+		}
+		return enumerateSolutions();
+	}
+
+	/**
+	 * Returns the exact number of solutions of the last execution, if it was computed via {@link CountingMethod#COMPILATION compilation}. In contrast to the
+	 * result of {@link #execute(IMonitor)}, this number is not limited by the range of {@code long}.
+	 *
+	 * @return the exact number of solutions or {@code null} if it was not computed
+	 */
+	public BigInteger getExactResult() {
+		return exactResult;
+	}
+
+	private Long enumerateSolutions() {
 		long lowerBound = 0;
 		solver.setSelectionStrategy(SelectionStrategy.RANDOM);
 		solutionLoop: while (true) {
@@ -0,0 +1,165 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.Arrays;
+
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Enumerates all solutions of a {@link SatInstance} that differ in a given set of variables.<br/> The variables are assigned one after another by pushing
+ * assumptions to a single incremental solver. At every step, the polarity of the last found model is tried first, which is known to be satisfiable, so the
+ * solver is only called for the opposite polarity. Thus, no solution is found twice and no blocking clauses are needed.<br/> Every solution is passed to
+ * the {@link IMonitor#invoke(Object) intermediate function} of the monitor as an array that contains one literal for each variable. The analysis returns
+ * the number of found solutions.<br/> Optionally, every solution can be completed by a set of dependent variables (see
+ * {@link #setCompletedVariables(int[])}), which do not distinguish solutions.
+ *
+ * @author FeatureIDE Team
+ */
+public class EnumerateSolutionAnalysis extends AbstractAnalysis<Long> {
+
+	private final int[] variables;
+	private final long maxNumber;
+
+	private int[] completedVariables = new int[0];
+
+	private int[] solution;
+	private long numberOfSolutions;
+
+	/**
+	 * @param satInstance the instance
+	 * @param variables the variables that distinguish solutions, in the order in which they are assigned
+	 * @param maxNumber the maximum number of solutions to enumerate
+	 */
+	public EnumerateSolutionAnalysis(SatInstance satInstance, int[] variables, long maxNumber) {
+		super(satInstance);
+		this.variables = variables;
+		this.maxNumber = maxNumber;
+	}
+
+	public EnumerateSolutionAnalysis(ISatSolver solver, int[] variables, long maxNumber) {
+		super(solver);
+		this.variables = variables;
+		this.maxNumber = maxNumber;
+	}
+
+	public int[] getCompletedVariables() {
+		return completedVariables;
+	}
+
+	/**
+	 * Sets variables that are appended to every solution, but are not used to distinguish solutions.<br/> Each of these variables is deselected (i.e.,
+	 * its negative literal is used), unless the current solution and the already completed variables imply its positive literal. No assumptions are made
+	 * about these variables beforehand, thus, no solution is excluded.
+	 *
+	 * @param completedVariables the variables to complete every solution with, in the order in which they are assigned
+	 */
+	public void setCompletedVariables(int[] completedVariables) {
+		this.completedVariables = completedVariables;
+	}
+
+	@Override
+	public Long analyze(IMonitor monitor) throws Exception {
+		solution = new int[variables.length];
+		numberOfSolutions = 0;
+		if ((maxNumber > 0) && (solver.isSatisfiable() == ISatSolver.SatResult.TRUE)) {
+			enumerate(0, solver.getModel().clone(), monitor);
+		}
+		return numberOfSolutions;
+	}
+
+	/**
+	 * Assigns the variable at the given depth and all following variables.
+	 *
+	 * @param depth the index of the next variable to assign
+	 * @param model a model that satisfies all current assumptions
+	 * @param monitor the monitor
+	 * @return {@code false} if the maximum number of solutions is reached, {@code true} otherwise
+	 */
+	private boolean enumerate(int depth, int[] model, IMonitor monitor) {
+		if (depth == variables.length) {
+			monitor.invoke(complete(model));
+			return ++numberOfSolutions < maxNumber;
+		}
+		monitor.checkCancel();
+
+		final int literal = model[variables[depth] - 1];
+		solution[depth] = literal;
+		solver.assignmentPush(literal);
+		try {
+			if (!enumerate(depth + 1, model, monitor)) {
+				return false;
+			}
+			solver.assignmentReplaceLast(-literal);
+			switch (solver.isSatisfiable()) {
+			case TRUE:
+				solution[depth] = -literal;
+				return enumerate(depth + 1, solver.getModel().clone(), monitor);
+			case FALSE:
+			case TIMEOUT:
+			default:
+				return true;
+			}
+		} finally {
+			solver.assignmentPop();
+		}
+	}
+
+	/**
+	 * Appends a literal for each completed variable to the current solution.
+	 *
+	 * @param model a model that satisfies all current assumptions
+	 * @return the completed solution
+	 */
+	private int[] complete(int[] model) {
+		if (completedVariables.length == 0) {
+			return solution.clone();
+		}
+		final int[] completedSolution = Arrays.copyOf(solution, solution.length + completedVariables.length);
+		int pushed = 0;
+		try {
+			for (int i = 0; i < completedVariables.length; i++) {
+				final int variable = completedVariables[i];
+				final int literal = model[variable - 1];
+				solver.assignmentPush(-variable);
+				pushed++;
+				if (literal > 0) {
+					// the model selects the variable, check whether it can be deselected
+					if (solver.isSatisfiable() == ISatSolver.SatResult.TRUE) {
+						model = solver.getModel().clone();
+					} else {
+						solver.assignmentReplaceLast(variable);
+					}
+				}
+				completedSolution[solution.length + i] = model[variable - 1];
+			}
+		} finally {
+			for (; pushed > 0; pushed--) {
+				solver.assignmentPop();
+			}
+		}
+		return completedSolution;
+	}
+
+}
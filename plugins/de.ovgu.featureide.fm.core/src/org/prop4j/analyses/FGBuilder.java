@@ -31,8 +31,8 @@ import org.prop4j.solver.ISatSolver.SelectionStrategy;
 import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.fm.core.conf.AFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.CompressedFeatureGraph;
 import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
-import de.ovgu.featureide.fm.core.conf.MatrixFeatureGraph;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
@@ -50,7 +50,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private byte[] visited;
 	private boolean[] complete;
 	private int[] index;
-	private IFeatureGraph featureGraph;
+	private CompressedFeatureGraph featureGraph;
 
 	public FGBuilder(ISatSolver solver) {
 		super(solver);
@@ -125,7 +125,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 			}
 
 			final SatInstance satInstance = solver.getSatInstance();
-			featureGraph = new MatrixFeatureGraph(satInstance, index);
+			featureGraph = new CompressedFeatureGraph(satInstance, index);
 
 			final Node cnf = satInstance.getCnf();
 			outer: for (final Node clause : cnf.getChildren()) {
@@ -220,6 +220,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 				dfs(visited, complete, i, false);
 				complete[i] = true;
 			}
+			featureGraph.trim();
 
 			return featureGraph;
 		}
@@ -333,7 +334,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 	private void dfs(byte[] visited, boolean[] complete, int curFeature, boolean selected) {
 		visited[curFeature] = 5;
 
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			if (visit < 5) {
 				final byte childSelected;
@@ -398,7 +399,7 @@ public class FGBuilder extends AbstractAnalysis<IFeatureGraph> {
 
 	private void dfs_rec(byte[] visited, boolean[] complete, int curFeature, int parentFeature, byte selected, boolean parentSelected) {
 		final boolean incomplete = !complete[curFeature];
-		for (int j = 0; j < visited.length; j++) {
+		for (int j = featureGraph.getNextNeighbor(curFeature, 0); j >= 0; j = featureGraph.getNextNeighbor(curFeature, j + 1)) {
 			final byte visit = visited[j];
 			byte childSelected = -1;
 
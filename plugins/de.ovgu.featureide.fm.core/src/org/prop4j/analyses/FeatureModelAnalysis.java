@@ -23,8 +23,10 @@ package org.prop4j.analyses;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Set;
 
 import org.prop4j.Node;
 import org.prop4j.Not;
@@ -62,6 +64,46 @@ import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
  */
 public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, Object>> {
 
+	/**
+	 * Describes how the formula of a feature model changed since a previous analysis.
+	 *
+	 * @see FeatureModelAnalysis#setPreviousAnalysis(FeatureModelAnalysis, ChangeType)
+	 */
+	public static enum ChangeType {
+		/**
+		 * The formula did not change (e.g., a feature was renamed or hidden).
+		 */
+		NONE,
+		/**
+		 * Clauses were only added to the formula (e.g., a constraint was added).
+		 */
+		STRENGTHENED,
+		/**
+		 * Clauses were only removed from the formula (e.g., a constraint was deleted).
+		 */
+		WEAKENED,
+		/**
+		 * The formula changed in an unknown way.
+		 */
+		UNKNOWN;
+
+		/**
+		 * Combines two consecutive changes.
+		 *
+		 * @param other the following change
+		 * @return the change describing both changes
+		 */
+		public ChangeType combine(ChangeType other) {
+			if ((this == other) || (other == NONE)) {
+				return this;
+			}
+			if (this == NONE) {
+				return other;
+			}
+			return UNKNOWN;
+		}
+	}
+
 	/**
 	 * Defines whether constraints should be included into calculations.
 	 */
@@ -98,6 +140,23 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	private IMonitor monitor = new NullMonitor();
 
+	/**
+	 * All features and constraints that were analyzed by this analysis.
+	 */
+	private final Set<IFeature> analyzedFeatures = new HashSet<>();
+	private final List<IConstraint> analyzedConstraints = new ArrayList<>();
+	/**
+	 * All features that were checked for being false-optional.
+	 */
+	private final Set<IFeature> falseOptionalCandidates = new HashSet<>();
+
+	/**
+	 * A previous analysis of the same feature model whose results may be reused.
+	 */
+	private FeatureModelAnalysis previousAnalysis = null;
+	private ChangeType change = ChangeType.UNKNOWN;
+	private boolean incremental = false;
+
 	public FeatureModelAnalysis(IFeatureModel fm) {
 		this.fm = fm;
 
@@ -167,6 +226,43 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		this.calculateDeadConstraints = calculateDeadConstraints;
 	}
 
+	/**
+	 * Sets a previous analysis of the same feature model. If possible, its results are reused and only the features and constraints that may be affected by
+	 * the given change are analyzed again.
+	 *
+	 * @param previousAnalysis a completed analysis of the feature model before the change; may be null
+	 * @param change the change of the formula since the previous analysis
+	 */
+	public void setPreviousAnalysis(FeatureModelAnalysis previousAnalysis, ChangeType change) {
+		this.previousAnalysis = previousAnalysis;
+		this.change = change == null ? ChangeType.UNKNOWN : change;
+	}
+
+	/**
+	 * @return {@code true} if the results of the previous analysis can be reused.
+	 */
+	private boolean canReusePreviousAnalysis() {
+		if ((previousAnalysis == null) || (change == ChangeType.UNKNOWN) || !previousAnalysis.valid) {
+			return false;
+		}
+		if ((previousAnalysis.calculateFeatures != calculateFeatures) || (previousAnalysis.calculateConstraints != calculateConstraints)
+			|| (previousAnalysis.calculateRedundantConstraints != calculateRedundantConstraints)
+			|| (previousAnalysis.calculateTautologyConstraints != calculateTautologyConstraints)
+			|| (previousAnalysis.calculateFOConstraints != calculateFOConstraints)
+			|| (previousAnalysis.calculateDeadConstraints != calculateDeadConstraints)) {
+			return false;
+		}
+		if (previousAnalysis.analyzedFeatures.size() != fm.getNumberOfFeatures()) {
+			return false;
+		}
+		for (final IFeature feature : fm.getFeatures()) {
+			if (!previousAnalysis.analyzedFeatures.contains(feature)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
 	/**
 	 * @return Hashmap: key entry is Feature/Constraint, value usually indicating the kind of attribute (non-Javadoc)
 	 */
@@ -187,6 +283,9 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		deadFeatures.clear();
 		coreFeatures.clear();
 		falseOptionalFeatures.clear();
+		analyzedFeatures.clear();
+		analyzedConstraints.clear();
+		falseOptionalCandidates.clear();
 
 		// put root always in so it will be refreshed (void/non-void)
 		if ((fm != null) && (fm.getStructure() != null) && (fm.getStructure().getRoot() != null) && (fm.getStructure().getRoot().getFeature() != null)) {
@@ -195,15 +294,22 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 			valid = true;
 
 			if (calculateFeatures) {
-				monitor.checkCancel();
-				updateFeatures();
-
-				if (calculateConstraints) {
+				incremental = canReusePreviousAnalysis();
+				try {
 					monitor.checkCancel();
-					updateConstraints();
+					updateFeatures();
+
+					if (calculateConstraints) {
+						monitor.checkCancel();
+						updateConstraints();
+					}
+				} finally {
+					incremental = false;
 				}
 			}
 		}
+		// do not keep a chain of previous analyses in memory
+		previousAnalysis = null;
 		return changedAttributes;
 	}
 
@@ -211,14 +317,19 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		final Iterable<IFeature> features = fm.getFeatures();
 		for (final IFeature feature : features) {
 			feature.getProperty().setFeatureStatus(FeatureStatus.NORMAL, false);
-			FeatureUtils.setRelevantConstraints(feature);
+			analyzedFeatures.add(feature);
 		}
 		monitor.step();
 
 		nodeCreator.setModelType(ModelType.All);
 		final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
 
-		checkValidity(si);
+		if (incremental && (change != ChangeType.STRENGTHENED)) {
+			// removing clauses cannot make a valid model void
+			valid = true;
+		} else {
+			checkValidity(si);
+		}
 		monitor.step();
 
 		if (valid) {
@@ -235,6 +346,14 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	public void updateConstraints() {
 		final List<IConstraint> constraints = fm.getConstraints();
+		if (incremental && (change == ChangeType.NONE) && constraints.equals(previousAnalysis.analyzedConstraints)) {
+			reuseConstraintAttributes(constraints);
+			monitor.step();
+			monitor.step();
+			return;
+		}
+		analyzedConstraints.clear();
+		analyzedConstraints.addAll(constraints);
 		for (final IConstraint constraint : constraints) {
 			constraint.setConstraintAttribute(ConstraintAttribute.NORMAL, false);
 			constraint.setContainedFeatures();
@@ -262,6 +381,22 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		}
 	}
 
+	/**
+	 * Applies the constraint attributes of the previous analysis, which are still correct if the formula did not change.
+	 */
+	private void reuseConstraintAttributes(final List<IConstraint> constraints) {
+		analyzedConstraints.addAll(constraints);
+		for (final IConstraint constraint : constraints) {
+			constraint.setContainedFeatures();
+			final Object attribute = previousAnalysis.changedAttributes.get(constraint);
+			if (attribute instanceof ConstraintAttribute) {
+				setConstraintAttribute(constraint, (ConstraintAttribute) attribute);
+			} else {
+				constraint.setConstraintAttribute(ConstraintAttribute.NORMAL, false);
+			}
+		}
+	}
+
 	private boolean checkConstraintContradiction(Node constraintNode) {
 		return LongRunningWrapper.runMethod(new ValidAnalysis(new SatInstance(constraintNode))) == null;
 	}
@@ -312,57 +447,31 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	 * explained.
 	 *
 	 * @param constraint The constraint to check whether it is redundant
+	 * @see RedundantConstraintAnalysis
 	 */
-	private void checkConstraintRedundant(final List<IConstraint> constraints) throws ContradictionException {
+	private void checkConstraintRedundant(final List<IConstraint> constraints) {
 		if (calculateRedundantConstraints) {
 			nodeCreator.setModelType(ModelType.OnlyStructure);
 			final SatInstance si = new SatInstance(nodeCreator.createNodes(), FeatureUtils.getFeatureNamesPreorder(fm));
-			final ModifiableSolver redundantSat = new ModifiableSolver(si);
 
-			final List<List<IConstr>> constraintMarkers = new ArrayList<>();
-			final List<Node> cnfNodes = new ArrayList<>();
+			final List<Node> cnfNodes = new ArrayList<>(constraints.size());
 			for (final IConstraint constraint : constraints) {
-				final Node cnf = constraint.getNode().toRegularCNF();
-				cnfNodes.add(cnf);
-
-				constraintMarkers.add(redundantSat.addClauses(cnf));
+				cnfNodes.add(constraint.getNode().toRegularCNF());
 			}
 			monitor.checkCancel();
 
-			int i = -1;
-			for (final IConstraint constraint : constraints) {
-				i++;
-				if (calculateRedundantConstraints) {
-					boolean redundant = true;
-					boolean removedAtLeastOne = false;
-					for (final IConstr cm : constraintMarkers.get(i)) {
-						if (cm != null) {
-							removedAtLeastOne = true;
-							redundantSat.removeConstraint(cm);
-						}
-					}
-					if (removedAtLeastOne) {
-						final Node constraintNode = cnfNodes.get(i);
-
-						final Node[] clauses = constraintNode.getChildren();
-						for (int j = 0; j < clauses.length; j++) {
-							if (!redundantSat.isImplied(clauses[j].getChildren())) {
-								redundant = false;
-								redundantSat.addClauses(constraintNode);
-								break;
-							}
-						}
-					}
-
-					if (redundant) {
-						if (checkConstraintTautology(constraint.getNode())) {
-							setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
-						} else {
-							setConstraintAttribute(constraint, ConstraintAttribute.REDUNDANT);
-						}
+			final int[] redundantConstraints = LongRunningWrapper.runMethod(new RedundantConstraintAnalysis(si, cnfNodes), monitor.subTask(0));
+			monitor.checkCancel();
+			if (redundantConstraints != null) {
+				for (final int index : redundantConstraints) {
+					final IConstraint constraint = constraints.get(index);
+					if (checkConstraintTautology(constraint.getNode())) {
+						setConstraintAttribute(constraint, ConstraintAttribute.TAUTOLOGY);
+					} else {
+						setConstraintAttribute(constraint, ConstraintAttribute.REDUNDANT);
 					}
+					monitor.checkCancel();
 				}
-				monitor.checkCancel();
 			}
 		} else if (calculateTautologyConstraints) {
 			for (final IConstraint constraint : constraints) {
@@ -420,7 +529,41 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 	private void checkFeatureDead(final SatInstance si) {
 		deadFeatures.clear();
 		coreFeatures.clear();
-		final int[] solution2 = LongRunningWrapper.runMethod(new CoreDeadAnalysis(si), monitor.subTask(0));
+		int[] unknownVariables = null;
+		if (incremental) {
+			final Set<IFeature> previousDead = new HashSet<>(previousAnalysis.deadFeatures);
+			final Set<IFeature> previousCore = new HashSet<>(previousAnalysis.coreFeatures);
+			final List<Integer> unknown = new ArrayList<>();
+			for (final IFeature feature : fm.getFeatures()) {
+				final boolean wasDead = previousDead.contains(feature);
+				final boolean wasCore = previousCore.contains(feature);
+				if (change == ChangeType.WEAKENED) {
+					// removing clauses cannot create new core or dead features
+					if (wasDead || wasCore) {
+						unknown.add(si.getVariable(feature.getName()));
+					}
+				} else {
+					// adding clauses keeps all core and dead features
+					if (wasDead) {
+						setFeatureAttribute(feature, FeatureStatus.DEAD);
+						deadFeatures.add(feature);
+					} else if (wasCore) {
+						coreFeatures.add(feature);
+					} else if (change == ChangeType.STRENGTHENED) {
+						unknown.add(si.getVariable(feature.getName()));
+					}
+				}
+			}
+			if (unknown.isEmpty()) {
+				return;
+			}
+			unknownVariables = new int[unknown.size()];
+			int i = 0;
+			for (final Integer var : unknown) {
+				unknownVariables[i++] = var;
+			}
+		}
+		final int[] solution2 = LongRunningWrapper.runMethod(new ParallelCoreDeadAnalysis(si, unknownVariables), monitor.subTask(0));
 		monitor.checkCancel();
 		for (int i = 0; i < solution2.length; i++) {
 			monitor.checkCancel();
@@ -457,15 +600,24 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 
 	private void checkFeatureFalseOptional(final Iterable<IFeature> features, final SatInstance si) {
 		final List<int[]> possibleFOFeatures = new ArrayList<>();
+		falseOptionalFeatures.clear();
 		for (final IFeature feature : features) {
-			final IFeature parent = FeatureUtils.getParent(feature);
-			if ((parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
-				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+			if (isFalseOptionalCandidate(feature)) {
+				falseOptionalCandidates.add(feature);
+				final Boolean knownFalseOptional = getKnownFalseOptional(feature);
+				if (knownFalseOptional == null) {
+					possibleFOFeatures.add(new int[] { -si.getVariable(FeatureUtils.getParent(feature).getName()), si.getVariable(feature.getName()) });
+				} else if (knownFalseOptional) {
+					setFeatureAttribute(feature, FeatureStatus.FALSE_OPTIONAL);
+					falseOptionalFeatures.add(feature);
+				}
 			}
 		}
+		if (possibleFOFeatures.isEmpty()) {
+			return;
+		}
 		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(si, possibleFOFeatures), monitor.subTask(0));
 		monitor.checkCancel();
-		falseOptionalFeatures.clear();
 		for (final int[] pair : solution3) {
 			monitor.checkCancel();
 			final IFeature feature = fm.getFeature((CharSequence) si.getVariableObject(pair[1]));
@@ -482,9 +634,8 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		final List<int[]> possibleFOFeatures = new ArrayList<>();
 		final SatInstance si = solver.getSatInstance();
 		for (final IFeature feature : foList) {
-			final IFeature parent = FeatureUtils.getParent(feature);
-			if ((parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd())) {
-				possibleFOFeatures.add(new int[] { -si.getVariable(parent.getName()), si.getVariable(feature.getName()) });
+			if (isFalseOptionalCandidate(feature)) {
+				possibleFOFeatures.add(new int[] { -si.getVariable(FeatureUtils.getParent(feature).getName()), si.getVariable(feature.getName()) });
 			}
 		}
 		final List<int[]> solution3 = LongRunningWrapper.runMethod(new ImplicationAnalysis(solver, possibleFOFeatures));
@@ -494,6 +645,34 @@ public class FeatureModelAnalysis implements LongRunningMethod<HashMap<Object, O
 		return result;
 	}
 
+	private static boolean isFalseOptionalCandidate(IFeature feature) {
+		final IFeature parent = FeatureUtils.getParent(feature);
+		return (parent != null) && (!feature.getStructure().isMandatorySet() || !parent.getStructure().isAnd());
+	}
+
+	/**
+	 * Determines whether a feature is false-optional using the result of the previous analysis.
+	 *
+	 * @param feature a possibly false-optional feature
+	 * @return {@link Boolean#TRUE} or {@link Boolean#FALSE} if the status is known, {@code null} if the feature must be checked
+	 */
+	private Boolean getKnownFalseOptional(IFeature feature) {
+		if (!incremental || !previousAnalysis.falseOptionalCandidates.contains(feature)) {
+			return null;
+		}
+		final boolean wasFalseOptional = previousAnalysis.falseOptionalFeatures.contains(feature);
+		switch (change) {
+		case NONE:
+			return wasFalseOptional;
+		case STRENGTHENED:
+			return wasFalseOptional ? Boolean.TRUE : null;
+		case WEAKENED:
+			return wasFalseOptional ? null : Boolean.FALSE;
+		default:
+			return null;
+		}
+	}
+
 	/**
 	 * Calculations for indeterminate hidden features
 	 *
@@ -0,0 +1,287 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.prop4j.solver.FixedLiteralSelectionStrategy;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+import org.prop4j.solver.VarOrderHeap2;
+import org.sat4j.minisat.core.Solver;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Finds core and dead features using multiple threads.<br/>
+ * Works like {@link CoreDeadAnalysis}, but partitions the undecided variables among several workers, each with its own {@link ISatSolver#clone() copy} of the
+ * solver. Workers exchange their results without locks:
+ * <ul>
+ * <li>Each model found by a worker removes all variables with a different value from the shared candidates, such that the other workers skip them.</li>
+ * <li>Each core or dead literal found by a worker is appended to a shared log, from which the other workers add it to their assumptions.</li>
+ * </ul>
+ *
+ * @author FeatureIDE Team
+ */
+public class ParallelCoreDeadAnalysis extends AbstractAnalysis<int[]> {
+
+	/**
+	 * The minimal number of candidate variables per worker. If there are fewer candidates, fewer workers are used.
+	 */
+	public static final int MIN_CANDIDATES_PER_THREAD = 32;
+
+	private final class Worker extends Thread {
+
+		private final ISatSolver workerSolver;
+		private final int[] model;
+		private final int offset;
+		private final int step;
+
+		private int logPosition = 0;
+		private Throwable error = null;
+
+		public Worker(ISatSolver workerSolver, int[] model, int offset, int step) {
+			super("CoreDeadWorker-" + offset);
+			this.workerSolver = workerSolver;
+			this.model = model;
+			this.offset = offset;
+			this.step = step;
+		}
+
+		@Override
+		public void run() {
+			try {
+				analyzeCandidates();
+			} catch (final Throwable e) {
+				error = e;
+				stop = true;
+			}
+		}
+
+		private void analyzeCandidates() {
+			((Solver<?>) workerSolver.getInternalSolver())
+					.setOrder(new VarOrderHeap2(new FixedLiteralSelectionStrategy(model, true), workerSolver.getOrder()));
+
+			for (int i = offset; (i < candidates.length()) && !stop; i += step) {
+				final int varX = candidates.get(i);
+				if (varX != 0) {
+					readLog();
+					workerSolver.assignmentPush(-varX);
+					switch (workerSolver.isSatisfiable()) {
+					case FALSE:
+						workerSolver.assignmentReplaceLast(varX);
+						log.set(logSize.getAndIncrement(), varX);
+						break;
+					case TIMEOUT:
+						workerSolver.assignmentPop();
+						break;
+					case TRUE:
+						workerSolver.assignmentPop();
+						prune(workerSolver.getModel());
+						workerSolver.shuffleOrder();
+						break;
+					}
+				}
+			}
+		}
+
+		/**
+		 * Adds all literals that were found by other workers to the assumptions of this worker.
+		 */
+		private void readLog() {
+			final int size = logSize.get();
+			for (; logPosition < size; logPosition++) {
+				final int literal = log.get(logPosition);
+				if (literal == 0) {
+					// the entry is reserved, but not yet written
+					break;
+				}
+				if (!isOwnLiteral(literal)) {
+					workerSolver.assignmentPush(literal);
+				}
+			}
+		}
+
+		private boolean isOwnLiteral(int literal) {
+			return ((Math.abs(literal) - 1 - offset) % step) == 0;
+		}
+
+		/**
+		 * Removes all candidates with a different value in the given model.
+		 */
+		private void prune(int[] solution) {
+			for (int j = 0; j < model.length; j++) {
+				final int candidate = model[j];
+				if ((candidate != 0) && (candidate != solution[j])) {
+					model[j] = 0;
+					candidates.set(j, 0);
+				}
+			}
+		}
+
+	}
+
+	private int[] features;
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	private AtomicIntegerArray candidates;
+	private AtomicIntegerArray log;
+	private AtomicInteger logSize;
+	private volatile boolean stop;
+
+	public ParallelCoreDeadAnalysis(SatInstance satInstance) {
+		this(satInstance, null);
+	}
+
+	public ParallelCoreDeadAnalysis(SatInstance satInstance, int[] features) {
+		super(satInstance);
+		setFeatures(features);
+	}
+
+	public ParallelCoreDeadAnalysis(ISatSolver solver) {
+		this(solver, null);
+	}
+
+	public ParallelCoreDeadAnalysis(ISatSolver solver, int[] features) {
+		super(solver);
+		setFeatures(features);
+	}
+
+	@Override
+	public int[] analyze(IMonitor monitor) throws Exception {
+		final int orgAssignmentSize = solver.getAssignment().size();
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		int[] model1 = solver.findModel();
+
+		if (model1 == null) {
+			return new int[0];
+		}
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		final int[] model2 = solver.findModel();
+
+		if (features != null) {
+			final int[] model3 = new int[model1.length];
+			for (int i = 0; i < features.length; i++) {
+				final int index = features[i] - 1;
+				if (index >= 0) {
+					model3[index] = model1[index];
+				}
+			}
+			model1 = model3;
+		}
+		solver.getSatInstance().clearAuxiliaryVariables(model1);
+		SatInstance.updateModel(model1, model2);
+
+		int numberOfCandidates = 0;
+		for (final int literal : model1) {
+			if (literal != 0) {
+				numberOfCandidates++;
+			}
+		}
+
+		candidates = new AtomicIntegerArray(model1);
+		log = new AtomicIntegerArray(numberOfCandidates);
+		logSize = new AtomicInteger();
+		stop = false;
+
+		final int threads = Math.max(1, Math.min(numberOfThreads, numberOfCandidates / MIN_CANDIDATES_PER_THREAD));
+		if (threads == 1) {
+			final Worker worker = new Worker(solver, model1, 0, 1);
+			worker.analyzeCandidates();
+			final int[] result = solver.getAssignmentArray(orgAssignmentSize, solver.getAssignment().size());
+			for (final int literal : result) {
+				monitor.invoke(literal);
+			}
+			return result;
+		}
+
+		final Worker[] workers = new Worker[threads];
+		for (int i = 0; i < threads; i++) {
+			workers[i] = new Worker(solver.clone(), Arrays.copyOf(model1, model1.length), i, threads);
+		}
+		try {
+			for (final Worker worker : workers) {
+				worker.start();
+			}
+			for (final Worker worker : workers) {
+				while (worker.isAlive()) {
+					worker.join(100);
+					monitor.checkCancel();
+				}
+			}
+		} catch (final MethodCancelException | InterruptedException e) {
+			stop = true;
+			for (final Worker worker : workers) {
+				worker.join();
+			}
+			throw e;
+		}
+		for (final Worker worker : workers) {
+			if (worker.error != null) {
+				throw new RuntimeException(worker.error);
+			}
+		}
+
+		// merge the literals of all workers in the order of their variables
+		final int[] literalsByVariable = new int[candidates.length()];
+		final int size = logSize.get();
+		for (int i = 0; i < size; i++) {
+			final int literal = log.get(i);
+			literalsByVariable[Math.abs(literal) - 1] = literal;
+		}
+		final int[] result = new int[size];
+		int index = 0;
+		for (final int literal : literalsByVariable) {
+			if (literal != 0) {
+				result[index++] = literal;
+				monitor.invoke(literal);
+			}
+		}
+		return result;
+	}
+
+	public int[] getFeatures() {
+		return features;
+	}
+
+	public void setFeatures(int[] features) {
+		this.features = features;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the maximal number of worker threads. By default, one thread per available processor is used.
+	 *
+	 * @param numberOfThreads the number of threads (at least 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+}
@@ -0,0 +1,288 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.LongRunningMethod;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
+
+/**
+ * Finds redundant constraints, i.e., constraints that are implied by the structure and all other (non-redundant) constraints.<br/>
+ * The constraints are checked in the given order. A redundant constraint is removed before the next constraint is checked, such that only one of several
+ * mutually redundant constraints is reported.<br/>
+ * <br/>
+ * Instead of removing clauses from the solver, each constraint is guarded by a selector variable that is activated via assumptions. Thus, learned clauses
+ * and unit propagations remain valid and the result does not depend on the solver's history.<br/>
+ * With multiple threads, the analysis works in two phases:
+ * <ol>
+ * <li>The constraints are partitioned among several workers, each with its own {@link ISatSolver#clone() copy} of the solver. A worker checks whether a
+ * constraint is implied by all other constraints. Constraints that are not implied cannot be redundant in the sequential order either.</li>
+ * <li>The remaining candidates are checked sequentially in their given order.</li>
+ * </ol>
+ * The indices of redundant constraints are passed to {@link IMonitor#invoke(Object)} as soon as they are found.
+ *
+ * @author FeatureIDE Team
+ */
+public class RedundantConstraintAnalysis implements LongRunningMethod<int[]> {
+
+	/**
+	 * The minimal number of constraints per worker. If there are fewer constraints, fewer workers are used.
+	 */
+	public static final int MIN_CONSTRAINTS_PER_THREAD = 16;
+
+	private static final String SELECTOR_PREFIX = "__Selector_";
+
+	private final class Worker extends Thread {
+
+		private final ISatSolver workerSolver;
+		private final int offset;
+		private final int step;
+
+		private Throwable error = null;
+
+		public Worker(ISatSolver workerSolver, int offset, int step) {
+			super("RedundantConstraintWorker-" + offset);
+			this.workerSolver = workerSolver;
+			this.offset = offset;
+			this.step = step;
+		}
+
+		@Override
+		public void run() {
+			try {
+				for (int i = offset; (i < clauses.length) && !stop; i += step) {
+					if (!isRedundant(workerSolver, i, true)) {
+						candidates[i] = false;
+					}
+				}
+			} catch (final Throwable e) {
+				error = e;
+				stop = true;
+			}
+		}
+
+	}
+
+	private final SatInstance satInstance;
+	private final List<Node> constraints;
+
+	private int numberOfThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * The selector variable of each constraint.
+	 */
+	private int[] selectors;
+	/**
+	 * The clauses of each constraint as signed variables.
+	 */
+	private int[][][] clauses;
+	private boolean[] candidates;
+	private volatile boolean stop;
+
+	/**
+	 * @param satInstance the formula without any constraints (e.g., the feature model structure)
+	 * @param constraints the constraints to check, each in conjunctive normal form
+	 */
+	public RedundantConstraintAnalysis(SatInstance satInstance, List<Node> constraints) {
+		this.satInstance = satInstance;
+		this.constraints = constraints;
+	}
+
+	/**
+	 * @return the indices of all redundant constraints in ascending order
+	 */
+	@Override
+	public int[] execute(IMonitor monitor) throws Exception {
+		final int numberOfConstraints = constraints.size();
+		if (numberOfConstraints == 0) {
+			return new int[0];
+		}
+		final BasicSolver solver = new BasicSolver(createSelectorInstance());
+		for (final int selector : selectors) {
+			solver.assignmentPush(selector);
+		}
+		candidates = new boolean[numberOfConstraints];
+		Arrays.fill(candidates, true);
+		stop = false;
+		monitor.checkCancel();
+
+		final int threads = Math.max(1, Math.min(numberOfThreads, numberOfConstraints / MIN_CONSTRAINTS_PER_THREAD));
+		if (threads > 1) {
+			final Worker[] workers = new Worker[threads];
+			for (int i = 0; i < threads; i++) {
+				workers[i] = new Worker(solver.clone(), i, threads);
+			}
+			try {
+				for (final Worker worker : workers) {
+					worker.start();
+				}
+				for (final Worker worker : workers) {
+					while (worker.isAlive()) {
+						worker.join(100);
+						monitor.checkCancel();
+					}
+				}
+			} catch (final MethodCancelException | InterruptedException e) {
+				stop = true;
+				for (final Worker worker : workers) {
+					worker.join();
+				}
+				throw e;
+			}
+			for (final Worker worker : workers) {
+				if (worker.error != null) {
+					throw new RuntimeException(worker.error);
+				}
+			}
+		}
+
+		final int[] redundant = new int[numberOfConstraints];
+		int size = 0;
+		for (int i = 0; i < numberOfConstraints; i++) {
+			if (candidates[i] && isRedundant(solver, i, false)) {
+				redundant[size++] = i;
+				monitor.invoke(i);
+			}
+			monitor.checkCancel();
+		}
+		return Arrays.copyOf(redundant, size);
+	}
+
+	/**
+	 * Creates a formula containing the structure and all constraints. Each clause of a constraint is extended by the negated selector variable of the
+	 * constraint.
+	 */
+	private SatInstance createSelectorInstance() {
+		final int numberOfVariables = satInstance.getNumberOfVariables();
+		final List<Object> variables = new ArrayList<>(numberOfVariables + constraints.size());
+		final Set<String> variableNames = new HashSet<>();
+		for (int i = 1; i <= numberOfVariables; i++) {
+			final Object variable = satInstance.getVariableObject(i);
+			variables.add(variable);
+			variableNames.add(variable.toString());
+		}
+
+		String prefix = SELECTOR_PREFIX;
+		boolean unique;
+		do {
+			unique = true;
+			for (int i = 0; i < constraints.size(); i++) {
+				if (variableNames.contains(prefix + i)) {
+					prefix += "_";
+					unique = false;
+					break;
+				}
+			}
+		} while (!unique);
+
+		final List<Node> cnfClauses = new ArrayList<>(Arrays.asList(getClauses(satInstance.getCnf())));
+		final String[] selectorNames = new String[constraints.size()];
+		for (int i = 0; i < constraints.size(); i++) {
+			selectorNames[i] = prefix + i;
+			variables.add(selectorNames[i]);
+			for (final Node clause : getClauses(constraints.get(i))) {
+				final Node[] literals = getLiterals(clause);
+				final Node[] extendedLiterals = Arrays.copyOf(literals, literals.length + 1);
+				extendedLiterals[literals.length] = new Literal(selectorNames[i], false);
+				cnfClauses.add(new Or(extendedLiterals));
+			}
+		}
+		final SatInstance selectorInstance = new SatInstance(new And(cnfClauses.toArray(new Node[cnfClauses.size()])), variables);
+
+		selectors = new int[constraints.size()];
+		clauses = new int[constraints.size()][][];
+		for (int i = 0; i < constraints.size(); i++) {
+			selectors[i] = selectorInstance.getVariable(selectorNames[i]);
+			final Node[] constraintClauses = getClauses(constraints.get(i));
+			clauses[i] = new int[constraintClauses.length][];
+			for (int j = 0; j < constraintClauses.length; j++) {
+				clauses[i][j] = selectorInstance.convertToInt(getLiterals(constraintClauses[j]));
+			}
+		}
+		return selectorInstance;
+	}
+
+	private static Node[] getClauses(Node cnf) {
+		return (cnf instanceof And) ? cnf.getChildren() : new Node[] { cnf };
+	}
+
+	private static Node[] getLiterals(Node clause) {
+		return (clause instanceof Literal) ? new Node[] { clause } : clause.getChildren();
+	}
+
+	/**
+	 * Deactivates a constraint and checks whether it is implied by the remaining clauses.
+	 *
+	 * @param solver a solver whose first assumptions are the selectors of all constraints
+	 * @param index the index of the constraint
+	 * @param restore whether a redundant constraint should be activated again
+	 * @return {@code true} if the constraint is redundant
+	 */
+	private boolean isRedundant(ISatSolver solver, int index, boolean restore) {
+		final int numberOfConstraints = selectors.length;
+		solver.getAssignment().set(index, -selectors[index]);
+		boolean redundant = true;
+		for (final int[] clause : clauses[index]) {
+			for (final int literal : clause) {
+				solver.assignmentPush(-literal);
+			}
+			final SatResult result = solver.isSatisfiable();
+			solver.assignmentClear(numberOfConstraints);
+			if (result != SatResult.FALSE) {
+				redundant = false;
+				break;
+			}
+		}
+		if (!redundant || restore) {
+			solver.getAssignment().set(index, selectors[index]);
+		}
+		return redundant;
+	}
+
+	public int getNumberOfThreads() {
+		return numberOfThreads;
+	}
+
+	/**
+	 * Sets the maximal number of worker threads. By default, one thread per available processor is used.
+	 *
+	 * @param numberOfThreads the number of threads (at least 1)
+	 */
+	public void setNumberOfThreads(int numberOfThreads) {
+		this.numberOfThreads = Math.max(1, numberOfThreads);
+	}
+
+}
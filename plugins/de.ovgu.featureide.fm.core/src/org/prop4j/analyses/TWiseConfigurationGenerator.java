@@ -0,0 +1,599 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+
+import org.prop4j.CardinalityEncoder;
+import org.prop4j.solver.ISatSolver.SelectionStrategy;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Generates a sample of configurations that covers all valid <i>t</i>-wise interactions of the variables of a {@link SatInstance} (i.e., a covering
+ * array).<br/>
+ * Configurations are built greedily one after another. For each new configuration, all uncovered interactions are added to the configuration as long as
+ * it remains satisfiable. Afterwards, all interactions of the new configuration are marked as covered. Each configuration is passed to
+ * {@link IMonitor#invoke(Object)} (as list of selected feature names) as soon as it is found.<br/>
+ * <br/>
+ * The coverage is stored in a bitset with one bit for each interaction, i.e., <i>binom(n, t) * 2^t</i> bits for <i>n</i> variables. Interactions that
+ * contain a core or dead variable are not considered, as they are covered by any configuration or by none. Interactions that contain two literals of
+ * the same binary clause are known to be invalid and are never tested with the solver. A second bitset stores for each word of the coverage bitset
+ * whether all of its interactions are covered, such that both the search for uncovered interactions and the marking of covered interactions skip
+ * these words. If the bitset does not fit into half of the available heap, an {@link IllegalArgumentException} is thrown before the search starts.<br/>
+ * <br/>
+ * To reduce the number of solver calls, recently found models are kept in a pool. An interaction that is contained in a known model, which agrees with
+ * the current partial configuration, is added without calling the solver. If an interaction cannot be added, literals that are implied by the current
+ * partial configuration are determined and fixed for the remainder of the configuration.
+ *
+ * @author FeatureIDE Team
+ */
+public class TWiseConfigurationGenerator extends AbstractAnalysis<List<List<String>>> {
+
+	/**
+	 * The maximal supported value for <i>t</i>.
+	 */
+	public static final int MAX_T = 6;
+
+	/**
+	 * The maximal number of models that are kept in the model pool.
+	 */
+	public static final int MAX_POOL_SIZE = 256;
+
+	private final int t;
+	private final int maxNumber;
+
+	private final List<List<String>> configurations = new ArrayList<>();
+
+	/**
+	 * The variables, whose interactions have to be covered.
+	 */
+	private int[] variables;
+	/**
+	 * The number of combinations of <i>t</i> variables.
+	 */
+	private long numberOfCombinations;
+	/**
+	 * Stores for each interaction whether it is covered or invalid.
+	 */
+	private long[] coverage;
+	/**
+	 * Stores for each word of {@link #coverage} whether all of its interactions are covered or invalid.
+	 */
+	private long[] completeWords;
+	/**
+	 * The current combination of variables and its rank in lexicographic order.
+	 */
+	private int[] combination;
+	private long combinationRank;
+	/**
+	 * Pairs of literals that cannot be selected together (due to a binary clause).
+	 */
+	private final LongHashSet conflicts = new LongHashSet();
+	/**
+	 * Recently found models, which are used to avoid solver calls for interactions that are contained in a known model.
+	 */
+	private final LinkedList<int[]> modelPool = new LinkedList<>();
+
+	public TWiseConfigurationGenerator(SatInstance satInstance, int t, int maxNumber) {
+		super(satInstance);
+		if ((t < 1) || (t > MAX_T)) {
+			throw new IllegalArgumentException("t must be between 1 and " + MAX_T + ": " + t);
+		}
+		this.t = t;
+		this.maxNumber = maxNumber;
+	}
+
+	@Override
+	public List<List<String>> analyze(IMonitor monitor) throws Exception {
+		configurations.clear();
+		modelPool.clear();
+		if (maxNumber <= 0) {
+			return Collections.emptyList();
+		}
+		final SatInstance satInstance = solver.getSatInstance();
+
+		solver.setSelectionStrategy(SelectionStrategy.POSITIVE);
+		final int[] firstModel = solver.findModel();
+		if (firstModel == null) {
+			return Collections.emptyList();
+		}
+		addToPool(firstModel);
+
+		// fixes all core and dead variables in the assignment of the solver
+		new CoreDeadAnalysis(solver).analyze(new NullMonitor());
+		final int numberOfFixedLiterals = solver.getAssignment().size();
+		final int[] fixedAssignment = new int[satInstance.getNumberOfVariables() + 1];
+		for (int i = 0; i < numberOfFixedLiterals; i++) {
+			final int literal = solver.getAssignment().get(i);
+			fixedAssignment[Math.abs(literal)] = literal;
+		}
+		final int[] assignment = new int[fixedAssignment.length];
+
+		final List<Integer> variableList = new ArrayList<>();
+		for (int var = 1; var <= satInstance.getNumberOfFeatureVariables(); var++) {
+			if (fixedAssignment[var] == 0) {
+				variableList.add(var);
+			}
+		}
+		variables = new int[variableList.size()];
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = variableList.get(i);
+		}
+		final int k = Math.min(t, variables.length);
+		initCoverage(k);
+		initConflicts(satInstance);
+
+		solver.setSelectionStrategy(SelectionStrategy.NEGATIVE);
+		combination = new int[k];
+		combinationRank = -1;
+		final int[] literals = new int[k];
+		final int numberOfMasks = 1 << k;
+		while (configurations.size() < maxNumber) {
+			monitor.checkCancel();
+			boolean addedInteraction = false;
+			solver.assignmentClear(numberOfFixedLiterals);
+			System.arraycopy(fixedAssignment, 0, assignment, 0, assignment.length);
+
+			// all known models that satisfy the current assignment
+			final List<int[]> compatibleModels = new ArrayList<>(modelPool);
+			int visitedWords = 0;
+			for (int word = nextIncompleteWord(0); word >= 0; word = nextIncompleteWord(word + 1)) {
+				if ((++visitedWords & 0x3ff) == 0) {
+					monitor.checkCancel();
+				}
+				final long lastRank = getLastRank(word, k);
+				for (long rank = getFirstRank(word, k); rank < lastRank; rank++) {
+					setCombination(rank);
+					for (int mask = 0; mask < numberOfMasks; mask++) {
+						final long index = (rank << k) | mask;
+						if (isCovered(index)) {
+							continue;
+						}
+						toLiterals(combination, mask, literals);
+						if (!isCompatible(literals, assignment)) {
+							continue;
+						}
+						if (hasConflict(literals)) {
+							setCovered(index);
+							continue;
+						}
+						if (retainContaining(literals, compatibleModels)) {
+							pushLiterals(literals, assignment);
+							addedInteraction = true;
+							continue;
+						}
+						final int assignmentSize = solver.getAssignment().size();
+						pushLiterals(literals, assignment);
+						switch (solver.isSatisfiable()) {
+						case TRUE:
+							final int[] newModel = solver.getModel();
+							compatibleModels.add(newModel);
+							retainContaining(literals, compatibleModels);
+							addToPool(newModel);
+							addedInteraction = true;
+							break;
+						case FALSE:
+							popLiterals(assignmentSize, assignment);
+							if (assignmentSize == numberOfFixedLiterals) {
+								// the interaction is invalid
+								setCovered(index);
+							} else {
+								fixImpliedLiterals(literals, assignment, compatibleModels);
+							}
+							break;
+						case TIMEOUT:
+							popLiterals(assignmentSize, assignment);
+							break;
+						}
+					}
+				}
+			}
+
+			if (!addedInteraction) {
+				// no uncovered interaction is left
+				break;
+			}
+			final int[] model = compatibleModels.get(0);
+			cover(model, k);
+			final List<String> configuration = satInstance.convertToString(model);
+			configurations.add(configuration);
+			monitor.invoke(configuration);
+		}
+		return configurations;
+	}
+
+	/**
+	 * Allocates the bitsets for all interactions of <i>k</i> variables.
+	 *
+	 * @throws IllegalArgumentException if the bitsets would need more than half of the available heap
+	 */
+	private void initCoverage(int k) {
+		numberOfCombinations = CardinalityEncoder.binomial(variables.length, k);
+		final long maxMemory = Runtime.getRuntime().maxMemory() / 2;
+		final long numberOfInteractions = (numberOfCombinations > ((Long.MAX_VALUE - 63) >>> k)) ? Long.MAX_VALUE : numberOfCombinations << k;
+		final long numberOfWords = (numberOfInteractions + 63) >>> 6;
+		if ((numberOfInteractions == Long.MAX_VALUE) || (numberOfWords > (Integer.MAX_VALUE - 8)) || ((numberOfWords << 3) > maxMemory)) {
+			throw new IllegalArgumentException("Too many interactions for t = " + k + " and " + variables.length + " variables: " + numberOfCombinations
+				+ " * 2^" + k + " (available memory: " + maxMemory + " bytes)");
+		}
+		coverage = new long[(int) numberOfWords];
+		completeWords = new long[(coverage.length + 63) >>> 6];
+		if ((numberOfInteractions & 63) != 0) {
+			// the unused bits of the last word are marked as covered
+			coverage[coverage.length - 1] = -1L << numberOfInteractions;
+		}
+	}
+
+	private void initConflicts(SatInstance satInstance) {
+		conflicts.clear();
+		final int[] clauseLiterals = satInstance.getClauseLiterals();
+		final int[] clauseOffsets = satInstance.getClauseOffsets();
+		for (int i = 1; i < clauseOffsets.length; i++) {
+			if ((clauseOffsets[i] - clauseOffsets[i - 1]) == 2) {
+				final int literal1 = clauseLiterals[clauseOffsets[i - 1]];
+				final int literal2 = clauseLiterals[clauseOffsets[i - 1] + 1];
+				conflicts.add(getPairKey(-literal1, -literal2));
+			}
+		}
+	}
+
+	private static long getPairKey(int literal1, int literal2) {
+		return literal1 < literal2 ? (((long) literal1) << 32) | (literal2 & 0xffffffffL) : (((long) literal2) << 32) | (literal1 & 0xffffffffL);
+	}
+
+	private boolean hasConflict(int[] literals) {
+		if (!conflicts.isEmpty()) {
+			for (int i = 0; i < literals.length; i++) {
+				for (int j = i + 1; j < literals.length; j++) {
+					if (conflicts.contains(getPairKey(literals[i], literals[j]))) {
+						return true;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private void toLiterals(int[] combination, int mask, int[] literals) {
+		for (int i = 0; i < combination.length; i++) {
+			final int var = variables[combination[i]];
+			literals[i] = ((mask >>> i) & 1) == 0 ? -var : var;
+		}
+	}
+
+	private static boolean isCompatible(int[] literals, int[] assignment) {
+		for (final int literal : literals) {
+			final int assigned = assignment[Math.abs(literal)];
+			if ((assigned != 0) && (assigned != literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean isContained(int[] literals, int[] model) {
+		for (final int literal : literals) {
+			if (model[Math.abs(literal) - 1] != literal) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Removes all models from the given list that do not contain the given literals, unless none of the models contains them.
+	 *
+	 * @return {@code true} if at least one model contains the literals, {@code false} otherwise.
+	 */
+	private static boolean retainContaining(int[] literals, List<int[]> models) {
+		boolean contained = false;
+		for (final int[] model : models) {
+			if (isContained(literals, model)) {
+				contained = true;
+				break;
+			}
+		}
+		if (contained) {
+			for (final Iterator<int[]> iterator = models.iterator(); iterator.hasNext();) {
+				if (!isContained(literals, iterator.next())) {
+					iterator.remove();
+				}
+			}
+		}
+		return contained;
+	}
+
+	/**
+	 * Tests each literal of an unsatisfiable interaction on its own. If a literal cannot be added to the current assignment, its complement is implied
+	 * by the assignment and is added to it. Thus, all following interactions that contain the literal are skipped without calling the solver.
+	 */
+	private void fixImpliedLiterals(int[] literals, int[] assignment, List<int[]> compatibleModels) {
+		for (final int literal : literals) {
+			final int var = Math.abs(literal);
+			if ((assignment[var] != 0) || containsLiteral(literal, compatibleModels)) {
+				continue;
+			}
+			solver.assignmentPush(literal);
+			switch (solver.isSatisfiable()) {
+			case TRUE:
+				final int[] model = solver.getModel();
+				solver.assignmentPop();
+				compatibleModels.add(model);
+				addToPool(model);
+				break;
+			case FALSE:
+				solver.assignmentPop();
+				assignment[var] = -literal;
+				solver.assignmentPush(-literal);
+				break;
+			case TIMEOUT:
+				solver.assignmentPop();
+				break;
+			}
+		}
+	}
+
+	private static boolean containsLiteral(int literal, List<int[]> models) {
+		final int index = Math.abs(literal) - 1;
+		for (final int[] model : models) {
+			if (model[index] == literal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private void addToPool(int[] model) {
+		modelPool.addFirst(model);
+		if (modelPool.size() > MAX_POOL_SIZE) {
+			modelPool.removeLast();
+		}
+	}
+
+	private void pushLiterals(int[] literals, int[] assignment) {
+		for (final int literal : literals) {
+			final int var = Math.abs(literal);
+			if (assignment[var] == 0) {
+				assignment[var] = literal;
+				solver.assignmentPush(literal);
+			}
+		}
+	}
+
+	private void popLiterals(int assignmentSize, int[] assignment) {
+		for (int i = solver.getAssignment().size() - 1; i >= assignmentSize; i--) {
+			assignment[Math.abs(solver.getAssignment().get(i))] = 0;
+		}
+		solver.assignmentClear(assignmentSize);
+	}
+
+	/**
+	 * Marks all interactions of the given model as covered.
+	 */
+	private void cover(int[] model, int k) {
+		for (int word = nextIncompleteWord(0); word >= 0; word = nextIncompleteWord(word + 1)) {
+			final long lastRank = getLastRank(word, k);
+			for (long rank = getFirstRank(word, k); rank < lastRank; rank++) {
+				setCombination(rank);
+				int mask = 0;
+				for (int i = 0; i < k; i++) {
+					if (model[variables[combination[i]] - 1] > 0) {
+						mask |= 1 << i;
+					}
+				}
+				setCovered((rank << k) | mask);
+			}
+		}
+	}
+
+	/**
+	 * Returns the rank of the first combination, whose interactions are stored in the given word. As <i>2^k</i> divides 64, the interactions of a
+	 * combination are never split between two words.
+	 */
+	private static long getFirstRank(int word, int k) {
+		return ((long) word << 6) >>> k;
+	}
+
+	/**
+	 * Returns the rank after the last combination, whose interactions are stored in the given word.
+	 */
+	private long getLastRank(int word, int k) {
+		return Math.min(((long) (word + 1) << 6) >>> k, numberOfCombinations);
+	}
+
+	/**
+	 * Sets {@link #combination} to the combination with the given rank. Close combinations are reached by stepping forward, others are computed
+	 * directly.
+	 */
+	private void setCombination(long rank) {
+		if ((combinationRank >= 0) && (rank >= combinationRank) && ((rank - combinationRank) <= variables.length)) {
+			for (; combinationRank < rank; combinationRank++) {
+				nextCombination(combination, variables.length);
+			}
+		} else {
+			unrankCombination(rank, combination, variables.length);
+			combinationRank = rank;
+		}
+	}
+
+	/**
+	 * Computes the combination with the given rank in lexicographic order.
+	 */
+	private static void unrankCombination(long rank, int[] combination, int n) {
+		final int k = combination.length;
+		int element = 0;
+		for (int i = 0; i < k; i++) {
+			// number of combinations that start with the current element
+			long count = CardinalityEncoder.binomial(n - element - 1, k - i - 1);
+			while (rank >= count) {
+				rank -= count;
+				element++;
+				count = CardinalityEncoder.binomial(n - element - 1, k - i - 1);
+			}
+			combination[i] = element++;
+		}
+	}
+
+	/**
+	 * Computes the next combination in lexicographic order.
+	 *
+	 * @return {@code false} if there is no next combination
+	 */
+	private static boolean nextCombination(int[] combination, int n) {
+		final int k = combination.length;
+		int i = k - 1;
+		while ((i >= 0) && (combination[i] == ((n - k) + i))) {
+			i--;
+		}
+		if (i < 0) {
+			return false;
+		}
+		combination[i]++;
+		for (int j = i + 1; j < k; j++) {
+			combination[j] = combination[j - 1] + 1;
+		}
+		return true;
+	}
+
+	private boolean isCovered(long index) {
+		return (coverage[(int) (index >>> 6)] & (1L << index)) != 0;
+	}
+
+	private void setCovered(long index) {
+		final int word = (int) (index >>> 6);
+		coverage[word] |= 1L << index;
+		if (coverage[word] == -1L) {
+			completeWords[word >>> 6] |= 1L << word;
+		}
+	}
+
+	/**
+	 * @return the index of the first word in {@link #coverage} at or after the given index that contains an uncovered interaction, or {@code -1} if
+	 *         there is none.
+	 */
+	private int nextIncompleteWord(int fromWord) {
+		if (fromWord >= coverage.length) {
+			return -1;
+		}
+		int i = fromWord >>> 6;
+		long incomplete = ~completeWords[i] & (-1L << fromWord);
+		while (incomplete == 0) {
+			if (++i == completeWords.length) {
+				return -1;
+			}
+			incomplete = ~completeWords[i];
+		}
+		final int word = (i << 6) + Long.numberOfTrailingZeros(incomplete);
+		return word < coverage.length ? word : -1;
+	}
+
+	public int getT() {
+		return t;
+	}
+
+	public List<List<String>> getConfigurations() {
+		return Collections.unmodifiableList(configurations);
+	}
+
+	/**
+	 * Set of primitive <code>long</code> values using open addressing.
+	 */
+	private static final class LongHashSet {
+
+		private static final long EMPTY = 0;
+
+		private long[] table = new long[1 << 6];
+		private int size = 0;
+		private boolean containsEmpty = false;
+
+		public boolean isEmpty() {
+			return (size == 0) && !containsEmpty;
+		}
+
+		public void clear() {
+			table = new long[1 << 6];
+			size = 0;
+			containsEmpty = false;
+		}
+
+		public boolean contains(long value) {
+			if (value == EMPTY) {
+				return containsEmpty;
+			}
+			final int mask = table.length - 1;
+			for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+				final long entry = table[i];
+				if (entry == value) {
+					return true;
+				} else if (entry == EMPTY) {
+					return false;
+				}
+			}
+		}
+
+		public boolean add(long value) {
+			if (value == EMPTY) {
+				final boolean added = !containsEmpty;
+				containsEmpty = true;
+				return added;
+			}
+			if (insert(table, value)) {
+				if ((++size << 1) > table.length) {
+					final long[] newTable = new long[table.length << 1];
+					for (final long entry : table) {
+						if (entry != EMPTY) {
+							insert(newTable, entry);
+						}
+					}
+					table = newTable;
+				}
+				return true;
+			}
+			return false;
+		}
+
+		private static boolean insert(long[] table, long value) {
+			final int mask = table.length - 1;
+			for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+				final long entry = table[i];
+				if (entry == value) {
+					return false;
+				} else if (entry == EMPTY) {
+					table[i] = value;
+					return true;
+				}
+			}
+		}
+
+		private static int hash(long value) {
+			final long mixed = value * 0x9E3779B97F4A7C15L;
+			return (int) (mixed ^ (mixed >>> 32));
+		}
+	}
+
+}
@@ -0,0 +1,150 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+import org.prop4j.Node;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.prop4j.explain.solvers.impl.AbstractSatProblem;
+
+/**
+ * <p> Abstract implementation of an LTMS (logic truth maintenance system). Manages the scopes of clauses and assumptions. Subclasses implement the BCP
+ * (boolean constraint propagation) that finds the explanations. </p>
+ *
+ * <p> Clauses are referenced by their index in the CNF. </p>
+ *
+ * <p> Note that this class does not fulfill the entire contract of each of its interfaces. This is because BCP is inherently incomplete, meaning it does not
+ * always find a result. </p>
+ *
+ * @author Sofia Ananieva
+ * @author Timo G&uuml;nther
+ */
+public abstract class AbstractLtms extends AbstractSatProblem implements MusExtractor {
+
+	/**
+	 * The variables that were assumed in each scope except the current one.
+	 */
+	private final Deque<Map<Object, Boolean>> previousScopeAssumptions = new LinkedList<>();
+	/**
+	 * The amount of clauses that were added in each scope except the current one.
+	 */
+	private final Deque<Integer> previousScopeClauseCounts = new LinkedList<>();
+	/**
+	 * The amount of clauses in the current scope.
+	 */
+	private int scopeClauseCount = 0;
+
+	@Override
+	public Object getOracle() {
+		return this; // direct implementation
+	}
+
+	@Override
+	public int addClause(Node clause) {
+		final int index = super.addClause(clause);
+		scopeClauseCount++;
+		return index;
+	}
+
+	@Override
+	public Map<Object, Boolean> getAssumptions() {
+		/*
+		 * Merge the assumptions of all scopes. Add the newer assumptions later to override the older ones.
+		 */
+		final Map<Object, Boolean> assumptions = new LinkedHashMap<>();
+		for (final Iterator<Map<Object, Boolean>> it = previousScopeAssumptions.descendingIterator(); it.hasNext();) {
+			assumptions.putAll(it.next());
+		}
+		assumptions.putAll(super.getAssumptions());
+		return assumptions;
+	}
+
+	@Override
+	public Boolean getAssumption(Object variable) {
+		/*
+		 * For performance reasons, do not merge all assumptions.
+		 */
+		Boolean value = super.getAssumptions().get(variable);
+		if (value != null) {
+			return value;
+		}
+		for (final Map<Object, Boolean> prev : previousScopeAssumptions) {
+			value = prev.get(variable);
+			if (value != null) {
+				return value;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public void push() {
+		// Push the clauses.
+		previousScopeClauseCounts.push(scopeClauseCount);
+		scopeClauseCount = 0;
+
+		// Push the assumptions.
+		previousScopeAssumptions.push(new LinkedHashMap<>(super.getAssumptions()));
+		clearAssumptions();
+	}
+
+	@Override
+	public List<Node> pop() throws NoSuchElementException {
+		// Pop the clauses.
+		final List<Node> removedClauses = removeClauses(scopeClauseCount);
+		scopeClauseCount = previousScopeClauseCounts.pop();
+
+		// Pop the assumptions.
+		clearAssumptions();
+		addAssumptions(previousScopeAssumptions.pop());
+
+		return removedClauses;
+	}
+
+	@Override
+	public Set<Node> getMinimalUnsatisfiableSubset() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException();
+	}
+
+	@Override
+	public Set<Integer> getMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		Set<Integer> smallest = null;
+		for (final Set<Integer> mus : getAllMinimalUnsatisfiableSubsetIndexes()) {
+			if ((smallest == null) || (mus.size() < smallest.size())) {
+				smallest = mus;
+			}
+		}
+		return smallest;
+	}
+
+	@Override
+	public List<Set<Node>> getAllMinimalUnsatisfiableSubsets() throws UnsupportedOperationException {
+		throw new UnsupportedOperationException();
+	}
+}
@@ -25,20 +25,16 @@ import java.util.Collection;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Set;
 import java.util.TreeSet;
 
 import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.explain.solvers.MusExtractor;
-import org.prop4j.explain.solvers.impl.AbstractSatProblem;
 
 /**
  * <p> The class LTMS (logic truth maintenance system) records proofs for implications and constructs explanations. Uses BCP (boolean constraint propagation)
@@ -53,7 +49,7 @@ import org.prop4j.explain.solvers.impl.AbstractSatProblem;
  * @author Sofia Ananieva
  * @author Timo G&uuml;nther
  */
-public class Ltms extends AbstractSatProblem implements MusExtractor {
+public class Ltms extends AbstractLtms {
 
 	/**
 	 * Variables mapped to the clauses they are contained in. Redundant map for the sake of performance.
@@ -87,24 +83,6 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 	 */
 	private Literal derivedLiteral;
 
-	/**
-	 * The variables that were assumed in each scope except the current one.
-	 */
-	private final Deque<Map<Object, Boolean>> previousScopeAssumptions = new LinkedList<>();
-	/**
-	 * The amount of clauses that were added in each scope except the current one.
-	 */
-	private final Deque<Integer> previousScopeClauseCounts = new LinkedList<>();
-	/**
-	 * The amount of clauses in the current scope.
-	 */
-	private int scopeClauseCount = 0;
-
-	@Override
-	public Object getOracle() {
-		return this; // direct implementation
-	}
-
 	@Override
 	public int addClause(Node clause) {
 		final int index = super.addClause(clause);
@@ -117,7 +95,6 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 			}
 			clauseSet.add(index);
 		}
-		scopeClauseCount++;
 		return index;
 	}
 
@@ -134,37 +111,6 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 		return clause;
 	}
 
-	@Override
-	public Map<Object, Boolean> getAssumptions() {
-		/*
-		 * Merge the assumptions of all scopes. Add the newer assumptions later to override the older ones.
-		 */
-		final Map<Object, Boolean> assumptions = new LinkedHashMap<>();
-		for (final Iterator<Map<Object, Boolean>> it = previousScopeAssumptions.descendingIterator(); it.hasNext();) {
-			assumptions.putAll(it.next());
-		}
-		assumptions.putAll(super.getAssumptions());
-		return assumptions;
-	}
-
-	@Override
-	public Boolean getAssumption(Object variable) {
-		/*
-		 * For performance reasons, do not merge all assumptions.
-		 */
-		Boolean value = super.getAssumptions().get(variable);
-		if (value != null) {
-			return value;
-		}
-		for (final Map<Object, Boolean> prev : previousScopeAssumptions) {
-			value = prev.get(variable);
-			if (value != null) {
-				return value;
-			}
-		}
-		return null;
-	}
-
 	@Override
 	public boolean isSatisfiable() {
 		return !getAllMinimalUnsatisfiableSubsets().isEmpty();
@@ -175,51 +121,6 @@ public class Ltms extends AbstractSatProblem implements MusExtractor {
 		return variableValues;
 	}
 
-	@Override
-	public void push() {
-		// Push the clauses.
-		previousScopeClauseCounts.push(scopeClauseCount);
-		scopeClauseCount = 0;
-
-		// Push the assumptions.
-		previousScopeAssumptions.push(new LinkedHashMap<>(super.getAssumptions()));
-		clearAssumptions();
-	}
-
-	@Override
-	public List<Node> pop() throws NoSuchElementException {
-		// Pop the clauses.
-		final List<Node> removedClauses = removeClauses(scopeClauseCount);
-		scopeClauseCount = previousScopeClauseCounts.pop();
-
-		// Pop the assumptions.
-		clearAssumptions();
-		addAssumptions(previousScopeAssumptions.pop());
-
-		return removedClauses;
-	}
-
-	@Override
-	public Set<Node> getMinimalUnsatisfiableSubset() throws UnsupportedOperationException {
-		throw new UnsupportedOperationException();
-	}
-
-	@Override
-	public Set<Integer> getMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		Set<Integer> smallest = null;
-		for (final Set<Integer> mus : getAllMinimalUnsatisfiableSubsetIndexes()) {
-			if ((smallest == null) || (mus.size() < smallest.size())) {
-				smallest = mus;
-			}
-		}
-		return smallest;
-	}
-
-	@Override
-	public List<Set<Node>> getAllMinimalUnsatisfiableSubsets() throws UnsupportedOperationException {
-		throw new UnsupportedOperationException();
-	}
-
 	/**
 	 * {@inheritDoc}
 	 *
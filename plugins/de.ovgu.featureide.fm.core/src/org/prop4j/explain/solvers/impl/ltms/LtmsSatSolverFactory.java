@@ -26,24 +26,56 @@ import org.prop4j.explain.solvers.SatSolver;
 import org.prop4j.explain.solvers.SatSolverFactory;
 
 /**
- * Provides instances of {@link SatSolver} using an {@link Ltms LTMS}.
+ * Provides instances of {@link SatSolver} using an {@link Ltms LTMS}. By default, the {@link WatchedLiteralLtms watched-literal implementation} is used.
  *
  * @author Timo G&uuml;nther
  */
 public class LtmsSatSolverFactory extends SatSolverFactory {
 
+	/** Whether to use {@link WatchedLiteralLtms} instead of {@link Ltms}. */
+	private final boolean watchedLiterals;
+
+	/**
+	 * Constructs a new instance of this class.
+	 */
+	public LtmsSatSolverFactory() {
+		this(true);
+	}
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param watchedLiterals whether to use {@link WatchedLiteralLtms} instead of {@link Ltms}
+	 */
+	public LtmsSatSolverFactory(boolean watchedLiterals) {
+		this.watchedLiterals = watchedLiterals;
+	}
+
+	/**
+	 * Returns whether {@link WatchedLiteralLtms} is used instead of {@link Ltms}.
+	 *
+	 * @return whether watched literals are used
+	 */
+	public boolean isWatchedLiterals() {
+		return watchedLiterals;
+	}
+
 	@Override
 	public SatSolver getSatSolver() {
-		return new Ltms();
+		return createLtms();
 	}
 
 	@Override
 	public MutableSatSolver getMutableSatSolver() {
-		return new Ltms();
+		return createLtms();
 	}
 
 	@Override
 	public MusExtractor getMusExtractor() {
-		return new Ltms();
+		return createLtms();
+	}
+
+	private AbstractLtms createLtms() {
+		return watchedLiterals ? new WatchedLiteralLtms() : new Ltms();
 	}
 }
@@ -0,0 +1,411 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.sat4j.core.VecInt;
+
+/**
+ * <p> An LTMS (logic truth maintenance system) that works on integer indexes instead of variable objects. Finds the same kind of explanations as {@link Ltms}
+ * but is considerably faster on large formulas. </p>
+ *
+ * <ul>
+ * <li>Variables are mapped to positive integers once when a clause is added. Literals are represented as signed variable indexes.</li>
+ * <li>BCP (boolean constraint propagation) uses two watched literals per clause. When a literal becomes false, only the clauses watching it are visited
+ * instead of all clauses containing its variable.</li>
+ * <li>Truth values and reasons are stored in arrays. All assignments are recorded on a trail, such that resetting to the premises only undoes the derived
+ * values.</li>
+ * </ul>
+ *
+ * <p> The watched literals of each clause are stored at the first two positions of its literal array. They remain valid when assignments are undone.
+ * Therefore, the watch lists are kept between explanations and only updated when clauses are added or removed. </p>
+ *
+ * @author FeatureIDE Team
+ */
+public class WatchedLiteralLtms extends AbstractLtms {
+
+	private static final byte UNKNOWN = 0;
+	private static final byte TRUE = 1;
+	private static final byte FALSE = -1;
+
+	/** Maps each variable to its index. Indexes start at 1. */
+	private final Map<Object, Integer> variableIndexes = new HashMap<>();
+	/** Maps each index to its variable. Index 0 is unused. */
+	private final List<Object> variables = new ArrayList<>();
+
+	/** The literals of each clause. The first two literals are watched. */
+	private final List<int[]> clauseLiterals = new ArrayList<>();
+	/** The clauses watching each literal. See {@link #getWatchIndex(int)}. */
+	private VecInt[] watches = new VecInt[0];
+	/** The clauses containing only a single literal. */
+	private final VecInt unitClauses = new VecInt();
+	/** Whether the watch lists correspond to the current clauses. */
+	private boolean watchesValid = true;
+
+	/** The truth value of each variable. */
+	private byte[] values = new byte[0];
+	/** The clause from which the truth value of each variable was derived. -1 for premises and unknown variables. */
+	private int[] reasons = new int[0];
+	/** All assigned literals in the order of their assignment. */
+	private final VecInt trail = new VecInt();
+	/** The stack to collect unit-open clauses. */
+	private final VecInt unitOpenClauses = new VecInt();
+	/** The assigned literals at the end of the most recent explanation. */
+	private int[] lastAssignment = new int[0];
+
+	/** Marks visited variables when collecting antecedents. */
+	private int[] marks = new int[0];
+	private int mark = 0;
+
+	public WatchedLiteralLtms() {
+		variables.add(null);
+	}
+
+	@Override
+	public int addClause(Node clause) {
+		final int index = super.addClause(clause);
+		final Node[] children = clause.getChildren();
+		int[] literals = new int[children.length];
+		int size = 0;
+		for (final Node child : children) {
+			final Literal literal = (Literal) child;
+			final int variable = getVariableIndex(literal.var);
+			final int l = literal.positive ? variable : -variable;
+			boolean duplicate = false;
+			for (int i = 0; i < size; i++) {
+				if (literals[i] == l) {
+					duplicate = true;
+					break;
+				}
+			}
+			if (!duplicate) {
+				literals[size++] = l;
+			}
+		}
+		if (size < literals.length) {
+			literals = Arrays.copyOf(literals, size);
+		}
+		clauseLiterals.add(literals);
+		if (watchesValid) {
+			watch(index);
+		}
+		return index;
+	}
+
+	@Override
+	protected Node removeClause(int index) {
+		final Node clause = super.removeClause(index);
+		final int[] literals = clauseLiterals.remove(index);
+		if (watchesValid && (index == clauseLiterals.size())) {
+			if (literals.length == 1) {
+				unitClauses.delete(unitClauses.indexOf(index));
+			}
+			unwatch(literals[0], index);
+			if (literals.length > 1) {
+				unwatch(literals[1], index);
+			}
+		} else {
+			// the indexes of the following clauses changed
+			watchesValid = false;
+		}
+		return clause;
+	}
+
+	private int getVariableIndex(Object variable) {
+		Integer index = variableIndexes.get(variable);
+		if (index == null) {
+			index = variables.size();
+			variableIndexes.put(variable, index);
+			variables.add(variable);
+			if (index >= values.length) {
+				final int capacity = Math.max(16, 2 * index);
+				values = Arrays.copyOf(values, capacity);
+				marks = Arrays.copyOf(marks, capacity);
+				final int oldCapacity = reasons.length;
+				reasons = Arrays.copyOf(reasons, capacity);
+				Arrays.fill(reasons, oldCapacity, capacity, -1);
+				final int oldWatchCapacity = watches.length;
+				watches = Arrays.copyOf(watches, 2 * capacity);
+				for (int i = oldWatchCapacity; i < watches.length; i++) {
+					watches[i] = new VecInt();
+				}
+			}
+		}
+		return index;
+	}
+
+	/**
+	 * Returns the index of the watch list of the given literal.
+	 *
+	 * @param literal signed variable index
+	 * @return the index in {@link #watches}
+	 */
+	private static int getWatchIndex(int literal) {
+		return (literal > 0) ? (literal << 1) : (((-literal) << 1) + 1);
+	}
+
+	private void watch(int clause) {
+		final int[] literals = clauseLiterals.get(clause);
+		watches[getWatchIndex(literals[0])].push(clause);
+		if (literals.length == 1) {
+			unitClauses.push(clause);
+		} else {
+			watches[getWatchIndex(literals[1])].push(clause);
+		}
+	}
+
+	private void unwatch(int literal, int clause) {
+		final VecInt watchList = watches[getWatchIndex(literal)];
+		watchList.delete(watchList.indexOf(clause));
+	}
+
+	private void rebuildWatches() {
+		for (final VecInt watchList : watches) {
+			watchList.clear();
+		}
+		unitClauses.clear();
+		for (int i = 0; i < clauseLiterals.size(); i++) {
+			watch(i);
+		}
+		watchesValid = true;
+	}
+
+	@Override
+	public boolean isSatisfiable() {
+		return getAllMinimalUnsatisfiableSubsetIndexes().isEmpty();
+	}
+
+	@Override
+	public Map<Object, Boolean> getModel() throws IllegalStateException {
+		final Map<Object, Boolean> model = new LinkedHashMap<>();
+		for (final int literal : lastAssignment) {
+			model.put(variables.get(Math.abs(literal)), literal > 0);
+		}
+		return model;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Returns multiple explanations why the premises lead to a contradiction in the conjunctive normal form. This is done by propagating the truth values
+	 * until a contradiction is found. Then, the proofs for the implications are recalled. This is repeated several times to find multiple explanations, some of
+	 * which might be shorter than others. </p>
+	 */
+	@Override
+	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
+		if (!watchesValid) {
+			rebuildWatches();
+		}
+		final List<Set<Integer>> explanations = new ArrayList<>();
+		unitOpenClauses.clear();
+		try {
+			// Assign the premises and collect the first unit-open clauses.
+			for (final Entry<Object, Boolean> assumption : getAssumptions().entrySet()) {
+				final int variable = getVariableIndex(assumption.getKey());
+				assign(assumption.getValue() ? variable : -variable, -1);
+			}
+			for (int i = 0; i < unitClauses.size(); i++) {
+				final int clause = unitClauses.get(i);
+				if (getValue(clauseLiterals.get(clause)[0]) == UNKNOWN) {
+					unitOpenClauses.push(clause);
+				}
+			}
+			final int premiseCount = trail.size();
+			for (int i = 0; i < premiseCount; i++) {
+				final int violatedClause = propagate(-trail.get(i));
+				if (violatedClause >= 0) { // If the initial truth values already lead to a contradiction...
+					final Set<Integer> explanation = new TreeSet<>();
+					explanation.add(violatedClause);
+					explanations.add(explanation); // ... explain immediately.
+					return explanations;
+				}
+			}
+
+			while (!unitOpenClauses.isEmpty()) {
+				final int derivedClause = unitOpenClauses.last();
+				unitOpenClauses.pop();
+				final int derivedLiteral = getUnboundLiteral(derivedClause);
+				if (derivedLiteral == 0) { // not actually unit-open
+					continue;
+				}
+				assign(derivedLiteral, derivedClause); // Propagate the truth values by deriving a new truth value.
+				final int violatedClause = propagate(-derivedLiteral);
+				if (violatedClause >= 0) { // If the propagation lead to a contradiction...
+					explanations.add(getContradictionExplanation(violatedClause, derivedLiteral)); // ... explain the reason for the contradiction.
+					/*
+					 * Keep generating new explanations as there might be a shorter one among them. To this end, undo the derived truth values (but not the
+					 * premises) and keep iterating.
+					 */
+					undo(premiseCount);
+				}
+			}
+		} finally {
+			lastAssignment = Arrays.copyOf(trail.toArray(), trail.size());
+			undo(0);
+		}
+		return explanations;
+	}
+
+	private byte getValue(int literal) {
+		final byte value = values[Math.abs(literal)];
+		return (literal > 0) ? value : (byte) -value;
+	}
+
+	private void assign(int literal, int reason) {
+		final int variable = Math.abs(literal);
+		values[variable] = (literal > 0) ? TRUE : FALSE;
+		reasons[variable] = reason;
+		trail.push(literal);
+	}
+
+	/**
+	 * Undoes all assignments after the given position of the trail.
+	 *
+	 * @param trailSize the number of assignments to keep
+	 */
+	private void undo(int trailSize) {
+		while (trail.size() > trailSize) {
+			final int variable = Math.abs(trail.last());
+			trail.pop();
+			values[variable] = UNKNOWN;
+			reasons[variable] = -1;
+		}
+	}
+
+	/**
+	 * Visits all clauses watching the given literal, which just became false. Moves the watch to another literal that is not false if possible. Otherwise, the
+	 * clause is either unit-open and pushed to the stack or violated.
+	 *
+	 * @param falseLiteral a literal that evaluates to false
+	 * @return the index of a violated clause or -1 if there is none
+	 */
+	private int propagate(int falseLiteral) {
+		final VecInt watchList = watches[getWatchIndex(falseLiteral)];
+		for (int i = 0; i < watchList.size();) {
+			final int clause = watchList.get(i);
+			final int[] literals = clauseLiterals.get(clause);
+			if (literals.length == 1) {
+				return clause;
+			}
+			if (literals[0] == falseLiteral) {
+				literals[0] = literals[1];
+				literals[1] = falseLiteral;
+			}
+			final byte otherValue = getValue(literals[0]);
+			if (otherValue == TRUE) {
+				i++;
+				continue;
+			}
+			boolean moved = false;
+			for (int k = 2; k < literals.length; k++) {
+				if (getValue(literals[k]) != FALSE) {
+					literals[1] = literals[k];
+					literals[k] = falseLiteral;
+					watches[getWatchIndex(literals[1])].push(clause);
+					watchList.delete(i);
+					moved = true;
+					break;
+				}
+			}
+			if (!moved) {
+				if (otherValue == FALSE) {
+					return clause;
+				}
+				unitOpenClauses.push(clause);
+				i++;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Returns the unbound literal in the given clause or 0 if no such literal exists. A literal is unbound iff it evaluates to unknown while all other literals
+	 * in the same CNF clause evaluate to false.
+	 *
+	 * @param clause index of a clause
+	 * @return the unbound literal in the given clause or 0 if no such literal exists
+	 */
+	private int getUnboundLiteral(int clause) {
+		int unboundLiteral = 0;
+		for (final int literal : clauseLiterals.get(clause)) {
+			final byte value = getValue(literal);
+			if (value == UNKNOWN) {
+				if (unboundLiteral == 0) {
+					unboundLiteral = literal;
+				} else { // more than one unknown literal found, thus actually a non-unit-open clause
+					return 0;
+				}
+			} else if (value == TRUE) {
+				return 0;
+			}
+		}
+		return unboundLiteral;
+	}
+
+	/**
+	 * Returns an explanation why the premises lead to a contradiction. It consists of the violated clause and the reasons of all antecedents.
+	 *
+	 * @param violatedClause the violated clause
+	 * @param derivedLiteral the literal whose truth value was derived most recently
+	 * @return indexes of clauses that serve as an explanation
+	 */
+	private Set<Integer> getContradictionExplanation(int violatedClause, int derivedLiteral) {
+		final Set<Integer> explanation = new TreeSet<>();
+		explanation.add(violatedClause);
+		if (++mark == 0) {
+			Arrays.fill(marks, 0);
+			mark = 1;
+		}
+		final VecInt pending = new VecInt();
+		pending.push(Math.abs(derivedLiteral));
+		for (final int literal : clauseLiterals.get(violatedClause)) {
+			pending.push(Math.abs(literal));
+		}
+		while (!pending.isEmpty()) {
+			final int variable = pending.last();
+			pending.pop();
+			if (marks[variable] == mark) { // already explained
+				continue;
+			}
+			marks[variable] = mark;
+			final int reason = reasons[variable];
+			if (reason < 0) { // premise
+				continue;
+			}
+			explanation.add(reason);
+			for (final int antecedent : clauseLiterals.get(reason)) {
+				pending.push(Math.abs(antecedent));
+			}
+		}
+		return explanation;
+	}
+}
@@ -0,0 +1,313 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.minisat.orders.PositiveLiteralSelectionStrategy;
+import org.sat4j.minisat.orders.VarOrderHeap;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * <p> Enumerates the minimal unsatisfiable subsets (MUSes) of a set of clauses using the MARCO algorithm. </p>
+ *
+ * <p> A map solver keeps track of all subsets of clauses that were not explored yet. In each step, a maximal unexplored subset (the seed) is checked. If it is
+ * satisfiable, it is grown to a maximal satisfiable subset and all of its subsets are blocked. Otherwise, it is shrunk to a MUS and all of its supersets are
+ * blocked. Thus, each MUS is found exactly once. </p>
+ *
+ * <p> The MUSes are computed lazily by {@link #hasNext()}. The enumeration stops early when the given time budget or the maximal number of MUSes is
+ * exceeded. Each clause is referenced by its index in the given list of clauses. </p>
+ *
+ * @author FeatureIDE Team
+ */
+public class MarcoMusEnumerator implements Iterator<Set<Integer>> {
+
+	/** Checks subsets of the clauses. Each clause is guarded by a selector variable. */
+	private final ISolver subsetSolver;
+	/** Contains one variable for each clause. Its models are the unexplored subsets. */
+	private final ISolver mapSolver;
+
+	private final List<IVecInt> clauses;
+	private final IVecInt assumptions;
+	/** The first selector variable minus one. */
+	private final int selectorOffset;
+
+	private final long deadline;
+	private int remainingCount;
+
+	private Set<Integer> next = null;
+	private boolean done = false;
+
+	/**
+	 * Constructs a new instance of this class.
+	 *
+	 * @param clauses the clauses as Sat4J vectors; each must not be empty
+	 * @param numberOfVariables the highest variable index used in the clauses and assumptions
+	 * @param assumptions literals that are assumed to be true; not null
+	 * @param timeout the time budget in milliseconds; a value less than or equal to 0 disables the time budget
+	 * @param maxCount the maximal number of MUSes to enumerate
+	 */
+	public MarcoMusEnumerator(List<IVecInt> clauses, int numberOfVariables, IVecInt assumptions, long timeout, int maxCount) {
+		this.clauses = clauses;
+		this.assumptions = assumptions;
+		selectorOffset = numberOfVariables;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+		remainingCount = maxCount;
+
+		subsetSolver = SolverFactory.newDefault();
+		subsetSolver.newVar(numberOfVariables + clauses.size());
+		mapSolver = SolverFactory.newDefault();
+		mapSolver.newVar(clauses.size());
+		// prefer large seeds, which are more likely to be unsatisfiable
+		((Solver<?>) mapSolver).setOrder(new VarOrderHeap(new PositiveLiteralSelectionStrategy()));
+		try {
+			for (int i = 0; i < clauses.size(); i++) {
+				final IVecInt clause = clauses.get(i);
+				final VecInt guardedClause = new VecInt(clause.size() + 1);
+				clause.copyTo(guardedClause);
+				guardedClause.push(-getSelector(i));
+				subsetSolver.addClause(guardedClause);
+			}
+		} catch (final ContradictionException e) {
+			// cannot happen, as each clause contains its own selector variable
+			done = true;
+		}
+	}
+
+	@Override
+	public boolean hasNext() {
+		if ((next == null) && !done) {
+			try {
+				next = computeNext();
+			} catch (final TimeoutException e) {
+				next = null;
+			}
+			if (next == null) {
+				done = true;
+			}
+		}
+		return next != null;
+	}
+
+	@Override
+	public Set<Integer> next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+		final Set<Integer> mus = next;
+		next = null;
+		return mus;
+	}
+
+	@Override
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	private int getSelector(int clauseIndex) {
+		return selectorOffset + clauseIndex + 1;
+	}
+
+	private Set<Integer> computeNext() throws TimeoutException {
+		if (remainingCount <= 0) {
+			return null;
+		}
+		while (isInBudget(mapSolver) && mapSolver.isSatisfiable()) {
+			final BitSet seed = new BitSet(clauses.size());
+			for (final int literal : mapSolver.model()) {
+				if (literal > 0) {
+					seed.set(literal - 1);
+				}
+			}
+
+			if (isSatisfiable(seed)) {
+				final BitSet mss = grow(seed);
+				final VecInt blockingClause = new VecInt();
+				for (int i = mss.nextClearBit(0); i < clauses.size(); i = mss.nextClearBit(i + 1)) {
+					blockingClause.push(i + 1);
+				}
+				if (!block(blockingClause)) {
+					// all clauses are satisfiable together
+					return null;
+				}
+			} else {
+				final BitSet mus = shrink(getCore(seed));
+				final VecInt blockingClause = new VecInt();
+				final Set<Integer> result = new TreeSet<>();
+				for (int i = mus.nextSetBit(0); i >= 0; i = mus.nextSetBit(i + 1)) {
+					blockingClause.push(-(i + 1));
+					result.add(i);
+				}
+				if (!block(blockingClause)) {
+					done = true;
+				}
+				remainingCount--;
+				return result;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Excludes the given subsets from the map.
+	 *
+	 * @return false if the map is exhausted
+	 */
+	private boolean block(IVecInt blockingClause) {
+		if (blockingClause.isEmpty()) {
+			return false;
+		}
+		try {
+			mapSolver.addClause(blockingClause);
+		} catch (final ContradictionException e) {
+			return false;
+		}
+		return true;
+	}
+
+	private boolean isInBudget(ISolver solver) {
+		final long remainingTime = deadline - System.currentTimeMillis();
+		if (remainingTime <= 0) {
+			return false;
+		}
+		if (deadline != Long.MAX_VALUE) {
+			solver.setTimeoutMs(remainingTime);
+		}
+		return true;
+	}
+
+	private boolean isSatisfiable(BitSet subset) throws TimeoutException {
+		if (!isInBudget(subsetSolver)) {
+			throw new TimeoutException();
+		}
+		final VecInt subsetAssumptions = new VecInt(assumptions.size() + subset.cardinality());
+		assumptions.copyTo(subsetAssumptions);
+		for (int i = subset.nextSetBit(0); i >= 0; i = subset.nextSetBit(i + 1)) {
+			subsetAssumptions.push(getSelector(i));
+		}
+		return subsetSolver.isSatisfiable(subsetAssumptions);
+	}
+
+	/**
+	 * Returns the clauses of the given unsatisfiable subset that were involved in the last conflict of the subset solver.
+	 */
+	private BitSet getCore(BitSet subset) {
+		final IVecInt explanation = subsetSolver.unsatExplanation();
+		if (explanation == null) {
+			return (BitSet) subset.clone();
+		}
+		final BitSet core = new BitSet(clauses.size());
+		for (int i = 0; i < explanation.size(); i++) {
+			final int clauseIndex = Math.abs(explanation.get(i)) - selectorOffset - 1;
+			if ((clauseIndex >= 0) && subset.get(clauseIndex)) {
+				core.set(clauseIndex);
+			}
+		}
+		return core;
+	}
+
+	/**
+	 * Removes clauses from the given unsatisfiable subset as long as it stays unsatisfiable.
+	 */
+	private BitSet shrink(BitSet subset) throws TimeoutException {
+		final BitSet mus = (BitSet) subset.clone();
+		if (isSatisfiable(mus)) {
+			// the core was incomplete
+			mus.clear();
+			mus.or(subset);
+		}
+		for (int i = mus.nextSetBit(0); i >= 0; i = mus.nextSetBit(i + 1)) {
+			mus.clear(i);
+			if (isSatisfiable(mus)) {
+				mus.set(i);
+			} else {
+				final BitSet core = getCore(mus);
+				mus.and(core);
+			}
+		}
+		return mus;
+	}
+
+	/**
+	 * Adds clauses to the given satisfiable subset as long as it stays satisfiable.
+	 */
+	private BitSet grow(BitSet subset) throws TimeoutException {
+		final BitSet mss = (BitSet) subset.clone();
+		addSatisfiedClauses(mss, subsetSolver.model());
+		for (int i = mss.nextClearBit(0); i < clauses.size(); i = mss.nextClearBit(i + 1)) {
+			mss.set(i);
+			if (isSatisfiable(mss)) {
+				addSatisfiedClauses(mss, subsetSolver.model());
+			} else {
+				mss.clear(i);
+			}
+		}
+		return mss;
+	}
+
+	private void addSatisfiedClauses(BitSet subset, int[] model) {
+		final BitSet trueLiterals = new BitSet();
+		final BitSet falseLiterals = new BitSet();
+		for (final int literal : model) {
+			if (literal > 0) {
+				trueLiterals.set(literal);
+			} else {
+				falseLiterals.set(-literal);
+			}
+		}
+		for (int i = subset.nextClearBit(0); i < clauses.size(); i = subset.nextClearBit(i + 1)) {
+			final IVecInt clause = clauses.get(i);
+			for (int j = 0; j < clause.size(); j++) {
+				final int literal = clause.get(j);
+				if ((literal > 0) ? trueLiterals.get(literal) : falseLiterals.get(-literal)) {
+					subset.set(i);
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Collects all remaining MUSes.
+	 *
+	 * @return all MUSes that can be enumerated within the budget
+	 */
+	public List<Set<Integer>> toList() {
+		final List<Set<Integer>> muses = new ArrayList<>();
+		while (hasNext()) {
+			muses.add(next());
+		}
+		return muses;
+	}
+
+}
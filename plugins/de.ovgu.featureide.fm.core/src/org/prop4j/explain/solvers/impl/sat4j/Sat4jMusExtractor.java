@@ -20,7 +20,9 @@
  */
 package org.prop4j.explain.solvers.impl.sat4j;
 
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
@@ -28,16 +30,27 @@ import java.util.TreeSet;
 import org.prop4j.Node;
 import org.prop4j.explain.solvers.MusExtractor;
 import org.sat4j.specs.ISolver;
+import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 import org.sat4j.tools.xplain.Xplain;
 
 /**
- * A MUS extractor using a Sat4J oracle.
+ * A MUS extractor using a Sat4J oracle. Multiple MUSes are enumerated by a {@link MarcoMusEnumerator}.
  *
  * @author Timo G&uuml;nther
  */
 public class Sat4jMusExtractor extends Sat4jMutableSatSolver implements MusExtractor {
 
+	/** The default time budget in milliseconds for enumerating all MUSes. */
+	public static final long DEFAULT_ENUMERATION_TIMEOUT = 1000;
+	/** The default maximal number of MUSes to enumerate. */
+	public static final int DEFAULT_MAX_MUS_COUNT = 10;
+
+	/** The time budget in milliseconds for enumerating all MUSes. */
+	private long enumerationTimeout = DEFAULT_ENUMERATION_TIMEOUT;
+	/** The maximal number of MUSes to enumerate. */
+	private int maxMusCount = DEFAULT_MAX_MUS_COUNT;
+
 	@Override
 	protected Xplain<ISolver> createOracle() {
 		return new Xplain<ISolver>(super.createOracle());
@@ -74,11 +87,107 @@ public class Sat4jMusExtractor extends Sat4jMutableSatSolver implements MusExtra
 
 	@Override
 	public List<Set<Node>> getAllMinimalUnsatisfiableSubsets() throws IllegalStateException {
-		return Collections.singletonList(getMinimalUnsatisfiableSubset());
+		return getClauseSetsFromIndexSets(getAllMinimalUnsatisfiableSubsetIndexes());
 	}
 
+	/**
+	 * {@inheritDoc}
+	 *
+	 * <p> Enumerates the MUSes until the {@link #getEnumerationTimeout() time budget} or the {@link #getMaxMusCount() maximal number} is exceeded. Contains at
+	 * least one MUS. </p>
+	 */
 	@Override
 	public List<Set<Integer>> getAllMinimalUnsatisfiableSubsetIndexes() throws IllegalStateException {
-		return Collections.singletonList(getMinimalUnsatisfiableSubsetIndexes());
+		final List<Set<Integer>> muses = getMinimalUnsatisfiableSubsetIndexIterator().toList();
+		if (muses.isEmpty()) {
+			// the budget was too small to find any MUS
+			return Collections.singletonList(getMinimalUnsatisfiableSubsetIndexes());
+		}
+		return muses;
+	}
+
+	/**
+	 * Returns an iterator over the minimal unsatisfiable subsets (MUSes) of the problem referenced by index. The MUSes are computed lazily. The iterator must
+	 * not be used after the problem was modified.
+	 *
+	 * @return an iterator over the MUSes of the problem; not null
+	 * @throws IllegalStateException if the formula in this solver is satisfiable
+	 */
+	public MarcoMusEnumerator getMinimalUnsatisfiableSubsetIndexIterator() throws IllegalStateException {
+		if (isSatisfiable()) {
+			throw new IllegalStateException("Problem is satisfiable");
+		}
+		final List<IVecInt> clauses = new ArrayList<>(getClauseCount());
+		int numberOfVariables = 0;
+		for (final Node clause : getClauses()) {
+			final IVecInt vector = getVectorFromClause(clause);
+			clauses.add(vector);
+			numberOfVariables = Math.max(numberOfVariables, getMaxVariable(vector));
+		}
+		final IVecInt assumptions = getVectorFromAssumptions();
+		numberOfVariables = Math.max(numberOfVariables, getMaxVariable(assumptions));
+		return new MarcoMusEnumerator(clauses, numberOfVariables, assumptions, enumerationTimeout, maxMusCount);
+	}
+
+	private static int getMaxVariable(IVecInt literals) {
+		int max = 0;
+		for (int i = 0; i < literals.size(); i++) {
+			max = Math.max(max, Math.abs(literals.get(i)));
+		}
+		return max;
+	}
+
+	/**
+	 * Returns an iterator over the minimal unsatisfiable subsets (MUSes) of the problem. The MUSes are computed lazily. The iterator must not be used after the
+	 * problem was modified.
+	 *
+	 * @return an iterator over the MUSes of the problem; not null
+	 * @throws IllegalStateException if the formula in this solver is satisfiable
+	 */
+	public Iterator<Set<Node>> getMinimalUnsatisfiableSubsetIterator() throws IllegalStateException {
+		final Iterator<Set<Integer>> indexIterator = getMinimalUnsatisfiableSubsetIndexIterator();
+		return new Iterator<Set<Node>>() {
+
+			@Override
+			public boolean hasNext() {
+				return indexIterator.hasNext();
+			}
+
+			@Override
+			public Set<Node> next() {
+				return getClauseSetFromIndexSet(indexIterator.next());
+			}
+
+			@Override
+			public void remove() {
+				throw new UnsupportedOperationException();
+			}
+		};
+	}
+
+	public long getEnumerationTimeout() {
+		return enumerationTimeout;
+	}
+
+	/**
+	 * Sets the time budget for enumerating all MUSes.
+	 *
+	 * @param enumerationTimeout the time budget in milliseconds; a value less than or equal to 0 disables the time budget
+	 */
+	public void setEnumerationTimeout(long enumerationTimeout) {
+		this.enumerationTimeout = enumerationTimeout;
+	}
+
+	public int getMaxMusCount() {
+		return maxMusCount;
+	}
+
+	/**
+	 * Sets the maximal number of MUSes to enumerate.
+	 *
+	 * @param maxMusCount the maximal number of MUSes
+	 */
+	public void setMaxMusCount(int maxMusCount) {
+		this.maxMusCount = maxMusCount;
 	}
 }
@@ -90,8 +90,8 @@ public class BasicSolver implements ISatSolver {
 		final int size = satInstance.getNumberOfVariables();
 		if (size > 0) {
 			solver.newVar(size);
-			solver.setExpectedNumberOfClauses(satInstance.getCnf().getChildren().length + 1);
-			addCNF(satInstance.getCnf().getChildren());
+			solver.setExpectedNumberOfClauses(satInstance.getNumberOfClauses() + 1);
+			addInstanceClauses();
 			final VecInt pseudoClause = new VecInt(size + 1);
 			for (int i = 1; i <= size; i++) {
 				pseudoClause.push(i);
@@ -103,6 +103,37 @@ public class BasicSolver implements ISatSolver {
 		solver.getOrder().init();
 	}
 
+	/**
+	 * Adds all clauses of the {@link SatInstance} to this solver.
+	 */
+	protected void addInstanceClauses() throws ContradictionException {
+		addInstanceClauses(solver, null);
+	}
+
+	/**
+	 * Adds all clauses of the {@link SatInstance} to the given solver. The clauses are read from the compiled {@link SatInstance#getClauseLiterals() clause
+	 * arena} of the instance, so creating or cloning a solver neither traverses the CNF nor allocates an array for each clause.
+	 *
+	 * @param solver the solver to fill
+	 * @param constraints a list that receives the added constraints (may be {@code null})
+	 */
+	protected final void addInstanceClauses(Solver<?> solver, List<IConstr> constraints) throws ContradictionException {
+		final int[] clauseLiterals = satInstance.getClauseLiterals();
+		final int[] clauseOffsets = satInstance.getClauseOffsets();
+		// the solver copies the literals, so one buffer can be reused for all clauses
+		final VecInt clause = new VecInt();
+		for (int i = 1; i < clauseOffsets.length; i++) {
+			clause.clear();
+			for (int j = clauseOffsets[i - 1]; j < clauseOffsets[i]; j++) {
+				clause.push(clauseLiterals[j]);
+			}
+			final IConstr constr = solver.addClause(clause);
+			if (constraints != null) {
+				constraints.add(constr);
+			}
+		}
+	}
+
 	protected Solver<?> initSolver() {
 		final Solver<?> solver = (Solver<?>) SolverFactory.newDefault();
 		solver.setTimeoutMs(DEFAULT_TIMEOUT);
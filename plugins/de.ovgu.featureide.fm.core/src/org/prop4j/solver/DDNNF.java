@@ -0,0 +1,159 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.math.BigInteger;
+
+/**
+ * A smooth, deterministic, decomposable negation normal form (d-DNNF) of a {@link SatInstance}.</br> Nodes are stored in topological order (children always
+ * precede their parents), such that model counting is linear in the size of the compiled form. Use the {@link DDNNFCompiler} to create an instance.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNF {
+
+	public static final byte FALSE = 0;
+	public static final byte TRUE = 1;
+	public static final byte LITERAL = 2;
+	public static final byte FREE = 3;
+	public static final byte AND = 4;
+	public static final byte OR = 5;
+
+	private static final int[] EMPTY = new int[0];
+
+	private final byte[] types;
+	private final int[] literals;
+	private final int[][] children;
+	private final int root;
+	private final int numberOfVariables;
+
+	DDNNF(byte[] types, int[] literals, int[][] children, int root, int numberOfVariables) {
+		this.types = types;
+		this.literals = literals;
+		this.children = children;
+		this.root = root;
+		this.numberOfVariables = numberOfVariables;
+	}
+
+	/**
+	 * Counts all models of the compiled formula.
+	 *
+	 * @return the exact number of models
+	 */
+	public BigInteger countModels() {
+		return countModels(EMPTY);
+	}
+
+	/**
+	 * Counts all models of the compiled formula that are consistent with the given partial assignment (conditional model counting).
+	 *
+	 * @param assumptions the literals that are fixed (may be {@code null})
+	 * @return the exact number of models that contain all given literals
+	 */
+	public BigInteger countModels(int[] assumptions) {
+		final byte[] assignment = new byte[numberOfVariables + 1];
+		if (assumptions != null) {
+			for (final int literal : assumptions) {
+				if (literal == 0) {
+					continue;
+				}
+				final int var = Math.abs(literal);
+				final byte value = (byte) (literal > 0 ? 1 : -1);
+				if ((assignment[var] != 0) && (assignment[var] != value)) {
+					return BigInteger.ZERO;
+				}
+				assignment[var] = value;
+			}
+		}
+
+		final BigInteger two = BigInteger.valueOf(2);
+		final BigInteger[] counts = new BigInteger[root + 1];
+		for (int i = 0; i <= root; i++) {
+			switch (types[i]) {
+			case FALSE:
+				counts[i] = BigInteger.ZERO;
+				break;
+			case TRUE:
+				counts[i] = BigInteger.ONE;
+				break;
+			case LITERAL: {
+				final int literal = literals[i];
+				final byte value = assignment[Math.abs(literal)];
+				counts[i] = ((value == 0) || ((value > 0) == (literal > 0))) ? BigInteger.ONE : BigInteger.ZERO;
+				break;
+			}
+			case FREE:
+				counts[i] = assignment[literals[i]] == 0 ? two : BigInteger.ONE;
+				break;
+			case AND: {
+				BigInteger product = BigInteger.ONE;
+				for (final int child : children[i]) {
+					product = product.multiply(counts[child]);
+					if (product.signum() == 0) {
+						break;
+					}
+				}
+				counts[i] = product;
+				break;
+			}
+			case OR: {
+				BigInteger sum = BigInteger.ZERO;
+				for (final int child : children[i]) {
+					sum = sum.add(counts[child]);
+				}
+				counts[i] = sum;
+				break;
+			}
+			default:
+				throw new IllegalStateException(String.valueOf(types[i]));
+			}
+		}
+		return counts[root];
+	}
+
+	public int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	/**
+	 * @return the number of nodes (including unreachable ones) of the compiled form
+	 */
+	public int size() {
+		return types.length;
+	}
+
+	/**
+	 * @return the number of edges of the compiled form
+	 */
+	public int getNumberOfEdges() {
+		int edges = 0;
+		for (int i = 0; i < children.length; i++) {
+			edges += children[i] == null ? 0 : children[i].length;
+		}
+		return edges;
+	}
+
+	@Override
+	public String toString() {
+		return "DDNNF [variables=" + numberOfVariables + ", nodes=" + size() + ", edges=" + getNumberOfEdges() + "]";
+	}
+
+}
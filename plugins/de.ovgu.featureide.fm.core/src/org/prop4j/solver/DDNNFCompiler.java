@@ -0,0 +1,476 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Compiles the CNF of a {@link SatInstance} into a {@link DDNNF}.</br> Uses an exhaustive DPLL search with unit propagation, dynamic decomposition into
+ * independent components, and component caching (i.e., a top-down decision-DNNF compiler).
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFCompiler {
+
+	private static final class ComponentKey {
+
+		private final int[] key;
+		private final int hashCode;
+
+		public ComponentKey(int[] key) {
+			this.key = key;
+			hashCode = Arrays.hashCode(key);
+		}
+
+		@Override
+		public int hashCode() {
+			return hashCode;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if ((obj == null) || (getClass() != obj.getClass())) {
+				return false;
+			}
+			return Arrays.equals(key, ((ComponentKey) obj).key);
+		}
+
+	}
+
+	private static final int FALSE_NODE = 0;
+	private static final int TRUE_NODE = 1;
+
+	private final int numberOfVariables;
+	private final int[][] clauses;
+	private final int[][] positiveOccurrences;
+	private final int[][] negativeOccurrences;
+	private final boolean unsatisfiable;
+
+	private final HashMap<ComponentKey, Integer> cache = new HashMap<>();
+
+	private byte[] values;
+	private int[] trail;
+	private int trailSize;
+
+	private int[] variableStamps;
+	private int[] clauseStamps;
+	private int stamp;
+	private int[] scores;
+
+	private int[] positiveLiteralNodes;
+	private int[] negativeLiteralNodes;
+	private int[] freeNodes;
+
+	private byte[] nodeTypes;
+	private int[] nodeLiterals;
+	private int[][] nodeChildren;
+	private int numberOfNodes;
+
+	private IMonitor monitor;
+	private long deadline;
+
+	public DDNNFCompiler(SatInstance satInstance) {
+		numberOfVariables = satInstance.getNumberOfVariables();
+
+		final int[] clauseLiterals = satInstance.getClauseLiterals();
+		final int[] clauseOffsets = satInstance.getClauseOffsets();
+		final List<int[]> clauseList = new ArrayList<>(clauseOffsets.length - 1);
+		boolean emptyClause = false;
+		clauseLoop: for (int c = 1; c < clauseOffsets.length; c++) {
+			final int[] clause = Arrays.copyOfRange(clauseLiterals, clauseOffsets[c - 1], clauseOffsets[c]);
+
+			// remove duplicate literals and tautologies
+			Arrays.sort(clause);
+			int length = 0;
+			for (int i = 0; i < clause.length; i++) {
+				final int literal = clause[i];
+				if ((length > 0) && (clause[length - 1] == literal)) {
+					continue;
+				}
+				if (Arrays.binarySearch(clause, -literal) >= 0) {
+					continue clauseLoop;
+				}
+				clause[length++] = literal;
+			}
+			if (length == 0) {
+				emptyClause = true;
+			}
+			clauseList.add(length == clause.length ? clause : Arrays.copyOf(clause, length));
+		}
+		unsatisfiable = emptyClause;
+		clauses = clauseList.toArray(new int[clauseList.size()][]);
+
+		final int[] positiveCount = new int[numberOfVariables + 1];
+		final int[] negativeCount = new int[numberOfVariables + 1];
+		for (final int[] clause : clauses) {
+			for (final int literal : clause) {
+				if (literal > 0) {
+					positiveCount[literal]++;
+				} else {
+					negativeCount[-literal]++;
+				}
+			}
+		}
+		positiveOccurrences = new int[numberOfVariables + 1][];
+		negativeOccurrences = new int[numberOfVariables + 1][];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			positiveOccurrences[var] = new int[positiveCount[var]];
+			negativeOccurrences[var] = new int[negativeCount[var]];
+		}
+		for (int i = 0; i < clauses.length; i++) {
+			for (final int literal : clauses[i]) {
+				if (literal > 0) {
+					positiveOccurrences[literal][--positiveCount[literal]] = i;
+				} else {
+					negativeOccurrences[-literal][--negativeCount[-literal]] = i;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compiles the formula.
+	 *
+	 * @param monitor the monitor to check for cancellation (may be {@code null})
+	 * @param timeout the maximum compilation time in milliseconds (a value less than or equal to 0 disables the timeout)
+	 * @return the compiled formula
+	 * @throws TimeoutException if the timeout is exceeded
+	 */
+	public DDNNF compile(IMonitor monitor, long timeout) throws TimeoutException {
+		this.monitor = monitor;
+		deadline = timeout > 0 ? System.currentTimeMillis() + timeout : Long.MAX_VALUE;
+
+		values = new byte[numberOfVariables + 1];
+		trail = new int[numberOfVariables];
+		trailSize = 0;
+		variableStamps = new int[numberOfVariables + 1];
+		clauseStamps = new int[clauses.length];
+		stamp = 0;
+		scores = new int[numberOfVariables + 1];
+		positiveLiteralNodes = new int[numberOfVariables + 1];
+		negativeLiteralNodes = new int[numberOfVariables + 1];
+		freeNodes = new int[numberOfVariables + 1];
+		nodeTypes = new byte[1024];
+		nodeLiterals = new int[1024];
+		nodeChildren = new int[1024][];
+		numberOfNodes = 0;
+		cache.clear();
+
+		addNode(DDNNF.FALSE, 0, null);
+		addNode(DDNNF.TRUE, 0, null);
+
+		final int root;
+		if (unsatisfiable || !propagateUnitClauses()) {
+			root = FALSE_NODE;
+		} else {
+			final int[] variables = new int[numberOfVariables];
+			for (int i = 0; i < variables.length; i++) {
+				variables[i] = i + 1;
+			}
+			root = createConjunction(0, variables);
+		}
+		cache.clear();
+
+		final DDNNF ddnnf = new DDNNF(Arrays.copyOf(nodeTypes, numberOfNodes), Arrays.copyOf(nodeLiterals, numberOfNodes),
+				Arrays.copyOf(nodeChildren, numberOfNodes), root, numberOfVariables);
+		nodeTypes = null;
+		nodeLiterals = null;
+		nodeChildren = null;
+		return ddnnf;
+	}
+
+	private boolean propagateUnitClauses() {
+		for (final int[] clause : clauses) {
+			if (clause.length == 1) {
+				final byte value = values[Math.abs(clause[0])];
+				if (value == 0) {
+					if (!propagate(clause[0])) {
+						return false;
+					}
+				} else if ((value > 0) != (clause[0] > 0)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Creates the conjunction of all literals on the trail (starting at the given position) and all components that are formed by the given variables.
+	 */
+	private int createConjunction(int trailStart, int[] variables) throws TimeoutException {
+		final List<Integer> children = new ArrayList<>();
+		for (int i = trailStart; i < trailSize; i++) {
+			children.add(getLiteralNode(trail[i]));
+		}
+
+		// find all components (before compiling them, as stamps are overwritten in the recursion)
+		final int curStamp = ++stamp;
+		final List<int[]> componentVariables = new ArrayList<>();
+		final List<int[]> componentClauses = new ArrayList<>();
+		final IntList varList = new IntList();
+		final IntList clauseList = new IntList();
+		for (final int var : variables) {
+			if ((values[var] != 0) || (variableStamps[var] == curStamp)) {
+				continue;
+			}
+			variableStamps[var] = curStamp;
+			varList.clear();
+			clauseList.clear();
+			varList.add(var);
+			for (int j = 0; j < varList.size; j++) {
+				final int curVar = varList.elements[j];
+				addComponentClauses(positiveOccurrences[curVar], curStamp, varList, clauseList);
+				addComponentClauses(negativeOccurrences[curVar], curStamp, varList, clauseList);
+			}
+			if (clauseList.size == 0) {
+				children.add(getFreeNode(var));
+			} else {
+				componentVariables.add(varList.toSortedArray());
+				componentClauses.add(clauseList.toSortedArray());
+			}
+		}
+
+		for (int i = 0; i < componentVariables.size(); i++) {
+			final int child = compileComponent(componentVariables.get(i), componentClauses.get(i));
+			if (child == FALSE_NODE) {
+				return FALSE_NODE;
+			}
+			children.add(child);
+		}
+		return createAnd(children);
+	}
+
+	private void addComponentClauses(int[] occurrences, int curStamp, IntList varList, IntList clauseList) {
+		for (final int clauseIndex : occurrences) {
+			if ((clauseStamps[clauseIndex] != curStamp) && !isSatisfied(clauses[clauseIndex])) {
+				clauseStamps[clauseIndex] = curStamp;
+				clauseList.add(clauseIndex);
+				for (final int literal : clauses[clauseIndex]) {
+					final int var = Math.abs(literal);
+					if ((values[var] == 0) && (variableStamps[var] != curStamp)) {
+						variableStamps[var] = curStamp;
+						varList.add(var);
+					}
+				}
+			}
+		}
+	}
+
+	private int compileComponent(int[] variables, int[] componentClauses) throws TimeoutException {
+		final int[] key = new int[variables.length + componentClauses.length + 1];
+		key[0] = variables.length;
+		System.arraycopy(variables, 0, key, 1, variables.length);
+		System.arraycopy(componentClauses, 0, key, variables.length + 1, componentClauses.length);
+		final ComponentKey componentKey = new ComponentKey(key);
+		final Integer cachedNode = cache.get(componentKey);
+		if (cachedNode != null) {
+			return cachedNode;
+		}
+
+		if (monitor != null) {
+			monitor.checkCancel();
+		}
+		if (System.currentTimeMillis() > deadline) {
+			throw new TimeoutException();
+		}
+
+		final int decisionVariable = selectVariable(variables, componentClauses);
+		final int positiveNode = compileBranch(decisionVariable, variables);
+		final int negativeNode = compileBranch(-decisionVariable, variables);
+		final int node = createOr(positiveNode, negativeNode);
+
+		cache.put(componentKey, node);
+		return node;
+	}
+
+	private int compileBranch(int decision, int[] variables) throws TimeoutException {
+		final int trailStart = trailSize;
+		try {
+			return propagate(decision) ? createConjunction(trailStart, variables) : FALSE_NODE;
+		} finally {
+			undo(trailStart);
+		}
+	}
+
+	private int selectVariable(int[] variables, int[] componentClauses) {
+		for (final int clauseIndex : componentClauses) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)]++;
+			}
+		}
+		int bestVariable = variables[0];
+		int bestScore = -1;
+		for (final int var : variables) {
+			if (scores[var] > bestScore) {
+				bestScore = scores[var];
+				bestVariable = var;
+			}
+		}
+		for (final int clauseIndex : componentClauses) {
+			for (final int literal : clauses[clauseIndex]) {
+				scores[Math.abs(literal)] = 0;
+			}
+		}
+		return bestVariable;
+	}
+
+	private boolean isSatisfied(int[] clause) {
+		for (final int literal : clause) {
+			final byte value = values[Math.abs(literal)];
+			if ((value != 0) && ((value > 0) == (literal > 0))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean propagate(int literal) {
+		assign(literal);
+		for (int head = trailSize - 1; head < trailSize; head++) {
+			final int curLiteral = trail[head];
+			final int[] occurrences = curLiteral > 0 ? negativeOccurrences[curLiteral] : positiveOccurrences[-curLiteral];
+			for (final int clauseIndex : occurrences) {
+				int unassignedLiteral = 0;
+				int unassignedCount = 0;
+				boolean satisfied = false;
+				for (final int clauseLiteral : clauses[clauseIndex]) {
+					final byte value = values[Math.abs(clauseLiteral)];
+					if (value == 0) {
+						unassignedCount++;
+						unassignedLiteral = clauseLiteral;
+					} else if ((value > 0) == (clauseLiteral > 0)) {
+						satisfied = true;
+						break;
+					}
+				}
+				if (!satisfied) {
+					if (unassignedCount == 0) {
+						return false;
+					} else if (unassignedCount == 1) {
+						assign(unassignedLiteral);
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	private void assign(int literal) {
+		values[Math.abs(literal)] = (byte) (literal > 0 ? 1 : -1);
+		trail[trailSize++] = literal;
+	}
+
+	private void undo(int trailStart) {
+		while (trailSize > trailStart) {
+			values[Math.abs(trail[--trailSize])] = 0;
+		}
+	}
+
+	private int getLiteralNode(int literal) {
+		final int[] literalNodes = literal > 0 ? positiveLiteralNodes : negativeLiteralNodes;
+		final int var = Math.abs(literal);
+		if (literalNodes[var] == 0) {
+			literalNodes[var] = addNode(DDNNF.LITERAL, literal, null);
+		}
+		return literalNodes[var];
+	}
+
+	private int getFreeNode(int var) {
+		if (freeNodes[var] == 0) {
+			freeNodes[var] = addNode(DDNNF.FREE, var, null);
+		}
+		return freeNodes[var];
+	}
+
+	private int createAnd(List<Integer> children) {
+		switch (children.size()) {
+		case 0:
+			return TRUE_NODE;
+		case 1:
+			return children.get(0);
+		default:
+			final int[] childArray = new int[children.size()];
+			for (int i = 0; i < childArray.length; i++) {
+				childArray[i] = children.get(i);
+			}
+			return addNode(DDNNF.AND, 0, childArray);
+		}
+	}
+
+	private int createOr(int positiveNode, int negativeNode) {
+		if (positiveNode == FALSE_NODE) {
+			return negativeNode;
+		} else if (negativeNode == FALSE_NODE) {
+			return positiveNode;
+		} else {
+			return addNode(DDNNF.OR, 0, new int[] { positiveNode, negativeNode });
+		}
+	}
+
+	private int addNode(byte type, int literal, int[] children) {
+		if (numberOfNodes == nodeTypes.length) {
+			final int newLength = numberOfNodes << 1;
+			nodeTypes = Arrays.copyOf(nodeTypes, newLength);
+			nodeLiterals = Arrays.copyOf(nodeLiterals, newLength);
+			nodeChildren = Arrays.copyOf(nodeChildren, newLength);
+		}
+		nodeTypes[numberOfNodes] = type;
+		nodeLiterals[numberOfNodes] = literal;
+		nodeChildren[numberOfNodes] = children;
+		return numberOfNodes++;
+	}
+
+	private static final class IntList {
+
+		private int[] elements = new int[16];
+		private int size = 0;
+
+		public void add(int element) {
+			if (size == elements.length) {
+				elements = Arrays.copyOf(elements, size << 1);
+			}
+			elements[size++] = element;
+		}
+
+		public void clear() {
+			size = 0;
+		}
+
+		public int[] toSortedArray() {
+			final int[] array = Arrays.copyOf(elements, size);
+			Arrays.sort(array);
+			return array;
+		}
+
+	}
+
+}
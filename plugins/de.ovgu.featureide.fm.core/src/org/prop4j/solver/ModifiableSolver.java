@@ -63,6 +63,14 @@ public class ModifiableSolver extends BasicSolver {
 		return solver;
 	}
 
+	@Override
+	protected void addInstanceClauses() throws ContradictionException {
+		if (constrList == null) {
+			constrList = new ArrayList<>();
+		}
+		addInstanceClauses(solver, constrList);
+	}
+
 	public List<IConstr> addCNF(final Collection<? extends Clause> cnfChildren) throws ContradictionException {
 		if (constrList == null) {
 			constrList = new ArrayList<>();
@@ -40,6 +40,7 @@ import org.sat4j.specs.ContradictionException;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.TimeoutException;
 
+import de.ovgu.featureide.fm.core.Logger;
 import de.ovgu.featureide.fm.core.base.IFeature;
 
 /**
@@ -176,10 +177,15 @@ public class MultiSolver extends BasicSolver {
 	public MultiSolver(MultiSolver oldSolver) {
 		super(oldSolver);
 		solvers = new Consumer[oldSolver.solvers.length];
-		for (int i = 0; i < solvers.length; i++) {
-			final Consumer solver = new Consumer(initSolver());
-			solver.solver.setOrder(oldSolver.solvers[i].solver.getOrder());
-			solvers[i] = solver;
+		try {
+			for (int i = 0; i < solvers.length; i++) {
+				final Consumer solver = new Consumer(initConsumerSolver());
+				solver.solver.setOrder(oldSolver.solvers[i].solver.getOrder());
+				solvers[i] = solver;
+			}
+		} catch (final ContradictionException e) {
+			Logger.logError(e);
+			throw new RuntimeException();
 		}
 	}
 
@@ -191,8 +197,19 @@ public class MultiSolver extends BasicSolver {
 		super(satInstance);
 		solvers = new Consumer[NUMBER_OF_THREADS];
 		for (int i = 0; i < solvers.length; i++) {
-			solvers[i] = new Consumer(initSolver());
+			solvers[i] = new Consumer(initConsumerSolver());
+		}
+	}
+
+	private Solver<?> initConsumerSolver() throws ContradictionException {
+		final Solver<?> consumerSolver = initSolver();
+		final int size = satInstance.getNumberOfVariables();
+		if (size > 0) {
+			consumerSolver.newVar(size);
+			consumerSolver.setExpectedNumberOfClauses(satInstance.getNumberOfClauses());
+			addInstanceClauses(consumerSolver, null);
 		}
+		return consumerSolver;
 	}
 
 	@Override
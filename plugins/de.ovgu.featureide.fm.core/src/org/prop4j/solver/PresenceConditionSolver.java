@@ -0,0 +1,203 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import java.util.HashMap;
+import java.util.List;
+
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.minisat.SolverFactory;
+import org.sat4j.minisat.core.Solver;
+import org.sat4j.specs.ContradictionException;
+import org.sat4j.specs.TimeoutException;
+
+/**
+ * Checks the satisfiability of arbitrary formulas, such as presence conditions, with and without a feature model using a single incremental solver.<br/>
+ * Each formula is encoded only once by introducing a selector variable for every non-literal sub formula (Tseitin transformation). A query passes the
+ * selectors of the formulas as assumptions to the solver. The clauses of the feature model are guarded by another selector, which is only assumed if the
+ * query includes the feature model.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionSolver {
+
+	private final Solver<?> solver;
+
+	private final HashMap<Object, Integer> variables = new HashMap<>();
+	private final HashMap<Node, Integer> selectors = new HashMap<>();
+
+	private final int featureModelSelector;
+	private int numberOfVariables = 0;
+
+	/**
+	 * @param featureModel the formula of the feature model (does not need to be in CNF)
+	 * @param timeout the timeout in milliseconds for each query
+	 */
+	public PresenceConditionSolver(Node featureModel, int timeout) {
+		solver = (Solver<?>) SolverFactory.newDefault();
+		solver.setTimeoutMs(timeout);
+		solver.setVerbose(false);
+		featureModelSelector = newVariable();
+		addGuarded(featureModel, featureModelSelector);
+	}
+
+	/**
+	 * Checks whether the conjunction of the given formulas is satisfiable.
+	 *
+	 * @param formulas the formulas
+	 * @param includeFeatureModel whether the feature model is part of the conjunction
+	 * @return {@code true} if the formulas are satisfiable, {@code false} otherwise
+	 * @throws TimeoutException if the solver exceeds its timeout
+	 */
+	public synchronized boolean isSatisfiable(List<? extends Node> formulas, boolean includeFeatureModel) throws TimeoutException {
+		final VecInt assumptions = new VecInt(formulas.size() + 1);
+		if (includeFeatureModel) {
+			assumptions.push(featureModelSelector);
+		}
+		for (final Node formula : formulas) {
+			assumptions.push(encode(formula));
+		}
+		return solver.isSatisfiable(assumptions, false);
+	}
+
+	/**
+	 * @return the number of variables including all selectors
+	 */
+	public synchronized int getNumberOfVariables() {
+		return numberOfVariables;
+	}
+
+	private int newVariable() {
+		solver.newVar(++numberOfVariables);
+		return numberOfVariables;
+	}
+
+	private int getVariable(Object var) {
+		Integer variable = variables.get(var);
+		if (variable == null) {
+			variable = newVariable();
+			variables.put(var, variable);
+		}
+		return variable;
+	}
+
+	/**
+	 * Adds the implication from the given selector to the given formula.
+	 */
+	private void addGuarded(Node node, int selector) {
+		if (node instanceof And) {
+			for (final Node child : node.getChildren()) {
+				addGuarded(child, selector);
+			}
+		} else if ((node instanceof Or) && isClause(node)) {
+			final Node[] children = node.getChildren();
+			final int[] clause = new int[children.length + 1];
+			clause[0] = -selector;
+			for (int i = 0; i < children.length; i++) {
+				clause[i + 1] = encode(children[i]);
+			}
+			addClause(clause);
+		} else {
+			addClause(-selector, encode(node));
+		}
+	}
+
+	private static boolean isClause(Node node) {
+		for (final Node child : node.getChildren()) {
+			if (!(child instanceof Literal)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * @return a literal that is equivalent to the given formula
+	 */
+	private int encode(Node node) {
+		if (node instanceof Literal) {
+			final Literal literal = (Literal) node;
+			final int variable = getVariable(literal.var);
+			return literal.positive ? variable : -variable;
+		}
+		if (node instanceof Not) {
+			return -encode(node.getChildren()[0]);
+		}
+		Integer selector = selectors.get(node);
+		if (selector == null) {
+			selector = define(node);
+			selectors.put(node, selector);
+		}
+		return selector;
+	}
+
+	private int define(Node node) {
+		final Node[] children = node.getChildren();
+		if ((node instanceof And) || (node instanceof Or)) {
+			final boolean and = node instanceof And;
+			final int[] literals = new int[children.length];
+			for (int i = 0; i < children.length; i++) {
+				literals[i] = encode(children[i]);
+			}
+			final int selector = newVariable();
+			// And: (s => l_i) and (l_1 & ... & l_n => s), Or: (l_i => s) and (s => l_1 | ... | l_n)
+			final int[] clause = new int[children.length + 1];
+			clause[0] = and ? selector : -selector;
+			for (int i = 0; i < literals.length; i++) {
+				clause[i + 1] = and ? -literals[i] : literals[i];
+				addClause(-clause[0], -clause[i + 1]);
+			}
+			addClause(clause);
+			return selector;
+		} else if (node instanceof Implies) {
+			return encode(new Or(new Not(children[0]), children[1]));
+		} else if (node instanceof Equals) {
+			final int a = encode(children[0]);
+			final int b = encode(children[1]);
+			final int selector = newVariable();
+			addClause(-selector, -a, b);
+			addClause(-selector, a, -b);
+			addClause(selector, a, b);
+			addClause(selector, -a, -b);
+			return selector;
+		} else {
+			// cardinality constraints
+			return encode(node.clone().toCNF());
+		}
+	}
+
+	private void addClause(int... literals) {
+		try {
+			solver.addClause(new VecInt(literals));
+		} catch (final ContradictionException e) {
+			// cannot happen, as every clause contains a selector that is not assigned yet
+			throw new IllegalStateException(e);
+		}
+	}
+
+}
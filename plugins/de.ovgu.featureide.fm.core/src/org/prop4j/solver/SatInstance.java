@@ -25,13 +25,18 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
 
+import org.prop4j.AuxiliaryVariable;
 import org.prop4j.Literal;
 import org.prop4j.Node;
 import org.sat4j.specs.IVecInt;
 import org.sat4j.specs.IteratorInt;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
 
 /**
  * Represents an instance of a satisfiability problem in CNF.</br> Use a {@link ISatSolverProvider solver provider} or the {@link #getSolver()} method to get a
@@ -76,12 +81,39 @@ public class SatInstance {
 	protected final Object[] intToVar;
 	protected final Node cnf;
 
+	/**
+	 * The number of variables that correspond to features. All variables with a greater index are {@link AuxiliaryVariable auxiliary variables}.
+	 */
+	protected final int numberOfFeatureVariables;
+
+	/**
+	 * The literals of all clauses of the CNF (see {@link #getClauseLiterals()}).
+	 */
+	private int[] clauseLiterals = null;
+	/**
+	 * The start index of each clause in {@link #clauseLiterals} (see {@link #getClauseOffsets()}).
+	 */
+	private int[] clauseOffsets = null;
+
+	private DDNNF ddnnf = null;
+
 	public SatInstance(Node root, Collection<?> featureList) {
-		intToVar = new Object[featureList.size() + 1];
 		cnf = root;
+		final Set<Object> auxiliaryVariables = getAuxiliaryVariables(root);
+
+		int featureCount = 0;
+		for (final Object feature : featureList) {
+			if (!(feature instanceof AuxiliaryVariable)) {
+				featureCount++;
+			}
+		}
+		intToVar = new Object[featureCount + auxiliaryVariables.size() + 1];
 
 		int index = 0;
 		for (final Object feature : featureList) {
+			if (feature instanceof AuxiliaryVariable) {
+				continue;
+			}
 			final String name = feature.toString();
 			if (name == null) {
 				throw new RuntimeException();
@@ -89,12 +121,37 @@ public class SatInstance {
 			varToInt.put(name, ++index);
 			intToVar[index] = name;
 		}
+		numberOfFeatureVariables = index;
+		for (final Object auxiliaryVariable : auxiliaryVariables) {
+			varToInt.put(auxiliaryVariable, ++index);
+			intToVar[index] = auxiliaryVariable;
+		}
 	}
 
 	public SatInstance(Node root) {
 		this(root, getDistinctVariableObjects(root));
 	}
 
+	private static Set<Object> getAuxiliaryVariables(Node cnf) {
+		final Set<Object> result = new LinkedHashSet<>();
+		for (final Node clause : cnf.getChildren()) {
+			if (clause instanceof Literal) {
+				final Object var = ((Literal) clause).var;
+				if (var instanceof AuxiliaryVariable) {
+					result.add(var);
+				}
+			} else {
+				for (final Node literal : clause.getChildren()) {
+					final Object var = ((Literal) literal).var;
+					if (var instanceof AuxiliaryVariable) {
+						result.add(var);
+					}
+				}
+			}
+		}
+		return result;
+	}
+
 	public static Set<Object> getDistinctVariableObjects(Node cnf) {
 		final HashSet<Object> result = new HashSet<>();
 		for (final Node clause : cnf.getChildren()) {
@@ -113,6 +170,9 @@ public class SatInstance {
 	public List<String> convertToString(int[] model, boolean includePositive, boolean includeNegative) {
 		final List<String> resultList = new ArrayList<>();
 		for (final int var : model) {
+			if (isAuxiliaryVariable(var)) {
+				continue;
+			}
 			if (var > 0) {
 				if (includePositive) {
 					resultList.add(intToVar[Math.abs(var)].toString());
@@ -154,7 +214,9 @@ public class SatInstance {
 	public List<Literal> convertToLiterals(int[] model) {
 		final List<Literal> resultList = new ArrayList<>();
 		for (final int var : model) {
-			resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(new Literal(intToVar[Math.abs(var)], (var > 0)));
+			}
 		}
 		return resultList;
 	}
@@ -167,7 +229,10 @@ public class SatInstance {
 		final List<String> resultList = new ArrayList<>(model.size());
 		final IteratorInt modelIt = model.iterator();
 		while (modelIt.hasNext()) {
-			resultList.add(intToVar[Math.abs(modelIt.next())].toString());
+			final int var = modelIt.next();
+			if (!isAuxiliaryVariable(var)) {
+				resultList.add(intToVar[Math.abs(var)].toString());
+			}
 		}
 		return resultList;
 	}
@@ -180,6 +245,89 @@ public class SatInstance {
 		return intToVar.length - 1;
 	}
 
+	/**
+	 * @return the number of variables that correspond to features (i.e., all variables that are not {@link AuxiliaryVariable auxiliary})
+	 */
+	public int getNumberOfFeatureVariables() {
+		return numberOfFeatureVariables;
+	}
+
+	/**
+	 * @param x a variable or literal
+	 * @return {@code true} if the variable was introduced by a CNF transformation and does not correspond to a feature
+	 */
+	public boolean isAuxiliaryVariable(int x) {
+		return Math.abs(x) > numberOfFeatureVariables;
+	}
+
+	/**
+	 * Sets all {@link AuxiliaryVariable auxiliary variables} in the given model to 0, such that analyses only consider variables of features.
+	 *
+	 * @param model a model or partial model (indexed by variable - 1)
+	 */
+	public void clearAuxiliaryVariables(int[] model) {
+		for (int i = numberOfFeatureVariables; i < model.length; i++) {
+			model[i] = 0;
+		}
+	}
+
+	/**
+	 * Returns the literals of all clauses of the CNF in one array. The literals of the clause with index <i>i</i> are stored from
+	 * {@code getClauseOffsets()[i]} (inclusive) to {@code getClauseOffsets()[i + 1]} (exclusive).<br/>
+	 * The array is computed only once and shared by all solvers of this instance, so it must not be modified.
+	 *
+	 * @return the compiled literals of the CNF
+	 */
+	public int[] getClauseLiterals() {
+		compileClauses();
+		return clauseLiterals;
+	}
+
+	/**
+	 * Returns the start index of each clause in the array of {@link #getClauseLiterals() clause literals}. The array has one more entry than there are
+	 * clauses, so the last entry is the total number of literals.<br/>
+	 * The array is computed only once and shared by all solvers of this instance, so it must not be modified.
+	 *
+	 * @return the offsets of all clauses
+	 */
+	public int[] getClauseOffsets() {
+		compileClauses();
+		return clauseOffsets;
+	}
+
+	public int getNumberOfClauses() {
+		return getClauseOffsets().length - 1;
+	}
+
+	private synchronized void compileClauses() {
+		if (clauseOffsets == null) {
+			final Node[] clauses = cnf.getChildren();
+			int numberOfLiterals = 0;
+			for (final Node clause : clauses) {
+				numberOfLiterals += (clause instanceof Literal) ? 1 : clause.getChildren().length;
+			}
+
+			final int[] literals = new int[numberOfLiterals];
+			final int[] offsets = new int[clauses.length + 1];
+			int index = 0;
+			for (int i = 0; i < clauses.length; i++) {
+				final Node clause = clauses[i];
+				offsets[i] = index;
+				if (clause instanceof Literal) {
+					literals[index++] = getSignedVariable((Literal) clause);
+				} else {
+					for (final Node literal : clause.getChildren()) {
+						literals[index++] = getSignedVariable((Literal) literal);
+					}
+				}
+			}
+			offsets[clauses.length] = index;
+
+			clauseLiterals = literals;
+			clauseOffsets = offsets;
+		}
+	}
+
 	public Literal getLiteral(final int x) {
 		return new Literal(intToVar[Math.abs(x)], x > 0);
 	}
@@ -200,4 +348,19 @@ public class SatInstance {
 		return intToVar[Math.abs(x)];
 	}
 
+	/**
+	 * Returns the {@link DDNNF d-DNNF} of this instance. The compiled form is computed only once and then cached for this instance.
+	 *
+	 * @param monitor the monitor to check for cancellation (may be {@code null})
+	 * @param timeout the maximum compilation time in milliseconds (a value less than or equal to 0 disables the timeout)
+	 * @return the compiled form of this instance
+	 * @throws TimeoutException if the compilation did not finish in time (nothing is cached in this case)
+	 */
+	public synchronized DDNNF getDDNNF(IMonitor monitor, long timeout) throws TimeoutException {
+		if (ddnnf == null) {
+			ddnnf = new DDNNFCompiler(this).compile(monitor, timeout);
+		}
+		return ddnnf;
+	}
+
 }
@@ -32,6 +32,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.DEFINES_THE_PR
 import static de.ovgu.featureide.fm.core.localization.StringTable.DEFNIES_WHETHER_THE_PRODUKTS_ARE_GENERATED_INTO_SEPARATE_PROJECTS_OR_INTO_A_FOLDER_IN_THIS_PROJECT_;
 import static de.ovgu.featureide.fm.core.localization.StringTable.DISSIMILARITY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ERROR_;
+import static de.ovgu.featureide.fm.core.localization.StringTable.GREEDY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ICPL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INTERACTIONS;
@@ -346,6 +347,8 @@ public class BuildProductsPage extends WizardPage implements IConfigurationBuild
 			return ICPL;
 		case INCLING:
 			return INCLING;
+		case GREEDY:
+			return GREEDY;
 		default:
 			UIPlugin.getDefault().logWarning("Unimplemented switch statement for TWise: " + tWise);
 			break;
@@ -413,6 +416,8 @@ public class BuildProductsPage extends WizardPage implements IConfigurationBuild
 				scaleTWise.setSelection(MASK_MAX);
 				scaleTWise.setEnabled(false);
 				labelTWise.setText(LABEL_INTERACTIONS + "2");
+			} else if (selection.equals(GREEDY)) {
+				scaleTWise.setMaximum(GREEDY_MAX);
 			}
 		} else {
 			scaleTWise.setEnabled(false);
@@ -25,6 +25,7 @@ import static de.ovgu.featureide.fm.core.localization.StringTable.BUILD_PRODUCTS
 import static de.ovgu.featureide.fm.core.localization.StringTable.CASA;
 import static de.ovgu.featureide.fm.core.localization.StringTable.CHVATAL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.DEFAULT;
+import static de.ovgu.featureide.fm.core.localization.StringTable.GREEDY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.ICPL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 
@@ -90,7 +91,8 @@ public class BuildProductsWizard extends Wizard implements INewWizard, IConfigur
 			return ICPL;
 		}
 		final String algorithm = tWise.split("[|]")[0];
-		if (!(algorithm.equals(ICPL) || algorithm.equals(CASA) || algorithm.equals(INCLING) || algorithm.equals(CHVATAL))) {
+		if (!(algorithm.equals(ICPL) || algorithm.equals(CASA) || algorithm.equals(INCLING) || algorithm.equals(CHVATAL)
+			|| algorithm.equals(GREEDY))) {
 			// return the default algorithm if the algorithm was saved wrong
 			return ICPL;
 		}
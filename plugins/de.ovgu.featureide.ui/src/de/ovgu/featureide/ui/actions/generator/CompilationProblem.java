@@ -0,0 +1,69 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+/**
+ * An error or warning that was reported by the {@link ProductCompiler} for a source file of a product.
+ *
+ * @author FeatureIDE Team
+ */
+public class CompilationProblem {
+
+	private final String path;
+	private final int line;
+	private final boolean error;
+	private final String message;
+
+	/**
+	 * @param path the path of the source file relative to the source folder of the product
+	 * @param line the line of the problem or {@code -1} if it is unknown
+	 * @param error {@code true} for an error, {@code false} for a warning
+	 * @param message the message of the compiler
+	 */
+	public CompilationProblem(String path, int line, boolean error, String message) {
+		this.path = path;
+		this.line = line;
+		this.error = error;
+		this.message = message;
+	}
+
+	public String getPath() {
+		return path;
+	}
+
+	public int getLine() {
+		return line;
+	}
+
+	public boolean isError() {
+		return error;
+	}
+
+	public String getMessage() {
+		return message;
+	}
+
+	@Override
+	public String toString() {
+		return (error ? "ERROR " : "WARNING ") + path + ":" + line + " " + message;
+	}
+
+}
@@ -21,6 +21,7 @@
 package de.ovgu.featureide.ui.actions.generator;
 
 import static de.ovgu.featureide.fm.core.localization.StringTable.COUNTING___;
+import static de.ovgu.featureide.fm.core.localization.StringTable.GREEDY;
 import static de.ovgu.featureide.fm.core.localization.StringTable.INCLING;
 import static de.ovgu.featureide.fm.core.localization.StringTable.OF;
 import static de.ovgu.featureide.fm.core.localization.StringTable.RESTRICTION;
@@ -58,6 +59,7 @@ import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.configuration.AConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.AllConfigrationsGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.CurrentConfigurationsGenerator;
+import de.ovgu.featureide.ui.actions.generator.configuration.GreedyConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.IncLingConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.ModuleConfigurationGenerator;
 import de.ovgu.featureide.ui.actions.generator.configuration.RandConfigurationGenerator;
@@ -99,6 +101,12 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 	 */
 	String classpath = "";
 
+	/**
+	 * Compiles the products of all {@link Generator}s and reuses the class files of compilation units that are equal in several products.
+	 */
+	@CheckForNull
+	ProductCompiler productCompiler;
+
 	/**
 	 * This folder is used for compilation.
 	 */
@@ -242,6 +250,8 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 		case T_WISE:
 			if (algorithm.equals(INCLING)) {
 				configurationBuilder = new IncLingConfigurationGenerator(this, featureModel, featureProject);
+			} else if (algorithm.equals(GREEDY)) {
+				configurationBuilder = new GreedyConfigurationGenerator(this, featureModel, featureProject, t);
 			} else {
 				configurationBuilder = new SPLCAToolConfigurationGenerator(this, featureModel, featureProject, algorithm, t);
 			}
@@ -413,6 +423,7 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 				}
 			}
 			setClassPath();
+			productCompiler = JavaCompiler.createProductCompiler(classpath);
 
 			tmp = folder.getFolder(TEMPORARY_BIN_FOLDER);
 			if (!tmp.exists()) {
@@ -472,11 +483,11 @@ public class ConfigurationBuilder implements IConfigurationBuilderBasics {
 			for (final IJavaElement e : elements) {
 				final String path = e.getPath().toOSString();
 				if (e.getPath().isAbsolute()) {
-					classpath += sep + "\"" + path + "\"";
+					classpath += sep + path;
 				} else {
 					final IResource resource = e.getResource();
 					if ((resource != null) && "jar".equals(resource.getFileExtension())) {
-						classpath += sep + "\"" + resource.getLocation().toOSString() + "\"";
+						classpath += sep + resource.getLocation().toOSString();
 					} else {
 						UIPlugin.getDefault().logWarning("ClassPath element " + e.toString() + " is missing.");
 					}
@@ -20,19 +20,18 @@
  */
 package de.ovgu.featureide.ui.actions.generator;
 
-import static de.ovgu.featureide.fm.core.localization.StringTable.CANNOT_FIND_SYMBOL;
 import static de.ovgu.featureide.fm.core.localization.StringTable.COMPILER;
-import static de.ovgu.featureide.fm.core.localization.StringTable.SYMBOL;
 
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.io.StringWriter;
-import java.util.AbstractList;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
-import java.util.Scanner;
-import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.ToolProvider;
 
 import org.eclipse.core.resources.IFile;
 import org.eclipse.core.resources.IFolder;
@@ -51,6 +50,18 @@ import de.ovgu.featureide.ui.UIPlugin;
  */
 public class JavaCompiler implements IConfigurationBuilderBasics {
 
+	private static final String ECLIPSE_COMPILER = "org.eclipse.jdt.internal.compiler.tool.EclipseCompiler";
+
+	/**
+	 * The source level of the products, which is used by both compilers.
+	 */
+	private static final String SOURCE_VERSION = "1.7";
+
+	/**
+	 * The maximum number of compilation units whose class files are kept by the {@link ProductCompiler}.
+	 */
+	private static final int MAXIMUM_CACHED_UNITS = 10000;
+
 	private final Generator generator;
 
 	/**
@@ -78,176 +89,117 @@ public class JavaCompiler implements IConfigurationBuilderBasics {
 	}
 
 	/**
-	 * Compiles the given configuration.
+	 * Creates the {@link ProductCompiler} that is shared by all generators of a {@link ConfigurationBuilder}. Uses the compiler of JDT if it is available
+	 * and the compiler of the running JDK otherwise.
 	 *
-	 * @param configuration The configuration to build
-	 * @throws CoreException
+	 * @param classpath The class path of the products
+	 * @return The compiler or {@code null} if no compiler is available
 	 */
-	protected void compile(BuilderConfiguration configuration) throws CoreException {
+	static ProductCompiler createProductCompiler(String classpath) {
+		javax.tools.JavaCompiler compiler;
+		List<String> options;
 		try {
-			generator.builder.folder.getFolder(configuration.getName()).refreshLocal(IResource.DEPTH_INFINITE, null);
-		} catch (final CoreException e) {
-			UIPlugin.getDefault().logError(e);
+			compiler = (javax.tools.JavaCompiler) BatchCompiler.class.getClassLoader().loadClass(ECLIPSE_COMPILER).newInstance();
+			options = Arrays.asList("-g", "-source", SOURCE_VERSION);
+		} catch (ClassNotFoundException | InstantiationException | IllegalAccessException | ClassCastException | LinkageError e) {
+			compiler = ToolProvider.getSystemJavaCompiler();
+			options = Arrays.asList("-g", "-Xlint", "-source", SOURCE_VERSION);
 		}
-		for (final IResource file : tmp.members()) {
-			file.delete(true, null);
+		if (compiler == null) {
+			UIPlugin.getDefault().logWarning("No Java compiler available. Products are not compiled.");
+			return null;
 		}
-		compile(configuration.getName());
+		return new ProductCompiler(compiler, options, classpath, Runtime.getRuntime().availableProcessors(), MAXIMUM_CACHED_UNITS);
 	}
 
 	/**
-	 * Compiles the built configuration to create error markers. The binary files will be placed into an temporary folder.
+	 * Compiles the given configuration to create error markers. The binary files will be placed into an temporary folder.
 	 *
-	 * @param confName
+	 * @param configuration The configuration to build
+	 * @throws CoreException
 	 */
-	private void compile(String confName) {
-		final LinkedList<IFile> files = getJavaFiles(generator.builder.folder.getFolder(confName));
-		final LinkedList<String> options = new LinkedList<>();
-		for (final IFile file : files) {
-			options.add(setupPath(file));
+	protected void compile(BuilderConfiguration configuration) throws CoreException {
+		final ProductCompiler productCompiler = generator.builder.productCompiler;
+		if (productCompiler == null) {
+			return;
 		}
-		options.add("-g");
-		options.add("-Xlint");
-		options.add("-source");
-		options.add("1.7");
-		options.add("-d");
-		options.add(setupPath(tmp.getRawLocation().toOSString()));
-		options.add("-classpath");
-		options.add(generator.builder.classpath);
-
-		final String output = process(options);
-		final LinkedList<IFile> errorFiles = parseJavacOutput(output, files, confName);
-		for (final IFile file : errorFiles) {
-			generator.builder.featureProject.getComposer().postCompile(null, file);
+		final String confName = configuration.getName();
+		final IFolder productFolder = generator.builder.folder.getFolder(confName);
+		try {
+			productFolder.refreshLocal(IResource.DEPTH_INFINITE, null);
+		} catch (final CoreException e) {
+			UIPlugin.getDefault().logError(e);
 		}
-	}
-
-	/**
-	 * Adds quotation marks to the path name if it contains white spaces.
-	 */
-	private String setupPath(IFile file) {
-		return setupPath(file.getRawLocation().toOSString());
-	}
-
-	/**
-	 * Adds quotation marks to the path name if it contains white spaces.
-	 */
-	private String setupPath(String location) {
-		return location.contains(" ") ? "\"" + location + "\"" : location;
-	}
 
-	private String process(AbstractList<String> command) {
-		final StringBuilder sb = new StringBuilder();
-		for (final String string : command) {
-			sb.append(string);
-			sb.append(' ');
+		final Map<String, String> sources = new LinkedHashMap<>();
+		final Map<String, IFile> sourceFiles = new HashMap<>();
+		for (final IFile file : getJavaFiles(productFolder)) {
+			final String path = file.getFullPath().makeRelativeTo(productFolder.getFullPath()).toString();
+			try {
+				sources.put(path, new String(Files.readAllBytes(file.getLocation().toFile().toPath()), file.getCharset()));
+				sourceFiles.put(path, file);
+			} catch (final IOException e) {
+				UIPlugin.getDefault().logError(e);
+			}
 		}
 
-		String output = null;
-		try (StringWriter writer = new StringWriter()) {
-			final String params = sb.toString();
-
-			BatchCompiler.compile(params, new PrintWriter(System.out), new PrintWriter(writer), null);
-			output = writer.toString();
+		final List<CompilationProblem> problems;
+		try {
+			problems = productCompiler.compile(productFolder.getLocation().toFile(), sources, tmp.getLocation().toFile());
 		} catch (final IOException e) {
 			UIPlugin.getDefault().logError(e);
+			return;
+		} catch (final InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return;
+		}
+
+		final LinkedList<IFile> errorFiles = createMarkers(problems, sourceFiles, confName);
+		for (final IFile file : errorFiles) {
+			generator.builder.featureProject.getComposer().postCompile(null, file);
 		}
-		return output;
 	}
 
 	/**
-	 * Generates the problem markers from the given compiler output.
+	 * Generates the problem markers for the given compilation problems.
 	 *
-	 * @param output The output from the compiler
-	 * @param files The compiled files
+	 * @param problems The problems reported by the compiler
+	 * @param files The compiled files by their path relative to the product folder
 	 * @param configurationName Name of the actual configuration
-	 * @return
+	 * @return The files with problems
 	 */
-	public LinkedList<IFile> parseJavacOutput(String output, LinkedList<IFile> files, String configurationName) {
+	private LinkedList<IFile> createMarkers(List<CompilationProblem> problems, Map<String, IFile> files, String configurationName) {
 		final LinkedList<IFile> errorFiles = new LinkedList<IFile>();
-		if (output.isEmpty()) {
-			return errorFiles;
-		}
-		final TreeMap<String, IFile> sourcePaths = new TreeMap<>();
-		for (final IFile file : files) {
-			sourcePaths.put(file.getLocation().toOSString(), file);
-		}
-
-		try (Scanner scanner = new Scanner(output)) {
-			String currentLine;
-			while (scanner.hasNextLine()) {
-				currentLine = scanner.nextLine();
-				// \S*\s(\w+)\sin\s(\w:[\w,\\,.,\s]*.java)\s[(]at line (\d+)[)]
-				final Pattern pattern = Pattern.compile("\\S*\\s(\\w+)\\sin\\s(\\S.*[.]java)\\s[(]at line (\\d+)[)]");
-				final Matcher matcher = pattern.matcher(currentLine);
-				if (!matcher.find()) {
-					continue;
-				}
-				try {
-					final boolean contains = sourcePaths.containsKey(matcher.group(2));
-					if (!contains) {
-						continue;
-					}
-				} catch (final Exception e) {
-					UIPlugin.getDefault().logError(e);
-					continue;
-				}
-				final boolean warning = "WARNING".equals(matcher.group(1));
-				final IFile currentFile = sourcePaths.get(matcher.group(2));
-				final int line = Integer.parseInt(matcher.group(3));
-				// get error message in from the next lines
-				while (scanner.hasNextLine()) {
-					currentLine = scanner.nextLine();
-					final Pattern messagePattern = Pattern.compile("\\w.*");
-					final Matcher m = messagePattern.matcher(currentLine);
-					final boolean found = m.matches();
-					if (found) {
-						break;
-					}
-				}
-
-				final String errorMessage = currentLine;
-				// if (CANNOT_FIND_SYMBOL.equals(errorMessage)) {
-				// errorMessage = parseCannotFindSymbolMessage(scanner);
-				// }
-				if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
-					|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved"))
-					|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
-					continue;
-				}
-				if (!errorFiles.contains(currentFile)) {
-					errorFiles.add(currentFile);
-				}
-				IMarker newMarker;
-				newMarker = currentFile.createMarker(PROBLEM_MARKER);
+		for (final CompilationProblem problem : problems) {
+			final IFile currentFile = files.get(problem.getPath());
+			if (currentFile == null) {
+				continue;
+			}
+			final String errorMessage = problem.getMessage();
+			if (errorMessage.contains(ERROR_IGNOR_RAW_TYPE) || errorMessage.contains(ERROR_IGNOR_CAST) || errorMessage.contains(ERROR_IGNOR_SERIIZABLE)
+				|| (errorMessage.contains(ERROR_IGNOR_UNUSED_IMPORT) && !errorMessage.contains("cannot be resolved"))
+				|| errorMessage.contains(ERROR_IGNOR_DEPRECATION)) {
+				continue;
+			}
+			if (!errorFiles.contains(currentFile)) {
+				errorFiles.add(currentFile);
+			}
+			try {
+				final IMarker newMarker = currentFile.createMarker(PROBLEM_MARKER);
 				if (newMarker.exists()) {
-					newMarker.setAttribute(IMarker.LINE_NUMBER, line);
+					if (problem.getLine() > 0) {
+						newMarker.setAttribute(IMarker.LINE_NUMBER, problem.getLine());
+					}
 					newMarker.setAttribute(IMarker.MESSAGE, configurationName + " " + errorMessage);
-					newMarker.setAttribute(IMarker.SEVERITY, warning ? IMarker.SEVERITY_WARNING : IMarker.SEVERITY_ERROR);
+					newMarker.setAttribute(IMarker.SEVERITY, problem.isError() ? IMarker.SEVERITY_ERROR : IMarker.SEVERITY_WARNING);
 				}
+			} catch (final CoreException e) {
+				UIPlugin.getDefault().logError(e);
 			}
-		} catch (final CoreException e) {
-			UIPlugin.getDefault().logError(e);
 		}
-
 		return errorFiles;
 	}
 
-	@SuppressWarnings("unused")
-	private String parseCannotFindSymbolMessage(Scanner scanner) {
-		while (scanner.hasNextLine()) {
-			final String currentLine = scanner.nextLine();
-			if (currentLine.startsWith(SYMBOL)) {
-				final String[] tokens = currentLine.split(": ");
-				if (tokens.length == 2) {
-					return CANNOT_FIND_SYMBOL + ": " + tokens[1];
-				}
-				break;
-			}
-		}
-		return CANNOT_FIND_SYMBOL;
-	}
-
 	/**
 	 * Looks for all java files at the given folder.
 	 *
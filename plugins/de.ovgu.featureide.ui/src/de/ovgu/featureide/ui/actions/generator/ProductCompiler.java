@@ -0,0 +1,535 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.net.URI;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+
+/**
+ * Compiles the java sources of products and reuses the class files of compilation units that were already compiled for another product.<br/> A
+ * compilation unit is only compiled again if its content or the content of a compilation unit that it (transitively) refers to has changed. References
+ * are approximated by the identifiers of a source that are declared as type in another source of the same product. All class files taken from the cache
+ * are on the class path when the remaining compilation units are compiled. The number of parallel compilations is bounded.
+ *
+ * @author FeatureIDE Team
+ */
+public class ProductCompiler {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private static final Pattern IDENTIFIER_PATTERN = Pattern.compile("\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*");
+	private static final Pattern TYPE_DECLARATION_PATTERN =
+		Pattern.compile("\\b(?:class|interface|enum)\\s+(\\p{javaJavaIdentifierStart}\\p{javaJavaIdentifierPart}*)");
+	private static final Pattern PACKAGE_PATTERN = Pattern.compile("^\\s*package\\s+([\\p{javaJavaIdentifierPart}.]+)\\s*;", Pattern.MULTILINE);
+
+	private static final String CLASS_FILE_EXTENSION = ".class";
+
+	/**
+	 * The identifiers, declared types, and package of a source. Does not depend on the path of the source.
+	 */
+	private static final class SourceInfo {
+
+		private final String packageFolder;
+		private final Set<String> identifiers = new HashSet<>();
+		private final Set<String> declaredTypes = new HashSet<>();
+
+		public SourceInfo(String content) {
+			final Matcher packageMatcher = PACKAGE_PATTERN.matcher(content);
+			packageFolder = packageMatcher.find() ? packageMatcher.group(1).replace('.', '/') + "/" : "";
+			final Matcher typeMatcher = TYPE_DECLARATION_PATTERN.matcher(content);
+			while (typeMatcher.find()) {
+				declaredTypes.add(typeMatcher.group(1));
+			}
+			final Matcher identifierMatcher = IDENTIFIER_PATTERN.matcher(content);
+			while (identifierMatcher.find()) {
+				identifiers.add(identifierMatcher.group());
+			}
+		}
+	}
+
+	/**
+	 * A source of the product that is compiled.
+	 */
+	private static final class CompilationUnit extends SimpleJavaFileObject {
+
+		private final String path;
+		private final String content;
+		private final String hash;
+		private SourceInfo info;
+		private final List<CompilationUnit> references = new ArrayList<>();
+		private String key;
+
+		public CompilationUnit(File file, String path, String content) {
+			super(file.toURI(), Kind.SOURCE);
+			this.path = path;
+			this.content = content;
+			hash = getHash(content);
+		}
+
+		@Override
+		public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+			return content;
+		}
+	}
+
+	/**
+	 * The compilation result of a compilation unit.
+	 */
+	private static final class CachedUnit {
+
+		private final Map<String, byte[]> classFiles;
+		private final List<CompilationProblem> problems;
+
+		public CachedUnit(Map<String, byte[]> classFiles, List<CompilationProblem> problems) {
+			this.classFiles = classFiles;
+			this.problems = problems;
+		}
+	}
+
+	private static final class LRUCache<K, V> extends LinkedHashMap<K, V> {
+
+		private static final long serialVersionUID = 1L;
+
+		private final int maximumSize;
+
+		public LRUCache(int maximumSize) {
+			super(16, 0.75f, true);
+			this.maximumSize = maximumSize;
+		}
+
+		@Override
+		protected boolean removeEldestEntry(Entry<K, V> eldest) {
+			return size() > maximumSize;
+		}
+	}
+
+	private static final Comparator<CompilationUnit> PATH_COMPARATOR = new Comparator<CompilationUnit>() {
+
+		@Override
+		public int compare(CompilationUnit unit1, CompilationUnit unit2) {
+			return unit1.path.compareTo(unit2.path);
+		}
+	};
+
+	private final javax.tools.JavaCompiler compiler;
+	private final List<String> options;
+	private final String classpath;
+	private final Semaphore compilations;
+
+	private final LRUCache<String, SourceInfo> sourceInfos;
+	private final LRUCache<String, CachedUnit> cache;
+
+	private final AtomicInteger compiledUnits = new AtomicInteger();
+	private final AtomicInteger cachedUnits = new AtomicInteger();
+
+	/**
+	 * @param compiler the compiler
+	 * @param options the options that are passed to the compiler in addition to the output folder and the class path
+	 * @param classpath the class path separated by {@link File#pathSeparator}
+	 * @param maximumCompilations the maximum number of parallel compilations
+	 * @param maximumCachedUnits the maximum number of cached compilation units
+	 */
+	public ProductCompiler(javax.tools.JavaCompiler compiler, List<String> options, String classpath, int maximumCompilations, int maximumCachedUnits) {
+		this.compiler = compiler;
+		this.options = new ArrayList<>(options);
+		this.classpath = classpath;
+		compilations = new Semaphore(maximumCompilations, true);
+		sourceInfos = new LRUCache<>(maximumCachedUnits);
+		cache = new LRUCache<>(maximumCachedUnits);
+	}
+
+	/**
+	 * Compiles the sources of a product. All existing files in the output folder are removed first.
+	 *
+	 * @param sourceFolder the source folder of the product, only used to identify the sources in the messages of the compiler
+	 * @param sources maps the paths of all sources relative to the source folder (separated by '/') to their content
+	 * @param outputFolder the folder for the class files
+	 * @return the problems that were reported by the compiler
+	 * @throws IOException if the output folder cannot be written
+	 * @throws InterruptedException if the thread is interrupted while waiting for another compilation
+	 */
+	public List<CompilationProblem> compile(File sourceFolder, Map<String, String> sources, File outputFolder) throws IOException, InterruptedException {
+		final List<CompilationUnit> units = new ArrayList<>(sources.size());
+		for (final Entry<String, String> entry : sources.entrySet()) {
+			units.add(new CompilationUnit(new File(sourceFolder, entry.getKey()), entry.getKey(), entry.getValue()));
+		}
+		computeKeys(units);
+
+		deleteContent(outputFolder);
+		final List<CompilationProblem> problems = new ArrayList<>();
+		final List<CompilationUnit> missingUnits = new ArrayList<>();
+		final Set<String> cachedClassFiles = new HashSet<>();
+		for (final CompilationUnit unit : units) {
+			final CachedUnit cachedUnit;
+			synchronized (cache) {
+				cachedUnit = cache.get(unit.key);
+			}
+			if (cachedUnit == null) {
+				missingUnits.add(unit);
+			} else {
+				problems.addAll(cachedUnit.problems);
+				for (final Entry<String, byte[]> classFile : cachedUnit.classFiles.entrySet()) {
+					final File file = new File(outputFolder, classFile.getKey());
+					file.getParentFile().mkdirs();
+					Files.write(file.toPath(), classFile.getValue());
+					cachedClassFiles.add(classFile.getKey());
+				}
+			}
+		}
+		cachedUnits.addAndGet(units.size() - missingUnits.size());
+		if (!missingUnits.isEmpty()) {
+			compiledUnits.addAndGet(missingUnits.size());
+			compile(missingUnits, outputFolder, cachedClassFiles, problems);
+		}
+		return problems;
+	}
+
+	private void compile(List<CompilationUnit> units, File outputFolder, Set<String> cachedClassFiles, List<CompilationProblem> problems)
+			throws InterruptedException, IOException {
+		final String outputPath = outputFolder.getAbsolutePath();
+		final List<String> arguments = new ArrayList<>(options);
+		arguments.add("-d");
+		arguments.add(outputPath);
+		arguments.add("-classpath");
+		arguments.add(classpath.isEmpty() ? outputPath : outputPath + File.pathSeparator + classpath);
+
+		final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+		compilations.acquire();
+		try {
+			compiler.getTask(null, null, diagnostics, arguments, null, units).call();
+		} finally {
+			compilations.release();
+		}
+
+		final Map<URI, CompilationUnit> unitsByURI = new HashMap<>();
+		final Map<CompilationUnit, List<CompilationProblem>> unitProblems = new HashMap<>();
+		for (final CompilationUnit unit : units) {
+			unitsByURI.put(unit.toUri(), unit);
+			unitProblems.put(unit, new ArrayList<CompilationProblem>());
+		}
+		boolean containsError = false;
+		for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+			final boolean error;
+			switch (diagnostic.getKind()) {
+			case ERROR:
+				error = true;
+				break;
+			case WARNING:
+			case MANDATORY_WARNING:
+				error = false;
+				break;
+			default:
+				continue;
+			}
+			containsError |= error;
+			final CompilationUnit unit = getUnit(diagnostic.getSource(), unitsByURI);
+			if (unit != null) {
+				final CompilationProblem problem =
+					new CompilationProblem(unit.path, (int) diagnostic.getLineNumber(), error, diagnostic.getMessage(Locale.ENGLISH));
+				unitProblems.get(unit).add(problem);
+				problems.add(problem);
+			}
+		}
+
+		// class files of erroneous products are not reused
+		if (!containsError) {
+			cacheClassFiles(units, outputFolder, cachedClassFiles, unitProblems);
+		}
+	}
+
+	/**
+	 * Assigns the compiled class files to their compilation units using the source file attribute and puts them into the cache.
+	 */
+	private void cacheClassFiles(List<CompilationUnit> units, File outputFolder, Set<String> cachedClassFiles,
+			Map<CompilationUnit, List<CompilationProblem>> unitProblems) throws IOException {
+		final Map<String, CompilationUnit> unitsBySourceFile = new HashMap<>();
+		final Map<CompilationUnit, Map<String, byte[]>> unitClassFiles = new HashMap<>();
+		for (final CompilationUnit unit : units) {
+			final String sourceFile = unit.info.packageFolder + unit.path.substring(unit.path.lastIndexOf('/') + 1);
+			if (unitsBySourceFile.put(sourceFile, unit) != null) {
+				return;
+			}
+			unitClassFiles.put(unit, new HashMap<String, byte[]>());
+		}
+
+		final List<String> classFiles = new ArrayList<>();
+		listClassFiles(outputFolder, "", classFiles);
+		for (final String classFile : classFiles) {
+			if (cachedClassFiles.contains(classFile)) {
+				continue;
+			}
+			final byte[] content = Files.readAllBytes(new File(outputFolder, classFile).toPath());
+			final String sourceFile = getSourceFile(content);
+			final CompilationUnit unit =
+				(sourceFile == null) ? null : unitsBySourceFile.get(classFile.substring(0, classFile.lastIndexOf('/') + 1) + sourceFile);
+			if (unit == null) {
+				return;
+			}
+			unitClassFiles.get(unit).put(classFile, content);
+		}
+
+		synchronized (cache) {
+			for (final CompilationUnit unit : units) {
+				cache.put(unit.key, new CachedUnit(unitClassFiles.get(unit), unitProblems.get(unit)));
+			}
+		}
+	}
+
+	private static CompilationUnit getUnit(JavaFileObject source, Map<URI, CompilationUnit> unitsByURI) {
+		if (source == null) {
+			return null;
+		}
+		final CompilationUnit unit = unitsByURI.get(source.toUri());
+		if (unit != null) {
+			return unit;
+		}
+		// some compilers report copies of the file objects
+		final String name = source.getName().replace('\\', '/');
+		for (final CompilationUnit otherUnit : unitsByURI.values()) {
+			if (name.endsWith("/" + otherUnit.path)) {
+				return otherUnit;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Computes the cache key of each compilation unit from its own path and content and the paths and contents of all compilation units it (transitively)
+	 * refers to.
+	 */
+	private void computeKeys(List<CompilationUnit> units) {
+		final Map<String, List<CompilationUnit>> declarations = new HashMap<>();
+		for (final CompilationUnit unit : units) {
+			unit.info = getSourceInfo(unit);
+			for (final String type : unit.info.declaredTypes) {
+				List<CompilationUnit> declaringUnits = declarations.get(type);
+				if (declaringUnits == null) {
+					declaringUnits = new ArrayList<>(1);
+					declarations.put(type, declaringUnits);
+				}
+				declaringUnits.add(unit);
+			}
+		}
+		for (final CompilationUnit unit : units) {
+			for (final String identifier : unit.info.identifiers) {
+				final List<CompilationUnit> declaringUnits = declarations.get(identifier);
+				if (declaringUnits != null) {
+					for (final CompilationUnit declaringUnit : declaringUnits) {
+						if (declaringUnit != unit) {
+							unit.references.add(declaringUnit);
+						}
+					}
+				}
+			}
+		}
+
+		for (final CompilationUnit unit : units) {
+			final Set<CompilationUnit> visited = new HashSet<>();
+			final ArrayDeque<CompilationUnit> queue = new ArrayDeque<>();
+			visited.add(unit);
+			queue.add(unit);
+			while (!queue.isEmpty()) {
+				for (final CompilationUnit reference : queue.poll().references) {
+					if (visited.add(reference)) {
+						queue.add(reference);
+					}
+				}
+			}
+			visited.remove(unit);
+			final List<CompilationUnit> dependencies = new ArrayList<>(visited);
+			Collections.sort(dependencies, PATH_COMPARATOR);
+
+			final StringBuilder sb = new StringBuilder();
+			sb.append(unit.path).append('\0').append(unit.hash);
+			for (final CompilationUnit dependency : dependencies) {
+				sb.append('\0').append(dependency.path).append('\0').append(dependency.hash);
+			}
+			unit.key = getHash(sb.toString());
+		}
+	}
+
+	private SourceInfo getSourceInfo(CompilationUnit unit) {
+		synchronized (sourceInfos) {
+			final SourceInfo info = sourceInfos.get(unit.hash);
+			if (info != null) {
+				return info;
+			}
+		}
+		final SourceInfo info = new SourceInfo(unit.content);
+		synchronized (sourceInfos) {
+			sourceInfos.put(unit.hash, info);
+		}
+		return info;
+	}
+
+	private static String getHash(String content) {
+		try {
+			final MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			return new BigInteger(1, digest.digest(content.getBytes(CHARSET))).toString(16);
+		} catch (final NoSuchAlgorithmException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Reads the name of the source file from the attributes of a class file.
+	 *
+	 * @param classFile the content of the class file
+	 * @return the name of the source file without its folder or {@code null} if the class file does not contain it
+	 */
+	static String getSourceFile(byte[] classFile) {
+		try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(classFile))) {
+			if (in.readInt() != 0xCAFEBABE) {
+				return null;
+			}
+			in.skipBytes(4);
+			final int constantPoolCount = in.readUnsignedShort();
+			final String[] utf8Constants = new String[constantPoolCount];
+			for (int i = 1; i < constantPoolCount; i++) {
+				final int tag = in.readUnsignedByte();
+				switch (tag) {
+				case 1:
+					utf8Constants[i] = in.readUTF();
+					break;
+				case 7:
+				case 8:
+				case 16:
+				case 19:
+				case 20:
+					in.skipBytes(2);
+					break;
+				case 15:
+					in.skipBytes(3);
+					break;
+				case 3:
+				case 4:
+				case 9:
+				case 10:
+				case 11:
+				case 12:
+				case 17:
+				case 18:
+					in.skipBytes(4);
+					break;
+				case 5:
+				case 6:
+					in.skipBytes(8);
+					i++;
+					break;
+				default:
+					return null;
+				}
+			}
+			in.skipBytes(6);
+			in.skipBytes(2 * in.readUnsignedShort());
+			// fields and methods
+			for (int i = 0; i < 2; i++) {
+				for (int memberCount = in.readUnsignedShort(); memberCount > 0; memberCount--) {
+					in.skipBytes(6);
+					for (int attributeCount = in.readUnsignedShort(); attributeCount > 0; attributeCount--) {
+						in.skipBytes(2);
+						in.skipBytes(in.readInt());
+					}
+				}
+			}
+			for (int attributeCount = in.readUnsignedShort(); attributeCount > 0; attributeCount--) {
+				final String name = utf8Constants[in.readUnsignedShort()];
+				final int length = in.readInt();
+				if ("SourceFile".equals(name)) {
+					return utf8Constants[in.readUnsignedShort()];
+				}
+				in.skipBytes(length);
+			}
+		} catch (final IOException | IndexOutOfBoundsException e) {
+			// malformed class file
+		}
+		return null;
+	}
+
+	private static void listClassFiles(File folder, String prefix, List<String> classFiles) {
+		final File[] files = folder.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				if (file.isDirectory()) {
+					listClassFiles(file, prefix + file.getName() + "/", classFiles);
+				} else if (file.getName().endsWith(CLASS_FILE_EXTENSION)) {
+					classFiles.add(prefix + file.getName());
+				}
+			}
+		}
+	}
+
+	private static void deleteContent(File folder) {
+		final File[] files = folder.listFiles();
+		if (files != null) {
+			for (final File file : files) {
+				if (file.isDirectory()) {
+					deleteContent(file);
+				}
+				file.delete();
+			}
+		}
+	}
+
+	/**
+	 * @return the number of compilation units that were compiled
+	 */
+	public int getCompiledUnits() {
+		return compiledUnits.get();
+	}
+
+	/**
+	 * @return the number of compilation units whose class files were taken from the cache
+	 */
+	public int getCachedUnits() {
+		return cachedUnits.get();
+	}
+
+}
@@ -20,15 +20,16 @@
  */
 package de.ovgu.featureide.ui.actions.generator.configuration;
 
-import java.util.LinkedList;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.eclipse.core.runtime.jobs.Job;
-import org.prop4j.And;
-import org.prop4j.Literal;
 import org.prop4j.Node;
-import org.prop4j.SatSolver;
+import org.prop4j.analyses.EnumerateSolutionAnalysis;
+import org.prop4j.solver.SatInstance;
 
 import de.ovgu.featureide.core.IFeatureProject;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureStructure;
@@ -36,8 +37,8 @@ import de.ovgu.featureide.fm.core.configuration.Configuration;
 import de.ovgu.featureide.fm.core.configuration.Selection;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
 import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
-import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
 import de.ovgu.featureide.fm.core.filter.AbstractFeatureFilter;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
 import de.ovgu.featureide.fm.core.job.IRunner;
 import de.ovgu.featureide.fm.core.job.LongRunningMethod;
 import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
@@ -49,7 +50,8 @@ import de.ovgu.featureide.ui.actions.generator.ConfigurationBuilder;
 import de.ovgu.featureide.ui.actions.generator.IConfigurationBuilderBasics;
 
 /**
- * Configuration generator that creates all configurations of the feature model.<br> Exploits the structure of the feature model.
+ * Configuration generator that creates all configurations of the feature model.<br> The selectable features are assigned in the order of the feature tree
+ * using a single incremental solver (see {@link EnumerateSolutionAnalysis}).
  *
  * @author Jens Meinicke
  */
@@ -79,9 +81,6 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 		number.schedule();
 	}
 
-	private Node rootNode;
-	private LinkedList<Node> children;
-
 	/**
 	 * The max size of <code>>configurations</code>
 	 */
@@ -90,7 +89,9 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 	@Override
 	public Void execute(IMonitor monitor) throws Exception {
 		try {
-			buildAll(featureModel.getStructure().getRoot().getFeature(), monitor);
+			buildAll(monitor);
+		} catch (final MethodCancelException e) {
+			cancelGenerationJobs();
 		} finally {
 			number.cancel();
 		}
@@ -98,250 +99,72 @@ public class AllConfigrationsGenerator extends AConfigurationGenerator {
 	}
 
 	/**
-	 * Builds all possible valid configurations for the feature project.<br> Iterates through the structure of the feature model and ignores constraints, to get
-	 * a linear expenditure.<br> After collecting a configurations the satsolver tests its validity.<br> Then the found configuration will be build into the
-	 * folder for all valid products.
+	 * Builds all possible valid configurations for the feature project.<br> Every valid combination of selectable features is enumerated exactly once by
+	 * one incremental solver. Hidden features do not distinguish configurations, they are only selected if the selectable features imply them.<br> The
+	 * found configurations are passed to the builder as soon as they are found. If the builder has enough configurations in its buffer, the enumeration
+	 * waits.
 	 *
-	 * @param root The root feature of the feature model
 	 * @param monitor
 	 */
-	private void buildAll(IFeature root, IMonitor monitor) {
-		final LinkedList<IFeature> selectedFeatures2 = new LinkedList<IFeature>();
-		selectedFeatures2.add(root);
-		rootNode = AdvancedNodeCreator.createNodes(featureModel, new AbstractFeatureFilter(), CNFType.Compact, ModelType.All, true);
-		children = new LinkedList<Node>();
-		build(root, "", selectedFeatures2, monitor);
-	}
-
-	// TODO use intermediate function of monitor object instead of producer-consumer pattern
-	private void build(IFeature currentFeature, String selected, LinkedList<IFeature> selectedFeatures2, IMonitor monitor) {
-		try {
-			monitor.checkCancel();
-		} catch (final MethodCancelException e) {
-			number.cancel();
-			cancelGenerationJobs();
-			return;
-		}
-		if (confs >= maxConfigs()) {
-			return;
-		}
-
-		if (featureModel.getConstraintCount() > 0) {
-			children.clear();
-			for (final String feature : selected.split("\"")) {
-				children.add(new Literal(feature, true));
-			}
-			try {
-				if (!(new SatSolver(new And(rootNode.clone(), new And(children)), 1000)).isSatisfiable()) {
-					return;
-				}
-			} catch (final org.sat4j.specs.TimeoutException e) {
-				UIPlugin.getDefault().logError(e);
-			}
-		}
-
-		if (selectedFeatures2.isEmpty()) {
-			configuration.resetValues();
-
-			if (!selected.isEmpty()) {
-				for (final String feature : selected.split("\"")) {
-					configuration.setManual((feature), Selection.SELECTED);
-				}
-
-			}
-			if (configuration.isValid()) {
-				final LinkedList<String> selectedFeatures3 = new LinkedList<String>();
-				for (final String f : selected.split("\"")) {
-					if (!"".equals(f)) {
-						selectedFeatures3.add(f);
-					}
-				}
-				for (final IFeature f : configuration.getSelectedFeatures()) {
-					if (isSelectable(f)) {
-						if (!selectedFeatures3.contains(f.getName())) {
-							return;
-						}
-					}
-				}
-				for (final String f : selectedFeatures3) {
-					if (configuration.getSelectablefeature(f).getSelection() != Selection.SELECTED) {
-						return;
-					}
-				}
-
-				addConfiguration(configuration);
-
-				if (builder.sorter.getBufferSize() >= maxBufferSize) {
-					synchronized (this) {
-						while (builder.sorter.getBufferSize() >= maxBufferSize) {
-							try {
-								monitor.checkCancel();
-							} catch (final MethodCancelException e) {
-								number.cancel();
-								return;
-							}
-							try {
-								wait(1000);
-							} catch (final InterruptedException e) {
-								UIPlugin.getDefault().logError(e);
-							}
-						}
-					}
-				}
-			}
-			return;
-		}
-
-		if (currentFeature.getStructure().isAnd()) {
-			buildAnd(selected, selectedFeatures2, monitor);
-		} else if (currentFeature.getStructure().isOr()) {
-			buildOr(selected, selectedFeatures2, monitor);
-		} else if (currentFeature.getStructure().isAlternative()) {
-			buildAlternative(selected, selectedFeatures2, monitor);
-		}
-	}
-
-	private void buildAlternative(String selected, LinkedList<IFeature> selectedFeatures2, IMonitor monitor) {
-		IFeature currentFeature = selectedFeatures2.getFirst();
-		selectedFeatures2.removeFirst();
-		LinkedList<IFeature> selectedFeatures3 = new LinkedList<IFeature>();
-		if (isSelectable(currentFeature)) {
-			if ("".equals(selected)) {
-				selected = currentFeature.getName();
+	private void buildAll(final IMonitor monitor) throws Exception {
+		final AdvancedNodeCreator advancedNodeCreator = new AdvancedNodeCreator(featureModel, new AbstractFeatureFilter());
+		advancedNodeCreator.setCnfType(CNFType.Regular);
+		advancedNodeCreator.setIncludeBooleanValues(false);
+		final Node cnf = advancedNodeCreator.createNodes();
+
+		final List<String> concreteFeatures = new ArrayList<>();
+		for (final IFeature feature : FeatureUtils.getFeaturesPreorder(featureModel)) {
+			if (feature.getStructure().isConcrete()) {
+				concreteFeatures.add(feature.getName());
+			}
+		}
+		final SatInstance satInstance = new SatInstance(cnf, concreteFeatures);
+
+		final List<Integer> selectableVariables = new ArrayList<>();
+		final List<Integer> hiddenVariables = new ArrayList<>();
+		for (final String featureName : concreteFeatures) {
+			final int variable = satInstance.getVariable(featureName);
+			if (isSelectable(featureModel.getFeature(featureName))) {
+				selectableVariables.add(variable);
 			} else {
-				selected += "\"" + currentFeature.getName();
+				hiddenVariables.add(variable);
 			}
 		}
-		if (!currentFeature.getStructure().hasChildren()) {
-			if (selectedFeatures2.isEmpty()) {
-				currentFeature = null;
-			} else {
-				currentFeature = selectedFeatures2.getFirst();
-			}
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(currentFeature, selected, selectedFeatures3, monitor);
-			return;
-		}
-		for (int i2 = 0; i2 < getChildren(currentFeature).size(); i2++) {
-			selectedFeatures3 = new LinkedList<IFeature>();
-			selectedFeatures3.add(getChildren(currentFeature).get(i2));
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(selectedFeatures3.isEmpty() ? null : selectedFeatures3.getFirst(), selected, selectedFeatures3, monitor);
-		}
-	}
 
-	private void buildOr(String selected, LinkedList<IFeature> selectedFeatures2, IMonitor monitor) {
-		IFeature currentFeature = selectedFeatures2.getFirst();
-		selectedFeatures2.removeFirst();
-		LinkedList<IFeature> selectedFeatures3 = new LinkedList<IFeature>();
-		if (isSelectable(currentFeature)) {
-			if ("".equals(selected)) {
-				selected = currentFeature.getName();
-			} else {
-				selected += "\"" + currentFeature.getName();
-			}
-		}
-		if (!currentFeature.getStructure().hasChildren()) {
-			if (selectedFeatures2.isEmpty()) {
-				currentFeature = null;
-			} else {
-				currentFeature = selectedFeatures2.getFirst();
-			}
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(currentFeature, selected, selectedFeatures3, monitor);
-			return;
-		}
-		final LinkedList<IFeature> children2 = getChildren(currentFeature);
-		for (int i2 = (int) java.lang.Math.pow(2, children2.size()) - 1; i2 > 0; i2--) {
-			int k2 = i2;
-			selectedFeatures3 = new LinkedList<IFeature>();
-			for (int j = 0; j < children2.size(); j++) {
-				if ((k2 % 2) != 0) {
-					selectedFeatures3.add(children2.get(j));
-				}
-				k2 = k2 / 2;
-			}
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(selectedFeatures3.isEmpty() ? null : selectedFeatures3.getFirst(), selected, selectedFeatures3, monitor);
-		}
-	}
+		final EnumerateSolutionAnalysis analysis = new EnumerateSolutionAnalysis(satInstance, toArray(selectableVariables), maxConfigs());
+		analysis.setCompletedVariables(toArray(hiddenVariables));
 
-	private void buildAnd(String selected, LinkedList<IFeature> selectedFeatures2, IMonitor monitor) {
-		IFeature currentFeature = selectedFeatures2.removeFirst();
-		LinkedList<IFeature> selectedFeatures3 = new LinkedList<IFeature>();
-		if (isSelectable(currentFeature)) {
-			if ("".equals(selected)) {
-				selected = currentFeature.getName();
-			} else {
-				selected += "\"" + currentFeature.getName();
-			}
-		}
-		if (!currentFeature.getStructure().hasChildren()) {
-			if (selectedFeatures2.isEmpty()) {
-				currentFeature = null;
-			} else {
-				currentFeature = selectedFeatures2.getFirst();
-			}
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(currentFeature, selected, selectedFeatures3, monitor);
-			return;
-		}
-		int k2;
-		final LinkedList<IFeature> optionalFeatures = new LinkedList<IFeature>();
-		for (final IFeature f : getChildren(currentFeature)) {
-			if (f.getStructure().isMandatory()) {
-				selectedFeatures2.add(f);
-			} else {
-				optionalFeatures.add(f);
-			}
-		}
+		// configurations are added as soon as they are found by the analysis
+		monitor.setIntermediateFunction(new IConsumer<Object>() {
 
-		for (int i2 = 0; i2 < (int) java.lang.Math.pow(2, optionalFeatures.size()); i2++) {
-			k2 = i2;
-			selectedFeatures3 = new LinkedList<IFeature>();
-			for (int j = 0; j < optionalFeatures.size(); j++) {
-				if ((k2 % 2) != 0) {
-					selectedFeatures3.add(optionalFeatures.get(j));
+			@Override
+			public void invoke(Object object) {
+				if (object instanceof int[]) {
+					generateConfiguration(satInstance, (int[]) object);
+					builder.sorter.waitForCapacity(maxBufferSize, monitor);
 				}
-				k2 = k2 / 2;
 			}
-			selectedFeatures3.addAll(selectedFeatures2);
-			build(selectedFeatures3.isEmpty() ? null : selectedFeatures3.getFirst(), selected, selectedFeatures3, monitor);
-		}
-
+		});
+		analysis.execute(monitor);
+		builder.configurationNumber = confs;
 	}
 
-	/**
-	 * Returns all children of a feature if it is a layer or if it has a child that is concrete.
-	 *
-	 * @param currentFeature The feature
-	 * @return The children
-	 */
-	private LinkedList<IFeature> getChildren(IFeature currentFeature) {
-		final LinkedList<IFeature> children = new LinkedList<IFeature>();
-		for (final IFeatureStructure childStructure : currentFeature.getStructure().getChildren()) {
-			final IFeature child = childStructure.getFeature();
-			if (isSelectable(child) || hasLayerChild(child)) {
-				children.add(child);
+	private void generateConfiguration(SatInstance satInstance, int[] solution) {
+		configuration.resetValues();
+		for (final int literal : solution) {
+			if (literal > 0) {
+				configuration.setManual((String) satInstance.getVariableObject(literal), Selection.SELECTED);
 			}
 		}
-		return children;
+		addConfiguration(configuration);
 	}
 
-	/**
-	 * @param feature The feature
-	 * @return <code>true</code> if the feature is a layer or if it has a child that is a concrete
-	 */
-	private boolean hasLayerChild(IFeature feature) {
-		if (feature.getStructure().hasChildren()) {
-			for (final IFeatureStructure childStructure : feature.getStructure().getChildren()) {
-				final IFeature child = childStructure.getFeature();
-				if (isSelectable(child) || hasLayerChild(child)) {
-					return true;
-				}
-			}
+	private static int[] toArray(List<Integer> list) {
+		final int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
 		}
-		return false;
+		return array;
 	}
 
 	/**
@@ -26,6 +26,7 @@ import java.util.LinkedList;
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor.MethodCancelException;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
@@ -35,6 +36,11 @@ import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
  */
 public class AbstractConfigurationSorter {
 
+	/**
+	 * Time in milliseconds after which a waiting generator checks for cancellation.
+	 */
+	private static final long CANCEL_CHECK_INTERVAL = 500;
+
 	/**
 	 * This list contains all found configurations to built.<br> Use <code>getConfiguration()</code> and <code>setConfiguration(c)</code> for synchronizing.
 	 */
@@ -66,7 +72,27 @@ public class AbstractConfigurationSorter {
 		if (!sorted || configurations.isEmpty()) {
 			return null;
 		}
-		return configurations.pop();
+		final BuilderConfiguration configuration = configurations.pop();
+		notifyAll();
+		return configuration;
+	}
+
+	/**
+	 * Blocks until the buffer contains less than <code>capacity</code> configurations, so that a generator can not run arbitrarily far ahead of the
+	 * builders.<br> Does not block if the configurations are not sorted yet, because sorting requires all configurations.
+	 *
+	 * @param capacity the maximum number of buffered configurations
+	 * @param monitor the monitor of the generator, which is checked for cancellation while waiting
+	 */
+	public synchronized void waitForCapacity(int capacity, IMonitor monitor) {
+		while (sorted && (getBufferSize() >= capacity)) {
+			monitor.checkCancel();
+			try {
+				wait(CANCEL_CHECK_INTERVAL);
+			} catch (final InterruptedException e) {
+				throw new MethodCancelException();
+			}
+		}
 	}
 
 	public int getBufferSize() {
@@ -21,13 +21,12 @@
 package de.ovgu.featureide.ui.actions.generator.sorter;
 
 import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
-import java.util.HashMap;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.Map;
+import java.util.PriorityQueue;
 import java.util.Set;
 
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
@@ -37,20 +36,150 @@ import de.ovgu.featureide.ui.UIPlugin;
 import de.ovgu.featureide.ui.actions.generator.BuilderConfiguration;
 
 /**
- * Sorts Configurations by interactions they cover.
+ * Sorts Configurations by interactions they cover.<br> An interaction of up to <code>t</code> concrete features and their selection is encoded as a
+ * single <code>long</code>, or as a list of literals if there are too many concrete features for a unique encoding. Configurations are selected greedily by
+ * the number of interactions they cover additionally. The number of a configuration is only recomputed when it reaches the head of the priority queue,
+ * because it can only decrease after another configuration was selected.
  *
  * @author Jens Meinicke
+ * @author Sebastian Krieter
  */
 public class InteractionSorter extends AbstractConfigurationSorter {
 
 	private static final UIPlugin LOGGER = UIPlugin.getDefault();
 
-	private final int t;
+	/**
+	 * A configuration that is not sorted yet, together with the number of interactions that it covers additionally.
+	 */
+	private static final class Candidate implements Comparable<Candidate> {
+
+		private final BuilderConfiguration configuration;
+		private final String name;
+		private final int index;
+		private final boolean[] selection;
+
+		/**
+		 * The number of uncovered interactions at the time given by {@link #round}.
+		 */
+		private long coverage;
+		/**
+		 * The number of selected configurations at the time {@link #coverage} was computed.
+		 */
+		private int round;
+
+		Candidate(BuilderConfiguration configuration, int index, boolean[] selection) {
+			this.configuration = configuration;
+			name = configuration.getName();
+			this.index = index;
+			this.selection = selection;
+		}
+
+		@Override
+		public int compareTo(Candidate other) {
+			if (coverage != other.coverage) {
+				return (coverage > other.coverage) ? -1 : 1;
+			}
+			final int nameComparison = name.compareTo(other.name);
+			if (nameComparison != 0) {
+				return nameComparison;
+			}
+			return (index < other.index) ? -1 : ((index == other.index) ? 0 : 1);
+		}
+	}
+
+	/**
+	 * Set of primitive <code>long</code> values using open addressing.
+	 */
+	private static final class LongHashSet {
+
+		private static final long EMPTY = 0;
 
-	private final Map<BuilderConfiguration, Set<Interaction>> interactions = new HashMap<BuilderConfiguration, Set<Interaction>>();
+		private long[] table = new long[1 << 10];
+		private int size = 0;
+		private boolean containsEmpty = false;
+
+		public boolean contains(long value) {
+			if (value == EMPTY) {
+				return containsEmpty;
+			}
+			final int mask = table.length - 1;
+			for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+				final long entry = table[i];
+				if (entry == value) {
+					return true;
+				} else if (entry == EMPTY) {
+					return false;
+				}
+			}
+		}
+
+		public boolean add(long value) {
+			if (value == EMPTY) {
+				final boolean added = !containsEmpty;
+				containsEmpty = true;
+				return added;
+			}
+			if (insert(table, value)) {
+				if ((++size << 1) > table.length) {
+					final long[] newTable = new long[table.length << 1];
+					for (final long entry : table) {
+						if (entry != EMPTY) {
+							insert(newTable, entry);
+						}
+					}
+					table = newTable;
+				}
+				return true;
+			}
+			return false;
+		}
+
+		private static boolean insert(long[] table, long value) {
+			final int mask = table.length - 1;
+			for (int i = hash(value) & mask;; i = (i + 1) & mask) {
+				final long entry = table[i];
+				if (entry == value) {
+					return false;
+				} else if (entry == EMPTY) {
+					table[i] = value;
+					return true;
+				}
+			}
+		}
+
+		private static int hash(long value) {
+			final long mixed = value * 0x9E3779B97F4A7C15L;
+			return (int) (mixed ^ (mixed >>> 32));
+		}
+	}
+
+	private final int t;
 
 	private final boolean skippConfigurations;
 
+	private final PriorityQueue<Candidate> candidates = new PriorityQueue<Candidate>();
+
+	/**
+	 * The covered interactions encoded as <code>long</code> values; <code>null</code> if the encoding is not unique (see {@link #isEncodingUnique()}).
+	 */
+	private LongHashSet coveredInteractions;
+	/**
+	 * The covered interactions as lists of literals; only used if {@link #coveredInteractions} is <code>null</code>.
+	 */
+	private Set<List<Integer>> coveredInteractionLists;
+
+	/**
+	 * The literals of the current interaction; only used if {@link #coveredInteractions} is <code>null</code>.
+	 */
+	private int[] literals;
+
+	private String[] features;
+
+	/**
+	 * The base for encoding interactions. Each literal is encoded as a digit between <code>1</code> and <code>2 * features.length</code>.
+	 */
+	private long radix;
+
 	public InteractionSorter(final int t, final IFeatureModel featureModel, final boolean skippConfigurations) {
 		super(featureModel);
 		super.sorted = false;
@@ -65,6 +194,16 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 	 */
 	@Override
 	public int sort(final IMonitor monitor) {
+		features = concreteFeatures.toArray(new String[0]);
+		radix = (2L * features.length) + 1;
+		if (isEncodingUnique()) {
+			coveredInteractions = new LongHashSet();
+		} else {
+			coveredInteractionLists = new HashSet<List<Integer>>();
+			literals = new int[t];
+		}
+
+		final List<Candidate> initialCandidates = new ArrayList<Candidate>(configurations.size());
 		for (final BuilderConfiguration c : configurations) {
 			try {
 				monitor.checkCancel();
@@ -72,149 +211,173 @@ public class InteractionSorter extends AbstractConfigurationSorter {
 				configurations.clear();
 				return 0;
 			}
-			interactions.put(c, new HashSet<Interaction>(concreteFeatures.size() * (10 ^ t)));
-			getInteractions(interactions.get(c), c.getSelectedFeatureNames(), new ArrayList<String>(0), new ArrayList<String>(0), 1, null);
+			final boolean[] selection = new boolean[features.length];
+			for (int i = 0; i < features.length; i++) {
+				selection[i] = c.getSelectedFeatureNames().contains(features[i]);
+			}
+			initialCandidates.add(new Candidate(c, initialCandidates.size(), selection));
 			monitor.worked();
 		}
+		if (!initialCandidates.isEmpty()) {
+			// every configuration contains the same number of interactions
+			final long numberOfInteractions = countUncoveredInteractions(initialCandidates.get(0).selection, 0, 1, 0);
+			for (final Candidate candidate : initialCandidates) {
+				candidate.coverage = numberOfInteractions;
+			}
+		}
+		candidates.addAll(initialCandidates);
 
 		final LinkedList<BuilderConfiguration> sorted = new LinkedList<BuilderConfiguration>();
-		while (!interactions.isEmpty()) {
+		int round = 0;
+		while (!candidates.isEmpty()) {
 			try {
 				monitor.checkCancel();
 			} catch (final MethodCancelException e) {
+				candidates.clear();
 				configurations.clear();
 				return 0;
 			}
 
-			final BuilderConfiguration mostCovering = getMostCoveringConfiguration(interactions);
-			final Set<Interaction> coveredInteractions = interactions.get(mostCovering);
-			if (coveredInteractions.isEmpty()) {
+			final Candidate mostCovering = candidates.poll();
+			if (mostCovering.round != round) {
+				mostCovering.coverage = countUncoveredInteractions(mostCovering.selection, 0, 1, 0);
+				mostCovering.round = round;
+				candidates.add(mostCovering);
+				continue;
+			}
+			if (mostCovering.coverage == 0) {
+				candidates.add(mostCovering);
 				if (skippConfigurations) {
-					LOGGER.logInfo(interactions.size() + " solutions skipped because interactions are already covered!");
+					LOGGER.logInfo(candidates.size() + " solutions skipped because interactions are already covered!");
 				} else {
-					sorted.addAll(interactions.keySet());
+					final Candidate[] remaining = candidates.toArray(new Candidate[0]);
+					Arrays.sort(remaining, new Comparator<Candidate>() {
+
+						@Override
+						public int compare(Candidate c1, Candidate c2) {
+							return c1.index - c2.index;
+						}
+					});
+					for (final Candidate candidate : remaining) {
+						sorted.add(candidate.configuration);
+					}
 				}
-				interactions.clear();
+				candidates.clear();
 				break;
 			}
-			sorted.add(mostCovering);
-			interactions.remove(mostCovering);
-			for (final Set<Interaction> interaction : interactions.values()) {
-				interaction.removeAll(coveredInteractions);
-			}
+			sorted.add(mostCovering.configuration);
+			coverInteractions(mostCovering.selection, 0, 1, 0);
+			round++;
 			monitor.worked();
 		}
+		coveredInteractions = null;
+		coveredInteractionLists = null;
+		literals = null;
 		configurations = sorted;
 		return configurations.size();
 	}
 
 	@Override
 	public int getBufferSize() {
-		return interactions.size() + configurations.size();
+		return candidates.size() + configurations.size();
 	}
 
 	/**
-	 * Gets the configuration that covers the most interactions that are left.<br> Basically, the configurations with the greatest set of interactions.
+	 * Counts the interactions of one configuration that are not covered yet.
+	 *
+	 * @param selection The selection of each concrete feature in the current configuration
+	 * @param start The index of the first feature that can be added to the current interaction
+	 * @param size The size of the next interaction
+	 * @param interaction The encoded current interaction
+	 * @return the number of uncovered interactions that extend the current interaction
 	 */
-	private BuilderConfiguration getMostCoveringConfiguration(final Map<BuilderConfiguration, Set<Interaction>> interactions) {
-		BuilderConfiguration mostCovering = null;
-		int longest = -1;
-		for (final BuilderConfiguration config : interactions.keySet()) {
-			final int size = interactions.get(config).size();
-			if (size > longest) {
-				longest = size;
-				mostCovering = config;
-			} else if (size == longest) {
-				if (mostCovering.getName().compareTo(config.getName()) > 0) {
-					mostCovering = config;
-				}
+	private long countUncoveredInteractions(final boolean[] selection, final int start, final int size, final long interaction) {
+		long count = 0;
+		for (int i = start; i < features.length; i++) {
+			final long extendedInteraction = extend(interaction, i, selection[i], size);
+			if (!isCovered(extendedInteraction, size)) {
+				count++;
+			}
+			if (size < t) {
+				count += countUncoveredInteractions(selection, i + 1, size + 1, extendedInteraction);
 			}
 		}
-		return mostCovering;
+		return count;
 	}
 
 	/**
-	 * Calculate the interactions of one configuration.
+	 * Marks all interactions of one configuration as covered.
 	 *
-	 * @param interactions The set where the interactions are stored
-	 * @param configSelectedFeatures The selected feature of the current configuration
-	 * @param selectedFeatures The selected features of the current interaction
-	 * @param unselectedFeatures The unselected feature of the current interaction
-	 * @param t The current size of the interaction
-	 * @param lastFeature A marker for the last feature
+	 * @param selection The selection of each concrete feature in the current configuration
+	 * @param start The index of the first feature that can be added to the current interaction
+	 * @param size The size of the next interaction
+	 * @param interaction The encoded current interaction
 	 */
-	private void getInteractions(final Set<Interaction> interactions, final Set<String> configSelectedFeatures, final List<String> selectedFeatures,
-			final List<String> unselectedFeatures, final int t, final String lastFeature) {
-		if (t > this.t) {
-			return;
-		}
-
-		boolean marker = lastFeature == null;
-		for (final String feature : concreteFeatures) {
-			if (!marker && feature.equals(lastFeature)) {
-				// skip all features until the feature of the last iteration is found
-				marker = true;
-				continue;
+	private void coverInteractions(final boolean[] selection, final int start, final int size, final long interaction) {
+		for (int i = start; i < features.length; i++) {
+			final long extendedInteraction = extend(interaction, i, selection[i], size);
+			setCovered(extendedInteraction, size);
+			if (size < t) {
+				coverInteractions(selection, i + 1, size + 1, extendedInteraction);
 			}
-			if (marker) {
-				List<String> selected = selectedFeatures;
-				List<String> unselected = unselectedFeatures;
+		}
+	}
 
-				if (configSelectedFeatures.contains(feature)) {
-					// CASE selected
-					selected = new ArrayList<String>(t);
-					selected.addAll(selectedFeatures);
-					selected.add(feature);
-					selected = Collections.unmodifiableList(selected);
-				} else {
-					// CASE unselected
-					unselected = new ArrayList<String>(t);
-					unselected.addAll(unselectedFeatures);
-					unselected.add(feature);
-					unselected = Collections.unmodifiableList(unselected);
-				}
-				interactions.add(new Interaction(selected, unselected));
-				getInteractions(interactions, configSelectedFeatures, selected, unselected, t + 1, feature);
+	/**
+	 * Checks whether interactions can be encoded as unique <code>long</code> values, i.e., whether <code>radix^t</code> fits into a <code>long</code> (e.g.,
+	 * up to 3000 concrete features for <code>t = 5</code>).
+	 *
+	 * @return <code>true</code> if the encoding of {@link #extend(long, int, boolean, int)} is unique
+	 */
+	private boolean isEncodingUnique() {
+		long power = 1;
+		for (int i = 0; i < t; i++) {
+			if (power > (Long.MAX_VALUE / radix)) {
+				return false;
 			}
+			power *= radix;
 		}
+		return true;
 	}
 
-	private class Interaction {
-
-		private final Collection<String> selectedFeatures;
-		private final Collection<String> unselectedFeatures;
-		private final int hashCode;
-
-		/**
-		 * Represents an interaction between n selected features and m unselected features.
-		 */
-		Interaction(final Collection<String> selectedFeatures, final Collection<String> unselectedFeatures) {
-			this.selectedFeatures = selectedFeatures;
-			this.unselectedFeatures = unselectedFeatures;
+	/**
+	 * Appends a feature to an interaction. The literal is also stored in {@link #literals}, if interactions are not encoded as <code>long</code> values.
+	 *
+	 * @param interaction The encoded interaction
+	 * @param feature The index of the feature
+	 * @param selected The selection of the feature
+	 * @param size The size of the extended interaction
+	 * @return the encoded extended interaction (only unique if {@link #isEncodingUnique()} holds)
+	 */
+	private long extend(final long interaction, final int feature, final boolean selected, final int size) {
+		final int literal = (2 * feature) + (selected ? 2 : 1);
+		if (literals != null) {
+			literals[size - 1] = literal;
+		}
+		return (interaction * radix) + literal;
+	}
 
-			// TODO _Sebastian Revise Hash Function
-			int hash = 0;
-			for (final String feature : selectedFeatures) {
-				hash = (hash * 3) + feature.hashCode();
-			}
-			for (final String feature : unselectedFeatures) {
-				hash += (hash * 7) + feature.hashCode();
-			}
-			hashCode = hash;
+	private boolean isCovered(final long interaction, final int size) {
+		if (coveredInteractions != null) {
+			return coveredInteractions.contains(interaction);
 		}
+		return coveredInteractionLists.contains(getInteractionList(size));
+	}
 
-		@Override
-		public boolean equals(final Object obj) {
-			if (obj.hashCode() != hashCode()) {
-				return false;
-			}
-			return selectedFeatures.equals(((Interaction) obj).selectedFeatures) && unselectedFeatures.equals(((Interaction) obj).unselectedFeatures);
+	private void setCovered(final long interaction, final int size) {
+		if (coveredInteractions != null) {
+			coveredInteractions.add(interaction);
+		} else {
+			coveredInteractionLists.add(getInteractionList(size));
 		}
+	}
 
-		@Override
-		public int hashCode() {
-			return hashCode;
+	private List<Integer> getInteractionList(final int size) {
+		final List<Integer> interaction = new ArrayList<Integer>(size);
+		for (int i = 0; i < size; i++) {
+			interaction.add(literals[i]);
 		}
+		return interaction;
 	}
 
 }
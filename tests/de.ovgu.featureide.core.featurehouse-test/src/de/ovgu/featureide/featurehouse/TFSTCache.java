@@ -0,0 +1,207 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.featurehouse;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import composer.CmdLineInterpreter;
+import composer.FSTGenComposer;
+
+/**
+ * Tests for {@link FSTCache} and {@link CompositionWorkerPool}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFSTCache {
+
+	private static final Charset CHARSET = Charset.forName("UTF-8");
+
+	private Path directory;
+	private Path sourceDirectory;
+	private Path configurationFile;
+
+	@Before
+	public void createFeatureModules() throws IOException {
+		directory = Files.createTempDirectory("fstcache");
+		sourceDirectory = directory.resolve("features");
+		write(sourceDirectory.resolve("Base/Main.java"),
+				"public class Main {\n\tpublic int value() {\n\t\treturn 1;\n\t}\n\tpublic static void main(String[] args) {}\n}\n");
+		write(sourceDirectory.resolve("Double/Main.java"), "public class Main {\n\tpublic int value() {\n\t\treturn 2 * original();\n\t}\n}\n");
+		write(sourceDirectory.resolve("Double/Util.java"), "public class Util {\n\tpublic static int one() {\n\t\treturn 1;\n\t}\n}\n");
+		configurationFile = directory.resolve("product.config");
+		write(configurationFile, "Base\nDouble\n");
+	}
+
+	@After
+	public void deleteFiles() throws IOException {
+		Files.walkFileTree(directory, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				Files.delete(file);
+				return FileVisitResult.CONTINUE;
+			}
+
+			@Override
+			public FileVisitResult postVisitDirectory(Path dir, IOException exc) throws IOException {
+				Files.delete(dir);
+				return FileVisitResult.CONTINUE;
+			}
+		});
+	}
+
+	private static void write(Path file, String content) throws IOException {
+		Files.createDirectories(file.getParent());
+		Files.write(file, content.getBytes(CHARSET));
+	}
+
+	private String[] getArguments(Path outputDirectory) {
+		return new String[] { CmdLineInterpreter.INPUT_OPTION_EQUATIONFILE, configurationFile.toString(), CmdLineInterpreter.INPUT_OPTION_BASE_DIRECTORY,
+			sourceDirectory.toString(), CmdLineInterpreter.INPUT_OPTION_OUTPUT_DIRECTORY, outputDirectory.toString() + "/",
+			CmdLineInterpreter.INPUT_OPTION_CONTRACT_STYLE, "none", CmdLineInterpreter.INPUT_OPTION_NO_CONFIG_OUTPUT_DIR };
+	}
+
+	private static Map<String, String> readFiles(final Path root) throws IOException {
+		final Map<String, String> files = new TreeMap<>();
+		Files.walkFileTree(root, new SimpleFileVisitor<Path>() {
+
+			@Override
+			public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+				files.put(root.relativize(file).toString(), new String(Files.readAllBytes(file), CHARSET));
+				return FileVisitResult.CONTINUE;
+			}
+		});
+		return files;
+	}
+
+	private Map<String, String> compose(FSTCache cache, String outputName) throws IOException {
+		final Path outputDirectory = directory.resolve(outputName);
+		final FSTGenComposer composer = new FSTGenComposer(false);
+		if (cache != null) {
+			cache.install(composer, "none");
+		}
+		composer.run(getArguments(outputDirectory));
+		return readFiles(outputDirectory);
+	}
+
+	@Test
+	public void testCachedComposition() throws IOException {
+		final Map<String, String> expected = compose(null, "plain");
+		assertFalse(expected.isEmpty());
+		assertTrue(expected.get("Main.java").contains("value__wrappee__Base"));
+
+		final FSTCache cache = new FSTCache();
+		assertEquals(expected, compose(cache, "cached1"));
+		assertEquals(3, cache.size());
+		assertEquals(expected, compose(cache, "cached2"));
+		assertEquals(3, cache.size());
+
+		// a changed file is parsed again
+		write(sourceDirectory.resolve("Double/Util.java"), "public class Util {\n\tpublic static int two() {\n\t\treturn 2;\n\t}\n}\n");
+		assertTrue(compose(cache, "cached3").get("Util.java").contains("two()"));
+		assertEquals(4, cache.size());
+	}
+
+	/**
+	 * Worker process that never answers.
+	 */
+	public static class SilentWorker {
+
+		public static void main(String[] args) throws InterruptedException {
+			Thread.sleep(Long.MAX_VALUE);
+		}
+	}
+
+	private static List<String> getWorkerCommand(Class<?> mainClass) {
+		return Arrays.asList(System.getProperty("java.home") + File.separator + "bin" + File.separator + "java", "-cp", System.getProperty("java.class.path"),
+				mainClass.getName());
+	}
+
+	@Test
+	public void testWorkerPool() throws Exception {
+		final Map<String, String> expected = compose(null, "plain");
+
+		final List<String> command = getWorkerCommand(CompositionWorker.class);
+		final CompositionWorkerPool pool = new CompositionWorkerPool(command, 2);
+		try {
+			for (int i = 0; i < 3; i++) {
+				final Path outputDirectory = directory.resolve("worker" + i);
+				assertTrue(pool.compose(getArguments(outputDirectory)).isEmpty());
+				assertEquals(expected, readFiles(outputDirectory));
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testWorkerParseError() throws Exception {
+		final Path brokenFile = sourceDirectory.resolve("Double/Util.java");
+		write(brokenFile, "public class Util {\n\tpublic static int one() {\n\t\treturn 1\n\t}\n}\n");
+
+		final CompositionWorkerPool pool = new CompositionWorkerPool(getWorkerCommand(CompositionWorker.class), 1);
+		try {
+			final List<CompositionProblem> problems = pool.compose(getArguments(directory.resolve("worker")));
+			assertFalse(problems.isEmpty());
+			final CompositionProblem problem = problems.get(0);
+			assertEquals(CompositionProblem.Type.PARSE, problem.getType());
+			assertEquals(brokenFile.toFile().getAbsolutePath(), problem.getFile());
+			assertEquals(4, problem.getLine());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(timeout = 60000)
+	public void testWorkerTimeout() throws Exception {
+		final CompositionWorker worker = new CompositionWorker(getWorkerCommand(SilentWorker.class), 1000);
+		try {
+			worker.compose(getArguments(directory.resolve("worker")));
+			fail();
+		} catch (final InterruptedIOException e) {
+			// the worker process was terminated
+		} finally {
+			worker.close();
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.analyses.AtomicSetAnalysis;
+import org.prop4j.analyses.CoreDeadAnalysis;
+import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.PairWiseConfigurationGenerator;
+
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Benchmark for the analyses of feature models. As a single execution of an analysis may take several seconds for larger models, each iteration
+ * measures exactly one execution.
+ *
+ * @author FeatureIDE Team
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BAnalyses {
+
+	/**
+	 * The maximal number of configurations that are computed by {@link #pairWiseConfigurations(FeatureModelState)}.
+	 */
+	private static final int MAX_CONFIGURATIONS = 100;
+
+	@Benchmark
+	public HashMap<Object, Object> featureModelAnalysis(FeatureModelState state) throws Exception {
+		return new FeatureModelAnalysis(state.featureModel).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public int[] coreDeadAnalysis(FeatureModelState state) throws Exception {
+		return new CoreDeadAnalysis(state.satInstance).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public List<int[]> atomicSetAnalysis(FeatureModelState state) throws Exception {
+		return new AtomicSetAnalysis(state.satInstance).execute(new NullMonitor());
+	}
+
+	@Benchmark
+	public List<List<String>> pairWiseConfigurations(FeatureModelState state) throws Exception {
+		return new PairWiseConfigurationGenerator(state.satInstance, MAX_CONFIGURATIONS).execute(new NullMonitor());
+	}
+
+}
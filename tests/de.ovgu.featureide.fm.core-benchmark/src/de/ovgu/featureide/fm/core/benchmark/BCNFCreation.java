@@ -0,0 +1,76 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.Node;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Benchmark for the transformation of feature models into conjunctive normal form with the {@link AdvancedNodeCreator}.
+ *
+ * @author FeatureIDE Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BCNFCreation {
+
+	@Benchmark
+	public Node createCNF(FeatureModelState state) {
+		return AdvancedNodeCreator.createCNF(state.featureModel);
+	}
+
+	@Benchmark
+	public Node createRegularCNF(FeatureModelState state) {
+		return AdvancedNodeCreator.createRegularCNF(state.featureModel);
+	}
+
+	@Benchmark
+	public Node createTseitinCNF(FeatureModelState state) {
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(state.featureModel);
+		nodeCreator.setCnfType(CNFType.Tseitin);
+		nodeCreator.setModelType(ModelType.All);
+		nodeCreator.setIncludeBooleanValues(false);
+		return nodeCreator.createNodes();
+	}
+
+	@Benchmark
+	public SatInstance createSatInstance(FeatureModelState state) {
+		return new SatInstance(state.cnf, FeatureUtils.getFeatureNamesPreorder(state.featureModel));
+	}
+
+}
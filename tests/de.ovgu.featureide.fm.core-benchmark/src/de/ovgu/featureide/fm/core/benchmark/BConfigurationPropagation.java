@@ -0,0 +1,104 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.PropagationSession;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Benchmark for the propagation of configurations, i.e., the computation of features that are implicitly selected or deselected.
+ *
+ * @author FeatureIDE Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BConfigurationPropagation {
+
+	/**
+	 * The number of decisions that are propagated in one invocation of {@link #propagateDecisions(PropagationState, Blackhole)}.
+	 */
+	private static final int NUMBER_OF_DECISIONS = 10;
+
+	@State(Scope.Benchmark)
+	public static class PropagationState {
+
+		public Configuration configuration;
+		public PropagationSession session;
+
+		/**
+		 * A sequence of growing partial assignments that simulates a user, who selects and deselects features one after another.
+		 */
+		public int[][] decisions;
+
+		@Setup(Level.Trial)
+		public void setup(FeatureModelState state) {
+			configuration = new Configuration(state.featureModel);
+			session = new PropagationSession(state.satInstance);
+
+			final Random random = new Random(0);
+			final int numberOfVariables = state.satInstance.getNumberOfVariables();
+			decisions = new int[NUMBER_OF_DECISIONS][];
+			int[] assumptions = new int[0];
+			for (int i = 0; i < NUMBER_OF_DECISIONS; i++) {
+				final int var = random.nextInt(numberOfVariables) + 1;
+				assumptions = Arrays.copyOf(assumptions, assumptions.length + 1);
+				assumptions[assumptions.length - 1] = random.nextBoolean() ? var : -var;
+				decisions[i] = assumptions;
+			}
+		}
+	}
+
+	@Benchmark
+	public void updateConfiguration(PropagationState state) {
+		state.configuration.resetValues();
+		LongRunningWrapper.runMethod(state.configuration.getPropagator().update());
+	}
+
+	@Benchmark
+	public void propagateDecisions(PropagationState state, Blackhole blackhole) {
+		state.session.reset();
+		for (final int[] assumptions : state.decisions) {
+			blackhole.consume(state.session.propagate(assumptions, null));
+		}
+	}
+
+}
@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.editing.cnf.Clause;
+import de.ovgu.featureide.fm.core.editing.remove.FeatureRemover;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Benchmark for slicing feature models, i.e., removing a random subset of features from the CNF with the {@link FeatureRemover}.
+ *
+ * @author FeatureIDE Team
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BSlicing {
+
+	@State(Scope.Benchmark)
+	public static class SlicingState {
+
+		/**
+		 * The percentage of features that are removed.
+		 */
+		@Param({ "10", "50" })
+		public int removedFeatures;
+
+		public List<String> features;
+
+		@Setup(Level.Trial)
+		public void setup(FeatureModelState state) {
+			final List<String> allFeatures = new ArrayList<>(FeatureUtils.getFeatureNamesList(state.featureModel));
+			Collections.shuffle(allFeatures, new Random(0));
+			features = new ArrayList<>(allFeatures.subList(0, (allFeatures.size() * removedFeatures) / 100));
+		}
+	}
+
+	@Benchmark
+	public List<? extends Clause> slice(FeatureModelState state, SlicingState slicingState) throws Exception {
+		return new FeatureRemover(state.cnf, slicingState.features, false, true).execute(new NullMonitor());
+	}
+
+}
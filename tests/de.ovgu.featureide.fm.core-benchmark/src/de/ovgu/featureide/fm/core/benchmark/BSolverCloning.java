@@ -0,0 +1,76 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.prop4j.solver.BasicSolver;
+import org.sat4j.specs.ContradictionException;
+
+/**
+ * Benchmark for creating and cloning {@link BasicSolver solvers} from the clause arena of a {@link org.prop4j.solver.SatInstance SatInstance}.
+ *
+ * @author FeatureIDE Team
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class BSolverCloning {
+
+	/**
+	 * Provides a solver for the model of a {@link FeatureModelState}.
+	 */
+	@State(Scope.Benchmark)
+	public static class SolverState {
+
+		public BasicSolver solver;
+
+		@Setup(Level.Trial)
+		public void setup(FeatureModelState state) throws ContradictionException {
+			solver = new BasicSolver(state.satInstance);
+		}
+
+	}
+
+	@Benchmark
+	public BasicSolver createSolver(FeatureModelState state) throws ContradictionException {
+		return new BasicSolver(state.satInstance);
+	}
+
+	@Benchmark
+	public BasicSolver cloneSolver(SolverState state) {
+		return state.solver.clone();
+	}
+
+}
@@ -0,0 +1,91 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.benchmark;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.prop4j.Node;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Provides a feature model from one of the model corpora of the repository together with its CNF and {@link SatInstance}.<br/>
+ * Models are specified relative to the corpus folder, i.e., {@code benchmarkFeatureModels/...} refers to the benchmark models of the test fragment
+ * and {@code featuremodels/...} to the example models in the root directory. The root directory can be set with the system property
+ * {@value #ROOT_PROPERTY}.
+ *
+ * @author FeatureIDE Team
+ */
+@State(Scope.Benchmark)
+public class FeatureModelState {
+
+	public static final String ROOT_PROPERTY = "featureide.root";
+
+	private static final String BENCHMARK_FEATURE_MODEL_PATH = "benchmarkFeatureModels/";
+	private static final String TEST_SOURCE_PATH = "tests/de.ovgu.featureide.fm.core-test/src/";
+
+	@Param({ "featuremodels/BerkeleyDB/model.xml", "featuremodels/Violet/model.xml", "featuremodels/E-Shop/model.xml",
+		"benchmarkFeatureModels/200-100.xml", "benchmarkFeatureModels/500-101.xml", "benchmarkFeatureModels/1000-100.xml" })
+	public String model;
+
+	public String source;
+	public IFeatureModel featureModel;
+	public Node cnf;
+	public SatInstance satInstance;
+
+	@Setup(Level.Trial)
+	public void setup() throws IOException {
+		source = new String(Files.readAllBytes(getPath(model)), StandardCharsets.UTF_8);
+		featureModel = readFeatureModel(source);
+		cnf = AdvancedNodeCreator.createRegularCNF(featureModel);
+		satInstance = new SatInstance(cnf, FeatureUtils.getFeatureNamesPreorder(featureModel));
+	}
+
+	public static Path getPath(String model) {
+		final Path root = Paths.get(System.getProperty(ROOT_PROPERTY, "../.."));
+		return model.startsWith(BENCHMARK_FEATURE_MODEL_PATH) ? root.resolve(TEST_SOURCE_PATH + model) : root.resolve(model);
+	}
+
+	public static IFeatureModel readFeatureModel(CharSequence source) {
+		final IFeatureModel featureModel = FMFactoryManager.getEmptyFeatureModel();
+		final ProblemList problems = new XmlFeatureModelFormat().read(featureModel, source);
+		if (problems.containsError()) {
+			throw new IllegalStateException(problems.getErrors().toString());
+		}
+		return featureModel;
+	}
+
+}
@@ -22,7 +22,9 @@ package de.ovgu.featureide.fm.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.LinkedList;
 
@@ -30,12 +32,15 @@ import org.junit.Test;
 import org.prop4j.Implies;
 import org.prop4j.Literal;
 import org.prop4j.Node;
+import org.prop4j.Or;
 
 import de.ovgu.featureide.fm.core.base.FeatureUtils;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
 import de.ovgu.featureide.fm.core.base.IFeatureModelFactory;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
 import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
 
 /**
@@ -125,4 +130,47 @@ public class TFeatureModel {
 		}
 	}
 
+	@Test
+	public void relevantConstraints() {
+		final IFeatureModel fm = factory.createFeatureModel();
+		final IFeature root = factory.createFeature(fm, "root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		final IFeature a = factory.createFeature(fm, "A");
+		final IFeature b = factory.createFeature(fm, "B");
+		final IFeature c = factory.createFeature(fm, "C");
+		FeatureUtils.addChild(root, a);
+		FeatureUtils.addChild(root, b);
+		FeatureUtils.addChild(root, c);
+
+		final IConstraint constraint1 = factory.createConstraint(fm, new Implies(new Literal("A"), new Literal("B")));
+		final IConstraint constraint2 = factory.createConstraint(fm, new Or(new Literal("B"), new Literal("C"), new Literal("B")));
+		fm.addConstraint(constraint1);
+		assertEquals(Arrays.asList(constraint1), fm.getRelevantConstraints(b));
+
+		fm.addConstraint(constraint2);
+		assertEquals(Arrays.asList(constraint1), a.getStructure().getRelevantConstraints());
+		assertEquals(Arrays.asList(constraint1, constraint2), fm.getRelevantConstraints(b));
+		assertEquals(Arrays.asList(constraint2), fm.getRelevantConstraints(c));
+		assertTrue(fm.getRelevantConstraints(root).isEmpty());
+
+		fm.removeConstraint(constraint1);
+		assertTrue(fm.getRelevantConstraints(a).isEmpty());
+		assertEquals(Arrays.asList(constraint2), fm.getRelevantConstraints(b));
+
+		constraint2.setNode(new Implies(new Literal("root"), new Literal("C")));
+		fm.fireEvent(new FeatureIDEEvent(constraint2, EventType.CONSTRAINT_MODIFY));
+		assertTrue(fm.getRelevantConstraints(b).isEmpty());
+		assertEquals(Arrays.asList(constraint2), fm.getRelevantConstraints(root));
+
+		fm.getRenamingsManager().renameFeature("C", "D");
+		assertEquals(Arrays.asList(constraint2), fm.getRelevantConstraints(c));
+		assertTrue(fm.getRelevantConstraints(fm.getFeature("root")).contains(constraint2));
+
+		fm.setConstraints(Arrays.asList(constraint1));
+		assertEquals(Arrays.asList(constraint1), fm.getRelevantConstraints(a));
+		assertTrue(fm.getRelevantConstraints(c).isEmpty());
+		assertEquals("\u2022 A \u21D2 B ", FeatureUtils.getRelevantConstraintsString(a));
+	}
+
 }
@@ -22,6 +22,9 @@ package de.ovgu.featureide.fm.core;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
@@ -29,11 +32,14 @@ import java.io.FileFilter;
 import java.util.HashMap;
 
 import org.junit.Test;
+import org.prop4j.Literal;
 
 import de.ovgu.featureide.Commons;
 import de.ovgu.featureide.fm.core.base.IConstraint;
 import de.ovgu.featureide.fm.core.base.IFeature;
 import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.explanations.fm.DeadFeatureExplanation;
 import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
 
 /**
@@ -287,4 +293,24 @@ public class TFeatureModelAnalyzer {
 		assertTrue(FM4_F1.getProperty().getFeatureStatus() == FeatureStatus.INDETERMINATE_HIDDEN);
 	}
 
+	@Test
+	public void TExplanationsAfterUnseenChange() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		// modifications without events are only detected by the incremental analysis
+		fm.getAnalyser().calculateIncrementally = true;
+		final IFeature feature = fm.getFeature("Bluetooth");
+		final IConstraint constraint = FMFactoryManager.getFactory(fm).createConstraint(fm, new Literal(feature.getName(), false));
+		fm.addConstraint(constraint);
+		fm.getAnalyser().analyzeFeatureModel(null);
+		assertTrue(fm.getAnalyser().getCachedDeadFeatures().contains(feature));
+
+		final DeadFeatureExplanation explanation = fm.getAnalyser().getDeadFeatureExplanation(feature);
+		assertNotNull(explanation);
+		assertSame(explanation, fm.getAnalyser().getDeadFeatureExplanation(feature));
+
+		// modify the feature model without firing an event
+		fm.removeConstraint(constraint);
+		assertNotSame(explanation, fm.getAnalyser().getDeadFeatureExplanation(feature));
+	}
+
 }
@@ -0,0 +1,206 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.io.FileFilter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.analyses.FeatureModelAnalysis;
+import org.prop4j.analyses.FeatureModelAnalysis.ChangeType;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureStructure;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the incremental analysis of {@link FeatureModelAnalyzer} by comparing it to a complete analysis after each change.
+ *
+ * @author FeatureIDE Team
+ */
+public class TIncrementalFeatureModelAnalysis {
+
+	protected static File MODEL_FILE_FOLDER = Commons.getRemoteOrLocalFolder("analyzefeaturemodels/");
+
+	private static final FileFilter filter = new FileFilter() {
+
+		@Override
+		public boolean accept(File pathname) {
+			return pathname.getName().endsWith(".xml");
+		}
+	};
+
+	private static List<IFeatureModel> loadModels() {
+		final List<IFeatureModel> models = new ArrayList<>();
+		for (final File f : MODEL_FILE_FOLDER.listFiles(filter)) {
+			final IFeatureModel fm = FeatureModelManager.load(f.toPath()).getObject();
+			assertNotNull(f.getName(), fm);
+			fm.getAnalyser().calculateIncrementally = true;
+			models.add(fm);
+		}
+		return models;
+	}
+
+	private static void assertSameResult(IFeatureModel fm, HashMap<Object, Object> incrementalResult) {
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		final List<IFeature> core = new ArrayList<>(analyzer.getCachedCoreFeatures());
+		final List<IFeature> dead = new ArrayList<>(analyzer.getCachedDeadFeatures());
+		final List<IFeature> falseOptional = new ArrayList<>(analyzer.getCachedFalseOptionalFeatures());
+		final boolean valid = analyzer.valid();
+
+		final FeatureModelAnalysis analysis = new FeatureModelAnalysis(fm);
+		final HashMap<Object, Object> completeResult = new HashMap<>(LongRunningWrapper.runMethod(analysis));
+
+		final String name = fm.getSourceFile() != null ? fm.getSourceFile().toString() : "";
+		assertEquals(name, analysis.isValid(), valid);
+		assertEquals(name, new HashSet<>(analysis.getCoreFeatures()), new HashSet<>(core));
+		assertEquals(name, new HashSet<>(analysis.getDeadFeatures()), new HashSet<>(dead));
+		assertEquals(name, new HashSet<>(analysis.getFalseOptionalFeatures()), new HashSet<>(falseOptional));
+		assertEquals(name, completeResult, incrementalResult);
+	}
+
+	private static HashMap<Object, Object> analyze(IFeatureModel fm) {
+		final HashMap<Object, Object> result = fm.getAnalyser().analyzeFeatureModel(null);
+		assertNotNull(result);
+		return new HashMap<>(result);
+	}
+
+	@Test
+	public void testRemoveAndAddConstraints() {
+		for (final IFeatureModel fm : loadModels()) {
+			analyze(fm);
+			for (final IConstraint constraint : new ArrayList<>(fm.getConstraints())) {
+				final int index = fm.getConstraintIndex(constraint);
+				fm.removeConstraint(constraint);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_DELETE, constraint, null));
+				assertSameResult(fm, analyze(fm));
+
+				fm.addConstraint(constraint, index);
+				fm.fireEvent(new FeatureIDEEvent(fm, EventType.CONSTRAINT_ADD, null, constraint));
+				assertSameResult(fm, analyze(fm));
+			}
+		}
+	}
+
+	@Test
+	public void testToggleMandatory() {
+		for (final IFeatureModel fm : loadModels()) {
+			analyze(fm);
+			for (final IFeature feature : fm.getFeatures()) {
+				final IFeatureStructure structure = feature.getStructure();
+				if (!structure.isRoot()) {
+					structure.setMandatory(!structure.isMandatorySet());
+					fm.fireEvent(new FeatureIDEEvent(feature, EventType.MANDATORY_CHANGED));
+					assertSameResult(fm, analyze(fm));
+
+					structure.setMandatory(!structure.isMandatorySet());
+					fm.fireEvent(new FeatureIDEEvent(feature, EventType.MANDATORY_CHANGED));
+					assertSameResult(fm, analyze(fm));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnchangedModel() {
+		for (final IFeatureModel fm : loadModels()) {
+			analyze(fm);
+			fm.fireEvent(new FeatureIDEEvent(fm, EventType.HIDDEN_CHANGED));
+			assertSameResult(fm, analyze(fm));
+		}
+	}
+
+	@Test
+	public void testUnseenChange() {
+		for (final IFeatureModel fm : loadModels()) {
+			analyze(fm);
+			final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+			if (!analyzer.valid()) {
+				continue;
+			}
+			for (final IFeature feature : fm.getFeatures()) {
+				if (!feature.getStructure().isRoot() && !analyzer.getCachedCoreFeatures().contains(feature)
+					&& !analyzer.getCachedDeadFeatures().contains(feature)) {
+					// modify the feature model without firing an event
+					fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, new Literal(feature.getName(), false)));
+					assertSameResult(fm, analyze(fm));
+					assertTrue(analyzer.getCachedDeadFeatures().contains(feature));
+					break;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testUnseenChangeBeforeEvent() {
+		for (final IFeatureModel fm : loadModels()) {
+			analyze(fm);
+			final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+			if (!analyzer.valid()) {
+				continue;
+			}
+			for (final IFeature feature : fm.getFeatures()) {
+				if (!feature.getStructure().isRoot() && !analyzer.getCachedCoreFeatures().contains(feature)
+					&& !analyzer.getCachedDeadFeatures().contains(feature)) {
+					// modify the feature model without firing an event, followed by an event that does not change the formula
+					fm.addConstraint(FMFactoryManager.getFactory(fm).createConstraint(fm, new Literal(feature.getName(), false)));
+					fm.fireEvent(new FeatureIDEEvent(feature, EventType.FEATURE_MODIFY));
+					assertSameResult(fm, analyze(fm));
+					assertTrue(analyzer.getCachedDeadFeatures().contains(feature));
+					break;
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testNotIncrementalByDefault() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		assertFalse(fm.getAnalyser().calculateIncrementally);
+	}
+
+	@Test
+	public void testCombineChanges() {
+		assertEquals(ChangeType.STRENGTHENED, ChangeType.NONE.combine(ChangeType.STRENGTHENED));
+		assertEquals(ChangeType.WEAKENED, ChangeType.WEAKENED.combine(ChangeType.NONE));
+		assertEquals(ChangeType.WEAKENED, ChangeType.WEAKENED.combine(ChangeType.WEAKENED));
+		assertEquals(ChangeType.UNKNOWN, ChangeType.STRENGTHENED.combine(ChangeType.WEAKENED));
+		assertEquals(ChangeType.UNKNOWN, ChangeType.NONE.combine(ChangeType.UNKNOWN));
+	}
+
+}
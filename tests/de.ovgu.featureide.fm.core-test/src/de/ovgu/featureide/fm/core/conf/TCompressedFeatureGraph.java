@@ -0,0 +1,191 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.conf;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.explain.solvers.SatSolver;
+import org.prop4j.explain.solvers.impl.sat4j.Sat4jSatSolverFactory;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link CompressedFeatureGraph}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TCompressedFeatureGraph {
+
+	private static final int SIZE = 40;
+
+	private static final byte[] EDGE_TYPES = { AFeatureGraph.EDGE_NONE, AFeatureGraph.EDGE_00Q, AFeatureGraph.EDGE_00, AFeatureGraph.EDGE_01Q,
+		AFeatureGraph.EDGE_01, AFeatureGraph.EDGE_10Q, AFeatureGraph.EDGE_10, AFeatureGraph.EDGE_11Q, AFeatureGraph.EDGE_11 };
+
+	private static int[] createIndex(int size) {
+		final int[] index = new int[size];
+		for (int i = 0; i < size; i++) {
+			index[i] = i;
+		}
+		return index;
+	}
+
+	/**
+	 * Applies the same random edges to a {@link MatrixFeatureGraph} and a {@link CompressedFeatureGraph}. Conflicting strong edges are skipped.
+	 */
+	private static void fillRandom(IFeatureGraph expected, IFeatureGraph actual, long seed, int count) {
+		final Random random = new Random(seed);
+		for (int i = 0; i < count; i++) {
+			final int from = random.nextInt(SIZE);
+			final int to = random.nextInt(SIZE);
+			final byte edgeType = EDGE_TYPES[random.nextInt(EDGE_TYPES.length)];
+			final byte oldEdge = expected.getEdge(from, to);
+			if (((edgeType == AFeatureGraph.EDGE_00) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_01))
+				|| ((edgeType == AFeatureGraph.EDGE_01) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_00))
+				|| ((edgeType == AFeatureGraph.EDGE_10) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_11))
+				|| ((edgeType == AFeatureGraph.EDGE_11) && AFeatureGraph.isEdge(oldEdge, AFeatureGraph.EDGE_10))) {
+				continue;
+			}
+			assertEquals(expected.setEdge(from, to, edgeType), actual.setEdge(from, to, edgeType));
+		}
+	}
+
+	private static void assertSameEdges(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		for (int from = 0; from < expected.getSize(); from++) {
+			for (int to = 0; to < expected.getSize(); to++) {
+				assertEquals(from + " -> " + to, expected.getEdge(from, to), actual.getEdge(from, to));
+				assertEquals(expected.getValue(from, to, true), actual.getValue(from, to, true));
+				assertEquals(expected.getValue(from, to, false), actual.getValue(from, to, false));
+				assertEquals(expected.getNextNeighbor(from, to), actual.getNextNeighbor(from, to));
+			}
+		}
+	}
+
+	@Test
+	public void testSetEdge() {
+		final MatrixFeatureGraph expected = new MatrixFeatureGraph(null, createIndex(SIZE));
+		final CompressedFeatureGraph actual = new CompressedFeatureGraph(null, createIndex(SIZE));
+		fillRandom(expected, actual, 0, 5000);
+		assertSameEdges(expected, actual);
+
+		actual.trim();
+		assertSameEdges(expected, actual);
+
+		fillRandom(expected, actual, 1, 2000);
+		assertSameEdges(expected, actual);
+	}
+
+	@Test
+	public void testCopyValues() throws Exception {
+		final MatrixFeatureGraph expected = new MatrixFeatureGraph(null, createIndex(SIZE));
+		final CompressedFeatureGraph actual = new CompressedFeatureGraph(null, createIndex(SIZE));
+		fillRandom(expected, actual, 2, 3000);
+
+		final CompressedFeatureGraph copyOfMatrix = new CompressedFeatureGraph();
+		copyOfMatrix.copyValues(expected);
+		assertSameEdges(expected, copyOfMatrix);
+
+		final ByteArrayOutputStream byteOut = new ByteArrayOutputStream();
+		try (ObjectOutputStream out = new ObjectOutputStream(byteOut)) {
+			out.writeObject(actual);
+		}
+		final CompressedFeatureGraph copyOfSerialized = new CompressedFeatureGraph();
+		try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(byteOut.toByteArray()))) {
+			copyOfSerialized.copyValues((IFeatureGraph) in.readObject());
+		}
+		assertSameEdges(expected, copyOfSerialized);
+	}
+
+	@Test
+	public void testIsImplied() {
+		final CompressedFeatureGraph graph = new CompressedFeatureGraph(null, createIndex(5));
+		// 0 -> 1 -> 2 -> 0 (cycle), 2 -> !3, !3 -> 4
+		graph.setEdge(0, 1, AFeatureGraph.EDGE_11);
+		graph.setEdge(1, 2, AFeatureGraph.EDGE_11);
+		graph.setEdge(2, 0, AFeatureGraph.EDGE_11);
+		graph.setEdge(2, 3, AFeatureGraph.EDGE_10);
+		graph.setEdge(3, 4, AFeatureGraph.EDGE_01);
+		graph.setEdge(4, 0, AFeatureGraph.EDGE_11Q);
+
+		assertTrue(graph.isImplied(0, true, 2, true));
+		assertTrue(graph.isImplied(2, true, 1, true));
+		assertTrue(graph.isImplied(1, true, 3, false));
+		assertTrue(graph.isImplied(0, true, 4, true));
+		assertFalse(graph.isImplied(0, false, 4, true));
+		assertFalse(graph.isImplied(4, true, 0, true));
+		assertFalse(graph.isImplied(3, false, 0, true));
+
+		graph.setEdge(3, 4, AFeatureGraph.EDGE_NONE);
+		assertFalse(graph.isImplied(0, true, 4, true));
+		assertTrue(graph.isImplied(0, true, 3, false));
+	}
+
+	@Test
+	public void testFGBuilder() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final SatInstance satInstance =
+			new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+		final CompressedFeatureGraph graph = (CompressedFeatureGraph) new FGBuilder(satInstance).analyze(new NullMonitor());
+		final int[] index = graph.getIndex();
+
+		for (int x = 0; x < index.length; x++) {
+			if (index[x] < 0) {
+				continue;
+			}
+			for (int y = 0; y < index.length; y++) {
+				if ((x == y) || (index[y] < 0)) {
+					continue;
+				}
+				for (final boolean xSelected : new boolean[] { true, false }) {
+					for (final boolean ySelected : new boolean[] { true, false }) {
+						final SatSolver solver = new Sat4jSatSolverFactory().getSatSolver();
+						solver.addFormula(satInstance.getCnf());
+						solver.addAssumption(satInstance.getVariableObject(x + 1), xSelected);
+						solver.addAssumption(satInstance.getVariableObject(y + 1), !ySelected);
+						final boolean implied = !solver.isSatisfiable();
+
+						final byte value = graph.getValue(index[x], index[y], xSelected);
+						final byte strongValue = ySelected ? AFeatureGraph.VALUE_1 : AFeatureGraph.VALUE_0;
+						assertEquals(x + " -> " + y, implied, value == strongValue);
+						assertEquals(x + " -> " + y, implied, graph.isImplied(index[x], xSelected, index[y], ySelected));
+					}
+				}
+			}
+		}
+	}
+
+}
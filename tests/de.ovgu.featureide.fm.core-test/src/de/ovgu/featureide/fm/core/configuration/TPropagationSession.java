@@ -0,0 +1,83 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.configuration;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.analyses.ConditionallyCoreDeadAnalysis;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests the incremental propagation of the {@link PropagationSession}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TPropagationSession {
+
+	private static int[] propagateFromScratch(SatInstance satInstance, int[] assumptions) {
+		final ConditionallyCoreDeadAnalysis analysis = new ConditionallyCoreDeadAnalysis(satInstance);
+		analysis.setAssumptions(assumptions);
+		return sort(LongRunningWrapper.runMethod(analysis));
+	}
+
+	private static int[] sort(int[] literals) {
+		if (literals != null) {
+			Arrays.sort(literals);
+		}
+		return literals;
+	}
+
+	@Test
+	public void testIncrementalPropagation() {
+		final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final SatInstance satInstance = new SatInstance(AdvancedNodeCreator.createRegularCNF(featureModel),
+				Functional.mapToStringList(featureModel.getFeatures()));
+		final PropagationSession session = new PropagationSession(satInstance);
+		final Random random = new Random(0);
+
+		for (int run = 0; run < 10; run++) {
+			int[] assumptions = new int[0];
+			for (int step = 0; step < 8; step++) {
+				if ((assumptions.length > 0) && (random.nextInt(4) == 0)) {
+					assumptions = Arrays.copyOf(assumptions, assumptions.length - 1);
+				} else {
+					final int var = random.nextInt(satInstance.getNumberOfVariables()) + 1;
+					assumptions = Arrays.copyOf(assumptions, assumptions.length + 1);
+					assumptions[assumptions.length - 1] = random.nextBoolean() ? var : -var;
+				}
+				final int[] expected = propagateFromScratch(satInstance, assumptions);
+				assertArrayEquals(Arrays.toString(assumptions), expected, sort(session.propagate(assumptions, null)));
+			}
+			session.reset();
+		}
+	}
+
+}
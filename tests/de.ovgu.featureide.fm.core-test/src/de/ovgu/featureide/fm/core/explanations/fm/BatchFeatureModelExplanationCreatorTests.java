@@ -0,0 +1,139 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.explanations.fm;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.ConstraintAttribute;
+import de.ovgu.featureide.fm.core.FeatureModelAnalyzer;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IFeatureModelElement;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link BatchFeatureModelExplanationCreator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class BatchFeatureModelExplanationCreatorTests {
+
+	private static List<IConstraint> getRedundantConstraints(IFeatureModel fm) {
+		final List<IConstraint> redundantConstraints = new ArrayList<>();
+		for (final IConstraint constraint : fm.getConstraints()) {
+			if (constraint.getConstraintAttribute() == ConstraintAttribute.REDUNDANT) {
+				redundantConstraints.add(constraint);
+			}
+		}
+		return redundantConstraints;
+	}
+
+	private static boolean isValid(FeatureModelExplanation<?> explanation) {
+		final Node node = new And(explanation.toNode(), new Not(explanation.getImplication()));
+		try {
+			return !new SatSolver(node, 1000).isSatisfiable();
+		} catch (final TimeoutException e) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	@Test
+	public void testCar() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+		final List<IFeature> deadFeatures = analyzer.getCachedDeadFeatures();
+		final List<IFeature> falseOptionalFeatures = new ArrayList<>(analyzer.getCachedFalseOptionalFeatures());
+		final List<IConstraint> redundantConstraints = getRedundantConstraints(fm);
+		assertFalse(deadFeatures.isEmpty());
+		assertFalse(falseOptionalFeatures.isEmpty());
+		assertFalse(redundantConstraints.isEmpty());
+
+		for (int threads = 1; threads <= 4; threads++) {
+			final BatchFeatureModelExplanationCreator batch = new BatchFeatureModelExplanationCreator(fm);
+			batch.setNumberOfThreads(threads);
+			batch.addDeadFeatures(deadFeatures);
+			batch.addFalseOptionalFeatures(falseOptionalFeatures);
+			batch.addRedundantConstraints(redundantConstraints);
+			final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations = LongRunningWrapper.runMethod(batch, new NullMonitor());
+			assertNotNull(explanations);
+			assertEquals(deadFeatures.size() + falseOptionalFeatures.size() + redundantConstraints.size(), explanations.size());
+			for (final IFeature feature : deadFeatures) {
+				assertTrue(explanations.get(feature) instanceof DeadFeatureExplanation);
+				assertTrue(isValid(explanations.get(feature)));
+			}
+			for (final IFeature feature : falseOptionalFeatures) {
+				assertTrue(explanations.get(feature) instanceof FalseOptionalFeatureExplanation);
+				assertTrue(isValid(explanations.get(feature)));
+			}
+			for (final IConstraint constraint : redundantConstraints) {
+				assertTrue(explanations.get(constraint) instanceof RedundantConstraintExplanation);
+				assertTrue(isValid(explanations.get(constraint)));
+			}
+		}
+	}
+
+	@Test
+	public void testAnalyzerCache() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelAnalyzer analyzer = fm.getAnalyser();
+		analyzer.analyzeFeatureModel(null);
+		assertTrue(analyzer.createExplanations(null));
+		for (final IFeature feature : analyzer.getCachedDeadFeatures()) {
+			final DeadFeatureExplanation explanation = analyzer.getDeadFeatureExplanation(feature);
+			assertNotNull(explanation);
+			assertSame(explanation, analyzer.getDeadFeatureExplanation(feature));
+		}
+		for (final IConstraint constraint : getRedundantConstraints(fm)) {
+			final RedundantConstraintExplanation explanation = analyzer.getRedundantConstraintExplanation(constraint);
+			assertNotNull(explanation);
+			assertTrue(isValid(explanation));
+		}
+	}
+
+	@Test
+	public void testEmpty() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final Map<IFeatureModelElement, FeatureModelExplanation<?>> explanations =
+			LongRunningWrapper.runMethod(new BatchFeatureModelExplanationCreator(fm), new NullMonitor());
+		assertNotNull(explanations);
+		assertTrue(explanations.isEmpty());
+	}
+
+}
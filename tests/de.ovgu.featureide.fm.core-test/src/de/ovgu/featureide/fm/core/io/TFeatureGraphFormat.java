@@ -0,0 +1,233 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.prop4j.analyses.FGBuilder;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.conf.CompressedFeatureGraph;
+import de.ovgu.featureide.fm.core.conf.ConfigurationFG;
+import de.ovgu.featureide.fm.core.conf.IFeatureGraph;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.FileSystem.IFileSystem;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link FeatureGraphFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFeatureGraphFormat {
+
+	private static class MemoryFileSystem implements IFileSystem {
+
+		private final Map<Path, byte[]> files = new HashMap<>();
+
+		@Override
+		public void write(Path path, byte[] content) throws IOException {
+			files.put(path, content.clone());
+		}
+
+		@Override
+		public void append(Path path, byte[] content) throws IOException {
+			throw new UnsupportedOperationException();
+		}
+
+		@Override
+		public byte[] read(Path path) throws IOException {
+			final byte[] content = files.get(path);
+			if (content == null) {
+				throw new NoSuchFileException(path.toString());
+			}
+			return content.clone();
+		}
+
+		@Override
+		public void mkDir(Path path) throws IOException {}
+
+		@Override
+		public void delete(Path path) throws IOException {
+			files.remove(path);
+		}
+
+		@Override
+		public boolean exists(Path path) {
+			return files.containsKey(path);
+		}
+	}
+
+	private static SatInstance createSatInstance(IFeatureModel fm) {
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), Functional.mapToList(fm.getFeatures(), FeatureUtils.GET_FEATURE_NAME));
+	}
+
+	private static IFeatureGraph createFeatureGraph(IFeatureModel fm) throws Exception {
+		return new FGBuilder(createSatInstance(fm)).analyze(new NullMonitor());
+	}
+
+	private static void assertSameGraph(IFeatureGraph expected, IFeatureGraph actual) {
+		assertEquals(expected.getSize(), actual.getSize());
+		assertEquals(expected.getIndex().length, actual.getIndex().length);
+		for (int i = 0; i < expected.getIndex().length; i++) {
+			assertEquals(expected.getIndex()[i], actual.getIndex()[i]);
+		}
+		for (int from = 0; from < expected.getSize(); from++) {
+			for (int to = 0; to < expected.getSize(); to++) {
+				assertEquals(from + " -> " + to, expected.getEdge(from, to), actual.getEdge(from, to));
+			}
+		}
+	}
+
+	@Test
+	public void testReadWriteFile() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final IFeatureGraph featureGraph = createFeatureGraph(fm);
+
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			assertFalse(FeatureGraphFormat.write(path, featureGraph).containsError());
+
+			final SatInstance satInstance = createSatInstance(fm);
+			final IFeatureGraph readGraph = new CompressedFeatureGraph();
+			assertFalse(FeatureGraphFormat.read(path, readGraph, satInstance).containsError());
+			assertSameGraph(featureGraph, readGraph);
+			assertSame(satInstance, readGraph.getSatInstance());
+
+			final IFeatureGraph loadedGraph = ConfigurationFG.loadFeatureGraph(fm, path);
+			assertNotNull(loadedGraph);
+			assertSameGraph(featureGraph, loadedGraph);
+			assertEquals(featureGraph.getFeatureIndex("Carbody"), loadedGraph.getFeatureIndex("Carbody"));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testModelMismatch() throws Exception {
+		final IFeatureGraph featureGraph = createFeatureGraph(Commons.loadTestFeatureModelFromFile("car.xml"));
+
+		final Path path = Files.createTempFile("model", ".fg");
+		try {
+			FeatureGraphFormat.write(path, featureGraph);
+			final IFeatureModel otherFm = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+			assertTrue(FeatureGraphFormat.read(path, new CompressedFeatureGraph(), createSatInstance(otherFm)).containsError());
+			assertNull(ConfigurationFG.loadFeatureGraph(otherFm, path));
+
+			Files.write(path, new byte[] { 1, 2, 3, 4, 5 });
+			assertTrue(FeatureGraphFormat.read(path, new CompressedFeatureGraph(), null).containsError());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testFileSystem() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final IFeatureGraph featureGraph = createFeatureGraph(fm);
+
+		final IFileSystem fileSystem = FileSystem.INSTANCE;
+		FileSystem.INSTANCE = new MemoryFileSystem();
+		try {
+			final Path path = Paths.get("memory", "model.fg");
+			assertFalse(FeatureGraphFormat.write(path, featureGraph).containsError());
+			assertTrue(FileSystem.exists(path));
+			assertFalse(Files.exists(path));
+
+			final IFeatureGraph readGraph = new CompressedFeatureGraph();
+			assertFalse(FeatureGraphFormat.read(path, readGraph, createSatInstance(fm)).containsError());
+			assertSameGraph(featureGraph, readGraph);
+		} finally {
+			FileSystem.INSTANCE = fileSystem;
+		}
+	}
+
+	@Test
+	public void testReadWriteString() throws Exception {
+		final IFeatureGraph featureGraph = createFeatureGraph(Commons.loadTestFeatureModelFromFile("car.xml"));
+
+		final FeatureGraphFormat format = new FeatureGraphFormat();
+		final IFeatureGraph readGraph = new CompressedFeatureGraph();
+		assertFalse(format.read(readGraph, format.write(featureGraph)).containsError());
+		assertSameGraph(featureGraph, readGraph);
+	}
+
+	private static void assertCorrupt(FeatureGraphFormat format, byte[] content, int position, int value) {
+		final ByteBuffer buffer = ByteBuffer.wrap(Arrays.copyOf(content, content.length));
+		buffer.putInt(position, value);
+		final ProblemList problems = format.read(new CompressedFeatureGraph(), new String(buffer.array(), StandardCharsets.ISO_8859_1));
+		assertTrue(problems.containsError());
+		assertEquals("Corrupt feature graph file", problems.getErrors().get(0).getMessage());
+	}
+
+	@Test
+	public void testCorruptFile() throws Exception {
+		final IFeatureGraph featureGraph = createFeatureGraph(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final FeatureGraphFormat format = new FeatureGraphFormat();
+		final byte[] content = format.write(featureGraph).getBytes(StandardCharsets.ISO_8859_1);
+
+		// determine the positions of the stored values
+		final ByteBuffer buffer = ByteBuffer.wrap(content);
+		final int numberOfVariables = buffer.getInt(16);
+		buffer.position(20);
+		for (int i = 0; i < numberOfVariables; i++) {
+			final int nameLength = buffer.getInt();
+			buffer.position(buffer.position() + nameLength);
+		}
+		final int indexPosition = buffer.position();
+		final int rowLengthPosition = indexPosition + (numberOfVariables * 4) + 4;
+		final int edgePosition = rowLengthPosition + (featureGraph.getSize() * 4);
+
+		assertCorrupt(format, content, 16, Integer.MAX_VALUE);
+		assertCorrupt(format, content, 16, -1);
+		assertCorrupt(format, content, 20, Integer.MAX_VALUE);
+		assertCorrupt(format, content, 20, -1);
+		assertCorrupt(format, content, indexPosition, numberOfVariables);
+		assertCorrupt(format, content, indexPosition, featureGraph.getSize());
+		assertCorrupt(format, content, indexPosition, buffer.getInt(indexPosition + 4));
+		assertCorrupt(format, content, rowLengthPosition, Integer.MAX_VALUE);
+		assertCorrupt(format, content, rowLengthPosition, -1);
+		assertCorrupt(format, content, edgePosition, featureGraph.getSize());
+		assertCorrupt(format, content, edgePosition, -1);
+	}
+
+}
@@ -0,0 +1,208 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent;
+import de.ovgu.featureide.fm.core.base.event.FeatureIDEEvent.EventType;
+import de.ovgu.featureide.fm.core.base.impl.FMFactoryManager;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.io.manager.AFileManager;
+import de.ovgu.featureide.fm.core.io.manager.FeatureModelManager;
+import de.ovgu.featureide.fm.core.io.xml.XmlFeatureModelFormat;
+
+/**
+ * Tests for {@link FeatureModelSnapshotFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TFeatureModelSnapshotFormat {
+
+	private static IFeatureModel createFeatureModel() {
+		return FMFactoryManager.getDefaultFactory().createFeatureModel();
+	}
+
+	private static IFeatureModel loadFeatureModel() {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final IFeature feature = fm.getFeature("Carbody");
+		feature.getProperty().setDescription("A description\nwith two lines");
+		feature.getCustomProperties().set("weight", Type.DOUBLE, 42.5);
+		feature.getCustomProperties().set("label", Type.STRING, "body");
+		fm.getProperty().addComment("A comment");
+		return fm;
+	}
+
+	private static void assertSameModel(IFeatureModel expected, IFeatureModel actual) {
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		assertEquals(format.write(expected), format.write(actual));
+		assertEquals(AdvancedNodeCreator.createRegularCNF(expected), actual.getAnalyser().getCnf());
+	}
+
+	@Test
+	public void testReadWriteFile() throws Exception {
+		final IFeatureModel fm = loadFeatureModel();
+		fm.getAnalyser().analyzeFeatureModel(null);
+		assertTrue(fm.getAnalyser().hasCurrentResults());
+		final byte[] hash = FeatureModelSnapshotFormat.getContentHash(new byte[] { 1, 2, 3 });
+
+		final Path path = Files.createTempFile("model", ".fms");
+		try {
+			assertFalse(FeatureModelSnapshotFormat.write(path, fm, hash).containsError());
+
+			final IFeatureModel readFm = createFeatureModel();
+			assertFalse(FeatureModelSnapshotFormat.read(path, readFm, hash).containsError());
+			assertSameModel(fm, readFm);
+			assertEquals(42.5, ((Double) readFm.getFeature("Carbody").getCustomProperties().get("weight")).doubleValue(), 0);
+			assertEquals("body", readFm.getFeature("Carbody").getCustomProperties().get("label"));
+
+			assertTrue(readFm.getAnalyser().hasCurrentResults());
+			assertEquals(fm.getAnalyser().valid(), readFm.getAnalyser().valid());
+			assertEquals(Functional.mapToList(fm.getAnalyser().getCachedCoreFeatures(), FeatureUtils.GET_FEATURE_NAME),
+					Functional.mapToList(readFm.getAnalyser().getCachedCoreFeatures(), FeatureUtils.GET_FEATURE_NAME));
+			assertEquals(Functional.mapToList(fm.getAnalyser().getCachedDeadFeatures(), FeatureUtils.GET_FEATURE_NAME),
+					Functional.mapToList(readFm.getAnalyser().getCachedDeadFeatures(), FeatureUtils.GET_FEATURE_NAME));
+
+			readFm.fireEvent(new FeatureIDEEvent(readFm, EventType.STRUCTURE_CHANGED));
+			assertFalse(readFm.getAnalyser().hasCurrentResults());
+
+			// a modification without an event also invalidates restored results
+			final IFeatureModel unseenFm = createFeatureModel();
+			unseenFm.getAnalyser().calculateIncrementally = true;
+			assertFalse(FeatureModelSnapshotFormat.read(path, unseenFm, hash).containsError());
+			assertTrue(unseenFm.getAnalyser().hasCurrentResults());
+			unseenFm.removeConstraint(unseenFm.getConstraints().get(0));
+			assertFalse(unseenFm.getAnalyser().hasCurrentResults());
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testContentMismatch() throws Exception {
+		final Path path = Files.createTempFile("model", ".fms");
+		try {
+			FeatureModelSnapshotFormat.write(path, loadFeatureModel(), FeatureModelSnapshotFormat.getContentHash(new byte[] { 1, 2, 3 }));
+			final byte[] otherHash = FeatureModelSnapshotFormat.getContentHash(new byte[] { 1, 2, 4 });
+			assertTrue(FeatureModelSnapshotFormat.read(path, createFeatureModel(), otherHash).containsError());
+
+			Files.write(path, new byte[] { 1, 2, 3, 4, 5 });
+			assertTrue(FeatureModelSnapshotFormat.read(path, createFeatureModel(), null).containsError());
+
+			// a truncated snapshot does not change the feature model
+			FeatureModelSnapshotFormat.write(path, loadFeatureModel(), null);
+			final byte[] snapshot = Files.readAllBytes(path);
+			Files.write(path, Arrays.copyOf(snapshot, snapshot.length - 5));
+			final IFeatureModel otherFm = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+			final String expected = new XmlFeatureModelFormat().write(otherFm);
+			assertTrue(FeatureModelSnapshotFormat.read(path, otherFm, null).containsError());
+			assertEquals(expected, new XmlFeatureModelFormat().write(otherFm));
+		} finally {
+			Files.deleteIfExists(path);
+		}
+	}
+
+	@Test
+	public void testReadWriteString() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+
+		final FeatureModelSnapshotFormat format = new FeatureModelSnapshotFormat();
+		final IFeatureModel readFm = createFeatureModel();
+		assertFalse(format.read(readFm, format.write(fm)).containsError());
+		assertSameModel(fm, readFm);
+		assertFalse(readFm.getAnalyser().hasCurrentResults());
+	}
+
+	@Test
+	public void testCachedCnf() throws Exception {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("car.xml");
+		final FeatureModelSnapshotFormat format = new FeatureModelSnapshotFormat();
+
+		// the formula is not created just to store it
+		assertNull(fm.getAnalyser().getCachedCnf());
+		final IFeatureModel readFm = createFeatureModel();
+		assertFalse(format.read(readFm, format.write(fm)).containsError());
+		assertNull(fm.getAnalyser().getCachedCnf());
+		assertNull(readFm.getAnalyser().getCachedCnf());
+
+		final IFeatureModel readCnfFm = createFeatureModel();
+		fm.getAnalyser().getCnf();
+		assertFalse(format.read(readCnfFm, format.write(fm)).containsError());
+		assertEquals(fm.getAnalyser().getCnf(), readCnfFm.getAnalyser().getCachedCnf());
+	}
+
+	@Test
+	public void testFeatureModelManager() throws Exception {
+		final Path directory = Files.createTempDirectory("snapshot");
+		final Path path = directory.resolve("model.xml");
+		final Path snapshotPath = AFileManager.constructExtraPath(path, new FeatureModelSnapshotFormat());
+		try {
+			final IFeatureModel fm = loadFeatureModel();
+			Files.write(path, new XmlFeatureModelFormat().write(fm).getBytes(Charset.forName("UTF-8")));
+
+			final FeatureModelManager manager = FeatureModelManager.getInstance(path);
+			assertNotNull(manager);
+			assertTrue(Files.exists(snapshotPath));
+			manager.editObject().getAnalyser().analyzeFeatureModel(null);
+			manager.dispose();
+
+			final FeatureModelManager cachedManager = FeatureModelManager.getInstance(path);
+			assertNotNull(cachedManager);
+			assertTrue(cachedManager.getLastProblems().isEmpty());
+			assertTrue(cachedManager.editObject().getAnalyser().hasCurrentResults());
+			assertSameModel(fm, cachedManager.editObject());
+			cachedManager.dispose();
+
+			// a changed file is parsed again
+			fm.getFeature("Carbody").getStructure().setAbstract(true);
+			Files.write(path, new XmlFeatureModelFormat().write(fm).getBytes(Charset.forName("UTF-8")));
+			final FeatureModelManager changedManager = FeatureModelManager.getInstance(path);
+			assertNotNull(changedManager);
+			assertFalse(changedManager.editObject().getAnalyser().hasCurrentResults());
+			assertSameModel(fm, changedManager.editObject());
+			changedManager.dispose();
+		} finally {
+			Files.deleteIfExists(snapshotPath);
+			Files.deleteIfExists(snapshotPath.getParent());
+			Files.deleteIfExists(snapshotPath.getParent().getParent());
+			Files.deleteIfExists(path);
+			Files.deleteIfExists(directory);
+		}
+	}
+
+}
@@ -0,0 +1,139 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.StringReader;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.IPropertyContainer.Type;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Tests the streaming reader of {@link XmlFeatureModelFormat}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TXmlFeatureModelStreamReader {
+
+	private static final String MODEL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+		+ "<featureModel>\n" //
+		+ "	<properties>\n" //
+		+ "		<feature name=\"B\">\n" //
+		+ "			<property data-type=\"INT\" key=\"cost\" value=\"5\"/>\n" //
+		+ "		</feature>\n" //
+		+ "	</properties>\n" //
+		+ "	<constraints>\n" //
+		+ "		<rule>\n" //
+		+ "			<description>\n" //
+		+ "				B needs C\n" //
+		+ "			</description>\n" //
+		+ "			<imp><var>B</var><not><var>C</var></not></imp>\n" //
+		+ "		</rule>\n" //
+		+ "	</constraints>\n" //
+		+ "	<struct>\n" //
+		+ "		<and abstract=\"true\" mandatory=\"true\" name=\"Root\">\n" //
+		+ "			<description>\n" //
+		+ "				The root\n" //
+		+ "			</description>\n" //
+		+ "			<alt name=\"A\">\n" //
+		+ "				<feature name=\"B\"/>\n" //
+		+ "				<feature hidden=\"true\" name=\"C\"/>\n" //
+		+ "			</alt>\n" //
+		+ "		</and>\n" //
+		+ "	</struct>\n" //
+		+ "	<comments>\n" //
+		+ "		<c>a comment</c>\n" //
+		+ "	</comments>\n" //
+		+ "	<featureOrder userDefined=\"true\">\n" //
+		+ "		<feature name=\"C\"/>\n" //
+		+ "		<feature name=\"B\"/>\n" //
+		+ "	</featureOrder>\n" //
+		+ "</featureModel>\n";
+
+	private static ProblemList read(IFeatureModel fm, String source) {
+		return new XmlFeatureModelFormat().getInstance().read(fm, new StringReader(source));
+	}
+
+	@Test
+	public void testRead() {
+		final IFeatureModel fm = new FeatureModel("");
+		final ProblemList problems = read(fm, MODEL);
+		assertFalse(problems.toString(), problems.containsError());
+
+		assertEquals("Root", fm.getStructure().getRoot().getFeature().getName());
+		assertEquals("The root", fm.getStructure().getRoot().getFeature().getProperty().getDescription());
+		final IFeature a = fm.getFeature("A");
+		assertNotNull(a);
+		assertTrue(a.getStructure().isAlternative());
+		assertTrue(fm.getFeature("C").getStructure().isHidden());
+		assertEquals(4, fm.getNumberOfFeatures());
+
+		assertEquals(1, fm.getConstraintCount());
+		assertEquals("B needs C", fm.getConstraints().get(0).getDescription());
+		assertEquals("B => -C", fm.getConstraints().get(0).getNode().toString());
+
+		assertEquals("a comment", fm.getProperty().getComments().iterator().next());
+		assertTrue(fm.isFeatureOrderUserDefined());
+		assertEquals("C", fm.getFeatureOrderList().get(0));
+		assertEquals("B", fm.getFeatureOrderList().get(1));
+		assertEquals(Type.INT, fm.getFeature("B").getCustomProperties().getDataType("cost"));
+
+		final IFeatureModel fmFromString = new FeatureModel("");
+		new XmlFeatureModelFormat().getInstance().read(fmFromString, MODEL);
+		assertEquals(new XmlFeatureModelFormat().write(fmFromString), new XmlFeatureModelFormat().write(fm));
+	}
+
+	@Test
+	public void testErrorLine() {
+		final ProblemList problems = read(new FeatureModel(""), MODEL.replace("<feature hidden=\"true\" name=\"C\"/>", "<feature color=\"red\" name=\"C\"/>"));
+		assertTrue(problems.containsError());
+		final Problem problem = problems.getErrors().get(0);
+		assertEquals(23, problem.line);
+	}
+
+	@Test
+	public void testUnknownFeature() {
+		final ProblemList problems = read(new FeatureModel(""), MODEL.replace("<var>C</var>", "<var>D</var>"));
+		assertTrue(problems.containsError());
+		assertEquals(13, problems.getErrors().get(0).line);
+	}
+
+	@Test
+	public void testMalformed() {
+		final ProblemList problems = read(new FeatureModel(""), MODEL.replace("</alt>", ""));
+		assertTrue(problems.containsError());
+		final Problem problem = problems.getErrors().get(0);
+		assertEquals(25, problem.line);
+		assertFalse(problem.message, problem.message.startsWith("ParseError"));
+		assertTrue(problem.message, problem.message.contains("\"alt\""));
+	}
+
+}
@@ -0,0 +1,206 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.io.xml;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.junit.Test;
+import org.w3c.dom.Document;
+
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
+import de.ovgu.featureide.fm.core.configuration.Configuration;
+import de.ovgu.featureide.fm.core.configuration.Selection;
+import de.ovgu.featureide.fm.core.configuration.XMLConfFormat;
+import de.ovgu.featureide.fm.core.io.Problem;
+import de.ovgu.featureide.fm.core.io.ProblemList;
+
+/**
+ * Tests the streaming writer of {@link XmlFeatureModelFormat} and {@link XMLConfFormat}. The expected output is the one of the former DOM based writer.
+ *
+ * @author FeatureIDE Team
+ */
+public class TXmlFeatureModelStreamWriter {
+
+	private static final String MODEL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+		+ "<featureModel>\n" //
+		+ "    <properties>\n" //
+		+ "        <feature name=\"B\">\n" //
+		+ "            <property data-type=\"INT\" key=\"cost\" value=\"5\"/>\n" //
+		+ "        </feature>\n" //
+		+ "        <feature name=\"C\">\n" //
+		+ "            <property data-type=\"STRING\" key=\"k&quot;&lt;\" value=\"v&#10;&#9;&amp;'&lt;&gt;&quot;\"/>\n" //
+		+ "        </feature>\n" //
+		+ "    </properties>\n" //
+		+ "    <struct>\n" //
+		+ "        <and abstract=\"true\" mandatory=\"true\" name=\"Root\">\n" //
+		+ "            <description>\n" //
+		+ "The root\n" //
+		+ "</description>\n" //
+		+ "            <alt name=\"A\">\n" //
+		+ "                <feature name=\"B\">\n" //
+		+ "                    <description>\n" //
+		+ "multi\n" //
+		+ "  line &lt;x&gt; &amp; é\n" //
+		+ "</description>\n" //
+		+ "                </feature>\n" //
+		+ "                <feature hidden=\"true\" name=\"C\"/>\n" //
+		+ "            </alt>\n" //
+		+ "        </and>\n" //
+		+ "    </struct>\n" //
+		+ "    <constraints>\n" //
+		+ "        <rule>\n" //
+		+ "            <description>\n" //
+		+ "B needs C\n" //
+		+ "</description>\n" //
+		+ "            <imp>\n" //
+		+ "                <var>B</var>\n" //
+		+ "                <not>\n" //
+		+ "                    <var>C</var>\n" //
+		+ "                </not>\n" //
+		+ "            </imp>\n" //
+		+ "        </rule>\n" //
+		+ "    </constraints>\n" //
+		+ "    <calculations Auto=\"true\" Constraints=\"true\" Features=\"true\" Redundant=\"true\" Tautology=\"true\"/>\n" //
+		+ "    <comments>\n" //
+		+ "        <c>a comment</c>\n" //
+		+ "        <c/>\n" //
+		+ "        <c>a&lt;b &amp; \"c\" &gt;&#13;\n" //
+		+ "\td&#128;&#128512;</c>\n" //
+		+ "    </comments>\n" //
+		+ "    <featureOrder userDefined=\"true\">\n" //
+		+ "        <feature name=\"C\"/>\n" //
+		+ "        <feature name=\"B\"/>\n" //
+		+ "        <feature name=\"A\"/>\n" //
+		+ "    </featureOrder>\n" //
+		+ "</featureModel>\n";
+
+	private static final String CONFIGURATION = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+		+ "<configuration>\n" //
+		+ "    <feature automatic=\"selected\" name=\"Root\"/>\n" //
+		+ "    <feature manual=\"selected\" name=\"B\"/>\n" //
+		+ "</configuration>\n";
+
+	private static String withLineSeparators(String text) {
+		return text.replace("\n", System.lineSeparator());
+	}
+
+	private static IFeatureModel createModel() {
+		final IFeatureModel fm = new FeatureModel("");
+		final ProblemList problems = new XmlFeatureModelFormat().read(fm, new StringReader(MODEL));
+		assertFalse(problems.toString(), problems.containsError());
+		return fm;
+	}
+
+	@Test
+	public void testWriteFeatureModel() {
+		final IFeatureModel fm = createModel();
+		assertEquals(withLineSeparators(MODEL), new XmlFeatureModelFormat().write(fm));
+
+		fm.getFeature("B").getProperty().setDescription("multi\r\n  line <x> & é");
+		assertEquals(withLineSeparators(MODEL), new XmlFeatureModelFormat().write(fm));
+	}
+
+	@Test
+	public void testWriteStream() throws IOException {
+		final IFeatureModel fm = createModel();
+		final ByteArrayOutputStream out = new ByteArrayOutputStream();
+		new XmlFeatureModelFormat().write(fm, out);
+		assertArrayEquals(withLineSeparators(MODEL).getBytes(StandardCharsets.UTF_8), out.toByteArray());
+
+		final StringWriter writer = new StringWriter();
+		new XmlFeatureModelFormat().write(fm, writer);
+		assertEquals(withLineSeparators(MODEL), writer.toString());
+	}
+
+	@Test(expected = IOException.class)
+	public void testInvalidSurrogate() throws IOException {
+		final IFeatureModel fm = createModel();
+		fm.getProperty().addComment("\uD800");
+		new XmlFeatureModelFormat().write(fm, new StringWriter());
+	}
+
+	@Test
+	public void testWriteConfiguration() {
+		final Configuration configuration = new Configuration(createModel(), false);
+		configuration.setManual("B", Selection.SELECTED);
+		configuration.getSelectablefeature("Root").setAutomatic(Selection.SELECTED);
+		configuration.getSelectablefeature("B").setAutomatic(Selection.UNDEFINED);
+		assertEquals(withLineSeparators(CONFIGURATION), new XMLConfFormat().write(configuration));
+	}
+
+	@Test
+	public void testDocument() throws Exception {
+		final XmlFeatureModelFormat format = new XmlFeatureModelFormat();
+		format.object = createModel();
+		final Document doc = DocumentBuilderFactory.newInstance().newDocumentBuilder().newDocument();
+		format.writeDocument(doc);
+		assertEquals(XMLFeatureModelTags.FEATURE_MODEL, doc.getDocumentElement().getNodeName());
+
+		final IFeatureModel fm = new FeatureModel("");
+		format.object = fm;
+		final List<Problem> problems = new ArrayList<>();
+		format.readDocument(doc, problems);
+		assertEquals(withLineSeparators(MODEL), new XmlFeatureModelFormat().write(fm));
+	}
+
+	@Test
+	public void testNamespaces() throws XMLStreamException {
+		final StringWriter out = new StringWriter();
+		final XMLStreamWriter writer = new IndentingXMLStreamWriter(out);
+		writer.writeStartDocument();
+		writer.setPrefix("f", "urn:features");
+		writer.writeStartElement("urn:features", "model");
+		writer.writeNamespace("f", "urn:features");
+		writer.setDefaultNamespace("urn:default");
+		writer.writeEmptyElement("urn:default", "feature");
+		writer.writeAttribute("urn:features", "name", "A");
+		assertEquals("f", writer.getPrefix("urn:features"));
+		assertEquals("urn:features", writer.getNamespaceContext().getNamespaceURI("f"));
+		writer.writeEndElement();
+		assertEquals(null, writer.getPrefix("urn:default"));
+		writer.writeEndDocument();
+		assertEquals(withLineSeparators("<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"no\"?>\n" //
+			+ "<f:model xmlns:f=\"urn:features\">\n" //
+			+ "    <feature f:name=\"A\"/>\n" //
+			+ "</f:model>\n"), out.toString());
+	}
+
+	@Test(expected = XMLStreamException.class)
+	public void testUnboundNamespace() throws XMLStreamException {
+		new IndentingXMLStreamWriter(new StringWriter()).writeStartElement("urn:unbound", "model");
+	}
+
+}
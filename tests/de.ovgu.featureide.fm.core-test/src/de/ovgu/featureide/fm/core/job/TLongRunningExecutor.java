@@ -0,0 +1,223 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.fm.core.job;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+import de.ovgu.featureide.fm.core.job.IJob.JobStatus;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+
+/**
+ * Tests for {@link LongRunningExecutor}, {@link LongRunningTask}, and {@link JobSynchronizer}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TLongRunningExecutor {
+
+	private static LongRunningMethod<Integer> createMethod(final int id, final List<Integer> order, final CountDownLatch blocker) {
+		return new LongRunningMethod<Integer>() {
+
+			@Override
+			public Integer execute(IMonitor monitor) throws Exception {
+				if (blocker != null) {
+					blocker.await();
+				}
+				order.add(id);
+				return id;
+			}
+		};
+	}
+
+	private static void waitForStart(LongRunningExecutor executor) throws InterruptedException {
+		while (executor.getActiveCount() == 0) {
+			Thread.sleep(10);
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testPriorities() throws Exception {
+		final LongRunningExecutor executor = new LongRunningExecutor(1, Executors.defaultThreadFactory());
+		try {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final CountDownLatch blocker = new CountDownLatch(1);
+			final LongRunningTask<Integer> blockingTask = new LongRunningTask<>(executor, "", createMethod(0, order, blocker), null);
+			blockingTask.schedule();
+			waitForStart(executor);
+
+			final List<LongRunningTask<Integer>> tasks = new ArrayList<>();
+			final int[] priorities = { LongRunningExecutor.DECORATE, LongRunningExecutor.LONG, LongRunningExecutor.SHORT, LongRunningExecutor.LONG };
+			for (int i = 0; i < priorities.length; i++) {
+				final LongRunningTask<Integer> task = new LongRunningTask<>(executor, "", createMethod(i + 1, order, null), null);
+				task.setPriority(priorities[i]);
+				task.schedule();
+				tasks.add(task);
+			}
+			assertEquals(priorities.length, executor.getQueueSize());
+
+			blocker.countDown();
+			// joining a queued task would execute it in this thread, so wait for the worker instead
+			while (order.size() < 5) {
+				Thread.sleep(10);
+			}
+			for (final LongRunningTask<Integer> task : tasks) {
+				task.join();
+				assertEquals(JobStatus.OK, task.getStatus());
+			}
+			assertEquals(Integer.valueOf(1), tasks.get(0).getResults());
+			assertEquals(5, order.size());
+			assertEquals(0, order.get(0).intValue());
+			assertEquals(3, order.get(1).intValue());
+			assertEquals(2, order.get(2).intValue());
+			assertEquals(4, order.get(3).intValue());
+			assertEquals(1, order.get(4).intValue());
+			assertTrue(executor.getMaximumQueueLatency() > 0);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testInteractiveTaskNotBlocked() throws Exception {
+		final LongRunningExecutor executor = new LongRunningExecutor(1, Executors.defaultThreadFactory());
+		try {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final CountDownLatch blocker = new CountDownLatch(1);
+			final LongRunningTask<Integer> blockingTask = new LongRunningTask<>(executor, "", createMethod(0, order, blocker), null);
+			blockingTask.schedule();
+			waitForStart(executor);
+			final LongRunningTask<Integer> longTask = new LongRunningTask<>(executor, "", createMethod(1, order, null), null);
+			longTask.schedule();
+
+			// the only worker for non-interactive tasks is occupied
+			final LongRunningTask<Integer> interactiveTask = new LongRunningTask<>(executor, "", createMethod(2, order, null), null);
+			interactiveTask.setPriority(LongRunningExecutor.INTERACTIVE);
+			interactiveTask.schedule();
+			while (order.isEmpty()) {
+				Thread.sleep(10);
+			}
+			assertEquals(Collections.singletonList(2), order);
+			assertEquals(1, executor.getQueueSize());
+
+			blocker.countDown();
+			blockingTask.join();
+			while (order.size() < 3) {
+				Thread.sleep(10);
+			}
+			assertEquals(Arrays.asList(2, 0, 1), order);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testNestedJoin() throws Exception {
+		final LongRunningExecutor executor = new LongRunningExecutor(1, Executors.defaultThreadFactory());
+		try {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final LongRunningTask<Integer> outerTask = new LongRunningTask<>(executor, "", new LongRunningMethod<Integer>() {
+
+				@Override
+				public Integer execute(IMonitor monitor) throws Exception {
+					// the only worker is occupied, so the inner task is executed by this thread
+					final LongRunningTask<Integer> innerTask = new LongRunningTask<>(executor, "", createMethod(1, order, null), null);
+					innerTask.schedule();
+					innerTask.join();
+					return innerTask.getResults() + 1;
+				}
+			}, null);
+			outerTask.schedule();
+			outerTask.join();
+			assertEquals(JobStatus.OK, outerTask.getStatus());
+			assertEquals(Integer.valueOf(2), outerTask.getResults());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testCancelQueuedTask() throws Exception {
+		final LongRunningExecutor executor = new LongRunningExecutor(1, Executors.defaultThreadFactory());
+		try {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final CountDownLatch blocker = new CountDownLatch(1);
+			final LongRunningTask<Integer> blockingTask = new LongRunningTask<>(executor, "", createMethod(0, order, blocker), null);
+			blockingTask.schedule();
+			waitForStart(executor);
+			final LongRunningTask<Integer> task = new LongRunningTask<>(executor, "", createMethod(1, order, null), null);
+			task.schedule();
+
+			assertTrue(task.cancel());
+			assertEquals(JobStatus.FAILED, task.getStatus());
+			assertEquals(0, executor.getQueueSize());
+
+			blocker.countDown();
+			blockingTask.join();
+			task.join();
+			assertEquals(Collections.singletonList(0), order);
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(timeout = 10000)
+	public void testJobSynchronizer() throws Exception {
+		final LongRunningExecutor executor = new LongRunningExecutor(4, Executors.defaultThreadFactory());
+		try {
+			final List<Integer> order = Collections.synchronizedList(new ArrayList<Integer>());
+			final CountDownLatch blocker = new CountDownLatch(1);
+			final JobToken token = LongRunningWrapper.createToken(JobStartingStrategy.WAIT_ONE);
+
+			final List<LongRunningTask<Integer>> tasks = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				final LongRunningTask<Integer> task = new LongRunningTask<>(executor, "", createMethod(i, order, (i == 0) ? blocker : null), null);
+				LongRunningWrapper.startJob(token, task);
+				tasks.add(task);
+			}
+			// one job is running, one is waiting, and the others are discarded
+			assertEquals(1, LongRunningWrapper.getWaitingJobCount(token));
+			assertEquals(JobStatus.NOT_STARTED, tasks.get(2).getStatus());
+
+			blocker.countDown();
+			tasks.get(0).join();
+			while (tasks.get(1).getStatus() != JobStatus.OK) {
+				Thread.sleep(10);
+			}
+			assertEquals(0, LongRunningWrapper.getWaitingJobCount(token));
+			assertEquals(2, order.size());
+			assertEquals(0, order.get(0).intValue());
+			assertEquals(1, order.get(1).intValue());
+			assertEquals(JobStatus.NOT_STARTED, tasks.get(3).getStatus());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+}
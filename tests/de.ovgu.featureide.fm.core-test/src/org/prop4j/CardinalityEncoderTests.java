@@ -0,0 +1,157 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.base.impl.Feature;
+import de.ovgu.featureide.fm.core.base.impl.FeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+
+/**
+ * Tests for {@link CardinalityEncoder}.
+ *
+ * @author FeatureIDE Team
+ */
+public class CardinalityEncoderTests {
+
+	private static List<String> createVariables(int n) {
+		final List<String> variables = new ArrayList<>(n);
+		for (int i = 0; i < n; i++) {
+			variables.add("X" + i);
+		}
+		return variables;
+	}
+
+	private static BigInteger count(Node cnf, List<?> variables) throws TimeoutException {
+		return new DDNNFCompiler(new SatInstance(cnf, variables)).compile(null, 0).countModels();
+	}
+
+	private static BigInteger countExpected(int n, int min, int max) {
+		BigInteger sum = BigInteger.ZERO;
+		for (int i = Math.max(0, min); i <= Math.min(n, max); i++) {
+			sum = sum.add(BigInteger.valueOf(CardinalityEncoder.binomial(n, i)));
+		}
+		return sum;
+	}
+
+	@Test
+	public void testBinomial() {
+		assertEquals(1, CardinalityEncoder.binomial(5, 0));
+		assertEquals(10, CardinalityEncoder.binomial(5, 2));
+		assertEquals(0, CardinalityEncoder.binomial(5, 6));
+		assertEquals(118264581564861424L, CardinalityEncoder.binomial(60, 30));
+		assertEquals(Long.MAX_VALUE, CardinalityEncoder.binomial(200, 100));
+		assertEquals(Node.binom(30, 15), CardinalityEncoder.binomial(30, 15));
+	}
+
+	@Test
+	public void testBinomOverflow() {
+		// exceeds the range of int
+		assertEquals(2333606220L, Node.binom(34, 17));
+		// largest central binomial coefficient within the range of long
+		assertEquals(7219428434016265740L, Node.binom(66, 33));
+		assertEquals(Long.MAX_VALUE, Node.binom(67, 33));
+		assertEquals(Long.MAX_VALUE, Node.binom(1000, 500));
+	}
+
+	@Test
+	public void testUseCounter() {
+		assertFalse(CardinalityEncoder.useCounter(5, 0, 1, 16));
+		assertTrue(CardinalityEncoder.useCounter(200, 0, 1, 16));
+		assertTrue(CardinalityEncoder.useCounter(100, 10, 100, 16));
+		assertFalse(CardinalityEncoder.useCounter(100, 0, 100, 0));
+		assertFalse(CardinalityEncoder.useCounter(100, 50, 40, 0));
+	}
+
+	@Test
+	public void testCardinalityConstraints() throws TimeoutException {
+		for (int n = 1; n <= 7; n++) {
+			final List<String> variables = createVariables(n);
+			final Object[] children = variables.toArray();
+			for (int k = 0; k <= n; k++) {
+				assertEquals(countExpected(n, 0, k), count(new AtMost(k, children).toTseitinCNF(0), variables));
+				assertEquals(countExpected(n, k, n), count(new AtLeast(k, children).toTseitinCNF(0), variables));
+				assertEquals(countExpected(n, k, k), count(new Choose(k, children).toTseitinCNF(0), variables));
+			}
+		}
+	}
+
+	@Test
+	public void testNestedCardinalityConstraints() throws TimeoutException {
+		final List<String> variables = createVariables(8);
+		final Node formula = new Or(new Not(new AtMost(2, "X0", "X1", new And("X2", "X3"), "X4", "X5")), new Choose(3, "X4", "X5", "X6", "X7", "X0"));
+		assertEquals(count(formula.toRegularCNF(), variables), count(formula.toTseitinCNF(0), variables));
+	}
+
+	@Test
+	public void testWideCardinalityConstraint() throws TimeoutException {
+		final List<String> variables = createVariables(200);
+		final Node cnf = new AtMost(10, variables.toArray()).toTseitinCNF(AdvancedNodeCreator.DEFAULT_TSEITIN_THRESHOLD);
+		assertTrue(cnf.getChildren().length <= CardinalityEncoder.getCounterSize(200, 0, 10));
+
+		final List<String> smallVariables = createVariables(20);
+		final Node smallCNF = new Choose(3, smallVariables.toArray()).toTseitinCNF(AdvancedNodeCreator.DEFAULT_TSEITIN_THRESHOLD);
+		assertTrue(smallCNF.getChildren().length < CardinalityEncoder.getPairwiseSize(20, 3, 3));
+		assertEquals(countExpected(20, 3, 3), count(smallCNF, smallVariables));
+	}
+
+	@Test
+	public void testAlternativeGroup() throws TimeoutException {
+		final int n = 60;
+		final IFeatureModel fm = new FeatureModel("AlternativeTest");
+		final IFeature root = new Feature(fm, "Root");
+		fm.addFeature(root);
+		fm.getStructure().setRoot(root.getStructure());
+		final List<String> features = new ArrayList<>();
+		features.add(root.getName());
+		for (int i = 0; i < n; i++) {
+			final IFeature child = new Feature(fm, "Child" + i);
+			fm.addFeature(child);
+			root.getStructure().addChild(child.getStructure());
+			features.add(child.getName());
+		}
+		root.getStructure().changeToAlternative();
+
+		final Node regularCNF = AdvancedNodeCreator.createNodes(fm, Collections.<String> emptyList(), CNFType.Regular, ModelType.All, false);
+		final Node tseitinCNF = AdvancedNodeCreator.createNodes(fm, Collections.<String> emptyList(), CNFType.Tseitin, ModelType.All, false);
+		assertTrue(tseitinCNF.getChildren().length < (regularCNF.getChildren().length / 3));
+		assertEquals(BigInteger.valueOf(n), count(regularCNF, features));
+		assertEquals(BigInteger.valueOf(n), count(tseitinCNF, features));
+	}
+
+}
@@ -0,0 +1,108 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.solver.DDNNFCompiler;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+import de.ovgu.featureide.fm.core.functional.Functional;
+
+/**
+ * Tests for {@link Node#toTseitinCNF(int)}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TseitinCNFTests {
+
+	private static final List<String> VARIABLES = Arrays.asList("A", "B", "C", "D", "E", "F");
+
+	private static BigInteger count(Node cnf, List<?> variables) throws TimeoutException {
+		return new DDNNFCompiler(new SatInstance(cnf, variables)).compile(null, 0).countModels();
+	}
+
+	private static void assertEquivalentCount(Node formula) throws TimeoutException {
+		final BigInteger expected = count(formula.toRegularCNF(), VARIABLES);
+		for (int maxClauses = 0; maxClauses < 4; maxClauses++) {
+			final Node tseitinCNF = formula.toTseitinCNF(maxClauses);
+			assertTrue(tseitinCNF.isConjunctiveNormalForm());
+			assertEquals(expected, count(tseitinCNF, VARIABLES));
+		}
+	}
+
+	@Test
+	public void testDisjunctionOfConjunctions() throws TimeoutException {
+		assertEquivalentCount(new Or(new And("A", "B"), new And("C", "D"), new And("E", "F")));
+	}
+
+	@Test
+	public void testNestedOperators() throws TimeoutException {
+		assertEquivalentCount(new And(new Equals(new Or("A", "B"), new And("C", new Not("D"))), new Implies(new And("E", "F"), new Or("A", "C"))));
+		assertEquivalentCount(new Not(new Or(new And("A", new Or("B", "C")), new And("D", new Or("E", "F")))));
+	}
+
+	@Test
+	public void testAuxiliaryVariables() {
+		final Node tseitinCNF = new Or(new And("A", "B"), new And("C", "D"), new And("E", "F")).toTseitinCNF(1);
+		final SatInstance instance = new SatInstance(tseitinCNF, VARIABLES);
+		assertEquals(VARIABLES.size(), instance.getNumberOfFeatureVariables());
+		assertTrue(instance.getNumberOfVariables() > VARIABLES.size());
+		for (int i = 1; i <= instance.getNumberOfVariables(); i++) {
+			assertEquals(i > VARIABLES.size(), instance.isAuxiliaryVariable(i));
+		}
+		final int[] model = new int[instance.getNumberOfVariables()];
+		for (int i = 0; i < model.length; i++) {
+			model[i] = i + 1;
+		}
+		instance.clearAuxiliaryVariables(model);
+		assertEquals(VARIABLES, instance.convertToString(model));
+	}
+
+	@Test
+	public void testFeatureModel() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final List<String> features = Functional.mapToStringList(fm.getFeatures());
+		final List<String> excludedFeatures = Collections.singletonList(features.get(features.size() - 1));
+		final List<String> retainedFeatures = features.subList(0, features.size() - 1);
+
+		final Node regularCNF = AdvancedNodeCreator.createNodes(fm, excludedFeatures, CNFType.Regular, ModelType.All, false);
+		final AdvancedNodeCreator nodeCreator = new AdvancedNodeCreator(fm, excludedFeatures, CNFType.Tseitin, ModelType.All, false);
+		nodeCreator.setTseitinThreshold(1);
+		final Node tseitinCNF = nodeCreator.createNodes();
+
+		assertEquals(count(regularCNF, retainedFeatures), count(tseitinCNF, retainedFeatures));
+	}
+
+}
@@ -0,0 +1,179 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link EnumerateSolutionAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class EnumerateSolutionAnalysisTests {
+
+	private static SatInstance createInstance(String modelName) {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile(modelName);
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	private static int[] getVariables(int from, int to) {
+		final int[] variables = new int[(to - from) + 1];
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = from + i;
+		}
+		return variables;
+	}
+
+	private static List<int[]> enumerate(EnumerateSolutionAnalysis analysis, long expectedNumber) {
+		final List<int[]> solutions = new ArrayList<>();
+		final IMonitor monitor = new NullMonitor();
+		monitor.setIntermediateFunction(new IConsumer<Object>() {
+
+			@Override
+			public void invoke(Object solution) {
+				solutions.add((int[]) solution);
+			}
+		});
+		assertEquals(Long.valueOf(expectedNumber), LongRunningWrapper.runMethod(analysis, monitor));
+		assertEquals(expectedNumber, solutions.size());
+		return solutions;
+	}
+
+	private static Set<List<Integer>> toSet(List<int[]> solutions) {
+		final Set<List<Integer>> set = new HashSet<>();
+		for (final int[] solution : solutions) {
+			final List<Integer> list = new ArrayList<>(solution.length);
+			for (final int literal : solution) {
+				list.add(literal);
+			}
+			set.add(list);
+		}
+		return set;
+	}
+
+	private static void assertSatisfiable(SatInstance instance, List<int[]> solutions, int[] assumptions) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(instance);
+		for (final int[] solution : solutions) {
+			for (final int literal : assumptions) {
+				solver.assignmentPush(literal);
+			}
+			for (final int literal : solution) {
+				solver.assignmentPush(literal);
+			}
+			assertEquals(SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+	}
+
+	@Test
+	public void testAllSolutions() throws ContradictionException {
+		final SatInstance instance = createInstance("car.xml");
+		final long count = LongRunningWrapper.runMethod(new CountSolutionAnalysis(instance));
+		final int[] variables = getVariables(1, instance.getNumberOfVariables());
+
+		final List<int[]> solutions = enumerate(new EnumerateSolutionAnalysis(instance, variables, Long.MAX_VALUE), count);
+		assertEquals(count, toSet(solutions).size());
+		assertSatisfiable(instance, solutions, new int[0]);
+	}
+
+	@Test
+	public void testProjection() throws ContradictionException {
+		final SatInstance instance = createInstance("gpl_medium_model.xml");
+		final int[] allVariables = getVariables(1, instance.getNumberOfVariables());
+		final List<int[]> allSolutions = enumerate(new EnumerateSolutionAnalysis(instance, allVariables,
+				Long.MAX_VALUE), LongRunningWrapper.runMethod(new CountSolutionAnalysis(instance)));
+
+		final int[] variables = getVariables(instance.getNumberOfVariables() / 2, instance.getNumberOfVariables());
+		final Set<List<Integer>> projections = new HashSet<>();
+		for (final int[] solution : allSolutions) {
+			projections.addAll(toSet(Arrays.asList(Arrays.copyOfRange(solution, variables[0] - 1, instance.getNumberOfVariables()))));
+		}
+
+		final List<int[]> solutions = enumerate(new EnumerateSolutionAnalysis(instance, variables, Long.MAX_VALUE), projections.size());
+		assertEquals(projections, toSet(solutions));
+	}
+
+	@Test
+	public void testAssumptions() throws ContradictionException {
+		final SatInstance instance = createInstance("car.xml");
+		final int[] assumptions = { -instance.getVariable("Bluetooth") };
+		final CountSolutionAnalysis countAnalysis = new CountSolutionAnalysis(instance);
+		countAnalysis.setAssumptions(assumptions);
+		final long count = LongRunningWrapper.runMethod(countAnalysis);
+
+		final EnumerateSolutionAnalysis analysis = new EnumerateSolutionAnalysis(instance, getVariables(1, instance.getNumberOfVariables()), Long.MAX_VALUE);
+		analysis.setAssumptions(assumptions);
+		final List<int[]> solutions = enumerate(analysis, count);
+		assertSatisfiable(instance, solutions, assumptions);
+		for (final int[] solution : solutions) {
+			assertTrue(solution[instance.getVariable("Bluetooth") - 1] < 0);
+		}
+	}
+
+	@Test
+	public void testMaxNumber() {
+		final SatInstance instance = createInstance("gpl_medium_model.xml");
+		enumerate(new EnumerateSolutionAnalysis(instance, getVariables(1, instance.getNumberOfVariables()), 5), 5);
+		enumerate(new EnumerateSolutionAnalysis(instance, getVariables(1, instance.getNumberOfVariables()), 0), 0);
+	}
+
+	@Test
+	public void testCompletedVariables() throws ContradictionException {
+		// abstract root, optional A, hidden optional H, A => H
+		final And cnf = new And(new Literal("Root"), new Or(new Literal("A", false), new Literal("Root")), new Or(new Literal("H", false), new Literal("Root")),
+				new Or(new Literal("A", false), new Literal("H")));
+		final SatInstance instance = new SatInstance(cnf, Arrays.asList("Root", "A", "H"));
+		final int a = instance.getVariable("A");
+		final int h = instance.getVariable("H");
+
+		final EnumerateSolutionAnalysis analysis = new EnumerateSolutionAnalysis(instance, new int[] { a }, Long.MAX_VALUE);
+		analysis.setCompletedVariables(new int[] { h });
+		final List<int[]> solutions = enumerate(analysis, 2);
+		assertSatisfiable(instance, solutions, new int[0]);
+		assertEquals(new HashSet<>(Arrays.asList(Arrays.asList(a, h), Arrays.asList(-a, -h))), toSet(solutions));
+	}
+
+}
@@ -0,0 +1,85 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertNotNull;
+
+import org.junit.Test;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link ParallelCoreDeadAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class ParallelCoreDeadAnalysisTests {
+
+	private static SatInstance createInstance(IFeatureModel fm) {
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	private static void assertSameResult(SatInstance instance, int[] assumptions) {
+		final CoreDeadAnalysis sequentialAnalysis = new CoreDeadAnalysis(instance);
+		sequentialAnalysis.setAssumptions(assumptions);
+		final int[] expected = LongRunningWrapper.runMethod(sequentialAnalysis);
+		assertNotNull(expected);
+
+		for (int threads = 1; threads <= 4; threads++) {
+			final ParallelCoreDeadAnalysis parallelAnalysis = new ParallelCoreDeadAnalysis(instance);
+			parallelAnalysis.setAssumptions(assumptions);
+			parallelAnalysis.setNumberOfThreads(threads);
+			assertArrayEquals(expected, LongRunningWrapper.runMethod(parallelAnalysis));
+		}
+	}
+
+	private static void assertSameResult(IFeatureModel fm) {
+		final SatInstance instance = createInstance(fm);
+		assertSameResult(instance, null);
+		for (int var = 1; var <= instance.getNumberOfVariables(); var += instance.getNumberOfVariables() / 7) {
+			assertSameResult(instance, new int[] { var });
+			assertSameResult(instance, new int[] { -var });
+		}
+	}
+
+	@Test
+	public void testBerkeleyDB() {
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+	}
+
+	@Test
+	public void testGeneratedModels() {
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("200-100.xml"));
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("500-101.xml"));
+	}
+
+	@Test
+	public void testSmallModel() {
+		assertSameResult(Commons.loadTestFeatureModelFromFile("car.xml"));
+	}
+
+}
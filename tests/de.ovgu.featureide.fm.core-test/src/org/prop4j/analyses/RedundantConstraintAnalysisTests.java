@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.solver.SatInstance;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IConstraint;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.ModelType;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link RedundantConstraintAnalysis}.
+ *
+ * @author FeatureIDE Team
+ */
+public class RedundantConstraintAnalysisTests {
+
+	private static SatInstance createStructureInstance(IFeatureModel fm) {
+		final Node structure = AdvancedNodeCreator.createNodes(fm, Collections.<String> emptyList(), CNFType.Regular, ModelType.OnlyStructure, false);
+		return new SatInstance(structure, FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	private static int[] analyze(SatInstance instance, List<Node> constraints, int threads) {
+		final RedundantConstraintAnalysis analysis = new RedundantConstraintAnalysis(instance, constraints);
+		analysis.setNumberOfThreads(threads);
+		final int[] result = LongRunningWrapper.runMethod(analysis);
+		assertNotNull(result);
+		return result;
+	}
+
+	private static void assertSameResult(IFeatureModel fm) {
+		final List<Node> constraints = new ArrayList<>();
+		for (final IConstraint constraint : fm.getConstraints()) {
+			constraints.add(constraint.getNode().toRegularCNF());
+		}
+		// duplicates are mutually redundant
+		for (final IConstraint constraint : fm.getConstraints()) {
+			constraints.add(constraint.getNode().toRegularCNF());
+		}
+
+		final SatInstance instance = createStructureInstance(fm);
+		final int[] expected = analyze(instance, constraints, 1);
+		for (int threads = 2; threads <= 4; threads++) {
+			assertArrayEquals(expected, analyze(instance, constraints, threads));
+		}
+	}
+
+	@Test
+	public void testBerkeleyDB() {
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml"));
+	}
+
+	@Test
+	public void testGeneratedModels() {
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("500-101.xml"));
+		assertSameResult(Commons.loadBenchmarkFeatureModelFromFile("1000-100.xml"));
+	}
+
+	@Test
+	public void testMutuallyRedundantConstraints() {
+		final IFeatureModel fm = Commons.loadBenchmarkFeatureModelFromFile("berkeley_db_model.xml");
+		final List<String> names = FeatureUtils.getFeatureNamesPreorder(fm);
+		final Node constraint = new Implies(new Literal(names.get(names.size() - 1)), new Literal(names.get(names.size() - 2))).toRegularCNF();
+		final List<Node> constraints = new ArrayList<>();
+		for (int i = 0; i < 64; i++) {
+			constraints.add(constraint.clone());
+		}
+
+		final SatInstance instance = createStructureInstance(fm);
+		for (int threads = 1; threads <= 4; threads++) {
+			final int[] redundant = analyze(instance, constraints, threads);
+			// all but the last copy are redundant
+			assertEquals(constraints.size() - 1, redundant.length);
+			for (int i = 0; i < redundant.length; i++) {
+				assertEquals(i, redundant[i]);
+			}
+		}
+	}
+
+}
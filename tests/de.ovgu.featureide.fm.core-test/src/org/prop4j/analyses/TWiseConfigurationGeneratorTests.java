@@ -0,0 +1,208 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.analyses;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Or;
+import org.prop4j.solver.BasicSolver;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.prop4j.solver.SatInstance;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional.IConsumer;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+import de.ovgu.featureide.fm.core.job.monitor.IMonitor;
+import de.ovgu.featureide.fm.core.job.monitor.NullMonitor;
+
+/**
+ * Tests for {@link TWiseConfigurationGenerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TWiseConfigurationGeneratorTests {
+
+	private static SatInstance createInstance(String modelName) {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile(modelName);
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	private static List<int[]> toModels(SatInstance instance, List<List<String>> configurations) {
+		final List<int[]> models = new ArrayList<>(configurations.size());
+		for (final List<String> configuration : configurations) {
+			final HashSet<String> selected = new HashSet<>(configuration);
+			final int[] model = new int[instance.getNumberOfVariables()];
+			for (int var = 1; var <= model.length; var++) {
+				model[var - 1] = selected.contains(instance.getVariableObject(var)) ? var : -var;
+			}
+			models.add(model);
+		}
+		return models;
+	}
+
+	private static void assertValid(SatInstance instance, List<int[]> models) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(instance);
+		for (final int[] model : models) {
+			for (final int literal : model) {
+				solver.assignmentPush(literal);
+			}
+			assertEquals(SatResult.TRUE, solver.isSatisfiable());
+			solver.assignmentClear(0);
+		}
+	}
+
+	private static boolean isCovered(List<int[]> models, int[] literals) {
+		modelLoop: for (final int[] model : models) {
+			for (final int literal : literals) {
+				if (model[Math.abs(literal) - 1] != literal) {
+					continue modelLoop;
+				}
+			}
+			return true;
+		}
+		return false;
+	}
+
+	private static void assertCovered(SatInstance instance, List<int[]> models, int[] literals, int index, int start, BasicSolver solver) {
+		if (index == literals.length) {
+			if (!isCovered(models, literals)) {
+				for (final int literal : literals) {
+					solver.assignmentPush(literal);
+				}
+				assertEquals(SatResult.FALSE, solver.isSatisfiable());
+				solver.assignmentClear(0);
+			}
+		} else {
+			for (int var = start; var <= instance.getNumberOfVariables(); var++) {
+				literals[index] = var;
+				assertCovered(instance, models, literals, index + 1, var + 1, solver);
+				literals[index] = -var;
+				assertCovered(instance, models, literals, index + 1, var + 1, solver);
+			}
+		}
+	}
+
+	private static void assertCoveringArray(String modelName, int t) throws ContradictionException {
+		final SatInstance instance = createInstance(modelName);
+		final List<List<String>> streamedConfigurations = new ArrayList<>();
+		final IMonitor monitor = new NullMonitor();
+		monitor.setIntermediateFunction(new IConsumer<Object>() {
+
+			@SuppressWarnings("unchecked")
+			@Override
+			public void invoke(Object configuration) {
+				streamedConfigurations.add((List<String>) configuration);
+			}
+		});
+
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(instance, t, Integer.MAX_VALUE), monitor);
+		assertNotNull(configurations);
+		assertFalse(configurations.isEmpty());
+		assertEquals(configurations, streamedConfigurations);
+
+		final List<int[]> models = toModels(instance, configurations);
+		assertValid(instance, models);
+		assertCovered(instance, models, new int[t], 0, 1, new BasicSolver(instance));
+	}
+
+	@Test
+	public void testOneWise() throws ContradictionException {
+		assertCoveringArray("car.xml", 1);
+	}
+
+	@Test
+	public void testPairWise() throws ContradictionException {
+		assertCoveringArray("car.xml", 2);
+		assertCoveringArray("gpl_medium_model.xml", 2);
+	}
+
+	@Test
+	public void testThreeWise() throws ContradictionException {
+		assertCoveringArray("car.xml", 3);
+		assertCoveringArray("gpl_medium_model.xml", 3);
+	}
+
+	@Test
+	public void testFourWise() throws ContradictionException {
+		assertCoveringArray("car.xml", 4);
+	}
+
+	@Test
+	public void testMaxNumber() {
+		final SatInstance instance = createInstance("gpl_medium_model.xml");
+		final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(instance, 3, 5));
+		assertEquals(5, configurations.size());
+	}
+
+	@Test
+	public void testFixedVariables() {
+		// all variables are core or dead
+		final And cnf = new And(new Literal("Root"), new Or(new Literal("A")), new Or(new Literal("B", false)));
+		final SatInstance instance = new SatInstance(cnf, Arrays.asList("Root", "A", "B"));
+		for (int t = 1; t <= 3; t++) {
+			final List<List<String>> configurations = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(instance, t, Integer.MAX_VALUE));
+			assertEquals(1, configurations.size());
+			assertEquals(new HashSet<>(Arrays.asList("Root", "A")), new HashSet<>(configurations.get(0)));
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testInvalidT() {
+		new TWiseConfigurationGenerator(createInstance("car.xml"), TWiseConfigurationGenerator.MAX_T + 1, 10);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testTooManyInteractions() throws Exception {
+		// none of the variables is core or dead
+		final List<String> names = new ArrayList<>();
+		final Literal[] literals = new Literal[5000];
+		for (int i = 0; i < literals.length; i++) {
+			names.add("F" + i);
+			literals[i] = new Literal("F" + i);
+		}
+		final SatInstance instance = new SatInstance(new And(new Or(literals)), names);
+		new TWiseConfigurationGenerator(instance, TWiseConfigurationGenerator.MAX_T, 10).execute(new NullMonitor());
+	}
+
+	@Test
+	public void testSampleSize() {
+		final SatInstance instance = createInstance("gpl_medium_model.xml");
+		final List<List<String>> pairWise = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(instance, 2, Integer.MAX_VALUE));
+		final List<List<String>> threeWise = LongRunningWrapper.runMethod(new TWiseConfigurationGenerator(instance, 3, Integer.MAX_VALUE));
+		assertTrue(pairWise.size() <= threeWise.size());
+	}
+
+}
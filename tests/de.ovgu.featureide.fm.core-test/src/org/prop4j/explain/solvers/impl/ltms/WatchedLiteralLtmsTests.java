@@ -0,0 +1,161 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.ltms;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.Test;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.prop4j.explain.solvers.MusExtractor;
+import org.prop4j.explain.solvers.SatSolver;
+import org.prop4j.explain.solvers.impl.sat4j.Sat4jSatSolverFactory;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeature;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator.CNFType;
+import de.ovgu.featureide.fm.core.editing.NodeCreator;
+
+/**
+ * Tests for {@link WatchedLiteralLtms}.
+ *
+ * @author FeatureIDE Team
+ */
+public class WatchedLiteralLtmsTests {
+
+	private static Node getCnf(IFeatureModel fm) {
+		final AdvancedNodeCreator nc = new AdvancedNodeCreator(fm);
+		nc.setIncludeBooleanValues(false);
+		nc.setCnfType(CNFType.Regular);
+		return nc.createNodes();
+	}
+
+	/**
+	 * Checks that both LTMS find a contradiction for the same premises and that each explanation of the watched-literal LTMS is a contradiction.
+	 */
+	private static void compare(MusExtractor expected, MusExtractor actual, Object variable, boolean value) {
+		expected.push();
+		actual.push();
+		try {
+			expected.addAssumption(variable, value);
+			actual.addAssumption(variable, value);
+			final List<Set<Integer>> expectedExplanations = expected.getAllMinimalUnsatisfiableSubsetIndexes();
+			final List<Set<Integer>> actualExplanations = actual.getAllMinimalUnsatisfiableSubsetIndexes();
+			assertEquals(variable + "=" + value, expectedExplanations.isEmpty(), actualExplanations.isEmpty());
+			for (final Set<Integer> explanation : actualExplanations) {
+				final SatSolver solver = new Sat4jSatSolverFactory().getSatSolver();
+				for (final Integer clause : explanation) {
+					solver.addFormula(actual.getClause(clause));
+				}
+				solver.addAssumption(variable, value);
+				assertFalse(variable + "=" + value, solver.isSatisfiable());
+			}
+		} finally {
+			expected.pop();
+			actual.pop();
+		}
+	}
+
+	private static void compare(String modelFile) {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile(modelFile);
+		final Node cnf = getCnf(fm);
+		final Ltms expected = new Ltms();
+		final WatchedLiteralLtms actual = new WatchedLiteralLtms();
+		expected.addFormula(cnf);
+		actual.addFormula(cnf);
+		for (final IFeature feature : fm.getFeatures()) {
+			final Object variable = NodeCreator.getVariable(feature);
+			compare(expected, actual, variable, true);
+			compare(expected, actual, variable, false);
+		}
+	}
+
+	@Test
+	public void testCar() {
+		compare("car.xml");
+	}
+
+	@Test
+	public void testBerkeley() {
+		compare("berkeley_db_model.xml");
+	}
+
+	@Test
+	public void testGpl() {
+		compare("gpl_medium_model.xml");
+	}
+
+	@Test
+	public void testExplanation() {
+		final WatchedLiteralLtms ltms = new WatchedLiteralLtms();
+		ltms.addFormula(new Or(new Literal("A", false), "B"));
+		ltms.addFormula(new Or(new Literal("B", false), "C"));
+		ltms.addFormula(new Or(new Literal("C", false), "D"));
+		ltms.addFormula(new Or(new Literal("A", false), new Literal("D", false)));
+		ltms.addAssumption("A", true);
+		final List<Set<Integer>> explanations = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertFalse(explanations.isEmpty());
+		for (final Set<Integer> explanation : explanations) {
+			assertEquals(4, explanation.size());
+		}
+	}
+
+	@Test
+	public void testPushPop() {
+		final WatchedLiteralLtms ltms = new WatchedLiteralLtms();
+		ltms.addFormula(new Or(new Literal("A", false), "B"));
+		ltms.addAssumption("A", true);
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+
+		ltms.push();
+		ltms.addFormula(new Or(new Literal("B", false)));
+		final List<Set<Integer>> explanations = ltms.getAllMinimalUnsatisfiableSubsetIndexes();
+		assertFalse(explanations.isEmpty());
+		for (final Set<Integer> explanation : explanations) {
+			assertEquals(2, explanation.size());
+		}
+		ltms.pop();
+
+		assertTrue(ltms.getAllMinimalUnsatisfiableSubsetIndexes().isEmpty());
+		assertEquals(Boolean.TRUE, ltms.getModel().get("B"));
+	}
+
+	@Test
+	public void testPremiseContradiction() {
+		final WatchedLiteralLtms ltms = new WatchedLiteralLtms();
+		ltms.addFormula(new Or("A", "B"));
+		ltms.addFormula(new Or("C"));
+		ltms.addAssumption("A", false);
+		ltms.addAssumption("B", false);
+		final List<Set<Integer>> explanations = new ArrayList<>(ltms.getAllMinimalUnsatisfiableSubsetIndexes());
+		assertEquals(1, explanations.size());
+		assertEquals(0, (int) explanations.get(0).iterator().next());
+	}
+}
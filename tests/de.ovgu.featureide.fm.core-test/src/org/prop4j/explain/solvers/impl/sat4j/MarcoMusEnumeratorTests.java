@@ -0,0 +1,133 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.explain.solvers.impl.sat4j;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Or;
+import org.sat4j.core.VecInt;
+import org.sat4j.specs.IVecInt;
+
+/**
+ * Tests for {@link MarcoMusEnumerator}.
+ *
+ * @author FeatureIDE Team
+ */
+public class MarcoMusEnumeratorTests {
+
+	/**
+	 * A, -A, B, -B, A | B
+	 */
+	private static List<IVecInt> getClauses() {
+		final List<IVecInt> clauses = new ArrayList<>();
+		clauses.add(new VecInt(new int[] { 1 }));
+		clauses.add(new VecInt(new int[] { -1 }));
+		clauses.add(new VecInt(new int[] { 2 }));
+		clauses.add(new VecInt(new int[] { -2 }));
+		clauses.add(new VecInt(new int[] { 1, 2 }));
+		return clauses;
+	}
+
+	private static Set<Integer> indexes(Integer... indexes) {
+		return new TreeSet<>(Arrays.asList(indexes));
+	}
+
+	@Test
+	public void testAllMuses() {
+		final List<Set<Integer>> muses = new MarcoMusEnumerator(getClauses(), 2, new VecInt(), 0, Integer.MAX_VALUE).toList();
+		final Set<Set<Integer>> expected = new HashSet<>();
+		expected.add(indexes(0, 1));
+		expected.add(indexes(2, 3));
+		expected.add(indexes(1, 3, 4));
+		assertEquals(expected.size(), muses.size());
+		assertEquals(expected, new HashSet<>(muses));
+	}
+
+	@Test
+	public void testAssumptions() {
+		final List<IVecInt> clauses = new ArrayList<>();
+		clauses.add(new VecInt(new int[] { 1, 2 }));
+		clauses.add(new VecInt(new int[] { -1 }));
+		clauses.add(new VecInt(new int[] { 2, 3 }));
+		final List<Set<Integer>> muses = new MarcoMusEnumerator(clauses, 3, new VecInt(new int[] { -2 }), 0, Integer.MAX_VALUE).toList();
+		assertEquals(Arrays.asList(indexes(0, 1)), muses);
+	}
+
+	@Test
+	public void testSatisfiable() {
+		final List<IVecInt> clauses = new ArrayList<>();
+		clauses.add(new VecInt(new int[] { 1, 2 }));
+		clauses.add(new VecInt(new int[] { -1 }));
+		final MarcoMusEnumerator enumerator = new MarcoMusEnumerator(clauses, 2, new VecInt(), 0, Integer.MAX_VALUE);
+		assertFalse(enumerator.hasNext());
+	}
+
+	@Test
+	public void testMaxCount() {
+		final MarcoMusEnumerator enumerator = new MarcoMusEnumerator(getClauses(), 2, new VecInt(), 0, 2);
+		assertTrue(enumerator.hasNext());
+		enumerator.next();
+		assertTrue(enumerator.hasNext());
+		enumerator.next();
+		assertFalse(enumerator.hasNext());
+	}
+
+	@Test
+	public void testExtractor() {
+		final Sat4jMusExtractor solver = new Sat4jMusExtractor();
+		solver.addFormula(new And(new Or("A"), new Or(new Literal("A", false)), new Or("B"), new Or(new Literal("B", false)), new Or("A", "B")));
+		final List<Set<Node>> muses = solver.getAllMinimalUnsatisfiableSubsets();
+		assertEquals(3, muses.size());
+		for (final Set<Node> mus : muses) {
+			assertUnsatisfiable(mus);
+			for (final Node clause : mus) {
+				final Set<Node> subset = new HashSet<>(mus);
+				subset.remove(clause);
+				assertSatisfiable(subset);
+			}
+		}
+	}
+
+	private static void assertUnsatisfiable(Set<Node> clauses) {
+		final Sat4jSatSolver solver = new Sat4jSatSolver();
+		solver.addFormulas(clauses);
+		assertFalse(solver.isSatisfiable());
+	}
+
+	private static void assertSatisfiable(Set<Node> clauses) {
+		final Sat4jSatSolver solver = new Sat4jSatSolver();
+		solver.addFormulas(clauses);
+		assertTrue(solver.isSatisfiable());
+	}
+}
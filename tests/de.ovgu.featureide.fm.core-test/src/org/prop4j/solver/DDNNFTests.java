@@ -0,0 +1,115 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+
+import java.math.BigInteger;
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.analyses.CountSolutionAnalysis;
+import org.prop4j.analyses.CountSolutionAnalysis.CountingMethod;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+import de.ovgu.featureide.fm.core.functional.Functional;
+import de.ovgu.featureide.fm.core.job.LongRunningWrapper;
+
+/**
+ * Tests for {@link DDNNFCompiler} and {@link DDNNF}.
+ *
+ * @author FeatureIDE Team
+ */
+public class DDNNFTests {
+
+	private static SatInstance createInstance(Node formula, String... variables) {
+		return new SatInstance(formula.toRegularCNF(), Arrays.asList(variables));
+	}
+
+	private static BigInteger count(SatInstance instance, int... assumptions) throws TimeoutException {
+		return new DDNNFCompiler(instance).compile(null, 0).countModels(assumptions);
+	}
+
+	private static long enumerate(SatInstance instance, int... assumptions) {
+		final CountSolutionAnalysis analysis = new CountSolutionAnalysis(instance, 60000, CountingMethod.ENUMERATION);
+		analysis.setAssumptions(assumptions);
+		final Long result = LongRunningWrapper.runMethod(analysis);
+		return result == null ? 0 : result;
+	}
+
+	@Test
+	public void testSimple() throws TimeoutException {
+		final SatInstance instance = createInstance(new And(new Implies("A", "B"), new Or("B", "C")), "A", "B", "C");
+		assertEquals(BigInteger.valueOf(5), count(instance));
+		assertEquals(BigInteger.valueOf(4), count(instance, 2));
+		assertEquals(BigInteger.valueOf(1), count(instance, -2));
+		assertEquals(BigInteger.ZERO, count(instance, 1, -2));
+	}
+
+	@Test
+	public void testFreeVariables() throws TimeoutException {
+		final SatInstance instance = createInstance(new Or("A", "B"), "A", "B", "C", "D");
+		assertEquals(BigInteger.valueOf(12), count(instance));
+		assertEquals(BigInteger.valueOf(6), count(instance, 3));
+		assertEquals(BigInteger.valueOf(3), count(instance, 3, 4));
+	}
+
+	@Test
+	public void testContradiction() throws TimeoutException {
+		final SatInstance instance = createInstance(new And(new Equals("A", "B"), "A", new Not("B")), "A", "B");
+		assertEquals(BigInteger.ZERO, count(instance));
+	}
+
+	@Test
+	public void testLargeCount() throws TimeoutException {
+		final String[] variables = new String[100];
+		for (int i = 0; i < variables.length; i++) {
+			variables[i] = "F" + i;
+		}
+		final SatInstance instance = createInstance(new Or(new Literal(variables[0]), new Literal(variables[1])), variables);
+		assertEquals(BigInteger.valueOf(3).shiftLeft(98), count(instance));
+	}
+
+	@Test
+	public void testFeatureModels() throws TimeoutException {
+		for (final String modelName : new String[] { "car.xml", "basic.xml", "gpl_medium_model.xml", "constraintDescriptionTest.xml" }) {
+			final IFeatureModel featureModel = Commons.loadTestFeatureModelFromFile(modelName);
+			final SatInstance instance = new SatInstance(AdvancedNodeCreator.createRegularCNF(featureModel),
+					Functional.mapToStringList(featureModel.getFeatures()));
+			assertEquals(modelName, BigInteger.valueOf(enumerate(instance)), count(instance));
+			for (int var = 1; var <= instance.getNumberOfVariables(); var++) {
+				assertEquals(modelName, BigInteger.valueOf(enumerate(instance, var)), count(instance, var));
+				assertEquals(modelName, BigInteger.valueOf(enumerate(instance, -var)), count(instance, -var));
+			}
+		}
+	}
+
+}
@@ -0,0 +1,124 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.prop4j.And;
+import org.prop4j.Equals;
+import org.prop4j.Implies;
+import org.prop4j.Literal;
+import org.prop4j.Node;
+import org.prop4j.Not;
+import org.prop4j.Or;
+import org.prop4j.SatSolver;
+import org.sat4j.specs.TimeoutException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests for {@link PresenceConditionSolver}.
+ *
+ * @author FeatureIDE Team
+ */
+public class PresenceConditionSolverTests {
+
+	private static Node createFormula(Random random, List<String> features, int depth) {
+		final int type = (depth == 0) ? 0 : random.nextInt(6);
+		switch (type) {
+		case 1:
+			return new Not(createFormula(random, features, depth - 1));
+		case 2:
+			return new And(createFormula(random, features, depth - 1), createFormula(random, features, depth - 1));
+		case 3:
+			return new Or(createFormula(random, features, depth - 1), createFormula(random, features, depth - 1));
+		case 4:
+			return new Implies(createFormula(random, features, depth - 1), createFormula(random, features, depth - 1));
+		case 5:
+			return new Equals(createFormula(random, features, depth - 1), createFormula(random, features, depth - 1));
+		default:
+			return new Literal(features.get(random.nextInt(features.size())), random.nextBoolean());
+		}
+	}
+
+	private static boolean isSatisfiable(Node formula) throws TimeoutException {
+		return new SatSolver(formula, 1000).isSatisfiable();
+	}
+
+	@Test
+	public void testCompareWithSatSolver() throws TimeoutException {
+		final IFeatureModel fm = Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml");
+		final Node featureModel = AdvancedNodeCreator.createNodes(fm);
+		final List<String> features = new ArrayList<>(FeatureUtils.getFeatureNamesList(fm));
+		features.add("UndefinedFeature");
+
+		final PresenceConditionSolver solver = new PresenceConditionSolver(featureModel, 1000);
+		final Random random = new Random(42);
+		for (int i = 0; i < 200; i++) {
+			final Node context = createFormula(random, features, 2);
+			final Node expression = createFormula(random, features, 3);
+			assertEquals(expression.toString(), isSatisfiable(expression), solver.isSatisfiable(Arrays.asList(expression), false));
+			assertEquals(expression.toString(), isSatisfiable(new Not(expression)),
+					solver.isSatisfiable(Arrays.asList(new Not(expression)), false));
+			assertEquals(expression.toString(), isSatisfiable(new And(featureModel, context, expression)),
+					solver.isSatisfiable(Arrays.asList(context, expression), true));
+			assertEquals(expression.toString(), isSatisfiable(new And(featureModel, context, new Not(expression))),
+					solver.isSatisfiable(Arrays.asList(context, new Not(expression)), true));
+		}
+	}
+
+	@Test
+	public void testReuseEncoding() throws TimeoutException {
+		final Node featureModel = new And(new Implies(new Literal("A"), new Literal("B")), new Literal("Root"));
+		final PresenceConditionSolver solver = new PresenceConditionSolver(featureModel, 1000);
+
+		assertTrue(solver.isSatisfiable(Collections.<Node> emptyList(), true));
+		final Node expression = new And(new Literal("A"), new Literal("B", false));
+		assertTrue(solver.isSatisfiable(Arrays.asList(expression), false));
+		assertFalse(solver.isSatisfiable(Arrays.asList(expression), true));
+
+		final int numberOfVariables = solver.getNumberOfVariables();
+		assertFalse(solver.isSatisfiable(Arrays.asList(new And(new Literal("B", false), new Literal("A"))), true));
+		assertTrue(solver.isSatisfiable(Arrays.asList(new Not(expression)), true));
+		assertEquals(numberOfVariables, solver.getNumberOfVariables());
+	}
+
+	@Test
+	public void testVoidFeatureModel() throws TimeoutException {
+		final Node featureModel = new And(new Literal("A"), new Literal("A", false));
+		final PresenceConditionSolver solver = new PresenceConditionSolver(featureModel, 1000);
+		assertFalse(solver.isSatisfiable(Collections.<Node> emptyList(), true));
+		assertTrue(solver.isSatisfiable(Arrays.asList(new Literal("A")), false));
+	}
+
+}
@@ -0,0 +1,113 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package org.prop4j.solver;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+import org.prop4j.solver.ISatSolver.SatResult;
+import org.sat4j.specs.ContradictionException;
+
+import de.ovgu.featureide.Commons;
+import de.ovgu.featureide.fm.core.base.FeatureUtils;
+import de.ovgu.featureide.fm.core.base.IFeatureModel;
+import de.ovgu.featureide.fm.core.editing.AdvancedNodeCreator;
+
+/**
+ * Tests for solvers that are created and cloned from the clause arena of a {@link SatInstance}.
+ *
+ * @author FeatureIDE Team
+ */
+public class SolverCloningTests {
+
+	private static SatInstance getSatInstance(IFeatureModel fm) {
+		return new SatInstance(AdvancedNodeCreator.createRegularCNF(fm), FeatureUtils.getFeatureNamesPreorder(fm));
+	}
+
+	/**
+	 * @return for each variable, whether it can be selected and whether it can be deselected
+	 */
+	private static SatResult[] getLiteralResults(BasicSolver solver) {
+		final int numberOfVariables = solver.getSatInstance().getNumberOfVariables();
+		final SatResult[] results = new SatResult[2 * numberOfVariables];
+		for (int var = 1; var <= numberOfVariables; var++) {
+			solver.assignmentPush(var);
+			results[(2 * var) - 2] = solver.isSatisfiable();
+			solver.assignmentReplaceLast(-var);
+			results[(2 * var) - 1] = solver.isSatisfiable();
+			solver.assignmentPop();
+		}
+		return results;
+	}
+
+	private static void assertEquivalentClone(SatInstance satInstance) throws ContradictionException {
+		final BasicSolver solver = new BasicSolver(satInstance);
+		final BasicSolver clone = solver.clone();
+		assertNotSame(solver, clone);
+		assertEquals(SatResult.TRUE, clone.isSatisfiable());
+		assertEquals(Arrays.asList(getLiteralResults(solver)), Arrays.asList(getLiteralResults(clone)));
+	}
+
+	@Test
+	public void testCloneIsEquivalent() throws ContradictionException {
+		assertEquivalentClone(getSatInstance(Commons.loadTestFeatureModelFromFile("car.xml")));
+		assertEquivalentClone(getSatInstance(Commons.loadTestFeatureModelFromFile("gpl_medium_model.xml")));
+		assertEquivalentClone(getSatInstance(Commons.loadBenchmarkFeatureModelFromFile("200-100.xml")));
+	}
+
+	@Test
+	public void testCloneCopiesAssignment() throws ContradictionException {
+		final SatInstance satInstance = getSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final int root = satInstance.getVariable("Car");
+		final BasicSolver solver = new BasicSolver(satInstance);
+		solver.assignmentPush(-root);
+		assertEquals(SatResult.FALSE, solver.isSatisfiable());
+
+		final BasicSolver clone = solver.clone();
+		assertEquals(1, clone.getAssignment().size());
+		assertEquals(-root, clone.getAssignment().get(0));
+		assertEquals(SatResult.FALSE, clone.isSatisfiable());
+
+		// the assignment of the clone is independent of the original solver
+		clone.assignmentPop();
+		assertEquals(SatResult.TRUE, clone.isSatisfiable());
+		assertEquals(SatResult.FALSE, solver.isSatisfiable());
+	}
+
+	@Test
+	public void testModifiableSolverClone() throws ContradictionException {
+		final SatInstance satInstance = getSatInstance(Commons.loadTestFeatureModelFromFile("car.xml"));
+		final int root = satInstance.getVariable("Car");
+		final ModifiableSolver solver = new ModifiableSolver(satInstance);
+		final ModifiableSolver clone = solver.clone();
+
+		// the clauses of the clone can be removed without affecting the original solver
+		clone.removeLastClauses(satInstance.getNumberOfClauses());
+		clone.assignmentPush(-root);
+		solver.assignmentPush(-root);
+		assertEquals(SatResult.TRUE, clone.isSatisfiable());
+		assertEquals(SatResult.FALSE, solver.isSatisfiable());
+	}
+
+}
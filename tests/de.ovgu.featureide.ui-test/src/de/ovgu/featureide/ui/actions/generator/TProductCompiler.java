@@ -0,0 +1,140 @@
+/* FeatureIDE - A Framework for Feature-Oriented Software Development
+ * Copyright (C) 2005-2017  FeatureIDE team, University of Magdeburg, Germany
+ *
+ * This file is part of FeatureIDE.
+ *
+ * FeatureIDE is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Lesser General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * FeatureIDE is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Lesser General Public License for more details.
+ *
+ * You should have received a copy of the GNU Lesser General Public License
+ * along with FeatureIDE.  If not, see <http://www.gnu.org/licenses/>.
+ *
+ * See http://featureide.cs.ovgu.de/ for further information.
+ */
+package de.ovgu.featureide.ui.actions.generator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.tools.ToolProvider;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Tests for {@link ProductCompiler}.
+ *
+ * @author FeatureIDE Team
+ */
+public class TProductCompiler {
+
+	private static final String A = "package p;\npublic class A { public static int get() { return B.X + C.get(); } }";
+	private static final String B1 = "package p;\npublic class B { public static final int X = 1; }";
+	private static final String B2 = "package p;\npublic class B { public static final int X = 2; }";
+	private static final String C1 = "package p;\nclass C { static int get() { return new Object() {}.hashCode() * 0; } }";
+	private static final String C2 = "package p;\nclass C { static int get() { return 10; } }";
+	private static final String D = "package q;\npublic class D { public static int get() { return 100; } }";
+
+	private File outputFolder;
+	private ProductCompiler compiler;
+
+	@Before
+	public void setUp() throws Exception {
+		outputFolder = Files.createTempDirectory("products").toFile();
+		compiler = new ProductCompiler(ToolProvider.getSystemJavaCompiler(), Arrays.asList("-g"), "", 1, 100);
+	}
+
+	@After
+	public void tearDown() {
+		delete(outputFolder);
+	}
+
+	private static void delete(File file) {
+		final File[] files = file.listFiles();
+		if (files != null) {
+			for (final File child : files) {
+				delete(child);
+			}
+		}
+		file.delete();
+	}
+
+	private static Map<String, String> createSources(String b, String c) {
+		final Map<String, String> sources = new LinkedHashMap<>();
+		sources.put("src/p/A.java", A);
+		sources.put("src/p/B.java", b);
+		sources.put("src/p/C.java", c);
+		sources.put("src/q/D.java", D);
+		return sources;
+	}
+
+	private int run(String className) throws Exception {
+		try (URLClassLoader classLoader = new URLClassLoader(new URL[] { outputFolder.toURI().toURL() }, null)) {
+			return (Integer) classLoader.loadClass(className).getMethod("get").invoke(null);
+		}
+	}
+
+	private List<CompilationProblem> compile(String product, Map<String, String> sources) throws Exception {
+		return compiler.compile(new File(outputFolder.getParentFile(), product), sources, outputFolder);
+	}
+
+	@Test
+	public void testReuseClassFiles() throws Exception {
+		assertTrue(compile("P1", createSources(B1, C1)).isEmpty());
+		assertEquals(4, compiler.getCompiledUnits());
+		assertEquals(1, run("p.A"));
+		assertEquals(100, run("q.D"));
+
+		// only the changed unit and the units referring to it are compiled
+		assertTrue(compile("P2", createSources(B1, C2)).isEmpty());
+		assertEquals(6, compiler.getCompiledUnits());
+		assertEquals(2, compiler.getCachedUnits());
+		assertEquals(11, run("p.A"));
+		assertEquals(100, run("q.D"));
+
+		// inlined constants are updated
+		assertTrue(compile("P3", createSources(B2, C2)).isEmpty());
+		assertEquals(8, compiler.getCompiledUnits());
+		assertEquals(12, run("p.A"));
+
+		// all class files are taken from the cache, including anonymous classes
+		assertTrue(compile("P4", createSources(B1, C1)).isEmpty());
+		assertEquals(8, compiler.getCompiledUnits());
+		assertEquals(1, run("p.A"));
+		assertTrue(new File(outputFolder, "p/C$1.class").exists());
+	}
+
+	@Test
+	public void testProblems() throws Exception {
+		final String erroneousC = "package p;\nclass C {\n static int get() { return 10 }\n}";
+		final List<CompilationProblem> problems = compile("P1", createSources(B1, erroneousC));
+		assertFalse(problems.isEmpty());
+		final CompilationProblem problem = problems.get(0);
+		assertEquals("src/p/C.java", problem.getPath());
+		assertEquals(3, problem.getLine());
+		assertTrue(problem.isError());
+
+		// erroneous products are not cached
+		assertEquals(problems.size(), compile("P2", createSources(B1, erroneousC)).size());
+		assertEquals(8, compiler.getCompiledUnits());
+	}
+
+}